@@ -23,24 +23,33 @@ CREATE TABLE IF NOT EXISTS users (
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- 创建博客正文表（正文与博客元数据分开存放，列表查询不读取正文）
+CREATE TABLE IF NOT EXISTS blog_content (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    content TEXT NOT NULL,
+    FULLTEXT idx_content (content)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- 创建博客表
 CREATE TABLE IF NOT EXISTS blogs (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     title VARCHAR(200) NOT NULL,
-    content TEXT NOT NULL,
+    content_id BIGINT NOT NULL UNIQUE,
     summary VARCHAR(500),
+    excerpt VARCHAR(210),
     view_count BIGINT NOT NULL DEFAULT 0,
     published BOOLEAN NOT NULL DEFAULT TRUE,
     author_id BIGINT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (content_id) REFERENCES blog_content(id),
     INDEX idx_title (title),
     INDEX idx_author_id (author_id),
     INDEX idx_published (published),
     INDEX idx_created_at (created_at),
     INDEX idx_view_count (view_count),
-    FULLTEXT idx_content (title, content, summary)
+    FULLTEXT idx_title_summary (title, summary)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- 创建标签表
@@ -76,6 +85,19 @@ CREATE TABLE IF NOT EXISTS comments (
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- 创建共享会话表（blog.session.store-type=jdbc 时使用）
+CREATE TABLE IF NOT EXISTS blog_sessions (
+    session_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    principal_name VARCHAR(100),
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INT NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    attributes MEDIUMBLOB,
+    INDEX idx_principal_name (principal_name),
+    INDEX idx_expiry_time (expiry_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- 插入示例数据
 -- 创建管理员用户 (密码: admin123)
 INSERT INTO users (username, email, password, display_name, enabled) VALUES 
@@ -91,17 +113,23 @@ INSERT INTO tags (name) VALUES
 ('前端开发'), ('JavaScript'), ('HTML'), ('CSS'), ('技术分享');
 
 -- 创建示例博客
-INSERT INTO blogs (title, content, summary, author_id, published, view_count) VALUES 
-('欢迎使用个人博客系统', 
- '这是一个基于Spring Boot开发的个人博客系统。\n\n## 主要功能\n\n- 用户注册和登录\n- 博客文章管理\n- 评论系统\n- 标签分类\n- 搜索功能\n\n## 技术栈\n\n- Spring Boot 2.7\n- Spring Security\n- Spring Data JPA\n- MySQL\n- Thymeleaf\n- Bootstrap\n\n感谢使用本系统！', 
+INSERT INTO blog_content (id, content) VALUES 
+(1, '这是一个基于Spring Boot开发的个人博客系统。\n\n## 主要功能\n\n- 用户注册和登录\n- 博客文章管理\n- 评论系统\n- 标签分类\n- 搜索功能\n\n## 技术栈\n\n- Spring Boot 2.7\n- Spring Security\n- Spring Data JPA\n- MySQL\n- Thymeleaf\n- Bootstrap\n\n感谢使用本系统！'),
+
+(2, '# Spring Boot 入门指南\n\nSpring Boot是一个基于Spring框架的快速开发框架...\n\n## 什么是Spring Boot\n\nSpring Boot是Spring团队提供的全新框架，其设计目的是用来简化新Spring应用的初始搭建以及开发过程。\n\n## 主要特性\n\n1. 创建独立的Spring应用程序\n2. 嵌入的Tomcat，无需部署WAR文件\n3. 简化Maven配置\n4. 自动配置Spring\n5. 提供生产就绪型功能\n\n## 快速开始\n\n```java\n@SpringBootApplication\npublic class Application {\n    public static void main(String[] args) {\n        SpringApplication.run(Application.class, args);\n    }\n}\n```');
+
+INSERT INTO blogs (title, content_id, summary, author_id, published, view_count) VALUES 
+('欢迎使用个人博客系统', 1, 
  '这是一个基于Spring Boot开发的个人博客系统，包含用户管理、博客管理、评论系统等功能。', 
  1, TRUE, 0),
 
-('Spring Boot 入门指南', 
- '# Spring Boot 入门指南\n\nSpring Boot是一个基于Spring框架的快速开发框架...\n\n## 什么是Spring Boot\n\nSpring Boot是Spring团队提供的全新框架，其设计目的是用来简化新Spring应用的初始搭建以及开发过程。\n\n## 主要特性\n\n1. 创建独立的Spring应用程序\n2. 嵌入的Tomcat，无需部署WAR文件\n3. 简化Maven配置\n4. 自动配置Spring\n5. 提供生产就绪型功能\n\n## 快速开始\n\n```java\n@SpringBootApplication\npublic class Application {\n    public static void main(String[] args) {\n        SpringApplication.run(Application.class, args);\n    }\n}\n```', 
+('Spring Boot 入门指南', 2, 
  'Spring Boot入门指南，介绍Spring Boot的基本概念和使用方法。', 
  1, TRUE, 0);
 
+UPDATE blogs b JOIN blog_content c ON c.id = b.content_id
+SET b.excerpt = IF(CHAR_LENGTH(c.content) > 200, CONCAT(LEFT(c.content, 200), '...'), c.content);
+
 -- 为博客添加标签
 INSERT INTO blog_tags (blog_id, tag_id) VALUES 
 (1, 1), (1, 2), (1, 3), (1, 4), (1, 5),
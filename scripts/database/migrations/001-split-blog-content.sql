@@ -0,0 +1,36 @@
+-- 将博客正文从blogs表拆分到blog_content表（MySQL）
+-- 适用于在此之前用 init.sql 创建的数据库，升级应用前执行一次。
+-- 迁移后列表、权限校验、评论等查询只读取blogs表，不再读取正文。
+
+USE personal_blog;
+
+-- 1. 创建正文表
+CREATE TABLE IF NOT EXISTS blog_content (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    content TEXT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 2. 增加正文引用和列表片段列
+ALTER TABLE blogs
+    ADD COLUMN content_id BIGINT NULL AFTER title,
+    ADD COLUMN excerpt VARCHAR(210) NULL AFTER summary;
+
+-- 3. 复制正文，沿用博客ID作为正文ID；保持updated_at不变
+INSERT INTO blog_content (id, content)
+SELECT id, content FROM blogs;
+
+UPDATE blogs
+SET content_id = id,
+    excerpt = IF(CHAR_LENGTH(content) > 200, CONCAT(LEFT(content, 200), '...'), content),
+    updated_at = updated_at;
+
+-- 4. 加约束并删除旧列
+ALTER TABLE blogs
+    DROP INDEX idx_content,
+    MODIFY content_id BIGINT NOT NULL,
+    ADD UNIQUE KEY uk_blogs_content_id (content_id),
+    ADD CONSTRAINT fk_blogs_content FOREIGN KEY (content_id) REFERENCES blog_content (id),
+    ADD FULLTEXT idx_title_summary (title, summary),
+    DROP COLUMN content;
+
+ALTER TABLE blog_content ADD FULLTEXT idx_content (content);
@@ -0,0 +1,184 @@
+package com.blog.backup;
+
+import com.blog.BlogApplication;
+import com.blog.service.BackupService;
+import com.blog.service.BackupTask;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * NDJSON导出导入基准测试
+ *
+ * 生成含100万篇博客的gzip导出文件（1000个用户、5000个标签、每篇1-5个标签和0-2条评论），
+ * 以演示配置启动应用（H2内存库）后通过BackupService导入，再完整导出一次，输出各阶段的耗时和吞吐。
+ * 导入走与管理后台相同的路径，每批提交后的博客创建事件由搜索、相关推荐等监听器处理，计入导入耗时。
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:java -Dbenchmark.main=com.blog.backup.NdjsonTransferBenchmark（MAVEN_OPTS=-Xmx6g）
+ * 可通过 -Dposts=、-Dbatch= 调整规模和批次大小。
+ */
+public class NdjsonTransferBenchmark {
+
+    private static final int USERS = 1_000;
+
+    private static final int TAGS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        int posts = Integer.getInteger("posts", 1_000_000);
+        int batchSize = Integer.getInteger("batch", 1_000);
+        Path directory = Files.createTempDirectory("ndjson-benchmark");
+        Path source = directory.resolve("source.ndjson.gz");
+
+        long start = System.nanoTime();
+        long comments = generate(source, posts);
+        System.out.printf("生成导出文件: %,d 篇博客，%,d 条评论，%,d KB，%,d ms%n",
+                posts, comments, Files.size(source) / 1024, millisSince(start));
+
+        ConfigurableApplicationContext context = SpringApplication.run(BlogApplication.class,
+                "--server.port=0",
+                "--blog.backup.path=" + directory,
+                "--blog.backup.batch-size=" + batchSize,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        try {
+            DataSource dataSource = context.getBean(DataSource.class);
+
+            BackupService backupService = context.getBean(BackupService.class);
+            start = System.nanoTime();
+            BackupTask task = backupService.importAsync(source.getFileName().toString());
+            while (!task.isFinished()) {
+                Thread.sleep(100);
+            }
+            long importMillis = millisSince(start);
+            if (task.getStatus() != BackupTask.Status.COMPLETED) {
+                throw new IllegalStateException("导入失败: " + task.getError());
+            }
+            TransferCounts imported = task.getCounts();
+            System.out.printf("导入: %s，%,d ms，%,.0f 篇博客/秒%n", imported, importMillis,
+                    imported.getBlogs() * 1000.0 / Math.max(1, importMillis));
+
+            TransferCounts exported = new TransferCounts();
+            Path target = directory.resolve("export.ndjson.gz");
+            start = System.nanoTime();
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 65536)) {
+                new NdjsonExporter(dataSource, 1_000).export(out, exported);
+            }
+            long exportMillis = millisSince(start);
+            System.out.printf("导出: %s，%,d KB，%,d ms，%,.0f 篇博客/秒%n", exported, Files.size(target) / 1024,
+                    exportMillis, exported.getBlogs() * 1000.0 / Math.max(1, exportMillis));
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 生成导出文件，返回评论数
+     */
+    private static long generate(Path file, int posts) throws IOException {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        long comments = 0;
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file), 65536);
+             JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.setRootValueSeparator(null);
+            json.writeStartObject();
+            json.writeStringField("type", "header");
+            json.writeStringField("format", NdjsonExporter.FORMAT);
+            json.writeNumberField("version", NdjsonExporter.VERSION);
+            endRecord(json);
+
+            for (int id = 1; id <= USERS; id++) {
+                json.writeStartObject();
+                json.writeStringField("type", "user");
+                json.writeNumberField("id", id);
+                json.writeStringField("username", "bench_user_" + id);
+                json.writeStringField("email", "bench_user_" + id + "@example.com");
+                json.writeStringField("password", "{noop}benchmark");
+                json.writeStringField("displayName", "测试用户" + id);
+                json.writeBooleanField("enabled", true);
+                json.writeStringField("createdAt", base.toString());
+                endRecord(json);
+            }
+            for (int id = 1; id <= TAGS; id++) {
+                json.writeStartObject();
+                json.writeStringField("type", "tag");
+                json.writeNumberField("id", id);
+                json.writeStringField("name", "bench-tag-" + id);
+                json.writeStringField("createdAt", base.toString());
+                endRecord(json);
+            }
+            for (int id = 1; id <= posts; id++) {
+                LocalDateTime created = base.plusMinutes(id);
+                json.writeStartObject();
+                json.writeStringField("type", "blog");
+                json.writeNumberField("id", id);
+                json.writeNumberField("authorId", 1 + random.nextInt(USERS));
+                json.writeStringField("title", "基准测试博客 " + id);
+                json.writeStringField("summary", "第 " + id + " 篇博客的摘要");
+                json.writeStringField("content", content(id, random));
+                json.writeBooleanField("published", random.nextInt(10) > 0);
+                json.writeNumberField("viewCount", random.nextInt(10_000));
+                json.writeStringField("createdAt", created.toString());
+                json.writeArrayFieldStart("tags");
+                int tagCount = 1 + random.nextInt(5);
+                for (int i = 0; i < tagCount; i++) {
+                    // 偏向小编号的标签，近似热门标签集中的分布
+                    int tag = 1 + (int) (TAGS * Math.pow(random.nextDouble(), 3));
+                    json.writeString("bench-tag-" + tag);
+                }
+                json.writeEndArray();
+                endRecord(json);
+            }
+            long commentId = 1;
+            for (int blogId = 1; blogId <= posts; blogId++) {
+                int count = random.nextInt(3);
+                for (int i = 0; i < count; i++) {
+                    json.writeStartObject();
+                    json.writeStringField("type", "comment");
+                    json.writeNumberField("id", commentId++);
+                    json.writeNumberField("blogId", blogId);
+                    json.writeNumberField("userId", 1 + random.nextInt(USERS));
+                    json.writeStringField("content", "评论 " + commentId + "：写得很好，学习了。");
+                    json.writeStringField("createdAt", base.plusMinutes(blogId + i + 1).toString());
+                    endRecord(json);
+                    comments++;
+                }
+            }
+            json.writeStartObject();
+            json.writeStringField("type", "end");
+            endRecord(json);
+        }
+        return comments;
+    }
+
+    private static String content(int id, Random random) {
+        StringBuilder content = new StringBuilder("# 第 ").append(id).append(" 篇\n\n");
+        int paragraphs = 2 + random.nextInt(4);
+        for (int i = 0; i < paragraphs; i++) {
+            content.append("这是用于导出导入基准测试的正文段落，The quick brown fox jumps over the lazy dog. ")
+                    .append(random.nextLong()).append("\n\n");
+        }
+        return content.toString();
+    }
+
+    private static void endRecord(JsonGenerator json) throws IOException {
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
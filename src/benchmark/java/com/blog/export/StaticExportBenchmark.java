@@ -0,0 +1,67 @@
+package com.blog.export;
+
+import com.blog.BlogApplication;
+import com.blog.dto.BlogDto;
+import com.blog.repository.UserRepository;
+import com.blog.service.BlogService;
+import com.blog.service.StaticExportService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * 静态站点导出基准测试
+ *
+ * 以演示配置启动应用（H2内存库），在演示数据之外再生成一批博客，
+ * 分别用1、2、4、8个线程全量导出，输出页面数、耗时和每秒页面数。
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:java -Dbenchmark.main=com.blog.export.StaticExportBenchmark
+ * 可通过 -Dposts= 调整额外生成的博客数量。
+ */
+public class StaticExportBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    public static void main(String[] args) throws Exception {
+        int posts = Integer.getInteger("posts", 2_000);
+        Path output = Files.createTempDirectory("static-export-benchmark");
+
+        ConfigurableApplicationContext context = SpringApplication.run(BlogApplication.class,
+                "--server.port=0",
+                "--blog.static-export.enabled=true",
+                "--blog.static-export.rebuild-on-startup=false",
+                "--blog.static-export.path=" + output);
+        try {
+            BlogService blogService = context.getBean(BlogService.class);
+            Long authorId = context.getBean(UserRepository.class).findAll().get(0).getId();
+            Random random = new Random(42);
+            for (int i = 1; i <= posts; i++) {
+                BlogDto blog = new BlogDto();
+                blog.setTitle("静态导出测试博客 " + i);
+                blog.setSummary("基准测试生成的博客摘要 " + i);
+                blog.setContent("# 标题 " + i + "\n\n静态站点导出基准测试正文。\n\n- 列表项一\n- 列表项二");
+                blog.setTags("tag" + random.nextInt(50) + ",tag" + random.nextInt(50));
+                blog.setPublished(true);
+                blogService.createBlog(blog, authorId);
+            }
+
+            StaticExportService exportService = context.getBean(StaticExportService.class);
+            // 预热模板缓存和JIT
+            exportService.rebuildAll(1);
+
+            System.out.println();
+            System.out.printf("输出目录: %s%n", output);
+            System.out.printf("%-8s %10s %10s %12s%n", "线程", "页面", "耗时(ms)", "页/秒");
+            for (int threads : THREADS) {
+                ExportStats stats = exportService.rebuildAll(threads);
+                System.out.printf("%-8d %10d %10d %12.1f%n", stats.getThreads(), stats.getPages(),
+                        stats.getElapsedMillis(), stats.getPagesPerSecond());
+            }
+        } finally {
+            context.close();
+        }
+    }
+}
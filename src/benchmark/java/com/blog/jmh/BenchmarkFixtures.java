@@ -0,0 +1,69 @@
+package com.blog.jmh;
+
+import com.blog.datagen.SyntheticText;
+import com.blog.entity.Blog;
+import com.blog.entity.Comment;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试数据，用合成文本构造与真实博客规模接近的实体，种子固定保证每次运行一致
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 42;
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id, String username) {
+        User user = new User(username, username + "@example.com", "password");
+        user.setId(id);
+        user.setDisplayName("用户" + id);
+        return user;
+    }
+
+    /**
+     * 带作者、标签和评论的博客，评论只设置转换时会用到的字段
+     */
+    static Blog blog(Random random, long id, int tagCount, int commentCount) {
+        User author = user(id, "author" + id);
+        Blog blog = new Blog(SyntheticText.title(random, true), SyntheticText.content(random, true), author);
+        blog.setId(id);
+        blog.setSummary(SyntheticText.summary(random, true));
+        blog.setPublished(true);
+        blog.setViewCount((long) random.nextInt(10_000));
+        blog.setCreatedAt(LocalDateTime.of(2024, 1, 1, 8, 0));
+        blog.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 8, 0));
+
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 1; i <= tagCount; i++) {
+            Tag tag = new Tag(SyntheticText.tagName(i));
+            tag.setId((long) i);
+            tags.add(tag);
+        }
+        blog.setTags(tags);
+
+        List<Comment> comments = new ArrayList<>(commentCount);
+        for (int i = 1; i <= commentCount; i++) {
+            comments.add(comment(random, i, blog));
+        }
+        blog.setComments(comments);
+        return blog;
+    }
+
+    static Comment comment(Random random, long id, Blog blog) {
+        Comment comment = new Comment(SyntheticText.comment(random, random.nextInt(10) < 7), blog,
+                user(1000 + id, "reader" + id));
+        comment.setId(id);
+        comment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id));
+        return comment;
+    }
+}
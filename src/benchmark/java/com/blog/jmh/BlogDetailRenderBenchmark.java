@@ -0,0 +1,103 @@
+package com.blog.jmh;
+
+import com.blog.BlogApplication;
+import com.blog.datagen.SyntheticText;
+import com.blog.dto.BlogDto;
+import com.blog.dto.CommentDto;
+import com.blog.dto.RelatedBlogDto;
+import com.blog.entity.Blog;
+import com.blog.entity.Comment;
+import com.blog.export.StaticPageRenderer;
+import com.blog.service.BlogService;
+import com.blog.service.CommentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.thymeleaf.ITemplateEngine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 博客详情页的Thymeleaf渲染
+ *
+ * 以演示配置启动应用，取应用自己的模板引擎（含布局、安全方言和模板缓存），按匿名访客渲染blog/blog-detail。
+ * 模型直接由DTO构造，不查询数据库，测量的是模板求值和HTML输出的开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlogDetailRenderBenchmark {
+
+    @Param({"0", "20", "200"})
+    private int commentCount;
+
+    private ConfigurableApplicationContext context;
+
+    private StaticPageRenderer renderer;
+
+    private Map<String, Object> model;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(BlogApplication.class,
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.blog=WARN");
+        WebApplicationContext webContext = (WebApplicationContext) context;
+        renderer = new StaticPageRenderer(context.getBean(ITemplateEngine.class), webContext.getServletContext(),
+                context, Locale.SIMPLIFIED_CHINESE);
+
+        Random random = new Random(BenchmarkFixtures.SEED);
+        Blog blog = BenchmarkFixtures.blog(random, 1, 5, commentCount);
+        BlogService blogService = new BlogService();
+        CommentService commentService = new CommentService();
+        List<CommentDto> comments = new ArrayList<>(commentCount);
+        for (Comment comment : blog.getComments()) {
+            comments.add(commentService.convertToCommentDto(comment));
+        }
+        List<RelatedBlogDto> relatedBlogs = new ArrayList<>();
+        for (int i = 2; i <= 6; i++) {
+            relatedBlogs.add(new RelatedBlogDto((long) i, SyntheticText.title(random, true), 1.0 / i));
+        }
+
+        BlogDto dto = blogService.convertToBlogDtoWithContent(blog);
+        model = new HashMap<>();
+        model.put("blog", dto);
+        model.put("isAuthor", false);
+        model.put("comments", comments);
+        model.put("commentCount", comments.size());
+        model.put("relatedBlogs", relatedBlogs);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String blogDetail() {
+        return renderer.render("blog/blog-detail", "/blog/1", model);
+    }
+}
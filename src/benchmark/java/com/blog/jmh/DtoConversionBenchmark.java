@@ -0,0 +1,96 @@
+package com.blog.jmh;
+
+import com.blog.dto.BlogDto;
+import com.blog.dto.CommentDto;
+import com.blog.entity.Blog;
+import com.blog.entity.Comment;
+import com.blog.service.BlogService;
+import com.blog.service.CommentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体到DTO的转换
+ *
+ * 列表页每页转换20篇博客（不含正文），详情页转换一篇博客（含正文）和它的全部评论。
+ * 转换方法只读取实体字段，这里直接构造服务对象，不需要启动应用。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoConversionBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"3", "10"})
+    private int tagsPerBlog;
+
+    @Param({"10", "200"})
+    private int commentsPerBlog;
+
+    private final BlogService blogService = new BlogService();
+
+    private final CommentService commentService = new CommentService();
+
+    private List<Blog> page;
+
+    private Blog detail;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            page.add(BenchmarkFixtures.blog(random, i, tagsPerBlog, 0));
+        }
+        detail = BenchmarkFixtures.blog(random, PAGE_SIZE + 1, tagsPerBlog, commentsPerBlog);
+    }
+
+    @Benchmark
+    public BlogDto blog() {
+        return blogService.convertToBlogDto(page.get(0));
+    }
+
+    @Benchmark
+    public void listingPage(Blackhole blackhole) {
+        for (Blog blog : page) {
+            blackhole.consume(blogService.convertToBlogDto(blog));
+        }
+    }
+
+    @Benchmark
+    public BlogDto blogWithContent() {
+        return blogService.convertToBlogDtoWithContent(detail);
+    }
+
+    @Benchmark
+    public CommentDto comment() {
+        return commentService.convertToCommentDto(detail.getComments().get(0));
+    }
+
+    @Benchmark
+    public void detailPage(Blackhole blackhole) {
+        blackhole.consume(blogService.convertToBlogDtoWithContent(detail));
+        for (Comment comment : detail.getComments()) {
+            blackhole.consume(commentService.convertToCommentDto(comment));
+        }
+    }
+}
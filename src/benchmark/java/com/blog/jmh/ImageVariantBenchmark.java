@@ -0,0 +1,120 @@
+package com.blog.jmh;
+
+import com.blog.image.ImageResizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缩放图片生成吞吐量
+ *
+ * 源图为合成的照片尺寸图片（渐变背景、色块和噪点，压缩难度接近照片）。resize只测缩放；
+ * resizeAndEncode缩放到一个宽度并编码；allWidths与ImageVariantService一致，从大到小依次生成
+ * 320/640/1024/1600四个宽度并编码，结果即单线程每秒能处理的上传图片数。
+ * 两个线程对应blog.images.threads的默认值，用于估算线程池在高峰时的处理能力。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(2)
+@State(Scope.Benchmark)
+public class ImageVariantBenchmark {
+
+    private static final int[] WIDTHS = {1600, 1024, 640, 320};
+
+    @Param({"2400x1600", "4000x3000"})
+    private String source;
+
+    @Param({"jpg", "png"})
+    private String format;
+
+    @Param({"640"})
+    private int width;
+
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() {
+        String[] size = source.split("x");
+        image = syntheticPhoto(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+    }
+
+    @Benchmark
+    public BufferedImage resize() {
+        return ImageResizer.resize(image, width);
+    }
+
+    @Benchmark
+    public int resizeAndEncode() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        ImageResizer.write(ImageResizer.resize(image, width), format, 0.8f, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int allWidths() throws IOException {
+        int bytes = 0;
+        BufferedImage current = image;
+        for (int target : WIDTHS) {
+            current = ImageResizer.resize(current, target);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+            ImageResizer.write(current, format, 0.8f, out);
+            bytes += out.size();
+        }
+        return bytes;
+    }
+
+    private static BufferedImage syntheticPhoto(int width, int height) {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        BufferedImage photo = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = photo.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(0, 0, new Color(70, 130, 180), width, height, new Color(240, 200, 120)));
+            graphics.fillRect(0, 0, width, height);
+            for (int i = 0; i < 200; i++) {
+                graphics.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 120));
+                graphics.fillOval(random.nextInt(width), random.nextInt(height),
+                        20 + random.nextInt(width / 4), 20 + random.nextInt(height / 4));
+            }
+        } finally {
+            graphics.dispose();
+        }
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            photo.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                int noise = random.nextInt(17) - 8;
+                int r = clamp(((row[x] >> 16) & 0xFF) + noise);
+                int g = clamp(((row[x] >> 8) & 0xFF) + noise);
+                int b = clamp((row[x] & 0xFF) + noise);
+                row[x] = (r << 16) | (g << 8) | b;
+            }
+            photo.setRGB(0, y, width, 1, row, 0, width);
+        }
+        return photo;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
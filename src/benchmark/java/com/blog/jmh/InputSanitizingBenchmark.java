@@ -0,0 +1,84 @@
+package com.blog.jmh;
+
+import ch.qos.logback.classic.Level;
+import com.blog.datagen.SyntheticText;
+import com.blog.util.SqlInjectionUtils;
+import com.blog.util.XssUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XSS和SQL注入检查
+ *
+ * 输入分四类：博客标题、评论、Markdown长文（约几千字）和攻击载荷。
+ * 攻击载荷会触发警告日志，这里关闭两个工具类的日志，只测量匹配和替换本身的开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputSanitizingBenchmark {
+
+    private static final String ATTACK = "<script>alert(document.cookie)</script>"
+            + "<img src=x onerror=alert(1)><a href=\"javascript:void(0)\">点我</a>"
+            + "' OR 1=1; DROP TABLE users; --";
+
+    @Param({"title", "comment", "content", "attack"})
+    private String kind;
+
+    private String input;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(XssUtils.class)).setLevel(Level.OFF);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(SqlInjectionUtils.class)).setLevel(Level.OFF);
+
+        Random random = new Random(BenchmarkFixtures.SEED);
+        switch (kind) {
+            case "title":
+                input = SyntheticText.title(random, true);
+                break;
+            case "comment":
+                input = SyntheticText.comment(random, true);
+                break;
+            case "content":
+                input = SyntheticText.content(random, true);
+                break;
+            case "attack":
+                input = ATTACK;
+                break;
+            default:
+                throw new IllegalArgumentException("未知的输入类型: " + kind);
+        }
+    }
+
+    @Benchmark
+    public String cleanXss() {
+        return XssUtils.cleanXSS(input);
+    }
+
+    @Benchmark
+    public boolean containsXss() {
+        return XssUtils.containsXSS(input);
+    }
+
+    @Benchmark
+    public boolean containsSqlInjection() {
+        return SqlInjectionUtils.containsSqlInjection(input);
+    }
+}
@@ -0,0 +1,92 @@
+package com.blog.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 对比两次JMH运行的JSON结果
+ *
+ * 按基准测试名称和参数配对，输出得分和每次操作分配字节数（gc.alloc.rate.norm）的变化。
+ * 任一基准测试的得分或分配量变差超过阈值时以非0状态退出，可用于CI中的回归检查。
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:java -Dbenchmark.main=com.blog.jmh.JmhResultComparison
+ *       -Dexec.args="基线结果.json target/jmh-result.json"
+ * 可通过 -Dthreshold= 调整阈值（百分比，默认10）。
+ */
+public class JmhResultComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("用法: JmhResultComparison <基线结果.json> <本次结果.json>");
+        }
+        double threshold = Double.parseDouble(System.getProperty("threshold", "10"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s %12s %12s %9s%n",
+                "基准测试", "基线得分", "本次得分", "变化", "基线B/op", "本次B/op", "变化");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s%n", entry.getKey(), "（新增）");
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            // 吞吐量模式得分越高越好，其他模式（平均时间、采样、单次）越低越好
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double scoreBefore = before.path("primaryMetric").path("score").asDouble();
+            double scoreAfter = after.path("primaryMetric").path("score").asDouble();
+            double scoreChange = change(scoreBefore, scoreAfter);
+            double allocationBefore = before.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(0);
+            double allocationAfter = after.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(0);
+            double allocationChange = change(allocationBefore, allocationAfter);
+
+            boolean regressed = (higherIsBetter ? -scoreChange : scoreChange) > threshold
+                    || (allocationBefore > 0 && allocationChange > threshold);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %8.1f%% %12.1f %12.1f %8.1f%%%s%n", entry.getKey(),
+                    scoreBefore, scoreAfter, scoreChange, allocationBefore, allocationAfter, allocationChange,
+                    regressed ? "  回归" : "");
+        }
+
+        System.out.printf("%n%d 个基准测试, %d 个超过 %.1f%% 的阈值%n", current.size(), regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 以"基准测试名称 参数=值,..."为键
+     */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.blog.jmh.", ""));
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            String separator = " ";
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(separator).append(param.getKey()).append('=').append(param.getValue().asText());
+                separator = ",";
+            }
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+}
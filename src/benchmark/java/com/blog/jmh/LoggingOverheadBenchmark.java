@@ -0,0 +1,180 @@
+package com.blog.jmh;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.blog.logging.CountingAsyncAppender;
+import com.blog.logging.JsonEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 请求线程上的日志开销
+ *
+ * 四个线程同时记录一条带参数的INFO日志（与创建博客时的日志相同），比较三种追加方式：
+ * sync 为同步写出；blocking 为改造前的异步配置（队列1024、不按阈值丢弃、队列满时阻塞、获取调用方信息）；
+ * async 为现在的配置（CountingAsyncAppender，队列8192、neverBlock、不获取调用方信息）。
+ * 输出流不落盘，stallMicros模拟每次写出时的磁盘卡顿。四个线程不停记录日志时写出线程跟不上，
+ * async会丢弃事件，请求线程的耗时因此包含丢弃路径；丢弃数在每轮结束时打印。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingOverheadBenchmark {
+
+    @Param({"sync", "blocking", "async"})
+    private String appender;
+
+    @Param({"pattern", "json"})
+    private String encoder;
+
+    @Param({"0", "100"})
+    private int stallMicros;
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        context = new LoggerContext();
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setName("OUTPUT");
+        output.setEncoder(encoder());
+        output.setOutputStream(new StallingOutputStream(stallMicros));
+        output.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(wrap(output));
+        logger = context.getLogger("com.blog.service.BlogService");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        context.stop();
+        if ("async".equals(appender)) {
+            System.out.println("丢弃: " + (CountingAsyncAppender.overflow("BENCHMARK_ASYNC")
+                    + CountingAsyncAppender.discarded("BENCHMARK_ASYNC")) + " 条（累计）");
+        }
+    }
+
+    @Benchmark
+    public void logInfo(RequestState request) {
+        logger.info("博客创建成功: {} (ID: {})", request.title, request.id);
+    }
+
+    private Encoder<ILoggingEvent> encoder() {
+        if ("json".equals(encoder)) {
+            JsonEncoder json = new JsonEncoder();
+            json.setContext(context);
+            json.start();
+            return json;
+        }
+        PatternLayoutEncoder pattern = new PatternLayoutEncoder();
+        pattern.setContext(context);
+        pattern.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{50} [%X{requestId}] - %msg%n");
+        pattern.start();
+        return pattern;
+    }
+
+    private Appender<ILoggingEvent> wrap(Appender<ILoggingEvent> output) {
+        switch (appender) {
+            case "sync":
+                return output;
+            case "blocking": {
+                AsyncAppender async = new AsyncAppender();
+                async.setContext(context);
+                async.setName("BENCHMARK_BLOCKING");
+                async.setDiscardingThreshold(0);
+                async.setQueueSize(1024);
+                async.setIncludeCallerData(true);
+                async.addAppender(output);
+                async.start();
+                return async;
+            }
+            case "async": {
+                CountingAsyncAppender async = new CountingAsyncAppender();
+                async.setContext(context);
+                async.setName("BENCHMARK_ASYNC");
+                async.setQueueSize(8192);
+                async.setNeverBlock(true);
+                async.setIncludeCallerData(false);
+                async.addAppender(output);
+                async.start();
+                return async;
+            }
+            default:
+                throw new IllegalArgumentException("未知的追加方式: " + appender);
+        }
+    }
+
+    /**
+     * 每个线程模拟一个请求：MDC中有请求ID
+     */
+    @State(Scope.Thread)
+    public static class RequestState {
+
+        private final String title = "Spring Boot 性能优化实践";
+
+        private final long id = ThreadLocalRandom.current().nextInt(1_000_000);
+
+        @Setup
+        public void setUp() {
+            MDC.put("requestId", Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        }
+
+        @TearDown
+        public void tearDown() {
+            MDC.clear();
+        }
+    }
+
+    private static final class StallingOutputStream extends OutputStream {
+
+        private final long stallNanos;
+
+        private StallingOutputStream(int stallMicros) {
+            this.stallNanos = TimeUnit.MICROSECONDS.toNanos(stallMicros);
+        }
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (stallNanos > 0) {
+                LockSupport.parkNanos(stallNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.blog.jmh;
+
+import com.blog.datagen.SyntheticText;
+import com.blog.entity.Tag;
+import com.blog.repository.TagRepository;
+import com.blog.service.BlogService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 标签字符串解析（BlogService.processTags）
+ *
+ * 标签仓库换成内存Map，所有标签都已存在，测量的是分隔、去空白、去重和查找本身的开销，
+ * 不含数据库往返，包含标签解析指标的记录。processTags是私有方法，通过反射注入仓库和指标注册表、
+ * 用MethodHandle调用。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TagParsingBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int tagCount;
+
+    private BlogService blogService;
+
+    private MethodHandle processTags;
+
+    private String tags;
+
+    @Setup
+    public void setUp() throws Exception {
+        Map<String, Tag> stored = new HashMap<>();
+        TagRepository tagRepository = (TagRepository) Proxy.newProxyInstance(TagRepository.class.getClassLoader(),
+                new Class<?>[]{TagRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByNameForShare":
+                            return Optional.ofNullable(stored.get((String) args[0]));
+                        case "save":
+                            Tag tag = (Tag) args[0];
+                            tag.setId((long) stored.size() + 1);
+                            stored.put(tag.getName(), tag);
+                            return tag;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "InMemoryTagRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        blogService = new BlogService();
+        Field repository = BlogService.class.getDeclaredField("tagRepository");
+        repository.setAccessible(true);
+        repository.set(blogService, tagRepository);
+        Field meterRegistry = BlogService.class.getDeclaredField("meterRegistry");
+        meterRegistry.setAccessible(true);
+        meterRegistry.set(blogService, new SimpleMeterRegistry());
+        blogService.init();
+
+        Method method = BlogService.class.getDeclaredMethod("processTags", String.class);
+        method.setAccessible(true);
+        processTags = MethodHandles.lookup().unreflect(method);
+
+        // 中英文逗号混用，带多余空白和空项，与用户实际输入接近
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 1; i <= tagCount; i++) {
+            String name = SyntheticText.tagName(i);
+            joiner.add(i % 3 == 0 ? " " + name + " ，" : name);
+            Tag tag = new Tag(name);
+            tag.setId((long) i);
+            stored.put(name, tag);
+        }
+        tags = joiner.toString();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Set<Tag> tagSet() throws Throwable {
+        return (Set<Tag>) processTags.invokeExact(blogService, tags);
+    }
+}
@@ -0,0 +1,66 @@
+package com.blog.load;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * 统计SQL执行次数的数据源代理
+ *
+ * 连接和语句都用JDK动态代理包装，语句每次execute*（含批量执行）计为一条，计数记到执行线程上。
+ */
+final class CountingDataSource {
+
+    private CountingDataSource() {
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection ? wrapConnection((Connection) result) : result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            // createStatement、prepareStatement和prepareCall，按方法声明的返回类型包装
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return wrapStatement(method.getReturnType(), (Statement) result);
+            }
+            return result;
+        });
+    }
+
+    private static Object wrapStatement(Class<?> type, Statement statement) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                RequestProbe.statementExecuted();
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
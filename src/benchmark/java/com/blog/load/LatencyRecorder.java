@@ -0,0 +1,47 @@
+package com.blog.load;
+
+import java.util.Arrays;
+
+/**
+ * 记录一个压测阶段内某类操作的全部延迟（纳秒），阶段结束后排序计算分位数
+ */
+class LatencyRecorder {
+
+    private long[] values = new long[1024];
+
+    private int count;
+
+    private int errors;
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+        }
+        values[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized int errors() {
+        return errors;
+    }
+
+    /**
+     * 按给定分位数（0到1）取延迟，单位纳秒
+     */
+    synchronized long[] percentiles(double... quantiles) {
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        long[] result = new long[quantiles.length];
+        for (int i = 0; i < quantiles.length && count > 0; i++) {
+            int rank = (int) Math.ceil(quantiles[i] * count);
+            result[i] = sorted[Math.max(0, Math.min(count, rank) - 1)];
+        }
+        return result;
+    }
+}
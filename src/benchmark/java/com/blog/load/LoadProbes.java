@@ -0,0 +1,36 @@
+package com.blog.load;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * 压测时额外注册的Bean：包装主数据源统计SQL，注册最外层的服务端探针过滤器
+ *
+ * 不加@Configuration，避免被组件扫描；只在压测工具启动应用时作为额外的配置源传入。
+ */
+public class LoadProbes {
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // 读写分离时只包装路由数据源，主库和从库本身不再重复计数
+                return bean instanceof DataSource && "dataSource".equals(beanName)
+                        ? CountingDataSource.wrap((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestProbe> requestProbeFilter() {
+        FilterRegistrationBean<RequestProbe> registration = new FilterRegistrationBean<>(new RequestProbe());
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
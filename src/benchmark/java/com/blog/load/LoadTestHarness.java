@@ -0,0 +1,387 @@
+package com.blog.load;
+
+import com.blog.BlogApplication;
+import com.blog.datagen.SyntheticText;
+import com.blog.datagen.ZipfDistribution;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 端到端HTTP压测
+ *
+ * 以演示配置启动完整应用（H2内存库或文件库），用合成数据生成器灌入大规模数据，再在进程内按开放模型
+ * （泊松到达，发出请求不等待之前的响应）发起混合流量：匿名访问首页、博客详情、搜索和标签页，
+ * 已登录用户发表评论，以及登录。博客和标签按Zipf分布挑选，热门内容被访问得更多。
+ *
+ * 按到达速率逐级压测，每级输出吞吐量、各操作的延迟分位数（从计划发出的时刻算起，包含排队时间），
+ * 以及服务端每个HTTP请求执行的SQL语句数和处理线程分配的字节数。
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:java -Dbenchmark.main=com.blog.load.LoadTestHarness
+ * 可选参数：
+ *   -Dposts=20000 -Dusers=500   生成的博客和用户数量
+ *   -Ddb=mem                    mem为H2内存库，file为临时目录中的H2文件库（数据量超出堆内存时使用）
+ *   -Drates=50,100,200          各级的到达速率（次/秒）
+ *   -Dwarmup=20 -Dduration=30   预热和每级的持续秒数
+ *   -DmaxInFlight=256           最大在途操作数，超出时计为丢弃
+ *   -Dmix=home:25,detail:45,search:10,tag:10,comment:5,login:5  流量配比
+ */
+public class LoadTestHarness {
+
+    private static final String PASSWORD = "user123";
+
+    private static final String[] SEARCH_TERMS = {
+        "性能", "缓存", "数据库", "优化", "并发", "performance", "cache", "spring", "java", "latency"
+    };
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999, 1.0};
+
+    private enum Operation {
+        HOME, DETAIL, SEARCH, TAG, COMMENT, LOGIN;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final String baseUrl;
+
+    private final long[] blogIds;
+
+    private final String[] tagNames;
+
+    private final ZipfDistribution blogPopularity;
+
+    private final ZipfDistribution tagPopularity;
+
+    private final VirtualUser[] visitors;
+
+    private final List<VirtualUser> members = new ArrayList<>();
+
+    private final int users;
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final ThreadPoolExecutor executor;
+
+    private LoadTestHarness(String baseUrl, long[] blogIds, String[] tagNames, int users,
+                            Map<Operation, Integer> mix, int visitors, int maxInFlight) {
+        this.baseUrl = baseUrl;
+        this.blogIds = blogIds;
+        this.tagNames = tagNames;
+        this.users = users;
+        this.blogPopularity = new ZipfDistribution(blogIds.length, 0.8);
+        this.tagPopularity = new ZipfDistribution(tagNames.length, 1.0);
+        this.visitors = new VirtualUser[visitors];
+        for (int i = 0; i < visitors; i++) {
+            this.visitors[i] = new VirtualUser(baseUrl);
+        }
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxInFlight, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "load-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static void main(String[] args) throws Exception {
+        int posts = Integer.getInteger("posts", 20_000);
+        int users = Integer.getInteger("users", 500);
+        String db = System.getProperty("db", "mem");
+        int warmup = Integer.getInteger("warmup", 20);
+        int duration = Integer.getInteger("duration", 30);
+        int maxInFlight = Integer.getInteger("maxInFlight", 256);
+        int memberCount = Integer.getInteger("members", 20);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("mix",
+                "home:25,detail:45,search:10,tag:10,comment:5,login:5"));
+        List<Double> rates = new ArrayList<>();
+        for (String rate : System.getProperty("rates", "50,100,200").split(",")) {
+            rates.add(Double.parseDouble(rate.trim()));
+        }
+        if (users <= memberCount) {
+            throw new IllegalArgumentException("用户数必须大于发表评论的成员数: " + memberCount);
+        }
+        // HttpURLConnection默认每个地址只保留5个keep-alive连接
+        System.setProperty("http.maxConnections", String.valueOf(maxInFlight));
+
+        List<String> appArgs = new ArrayList<>();
+        Collections.addAll(appArgs,
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.blog=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--blog.data-generator.enabled=true",
+                "--blog.data-generator.posts=" + posts,
+                "--blog.data-generator.users=" + users,
+                "--blog.data-generator.tags=1000");
+        Path databaseDirectory = null;
+        if ("file".equals(db)) {
+            databaseDirectory = Files.createTempDirectory("load-test-db");
+            appArgs.add("--spring.datasource.url=jdbc:h2:file:" + databaseDirectory.resolve("blogdb")
+                    + ";DB_CLOSE_ON_EXIT=FALSE");
+        } else if (!"mem".equals(db)) {
+            throw new IllegalArgumentException("未知的数据库类型: " + db);
+        }
+
+        SpringApplication application = new SpringApplication(BlogApplication.class, LoadProbes.class);
+        ConfigurableApplicationContext context = application.run(appArgs.toArray(new String[0]));
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM blogs WHERE published = TRUE", Long.class);
+            // 热门程度与id无关，固定种子打乱后按Zipf排名挑选
+            Collections.shuffle(ids, new Random(42));
+            long[] blogIds = new long[ids.size()];
+            for (int i = 0; i < blogIds.length; i++) {
+                blogIds[i] = ids.get(i);
+            }
+            String[] tagNames = jdbcTemplate.queryForList("SELECT name FROM tags ORDER BY id", String.class)
+                    .toArray(new String[0]);
+
+            LoadTestHarness harness = new LoadTestHarness("http://localhost:" + port, blogIds, tagNames, users,
+                    mix, Integer.getInteger("visitors", 500), maxInFlight);
+            harness.loginMembers(memberCount);
+
+            System.out.println();
+            System.out.printf("数据: %d 篇已发布博客, %d 个标签, %d 个用户, 数据库: %s%n",
+                    blogIds.length, tagNames.length, users, db);
+            System.out.printf("预热 %ds（%.0f 次/秒）...%n", warmup, rates.get(0));
+            harness.runStep(rates.get(0), warmup);
+
+            for (double rate : rates) {
+                Map<String, long[]> probeBefore = RequestProbe.snapshot();
+                long[] gcBefore = gcTotals();
+                Step step = harness.runStep(rate, duration);
+                long[] gcAfter = gcTotals();
+                report(rate, duration, step, probeBefore, RequestProbe.snapshot(),
+                        gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+            }
+            harness.executor.shutdownNow();
+        } finally {
+            context.close();
+            if (databaseDirectory != null) {
+                FileSystemUtils.deleteRecursively(databaseDirectory);
+            }
+        }
+    }
+
+    /**
+     * 前memberCount个合成用户登录并保持会话，用于发表评论；其余用户用于登录操作
+     */
+    private void loginMembers(int memberCount) throws IOException {
+        for (int i = 1; i <= memberCount; i++) {
+            VirtualUser member = new VirtualUser(baseUrl);
+            if (!member.login("gen_user_" + i, PASSWORD, "/blog/" + blogIds[0])) {
+                throw new IllegalStateException("成员登录失败: gen_user_" + i);
+            }
+            members.add(member);
+        }
+    }
+
+    private Step runStep(double rate, int seconds) throws InterruptedException {
+        Step step = new Step();
+        Random random = new Random();
+        double meanInterval = 1_000_000_000.0 / rate;
+        long next = System.nanoTime();
+        long end = next + TimeUnit.SECONDS.toNanos(seconds);
+        while (true) {
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanInterval);
+            if (next >= end) {
+                break;
+            }
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick(random);
+            long intended = next;
+            try {
+                executor.execute(() -> perform(operation, intended, step));
+            } catch (RejectedExecutionException e) {
+                step.dropped.increment();
+            }
+        }
+        // 等待在途操作完成，最多一分钟
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (executor.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return step;
+    }
+
+    private Operation pick(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void perform(Operation operation, long intended, Step step) {
+        boolean success;
+        try {
+            success = execute(operation, ThreadLocalRandom.current());
+        } catch (IOException | RuntimeException e) {
+            success = false;
+        }
+        step.latencies.get(operation).record(System.nanoTime() - intended, success);
+    }
+
+    private boolean execute(Operation operation, Random random) throws IOException {
+        VirtualUser visitor = visitors[random.nextInt(visitors.length)];
+        String label = operation.label();
+        switch (operation) {
+            case HOME:
+                // 大多数访客只看第一页
+                String home = random.nextInt(10) < 8 ? "/" : "/?page=" + (1 + random.nextInt(5));
+                return visitor.get(home, label, false).isSuccess();
+            case DETAIL:
+                return visitor.get("/blog/" + popularBlog(random), label, false).isSuccess();
+            case SEARCH:
+                String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+                return visitor.get("/search?q=" + URLEncoder.encode(term, "UTF-8"), label, false).isSuccess();
+            case TAG:
+                String tag = tagNames[tagPopularity.sample(random) - 1];
+                return visitor.get("/tags/" + URLEncoder.encode(tag, "UTF-8").replace("+", "%20"), label, false)
+                        .isSuccess();
+            case COMMENT:
+                VirtualUser member = members.get(random.nextInt(members.size()));
+                Map<String, String> form = Collections.singletonMap("content",
+                        SyntheticText.comment(random, random.nextInt(10) < 7));
+                return member.post("/blog/" + popularBlog(random) + "/comment", form, label).isSuccess();
+            case LOGIN:
+                // 每次用新会话登录一个不发表评论的用户，不会挤掉成员的会话
+                String username = "gen_user_" + (members.size() + 1 + random.nextInt(users - members.size()));
+                return new VirtualUser(baseUrl).login(username, PASSWORD, null);
+            default:
+                throw new IllegalArgumentException("未知的操作: " + operation);
+        }
+    }
+
+    private long popularBlog(Random random) {
+        return blogIds[blogPopularity.sample(random) - 1];
+    }
+
+    private static void report(double rate, int seconds, Step step, Map<String, long[]> before,
+                               Map<String, long[]> after, long gcCount, long gcMillis) {
+        int completed = 0;
+        int errors = 0;
+        for (LatencyRecorder recorder : step.latencies.values()) {
+            completed += recorder.count();
+            errors += recorder.errors();
+        }
+        System.out.println();
+        System.out.printf("=== 到达速率 %.0f 次/秒, 持续 %ds ===%n", rate, seconds);
+        System.out.printf("完成 %d 次操作, 吞吐量 %.1f 次/秒, 错误 %d, 丢弃 %d, GC %d 次 / %dms%n",
+                completed, completed / (double) seconds, errors, step.dropped.sum(), gcCount, gcMillis);
+        System.out.printf("%-10s %8s %6s %10s %10s %10s %10s %10s%n",
+                "操作", "次数", "错误", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Map.Entry<Operation, LatencyRecorder> entry : step.latencies.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            if (recorder.count() == 0) {
+                continue;
+            }
+            long[] latencies = recorder.percentiles(QUANTILES);
+            System.out.printf("%-10s %8d %6d %10.2f %10.2f %10.2f %10.2f %10.2f%n", entry.getKey().label(),
+                    recorder.count(), recorder.errors(), latencies[0] / 1e6, latencies[1] / 1e6,
+                    latencies[2] / 1e6, latencies[3] / 1e6, latencies[4] / 1e6);
+        }
+
+        System.out.println("服务端（每个HTTP请求，登录操作包含login-page和login两个请求）:");
+        System.out.printf("%-10s %8s %10s %14s%n", "请求", "次数", "SQL/请求", "分配KB/请求");
+        for (Map.Entry<String, long[]> entry : new TreeMap<>(after).entrySet()) {
+            long[] totals = entry.getValue();
+            long[] previous = before.getOrDefault(entry.getKey(), new long[3]);
+            long requests = totals[0] - previous[0];
+            if (requests == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %8d %10.1f %14.1f%n", entry.getKey(), requests,
+                    (totals[1] - previous[1]) / (double) requests, (totals[2] - previous[2]) / 1024.0 / requests);
+        }
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("流量配比格式应为 操作:权重: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("流量配比不能为空");
+        }
+        return weights;
+    }
+
+    /**
+     * 一级压测中各操作的延迟和被丢弃的到达数
+     */
+    private static final class Step {
+
+        final Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+
+        final LongAdder dropped = new LongAdder();
+
+        Step() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyRecorder());
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.blog.load;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 服务端探针
+ *
+ * 压测客户端在请求头中标明操作类型，过滤器在处理线程上统计该请求执行的SQL语句数和分配的字节数，
+ * 按操作类型累加。异步线程（事件监听、浏览量刷新等）上的语句和分配不计入请求。
+ */
+public class RequestProbe implements Filter {
+
+    static final String OPERATION_HEADER = "X-Load-Operation";
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * 操作类型 -> [请求数, SQL语句数, 分配字节数]
+     */
+    private static final Map<String, AtomicLongArray> TOTALS = new ConcurrentHashMap<>();
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * 当前线程执行了一条SQL语句，由计数数据源调用
+     */
+    static void statementExecuted() {
+        STATEMENTS.get()[0]++;
+    }
+
+    /**
+     * 各操作类型累计值的快照
+     */
+    static Map<String, long[]> snapshot() {
+        Map<String, long[]> snapshot = new HashMap<>();
+        TOTALS.forEach((operation, totals) ->
+                snapshot.put(operation, new long[]{totals.get(0), totals.get(1), totals.get(2)}));
+        return snapshot;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        String operation = ((HttpServletRequest) request).getHeader(OPERATION_HEADER);
+        if (operation == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long[] statements = STATEMENTS.get();
+        long statementsBefore = statements[0];
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            AtomicLongArray totals = TOTALS.computeIfAbsent(operation, key -> new AtomicLongArray(3));
+            totals.incrementAndGet(0);
+            totals.addAndGet(1, statements[0] - statementsBefore);
+            totals.addAndGet(2, THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.blog.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 一个访客：自己的Cookie（会话）和CSRF令牌，不跟随重定向
+ *
+ * 同一访客可能同时有多个请求在途，Cookie用并发Map保存。
+ */
+class VirtualUser {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+
+    private final String baseUrl;
+
+    private final Map<String, String> cookies = new ConcurrentHashMap<>();
+
+    private volatile String csrfToken;
+
+    VirtualUser(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * GET请求，返回响应对象；需要正文时keepBody为true
+     */
+    Response get(String path, String operation, boolean keepBody) throws IOException {
+        return send("GET", path, null, operation, keepBody);
+    }
+
+    /**
+     * 提交表单，自动带上当前的CSRF令牌
+     */
+    Response post(String path, Map<String, String> form, String operation) throws IOException {
+        StringJoiner body = new StringJoiner("&");
+        for (Map.Entry<String, String> field : form.entrySet()) {
+            body.add(encode(field.getKey()) + "=" + encode(field.getValue()));
+        }
+        if (csrfToken != null) {
+            body.add("_csrf=" + encode(csrfToken));
+        }
+        return send("POST", path, body.toString(), operation, false);
+    }
+
+    /**
+     * 从页面中读取CSRF令牌，登录后会话和令牌都会更换，需要重新读取
+     */
+    boolean updateCsrfToken(String page) {
+        Matcher matcher = CSRF.matcher(page);
+        if (matcher.find()) {
+            csrfToken = matcher.group(1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 登录：读取登录页的令牌后提交表单；给出anyPage时再从该页读取登录后的令牌，用于之后提交表单
+     */
+    boolean login(String username, String password, String anyPage) throws IOException {
+        Response loginPage = get("/login", "login-page", true);
+        if (loginPage.status != 200 || !updateCsrfToken(loginPage.body)) {
+            return false;
+        }
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("username", username);
+        form.put("password", password);
+        Response response = post("/login", form, "login");
+        if (!response.isSuccess()) {
+            return false;
+        }
+        if (anyPage != null) {
+            Response page = get(anyPage, "detail", true);
+            return page.status == 200 && updateCsrfToken(page.body);
+        }
+        return true;
+    }
+
+    private Response send(String method, String path, String form, String operation, boolean keepBody)
+            throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setInstanceFollowRedirects(false);
+        connection.setRequestMethod(method);
+        connection.setRequestProperty(RequestProbe.OPERATION_HEADER, operation);
+        if (!cookies.isEmpty()) {
+            StringJoiner cookie = new StringJoiner("; ");
+            cookies.forEach((name, value) -> cookie.add(name + "=" + value));
+            connection.setRequestProperty("Cookie", cookie.toString());
+        }
+        if (form != null) {
+            byte[] bytes = form.getBytes(StandardCharsets.UTF_8);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            connection.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        }
+
+        int status = connection.getResponseCode();
+        List<String> setCookies = connection.getHeaderFields().get("Set-Cookie");
+        if (setCookies != null) {
+            for (String setCookie : setCookies) {
+                storeCookie(setCookie);
+            }
+        }
+        String location = connection.getHeaderField("Location");
+
+        // 读完正文，连接才能回到keep-alive连接池
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        String body = null;
+        if (in != null) {
+            try (InputStream stream = in) {
+                ByteArrayOutputStream buffer = keepBody ? new ByteArrayOutputStream() : null;
+                byte[] chunk = new byte[8192];
+                int read;
+                while ((read = stream.read(chunk)) != -1) {
+                    if (buffer != null) {
+                        buffer.write(chunk, 0, read);
+                    }
+                }
+                if (buffer != null) {
+                    body = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return new Response(status, location, body);
+    }
+
+    private void storeCookie(String setCookie) {
+        String pair = setCookie.split(";", 2)[0];
+        int equals = pair.indexOf('=');
+        if (equals <= 0) {
+            return;
+        }
+        String name = pair.substring(0, equals).trim();
+        String value = pair.substring(equals + 1).trim();
+        if (value.isEmpty() || setCookie.contains("Max-Age=0")) {
+            cookies.remove(name);
+        } else {
+            cookies.put(name, value);
+        }
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Response {
+
+        final int status;
+
+        final String location;
+
+        final String body;
+
+        Response(int status, String location, String body) {
+            this.status = status;
+            this.location = location;
+            this.body = body;
+        }
+
+        /**
+         * 2xx，或重定向到错误页以外的地址（登录失败重定向到/login?error）
+         */
+        boolean isSuccess() {
+            return status < 300 || status < 400 && (location == null || !location.contains("error"));
+        }
+    }
+}
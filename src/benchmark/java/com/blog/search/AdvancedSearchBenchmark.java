@@ -0,0 +1,197 @@
+package com.blog.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * 高级搜索索引基准测试
+ *
+ * 生成100万篇博客、1万个标签（按Zipf分布分配，每篇1-5个）、2000个作者、5年发布时间，
+ * 测量索引构建耗时、内存占用、典型组合查询和分面统计的延迟分位数。
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:java -Dbenchmark.main=com.blog.search.AdvancedSearchBenchmark（MAVEN_OPTS=-Xmx2g）
+ * 可通过 -Dposts=、-Dtags= 调整规模。
+ */
+public class AdvancedSearchBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200;
+
+    private static final int MEASURED_ROUNDS = 1000;
+
+    public static void main(String[] args) {
+        int posts = Integer.getInteger("posts", 1_000_000);
+        int tagCount = Integer.getInteger("tags", 10_000);
+        int authors = Integer.getInteger("authors", 2_000);
+        Random random = new Random(42);
+
+        ZipfSampler tagSampler = new ZipfSampler(tagCount, 1.0, random);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        int days = 5 * 365;
+
+        long before = usedMemory();
+        long buildStart = System.nanoTime();
+        AdvancedSearchIndex index = new AdvancedSearchIndex();
+        List<String> postTags = new ArrayList<>(5);
+        for (int postId = 1; postId <= posts; postId++) {
+            postTags.clear();
+            int count = 1 + random.nextInt(5);
+            for (int i = 0; i < count; i++) {
+                postTags.add("tag" + tagSampler.next());
+            }
+            // ID随时间递增，与线上数据一致
+            LocalDate created = start.plusDays((long) postId * days / posts);
+            index.put(postId, 1 + random.nextInt(authors), created, random.nextInt(10_000), postTags);
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+        long after = usedMemory();
+
+        System.out.printf("博客: %,d  标签: %,d  作者: %,d%n", index.size(), index.tagCount(), authors);
+        System.out.printf("构建耗时: %,d ms  估算索引大小: %,d KB  堆增长: %,d KB%n",
+                buildMillis, index.sizeInBytes() / 1024, (after - before) / 1024);
+        System.out.println();
+        System.out.printf("%-36s %10s %10s %10s %10s%n", "查询", "命中", "p50(us)", "p99(us)", "max(us)");
+
+        run("单个热门标签", index, () -> criteria().tags("tag1"));
+        run("单个冷门标签", index, () -> criteria().tags("tag" + (tagCount - 7)));
+        run("两个热门标签 AND", index, () -> criteria().tags("tag1", "tag2"));
+        run("热门 AND 中等标签", index, () -> criteria().tags("tag1", "tag" + (50 + random.nextInt(50))));
+        run("5个标签 OR", index, () -> criteria().any("tag3", "tag4", "tag5", "tag6", "tag7"));
+        run("OR + NOT 热门标签", index, () -> criteria().any("tag3", "tag4", "tag5").not("tag1"));
+        run("作者 + 日期范围（季度）", index, () -> criteria()
+                .author(1 + random.nextInt(authors)).range(LocalDate.of(2022, 2, 15), LocalDate.of(2022, 5, 20)));
+        run("标签 + 日期范围 + 第50页", index, () -> criteria()
+                .tags("tag2").range(LocalDate.of(2021, 1, 1), LocalDate.of(2023, 6, 30)).page(50));
+        run("全部博客 按浏览量", index, () -> criteria().sort(SearchCriteria.Sort.VIEWS));
+        run("热门标签 按浏览量 第10页", index, () -> criteria().tags("tag1").sort(SearchCriteria.Sort.VIEWS).page(10));
+
+        System.out.println();
+        System.out.printf("%-36s %10s %10s %10s %10s%n", "分面统计（无预算限制）", "命中", "p50(us)", "p99(us)", "max(us)");
+        runFacets("全部博客", index, () -> criteria());
+        runFacets("单个热门标签", index, () -> criteria().tags("tag1"));
+        runFacets("中等标签", index, () -> criteria().tags("tag" + (50 + random.nextInt(50))));
+        runFacets("冷门标签", index, () -> criteria().tags("tag" + (1000 + random.nextInt(9000))));
+    }
+
+    private static void runFacets(String name, AdvancedSearchIndex index, Supplier<Query> queries) {
+        long[] nanos = new long[MEASURED_ROUNDS / 10];
+        long hits = 0;
+        for (int i = 0; i < WARMUP_ROUNDS / 10; i++) {
+            index.facets(queries.get().criteria, 10, 5, Long.MAX_VALUE / 2);
+        }
+        for (int i = 0; i < nanos.length; i++) {
+            Query query = queries.get();
+            long start = System.nanoTime();
+            FacetCounts facets = index.facets(query.criteria, 10, 5, Long.MAX_VALUE / 2);
+            nanos[i] = System.nanoTime() - start;
+            hits += facets.getTotal();
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-36s %,10d %,10d %,10d %,10d%n", name, hits / nanos.length,
+                nanos[nanos.length / 2] / 1000, nanos[nanos.length * 99 / 100] / 1000, nanos[nanos.length - 1] / 1000);
+    }
+
+    private static void run(String name, AdvancedSearchIndex index, Supplier<Query> queries) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            Query query = queries.get();
+            index.search(query.criteria, query.offset, 10);
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        long hits = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            Query query = queries.get();
+            long start = System.nanoTime();
+            SearchHits result = index.search(query.criteria, query.offset, 10);
+            nanos[i] = System.nanoTime() - start;
+            hits += result.getTotal();
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-36s %,10d %,10d %,10d %,10d%n", name, hits / MEASURED_ROUNDS,
+                nanos[MEASURED_ROUNDS / 2] / 1000, nanos[MEASURED_ROUNDS * 99 / 100] / 1000,
+                nanos[MEASURED_ROUNDS - 1] / 1000);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static Query criteria() {
+        return new Query();
+    }
+
+    /**
+     * 查询构造辅助
+     */
+    private static final class Query {
+        private final SearchCriteria criteria = new SearchCriteria();
+        private int offset;
+
+        Query tags(String... tags) {
+            criteria.getAllTags().addAll(Arrays.asList(tags));
+            return this;
+        }
+
+        Query any(String... tags) {
+            criteria.getAnyTags().addAll(Arrays.asList(tags));
+            return this;
+        }
+
+        Query not(String... tags) {
+            criteria.getExcludedTags().addAll(Arrays.asList(tags));
+            return this;
+        }
+
+        Query author(int authorId) {
+            criteria.setAuthorId(authorId);
+            return this;
+        }
+
+        Query range(LocalDate from, LocalDate to) {
+            criteria.setFrom(from).setTo(to);
+            return this;
+        }
+
+        Query sort(SearchCriteria.Sort sort) {
+            criteria.setSort(sort);
+            return this;
+        }
+
+        Query page(int page) {
+            offset = page * 10;
+            return this;
+        }
+    }
+
+    /**
+     * Zipf分布采样（累积分布 + 二分查找），排名1的标签最常见
+     */
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+        private final Random random;
+
+        ZipfSampler(int size, double exponent, Random random) {
+            this.random = random;
+            cumulative = new double[size];
+            double sum = 0;
+            for (int rank = 1; rank <= size; rank++) {
+                sum += 1 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next() {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return (index >= 0 ? index : -index - 1) + 1;
+        }
+    }
+}
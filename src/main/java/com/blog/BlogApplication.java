@@ -3,12 +3,14 @@ package com.blog;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 个人博客系统主启动类
  */
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 public class BlogApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package com.blog.assets;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 静态资源缓存头
+ *
+ * 带指纹的文件内容不会变，缓存一年并标记immutable，浏览器刷新页面时也不再验证；
+ * 不带指纹的文件每次验证（Last-Modified），修改后立即生效。
+ * Spring 5.3的CacheControl不支持immutable，这里直接写响应头，资源处理器不再设置缓存时间。
+ */
+public class AssetCacheInterceptor implements HandlerInterceptor {
+
+    private final String immutable;
+
+    public AssetCacheInterceptor(long maxAgeSeconds) {
+        this.immutable = "public, max-age=" + maxAgeSeconds + ", immutable";
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                AssetManifest.isFingerprinted(request.getRequestURI()) ? immutable : "no-cache");
+        return true;
+    }
+}
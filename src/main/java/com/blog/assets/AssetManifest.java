@@ -0,0 +1,83 @@
+package com.blog.assets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * 静态资源指纹清单：原路径（相对static目录，如 css/style.css）到指纹路径的映射
+ *
+ * 清单由AssetPipeline在构建时生成；直接从IDE运行、没有经过构建时清单不存在，所有资源按原路径访问。
+ */
+public class AssetManifest {
+
+    public static final String LOCATION = "asset-manifest.properties";
+
+    private static final Pattern FINGERPRINTED = Pattern.compile(".*\\.[0-9a-f]{12}\\.(css|js)");
+
+    private static final Pattern GENERATED = Pattern.compile(".*\\.[0-9a-f]{12}\\.(css|js)(\\.gz|\\.br)?|.*\\.(css|js)\\.(gz|br)");
+
+    private final Map<String, String> paths;
+
+    public AssetManifest(Map<String, String> paths) {
+        this.paths = Collections.unmodifiableMap(new HashMap<>(paths));
+    }
+
+    /**
+     * 从类路径加载清单，不存在时返回空清单
+     */
+    public static AssetManifest load(ClassLoader classLoader) {
+        Properties properties = new Properties();
+        try (InputStream in = classLoader.getResourceAsStream(LOCATION)) {
+            if (in != null) {
+                try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取静态资源清单失败", e);
+        }
+        Map<String, String> paths = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            paths.put(name, properties.getProperty(name));
+        }
+        return new AssetManifest(paths);
+    }
+
+    /**
+     * 原路径对应的指纹路径，不在清单中时返回null
+     */
+    public String lookup(String path) {
+        return paths.get(path);
+    }
+
+    public boolean isEmpty() {
+        return paths.isEmpty();
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * 路径是否指向带内容指纹的文件（内容变化时文件名随之变化，可以永久缓存）
+     */
+    public static boolean isFingerprinted(String path) {
+        return FINGERPRINTED.matcher(path).matches();
+    }
+
+    /**
+     * 文件是否由AssetPipeline生成（指纹副本或预压缩文件）
+     */
+    static boolean isGenerated(String fileName) {
+        return GENERATED.matcher(fileName).matches();
+    }
+}
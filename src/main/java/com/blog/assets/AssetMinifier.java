@@ -0,0 +1,245 @@
+package com.blog.assets;
+
+/**
+ * 保守的CSS/JavaScript压缩
+ *
+ * 只去掉注释和多余的空白，不改名、不改写语法，字符串、模板字符串和正则字面量原样保留。
+ * JavaScript保留换行，避免影响自动分号插入；压缩率不如专门的压缩工具，但不需要引入Node工具链。
+ */
+public final class AssetMinifier {
+
+    private AssetMinifier() {
+    }
+
+    public static String css(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        int length = source.length();
+        boolean pendingSpace = false;
+        for (int i = 0; i < length; i++) {
+            char c = source.charAt(i);
+            if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 1;
+                pendingSpace = true;
+            } else if (c == '"' || c == '\'') {
+                flushSpace(out, pendingSpace, c);
+                pendingSpace = false;
+                i = copyString(source, i, out);
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+            } else {
+                if (c == '}' && out.length() > 0 && out.charAt(out.length() - 1) == ';') {
+                    out.setLength(out.length() - 1);
+                }
+                flushSpace(out, pendingSpace, c);
+                pendingSpace = false;
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * CSS中 {}；,> 以及冒号之后的空白可以去掉；冒号之前的空白在选择器中有意义（a :hover），保留
+     */
+    private static void flushSpace(StringBuilder out, boolean pendingSpace, char next) {
+        if (!pendingSpace || out.length() == 0) {
+            return;
+        }
+        char previous = out.charAt(out.length() - 1);
+        if ("{};,>:".indexOf(previous) >= 0 || "{};,>".indexOf(next) >= 0) {
+            return;
+        }
+        out.append(' ');
+    }
+
+    public static String js(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        new JsScanner(source, out).scan(0, false);
+        return out.toString();
+    }
+
+    private static int copyString(String source, int start, StringBuilder out) {
+        char quote = source.charAt(start);
+        out.append(quote);
+        int i = start + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            out.append(c);
+            if (c == '\\' && i + 1 < source.length()) {
+                out.append(source.charAt(++i));
+            } else if (c == quote) {
+                return i;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c > 0x7F;
+    }
+
+    private static final class JsScanner {
+
+        private final String source;
+
+        private final StringBuilder out;
+
+        private JsScanner(String source, StringBuilder out) {
+            this.source = source;
+            this.out = out;
+        }
+
+        /**
+         * 扫描代码直到结尾；inTemplate为true时扫描模板字符串中的 ${...}，遇到配对的 } 返回
+         */
+        private int scan(int start, boolean inTemplate) {
+            int length = source.length();
+            int depth = 0;
+            boolean pendingSpace = false;
+            boolean pendingNewline = false;
+            int i = start;
+            while (i < length) {
+                char c = source.charAt(i);
+                char next = i + 1 < length ? source.charAt(i + 1) : 0;
+                if (c == '/' && next == '/') {
+                    int end = source.indexOf('\n', i);
+                    i = end < 0 ? length : end;
+                    continue;
+                }
+                if (c == '/' && next == '*') {
+                    int end = source.indexOf("*/", i + 2);
+                    String comment = source.substring(i, end < 0 ? length : end);
+                    pendingNewline |= comment.indexOf('\n') >= 0;
+                    pendingSpace = true;
+                    i = end < 0 ? length : end + 2;
+                    continue;
+                }
+                if (c == '\n' || c == '\r') {
+                    pendingNewline = true;
+                    i++;
+                    continue;
+                }
+                if (Character.isWhitespace(c)) {
+                    pendingSpace = true;
+                    i++;
+                    continue;
+                }
+                if (inTemplate && c == '}' && depth == 0) {
+                    out.append(c);
+                    return i + 1;
+                }
+                separate(pendingSpace, pendingNewline, c);
+                pendingSpace = false;
+                pendingNewline = false;
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+                if (c == '"' || c == '\'') {
+                    i = copyString(source, i, out) + 1;
+                } else if (c == '`') {
+                    i = copyTemplate(i);
+                } else if (c == '/' && regexAllowed()) {
+                    i = copyRegex(i);
+                } else {
+                    out.append(c);
+                    i++;
+                }
+            }
+            return i;
+        }
+
+        private void separate(boolean pendingSpace, boolean pendingNewline, char next) {
+            if (out.length() == 0 || !(pendingSpace || pendingNewline)) {
+                return;
+            }
+            if (pendingNewline) {
+                out.append('\n');
+                return;
+            }
+            char previous = out.charAt(out.length() - 1);
+            boolean words = isIdentifierPart(previous) && isIdentifierPart(next);
+            boolean operators = (previous == '+' || previous == '-' || previous == '/')
+                    && (next == '+' || next == '-' || next == '/');
+            if (words || operators) {
+                out.append(' ');
+            }
+        }
+
+        private int copyTemplate(int start) {
+            out.append('`');
+            int i = start + 1;
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                if (c == '\\' && i + 1 < source.length()) {
+                    out.append(c).append(source.charAt(i + 1));
+                    i += 2;
+                } else if (c == '`') {
+                    out.append(c);
+                    return i + 1;
+                } else if (c == '$' && i + 1 < source.length() && source.charAt(i + 1) == '{') {
+                    out.append("${");
+                    i = scan(i + 2, true);
+                } else {
+                    out.append(c);
+                    i++;
+                }
+            }
+            return i;
+        }
+
+        /**
+         * 斜杠前是标识符、数字或右括号时是除号，否则是正则字面量的开始；
+         * return/typeof 等关键字之后同样是正则
+         */
+        private boolean regexAllowed() {
+            int end = out.length() - 1;
+            while (end >= 0 && Character.isWhitespace(out.charAt(end))) {
+                end--;
+            }
+            if (end < 0) {
+                return true;
+            }
+            char previous = out.charAt(end);
+            if (previous == ')' || previous == ']') {
+                return false;
+            }
+            if (!isIdentifierPart(previous)) {
+                return true;
+            }
+            int begin = end;
+            while (begin > 0 && isIdentifierPart(out.charAt(begin - 1))) {
+                begin--;
+            }
+            String word = out.substring(begin, end + 1);
+            return word.equals("return") || word.equals("typeof") || word.equals("case")
+                    || word.equals("in") || word.equals("of") || word.equals("void") || word.equals("delete");
+        }
+
+        private int copyRegex(int start) {
+            out.append('/');
+            boolean inClass = false;
+            int i = start + 1;
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                out.append(c);
+                if (c == '\\' && i + 1 < source.length()) {
+                    out.append(source.charAt(++i));
+                } else if (c == '[') {
+                    inClass = true;
+                } else if (c == ']') {
+                    inClass = false;
+                } else if (c == '/' && !inClass) {
+                    return i + 1;
+                } else if (c == '\n') {
+                    return i + 1;
+                }
+                i++;
+            }
+            return i;
+        }
+    }
+}
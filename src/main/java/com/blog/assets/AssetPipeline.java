@@ -0,0 +1,186 @@
+package com.blog.assets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 构建时的静态资源处理
+ *
+ * 在 process-classes 阶段处理 target/classes/static 下的 css/*.css 和 js/*.js：
+ * 1. 压缩（AssetMinifier），原文件名也替换为压缩后的内容；
+ * 2. 按内容哈希生成带指纹的副本，如 css/style.3f2a1b9c0d4e.css；
+ * 3. 为原文件和副本生成 .gz（最高压缩级别）和 .br 预压缩文件，比原文件小时才保留；
+ * 4. 写出清单文件（原路径=指纹路径），运行时由ManifestResourceResolver改写模板中的链接。
+ *
+ * JDK没有Brotli编码器，.br 由 brotli 命令生成（可用 -Dassets.brotli 指定路径），找不到命令时只生成 .gz。
+ * 重复执行是幂等的：先删除上次生成的副本和预压缩文件，压缩过的内容再压缩结果不变。
+ *
+ * 用法：AssetPipeline &lt;静态资源目录&gt; &lt;清单文件&gt;
+ */
+public final class AssetPipeline {
+
+    private static final String[] DIRECTORIES = {"css", "js"};
+
+    private static final int HASH_LENGTH = 12;
+
+    private final Path root;
+
+    private final String brotli = System.getProperty("assets.brotli", "brotli");
+
+    private boolean brotliAvailable = true;
+
+    private AssetPipeline(Path root) {
+        this.root = root;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("用法: AssetPipeline <静态资源目录> <清单文件>");
+        }
+        Path root = Paths.get(args[0]);
+        if (!Files.isDirectory(root)) {
+            System.out.println("静态资源目录不存在，跳过: " + root);
+            return;
+        }
+        AssetPipeline pipeline = new AssetPipeline(root);
+        Map<String, String> manifest = new TreeMap<>();
+        long before = 0;
+        long after = 0;
+        for (String directory : DIRECTORIES) {
+            for (Path asset : pipeline.sources(root.resolve(directory))) {
+                byte[] original = Files.readAllBytes(asset);
+                String fingerprinted = pipeline.process(asset, original);
+                manifest.put(pipeline.relative(asset), pipeline.relative(asset.resolveSibling(fingerprinted)));
+                before += original.length;
+                after += Files.size(asset);
+            }
+        }
+        writeManifest(Paths.get(args[1]), manifest);
+        System.out.printf("静态资源处理完成: %d 个文件, %d 字节 -> %d 字节%n", manifest.size(), before, after);
+    }
+
+    /**
+     * 目录中的源文件，不含上次生成的指纹副本和预压缩文件（这些文件先删除）
+     */
+    private List<Path> sources(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        List<Path> sources = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().collect(Collectors.toList())) {
+                String name = file.getFileName().toString();
+                if (AssetManifest.isGenerated(name)) {
+                    Files.delete(file);
+                } else if (name.endsWith(".css") || name.endsWith(".js")) {
+                    sources.add(file);
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * 压缩、生成指纹副本和预压缩文件，返回指纹文件名
+     */
+    private String process(Path asset, byte[] original) throws IOException, InterruptedException {
+        String name = asset.getFileName().toString();
+        String source = new String(original, StandardCharsets.UTF_8);
+        String minified = name.endsWith(".css") ? AssetMinifier.css(source) : AssetMinifier.js(source);
+        byte[] content = minified.getBytes(StandardCharsets.UTF_8);
+
+        int dot = name.lastIndexOf('.');
+        String fingerprinted = name.substring(0, dot) + "." + hash(content) + name.substring(dot);
+        Path copy = asset.resolveSibling(fingerprinted);
+        Files.write(asset, content);
+        Files.write(copy, content);
+        for (Path file : new Path[]{asset, copy}) {
+            gzip(file, content);
+            brotli(file, content.length);
+        }
+        return fingerprinted;
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; hex.length() < HASH_LENGTH; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void gzip(Path file, byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length);
+        try (OutputStream gzip = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        if (bytes.size() < content.length) {
+            Files.write(file.resolveSibling(file.getFileName() + ".gz"), bytes.toByteArray());
+        }
+    }
+
+    private void brotli(Path file, long size) throws IOException, InterruptedException {
+        if (!brotliAvailable) {
+            return;
+        }
+        Path target = file.resolveSibling(file.getFileName() + ".br");
+        Process process;
+        try {
+            process = new ProcessBuilder(brotli, "-q", "11", "-f", "-o", target.toString(), file.toString())
+                    .redirectErrorStream(true)
+                    .start();
+        } catch (IOException e) {
+            brotliAvailable = false;
+            System.out.println("找不到brotli命令，只生成gzip预压缩文件: " + e.getMessage());
+            return;
+        }
+        if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            process.destroyForcibly();
+            throw new IOException("brotli压缩失败: " + file);
+        }
+        if (Files.size(target) >= size) {
+            Files.delete(target);
+        }
+    }
+
+    private String relative(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * 清单按路径排序、不带时间戳，内容不变时构建结果也不变
+     */
+    private static void writeManifest(Path file, Map<String, String> manifest) throws IOException {
+        StringBuilder content = new StringBuilder("# 静态资源指纹清单，由AssetPipeline在构建时生成\n");
+        for (Map.Entry<String, String> entry : manifest.entrySet()) {
+            content.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
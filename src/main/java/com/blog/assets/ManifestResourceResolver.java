@@ -0,0 +1,49 @@
+package com.blog.assets;
+
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * 按指纹清单改写静态资源链接
+ *
+ * 模板中的 @{/css/style.css} 经ResourceUrlEncodingFilter交给资源链解析，这里换成 /css/style.3f2a1b9c0d4e.css；
+ * 指纹文件在构建时已生成，请求时由后续解析器直接找到，不需要反向映射。
+ */
+public class ManifestResourceResolver extends AbstractResourceResolver {
+
+    private final AssetManifest manifest;
+
+    private final String prefix;
+
+    /**
+     * @param prefix 资源处理器对应的static子目录，如 css/
+     */
+    public ManifestResourceResolver(AssetManifest manifest, String prefix) {
+        this.manifest = manifest;
+        this.prefix = prefix;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveResource(request, requestPath, locations);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        String fingerprinted = manifest.lookup(prefix + resourceUrlPath);
+        if (fingerprinted != null && fingerprinted.startsWith(prefix)) {
+            String resolved = chain.resolveUrlPath(fingerprinted.substring(prefix.length()), locations);
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
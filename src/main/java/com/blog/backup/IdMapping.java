@@ -0,0 +1,54 @@
+package com.blog.backup;
+
+import java.util.Arrays;
+
+/**
+ * 导入时旧ID到新ID的映射
+ *
+ * 导出文件中同类记录按ID升序排列，映射按升序追加到两个long数组中、查找时二分，
+ * 100万条映射约占16MB，远小于HashMap<Long, Long>。
+ */
+public class IdMapping {
+
+    private long[] oldIds = new long[1024];
+
+    private long[] newIds = new long[1024];
+
+    private int size;
+
+    /**
+     * 追加一条映射，旧ID必须大于已有的所有旧ID
+     */
+    public void put(long oldId, long newId) {
+        if (size > 0 && oldId <= oldIds[size - 1]) {
+            throw new IllegalArgumentException("记录ID未按升序排列: " + oldId);
+        }
+        if (size == oldIds.length) {
+            oldIds = Arrays.copyOf(oldIds, size * 2);
+            newIds = Arrays.copyOf(newIds, size * 2);
+        }
+        oldIds[size] = oldId;
+        newIds[size] = newId;
+        size++;
+    }
+
+    /**
+     * 查找新ID，没有映射时返回-1
+     */
+    public long get(long oldId) {
+        int index = Arrays.binarySearch(oldIds, 0, size, oldId);
+        return index >= 0 ? newIds[index] : -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    long oldIdAt(int index) {
+        return oldIds[index];
+    }
+
+    long newIdAt(int index) {
+        return newIds[index];
+    }
+}
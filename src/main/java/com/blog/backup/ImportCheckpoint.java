@@ -0,0 +1,209 @@
+package com.blog.backup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 导入检查点
+ *
+ * 每批数据提交后追加本批新建的用户、博客ID映射和一条提交标记（已处理的行数），并刷到磁盘。
+ * 重新导入同一文件时恢复最后一条提交标记之前的映射、跳过已处理的行，标记之后不完整的内容被截断。
+ * 进程恰好在数据库提交之后、检查点落盘之前退出时，最后一批会被重复导入。
+ */
+public class ImportCheckpoint implements Closeable {
+
+    private static final int MAGIC = 0x424c4e43;
+
+    private static final byte USER = 'U';
+
+    private static final byte BLOG = 'B';
+
+    private static final byte COMMIT = 'C';
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final DataOutputStream out;
+
+    private final IdMapping users = new IdMapping();
+
+    private final IdMapping blogs = new IdMapping();
+
+    private long lines;
+
+    private ImportCheckpoint(Path file, String source) throws IOException {
+        this.file = file;
+        long committedLength = 0;
+        if (Files.exists(file) && Files.size(file) > 0) {
+            committedLength = restore(source);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(committedLength);
+        channel.position(committedLength);
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        if (committedLength == 0) {
+            out.writeInt(MAGIC);
+            out.writeUTF(source);
+            flush();
+        }
+    }
+
+    /**
+     * 打开检查点，文件存在时恢复其中的进度
+     * @param source 导入文件的标识，与检查点记录的不一致时拒绝恢复
+     */
+    public static ImportCheckpoint open(Path file, String source) throws IOException {
+        return new ImportCheckpoint(file, source);
+    }
+
+    /**
+     * 已提交的行数，恢复时跳过这些行
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    public IdMapping getUsers() {
+        return users;
+    }
+
+    public IdMapping getBlogs() {
+        return blogs;
+    }
+
+    void recordUser(long oldId, long newId) throws IOException {
+        users.put(oldId, newId);
+        out.writeByte(USER);
+        out.writeLong(oldId);
+        out.writeLong(newId);
+    }
+
+    void recordBlog(long oldId, long newId) throws IOException {
+        blogs.put(oldId, newId);
+        out.writeByte(BLOG);
+        out.writeLong(oldId);
+        out.writeLong(newId);
+    }
+
+    /**
+     * 记录一批数据已提交
+     * @param lines 截至本批已处理的行数
+     */
+    void commit(long lines) throws IOException {
+        out.writeByte(COMMIT);
+        out.writeLong(lines);
+        flush();
+        this.lines = lines;
+    }
+
+    /**
+     * 导入完成后删除检查点
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            out.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        out.flush();
+        channel.force(false);
+    }
+
+    /**
+     * 读取已有检查点，返回最后一条提交标记之后的位置
+     */
+    private long restore(String source) throws IOException {
+        try (CountingInputStream counter = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(file)));
+             DataInputStream in = new DataInputStream(counter)) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("不是有效的导入检查点: " + file);
+            }
+            String recorded = in.readUTF();
+            if (!recorded.equals(source)) {
+                throw new IllegalArgumentException("检查点属于另一个导入文件（" + recorded + "），请删除后重新导入: " + file);
+            }
+            long committedLength = counter.count;
+            IdMapping pendingUsers = new IdMapping();
+            IdMapping pendingBlogs = new IdMapping();
+            try {
+                while (true) {
+                    byte kind = in.readByte();
+                    if (kind == USER) {
+                        pendingUsers.put(in.readLong(), in.readLong());
+                    } else if (kind == BLOG) {
+                        pendingBlogs.put(in.readLong(), in.readLong());
+                    } else if (kind == COMMIT) {
+                        lines = in.readLong();
+                        committedLength = counter.count;
+                        moveTo(pendingUsers, users);
+                        moveTo(pendingBlogs, blogs);
+                        pendingUsers = new IdMapping();
+                        pendingBlogs = new IdMapping();
+                    } else {
+                        break;
+                    }
+                }
+            } catch (EOFException e) {
+                // 最后一批未写完，从上一条提交标记处继续
+            }
+            return committedLength;
+        }
+    }
+
+    private static void moveTo(IdMapping pending, IdMapping target) {
+        for (int i = 0; i < pending.size(); i++) {
+            target.put(pending.oldIdAt(i), pending.newIdAt(i));
+        }
+    }
+
+    /**
+     * 统计已读取的字节数，用于定位最后一条提交标记
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.blog.backup;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * NDJSON导出
+ *
+ * 每行一条JSON记录，依次为header、全部用户、标签、博客（含正文和标签名）、评论和end，
+ * 同类记录按ID升序，导入时被引用的记录总在引用方之前出现。
+ * 每类记录用一个只进游标读取，MySQL下逐行流式返回，内存占用与数据量无关；
+ * 博客的标签用第二个连接上的游标按博客ID归并，不做逐篇查询。
+ * 各游标不在同一个快照内，在线导出期间的写入可能只有一部分进入文件。
+ */
+public class NdjsonExporter {
+
+    static final String FORMAT = "blog-ndjson";
+
+    static final int VERSION = 1;
+
+    private static final String SELECT_USERS =
+            "SELECT id, username, email, password, display_name, enabled, created_at, updated_at " +
+            "FROM users ORDER BY id";
+
+    private static final String SELECT_TAGS =
+            "SELECT id, name, created_at, updated_at FROM tags ORDER BY id";
+
+    private static final String SELECT_BLOGS =
+            "SELECT b.id, b.author_id, b.title, b.summary, c.content, b.published, b.view_count, " +
+            "b.created_at, b.updated_at FROM blogs b JOIN blog_content c ON c.id = b.content_id ORDER BY b.id";
+
+    private static final String SELECT_BLOG_TAGS =
+            "SELECT bt.blog_id, t.name FROM blog_tags bt JOIN tags t ON t.id = bt.tag_id ORDER BY bt.blog_id";
+
+    private static final String SELECT_COMMENTS =
+            "SELECT id, blog_id, user_id, content, created_at, updated_at FROM comments ORDER BY id";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final DataSource dataSource;
+
+    private final int fetchSize;
+
+    public NdjsonExporter(DataSource dataSource, int fetchSize) {
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * 导出全部内容，不关闭输出流
+     * @param out 输出流，需要压缩时由调用方包装
+     * @param counts 已导出的记录数
+     */
+    public void export(OutputStream out, TransferCounts counts) throws IOException, SQLException {
+        JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+
+        json.writeStartObject();
+        json.writeStringField("type", "header");
+        json.writeStringField("format", FORMAT);
+        json.writeNumberField("version", VERSION);
+        json.writeStringField("exportedAt", LocalDateTime.now().toString());
+        endRecord(json);
+
+        try (Connection connection = dataSource.getConnection();
+             Connection tagConnection = dataSource.getConnection()) {
+            exportUsers(connection, json, counts);
+            exportTags(connection, json, counts);
+            exportBlogs(connection, tagConnection, json, counts);
+            exportComments(connection, json, counts);
+        }
+
+        json.writeStartObject();
+        json.writeStringField("type", "end");
+        json.writeNumberField("users", counts.getUsers());
+        json.writeNumberField("tags", counts.getTags());
+        json.writeNumberField("blogs", counts.getBlogs());
+        json.writeNumberField("comments", counts.getComments());
+        endRecord(json);
+        json.close();
+    }
+
+    private void exportUsers(Connection connection, JsonGenerator json, TransferCounts counts)
+            throws IOException, SQLException {
+        try (PreparedStatement statement = cursor(connection, SELECT_USERS);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                json.writeStartObject();
+                json.writeStringField("type", "user");
+                json.writeNumberField("id", rs.getLong(1));
+                json.writeStringField("username", rs.getString(2));
+                json.writeStringField("email", rs.getString(3));
+                json.writeStringField("password", rs.getString(4));
+                json.writeStringField("displayName", rs.getString(5));
+                json.writeBooleanField("enabled", rs.getBoolean(6));
+                writeTimestamps(json, rs, 7);
+                endRecord(json);
+                counts.addUsers(1);
+            }
+        }
+    }
+
+    private void exportTags(Connection connection, JsonGenerator json, TransferCounts counts)
+            throws IOException, SQLException {
+        try (PreparedStatement statement = cursor(connection, SELECT_TAGS);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                json.writeStartObject();
+                json.writeStringField("type", "tag");
+                json.writeNumberField("id", rs.getLong(1));
+                json.writeStringField("name", rs.getString(2));
+                writeTimestamps(json, rs, 3);
+                endRecord(json);
+                counts.addTags(1);
+            }
+        }
+    }
+
+    /**
+     * 博客和标签关联两个游标都按博客ID升序，逐篇归并
+     */
+    private void exportBlogs(Connection connection, Connection tagConnection, JsonGenerator json,
+                             TransferCounts counts) throws IOException, SQLException {
+        try (PreparedStatement statement = cursor(connection, SELECT_BLOGS);
+             PreparedStatement tagStatement = cursor(tagConnection, SELECT_BLOG_TAGS);
+             ResultSet rs = statement.executeQuery();
+             ResultSet tagRs = tagStatement.executeQuery()) {
+            boolean hasTag = tagRs.next();
+            while (rs.next()) {
+                long blogId = rs.getLong(1);
+                json.writeStartObject();
+                json.writeStringField("type", "blog");
+                json.writeNumberField("id", blogId);
+                json.writeNumberField("authorId", rs.getLong(2));
+                json.writeStringField("title", rs.getString(3));
+                json.writeStringField("summary", rs.getString(4));
+                json.writeStringField("content", rs.getString(5));
+                json.writeBooleanField("published", rs.getBoolean(6));
+                json.writeNumberField("viewCount", rs.getLong(7));
+                writeTimestamps(json, rs, 8);
+
+                json.writeArrayFieldStart("tags");
+                // 跳过已没有博客的关联行
+                while (hasTag && tagRs.getLong(1) < blogId) {
+                    hasTag = tagRs.next();
+                }
+                while (hasTag && tagRs.getLong(1) == blogId) {
+                    json.writeString(tagRs.getString(2));
+                    hasTag = tagRs.next();
+                }
+                json.writeEndArray();
+                endRecord(json);
+                counts.addBlogs(1);
+            }
+        }
+    }
+
+    private void exportComments(Connection connection, JsonGenerator json, TransferCounts counts)
+            throws IOException, SQLException {
+        try (PreparedStatement statement = cursor(connection, SELECT_COMMENTS);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                json.writeStartObject();
+                json.writeStringField("type", "comment");
+                json.writeNumberField("id", rs.getLong(1));
+                json.writeNumberField("blogId", rs.getLong(2));
+                json.writeNumberField("userId", rs.getLong(3));
+                json.writeStringField("content", rs.getString(4));
+                writeTimestamps(json, rs, 5);
+                endRecord(json);
+                counts.addComments(1);
+            }
+        }
+    }
+
+    /**
+     * 只进只读游标；MySQL驱动只有fetchSize为Integer.MIN_VALUE时才逐行流式读取，否则一次取回全部结果
+     */
+    private PreparedStatement cursor(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+        return statement;
+    }
+
+    private static void writeTimestamps(JsonGenerator json, ResultSet rs, int column) throws IOException, SQLException {
+        json.writeStringField("createdAt", format(rs.getTimestamp(column)));
+        json.writeStringField("updatedAt", format(rs.getTimestamp(column + 1)));
+    }
+
+    private static String format(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    private static void endRecord(JsonGenerator json) throws IOException {
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
@@ -0,0 +1,490 @@
+package com.blog.backup;
+
+import com.blog.entity.Blog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * NDJSON导入
+ *
+ * 按NdjsonExporter的记录顺序读取，同类记录每batchSize条用JDBC批量插入并在一个事务内提交，不经过JPA。
+ * 数据库生成新ID，用户和博客的旧ID到新ID的映射保存在检查点中，博客作者、评论的博客和用户按映射改写；
+ * 用户名或邮箱已存在的用户直接复用现有用户，标签按名称（忽略大小写和首尾空白）合并到已有标签。
+ * 引用的用户或博客不在映射中的记录被跳过并计数。
+ */
+public class NdjsonImporter {
+
+    private static final String SELECT_TAGS = "SELECT id, name FROM tags";
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (username, email, password, display_name, enabled, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TAG =
+            "INSERT INTO tags (name, created_at, updated_at) VALUES (?, ?, ?)";
+
+    private static final String INSERT_CONTENT =
+            "INSERT INTO blog_content (content) VALUES (?)";
+
+    private static final String INSERT_BLOG =
+            "INSERT INTO blogs (title, content_id, excerpt, summary, view_count, published, author_id, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BLOG_TAG =
+            "INSERT INTO blog_tags (blog_id, tag_id) VALUES (?, ?)";
+
+    private static final String INSERT_COMMENT =
+            "INSERT INTO comments (content, blog_id, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final List<String> RECORD_ORDER =
+            Arrays.asList("header", "user", "tag", "blog", "comment", "end");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final DataSource dataSource;
+
+    private final int batchSize;
+
+    private Consumer<List<Long>> blogListener = blogIds -> { };
+
+    public NdjsonImporter(DataSource dataSource, int batchSize) {
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 每批博客提交后以新ID回调，用于刷新缓存和索引
+     */
+    public void setBlogListener(Consumer<List<Long>> blogListener) {
+        this.blogListener = blogListener;
+    }
+
+    /**
+     * 导入全部记录，从检查点记录的位置继续
+     * @param reader 导入文件，已按需解压
+     * @param checkpoint 检查点
+     * @param counts 已导入和跳过的记录数
+     */
+    public void importFrom(BufferedReader reader, ImportCheckpoint checkpoint, TransferCounts counts)
+            throws IOException, SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                new Run(connection, checkpoint, counts).execute(reader);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * 一次导入的状态
+     */
+    private class Run {
+
+        private final Connection connection;
+
+        private final ImportCheckpoint checkpoint;
+
+        private final TransferCounts counts;
+
+        // 规范化的标签名 -> 标签ID
+        private final Map<String, Long> tagIds = new HashMap<>();
+
+        private final List<JsonNode> batch = new ArrayList<>();
+
+        private String batchType;
+
+        private long batchLastLine;
+
+        Run(Connection connection, ImportCheckpoint checkpoint, TransferCounts counts) {
+            this.connection = connection;
+            this.checkpoint = checkpoint;
+            this.counts = counts;
+        }
+
+        void execute(BufferedReader reader) throws IOException, SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_TAGS);
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    tagIds.put(normalizeTag(rs.getString(2)), rs.getLong(1));
+                }
+            }
+
+            long skip = checkpoint.getLines();
+            long lineNumber = 0;
+            int lastRank = 0;
+            boolean ended = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= skip || line.trim().isEmpty()) {
+                    continue;
+                }
+                JsonNode record = JSON.readTree(line);
+                String type = record.path("type").asText();
+                int rank = RECORD_ORDER.indexOf(type);
+                if (rank < 0) {
+                    throw new IllegalArgumentException("第" + lineNumber + "行的记录类型无效: " + type);
+                }
+                if (rank < lastRank || ended) {
+                    throw new IllegalArgumentException("第" + lineNumber + "行的记录顺序错误: " + type);
+                }
+                lastRank = rank;
+
+                if ("header".equals(type)) {
+                    checkHeader(record);
+                } else if ("end".equals(type)) {
+                    flush();
+                    ended = true;
+                } else {
+                    if (!type.equals(batchType) || batch.size() >= batchSize) {
+                        flush();
+                    }
+                    batchType = type;
+                    batch.add(record);
+                    batchLastLine = lineNumber;
+                }
+            }
+            flush();
+            if (!ended) {
+                throw new IllegalArgumentException("导入文件不完整，缺少结束记录");
+            }
+        }
+
+        private void checkHeader(JsonNode header) {
+            if (!NdjsonExporter.FORMAT.equals(header.path("format").asText())) {
+                throw new IllegalArgumentException("不支持的导入文件格式: " + header.path("format").asText());
+            }
+            if (header.path("version").asInt() > NdjsonExporter.VERSION) {
+                throw new IllegalArgumentException("不支持的导入文件版本: " + header.path("version").asInt());
+            }
+        }
+
+        /**
+         * 插入当前批次并提交，随后写检查点
+         */
+        private void flush() throws IOException, SQLException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Long> blogIds = Collections.emptyList();
+            try {
+                switch (batchType) {
+                    case "user":
+                        importUsers();
+                        break;
+                    case "tag":
+                        importTags();
+                        break;
+                    case "blog":
+                        blogIds = importBlogs();
+                        break;
+                    default:
+                        importComments();
+                        break;
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            checkpoint.commit(batchLastLine);
+            batch.clear();
+            if (!blogIds.isEmpty()) {
+                blogListener.accept(blogIds);
+            }
+        }
+
+        /**
+         * 用户名或邮箱已存在时复用现有用户，否则插入
+         */
+        private void importUsers() throws IOException, SQLException {
+            Map<String, Long> existing = findExistingUsers();
+            long[] newIds = new long[batch.size()];
+            List<JsonNode> inserts = new ArrayList<>();
+            List<Integer> insertPositions = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                JsonNode user = batch.get(i);
+                Long id = existing.get("u:" + lower(text(user, "username")));
+                if (id == null) {
+                    id = existing.get("e:" + lower(text(user, "email")));
+                }
+                if (id != null) {
+                    newIds[i] = id;
+                } else {
+                    inserts.add(user);
+                    insertPositions.add(i);
+                }
+            }
+
+            long[] keys = insertReturningKeys(INSERT_USER, inserts, (statement, user) -> {
+                statement.setString(1, text(user, "username"));
+                statement.setString(2, text(user, "email"));
+                statement.setString(3, text(user, "password"));
+                statement.setString(4, text(user, "displayName"));
+                statement.setBoolean(5, user.path("enabled").asBoolean(true));
+                setCreatedAt(statement, 6, user);
+                setTimestamp(statement, 7, text(user, "updatedAt"));
+            });
+            for (int i = 0; i < keys.length; i++) {
+                newIds[insertPositions.get(i)] = keys[i];
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                checkpoint.recordUser(batch.get(i).path("id").asLong(), newIds[i]);
+            }
+            counts.addUsers(keys.length);
+        }
+
+        private Map<String, Long> findExistingUsers() throws SQLException {
+            StringBuilder placeholders = new StringBuilder();
+            for (int i = 0; i < batch.size(); i++) {
+                placeholders.append(i == 0 ? "?" : ", ?");
+            }
+            String sql = "SELECT id, username, email FROM users WHERE username IN (" + placeholders +
+                    ") OR email IN (" + placeholders + ")";
+            Map<String, Long> existing = new HashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    statement.setString(i + 1, text(batch.get(i), "username"));
+                    statement.setString(batch.size() + i + 1, text(batch.get(i), "email"));
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        existing.put("u:" + lower(rs.getString(2)), rs.getLong(1));
+                        existing.put("e:" + lower(rs.getString(3)), rs.getLong(1));
+                    }
+                }
+            }
+            return existing;
+        }
+
+        private void importTags() throws SQLException {
+            List<String> names = new ArrayList<>();
+            for (JsonNode tag : batch) {
+                names.add(text(tag, "name"));
+            }
+            counts.addTags(createMissingTags(names));
+        }
+
+        /**
+         * 插入尚不存在的标签，返回新建的数量
+         */
+        private int createMissingTags(Iterable<String> names) throws SQLException {
+            Map<String, String> missing = new LinkedHashMap<>();
+            for (String name : names) {
+                if (name == null || name.trim().isEmpty()) {
+                    continue;
+                }
+                String key = normalizeTag(name);
+                if (!tagIds.containsKey(key)) {
+                    missing.putIfAbsent(key, name.trim());
+                }
+            }
+            if (missing.isEmpty()) {
+                return 0;
+            }
+            List<String> keys = new ArrayList<>(missing.keySet());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            long[] ids;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TAG, Statement.RETURN_GENERATED_KEYS)) {
+                for (String key : keys) {
+                    statement.setString(1, missing.get(key));
+                    statement.setTimestamp(2, now);
+                    statement.setTimestamp(3, now);
+                    statement.addBatch();
+                }
+                ids = executeReturningKeys(statement, keys.size());
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                tagIds.put(keys.get(i), ids[i]);
+            }
+            return keys.size();
+        }
+
+        /**
+         * 依次插入正文、博客和标签关联，返回新博客ID
+         */
+        private List<Long> importBlogs() throws IOException, SQLException {
+            List<JsonNode> accepted = new ArrayList<>();
+            List<Long> authorIds = new ArrayList<>();
+            List<String> tagNames = new ArrayList<>();
+            for (JsonNode blog : batch) {
+                long authorId = checkpoint.getUsers().get(blog.path("authorId").asLong());
+                if (authorId < 0) {
+                    counts.addSkipped(1);
+                    continue;
+                }
+                accepted.add(blog);
+                authorIds.add(authorId);
+                for (JsonNode tag : blog.path("tags")) {
+                    tagNames.add(tag.asText());
+                }
+            }
+            if (accepted.isEmpty()) {
+                return Collections.emptyList();
+            }
+            createMissingTags(tagNames);
+
+            long[] contentIds = insertReturningKeys(INSERT_CONTENT, accepted, (statement, blog) -> {
+                String content = text(blog, "content");
+                statement.setString(1, content != null ? content : "");
+            });
+            List<Long> newIds = new ArrayList<>(accepted.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BLOG, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < accepted.size(); i++) {
+                    JsonNode blog = accepted.get(i);
+                    statement.setString(1, text(blog, "title"));
+                    statement.setLong(2, contentIds[i]);
+                    statement.setString(3, Blog.buildExcerpt(text(blog, "content")));
+                    statement.setString(4, text(blog, "summary"));
+                    statement.setLong(5, blog.path("viewCount").asLong());
+                    statement.setBoolean(6, blog.path("published").asBoolean(true));
+                    statement.setLong(7, authorIds.get(i));
+                    setCreatedAt(statement, 8, blog);
+                    setTimestamp(statement, 9, text(blog, "updatedAt"));
+                    statement.addBatch();
+                }
+                for (long id : executeReturningKeys(statement, accepted.size())) {
+                    newIds.add(id);
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BLOG_TAG)) {
+                for (int i = 0; i < accepted.size(); i++) {
+                    Set<Long> blogTagIds = new LinkedHashSet<>();
+                    for (JsonNode tag : accepted.get(i).path("tags")) {
+                        if (!tag.asText().trim().isEmpty()) {
+                            blogTagIds.add(tagIds.get(normalizeTag(tag.asText())));
+                        }
+                    }
+                    for (Long tagId : blogTagIds) {
+                        statement.setLong(1, newIds.get(i));
+                        statement.setLong(2, tagId);
+                        statement.addBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+
+            for (int i = 0; i < accepted.size(); i++) {
+                checkpoint.recordBlog(accepted.get(i).path("id").asLong(), newIds.get(i));
+            }
+            counts.addBlogs(accepted.size());
+            return newIds;
+        }
+
+        private void importComments() throws SQLException {
+            int inserted = 0;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_COMMENT)) {
+                for (JsonNode comment : batch) {
+                    long blogId = checkpoint.getBlogs().get(comment.path("blogId").asLong());
+                    long userId = checkpoint.getUsers().get(comment.path("userId").asLong());
+                    if (blogId < 0 || userId < 0) {
+                        counts.addSkipped(1);
+                        continue;
+                    }
+                    statement.setString(1, text(comment, "content"));
+                    statement.setLong(2, blogId);
+                    statement.setLong(3, userId);
+                    setCreatedAt(statement, 4, comment);
+                    setTimestamp(statement, 5, text(comment, "updatedAt"));
+                    statement.addBatch();
+                    inserted++;
+                }
+                if (inserted > 0) {
+                    statement.executeBatch();
+                }
+            }
+            counts.addComments(inserted);
+        }
+
+        private long[] insertReturningKeys(String sql, List<JsonNode> records, Binder binder) throws SQLException {
+            if (records.isEmpty()) {
+                return new long[0];
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (JsonNode record : records) {
+                    binder.bind(statement, record);
+                    statement.addBatch();
+                }
+                return executeReturningKeys(statement, records.size());
+            }
+        }
+
+        /**
+         * 执行批量插入并按插入顺序取回自增ID
+         */
+        private long[] executeReturningKeys(PreparedStatement statement, int expected) throws SQLException {
+            statement.executeBatch();
+            long[] keys = new long[expected];
+            int count = 0;
+            try (ResultSet rs = statement.getGeneratedKeys()) {
+                while (count < expected && rs.next()) {
+                    keys[count++] = rs.getLong(1);
+                }
+            }
+            if (count != expected) {
+                throw new IllegalStateException("数据库驱动未返回批量插入的全部自增ID，期望 " + expected + "，实际 " + count);
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * 为一条记录绑定插入参数
+     */
+    private interface Binder {
+        void bind(PreparedStatement statement, JsonNode record) throws SQLException;
+    }
+
+    private static String text(JsonNode record, String field) {
+        return record.hasNonNull(field) ? record.get(field).asText() : null;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String normalizeTag(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void setCreatedAt(PreparedStatement statement, int index, JsonNode record) throws SQLException {
+        String createdAt = text(record, "createdAt");
+        statement.setTimestamp(index, Timestamp.valueOf(
+                createdAt != null ? LocalDateTime.parse(createdAt) : LocalDateTime.now()));
+    }
+
+    private static void setTimestamp(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setTimestamp(index, Timestamp.valueOf(LocalDateTime.parse(value)));
+        }
+    }
+}
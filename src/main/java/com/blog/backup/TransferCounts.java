@@ -0,0 +1,69 @@
+package com.blog.backup;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导出或导入过程中已处理的记录数，可在执行期间从其他线程读取
+ */
+public class TransferCounts {
+
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong tags = new AtomicLong();
+    private final AtomicLong blogs = new AtomicLong();
+    private final AtomicLong comments = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    void addUsers(long count) {
+        users.addAndGet(count);
+    }
+
+    void addTags(long count) {
+        tags.addAndGet(count);
+    }
+
+    void addBlogs(long count) {
+        blogs.addAndGet(count);
+    }
+
+    void addComments(long count) {
+        comments.addAndGet(count);
+    }
+
+    void addSkipped(long count) {
+        skipped.addAndGet(count);
+    }
+
+    public long getUsers() {
+        return users.get();
+    }
+
+    public long getTags() {
+        return tags.get();
+    }
+
+    public long getBlogs() {
+        return blogs.get();
+    }
+
+    public long getComments() {
+        return comments.get();
+    }
+
+    /**
+     * 引用的用户或博客不存在而跳过的记录数
+     */
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    @Override
+    public String toString() {
+        return "TransferCounts{" +
+                "users=" + users +
+                ", tags=" + tags +
+                ", blogs=" + blogs +
+                ", comments=" + comments +
+                ", skipped=" + skipped +
+                '}';
+    }
+}
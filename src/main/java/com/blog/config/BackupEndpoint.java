@@ -0,0 +1,58 @@
+package com.blog.config;
+
+import com.blog.service.BackupService;
+import com.blog.service.BackupTask;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 内容导出导入管理端点（/actuator/backup）
+ *
+ * 默认关闭，需设置 management.endpoint.backup.enabled=true 并加入暴露列表，
+ * 建议只在内部管理端口上开放。导出：POST /actuator/backup/export {"file": "blog.ndjson.gz"}，
+ * 导入：POST /actuator/backup/import {"file": "blog.ndjson.gz"}，文件位于blog.backup.path目录。
+ */
+@Component
+@Endpoint(id = "backup", enableByDefault = false)
+public class BackupEndpoint {
+
+    @Autowired
+    private BackupService backupService;
+
+    /**
+     * 最近的导出导入任务
+     */
+    @ReadOperation
+    public List<BackupTask> tasks() {
+        return backupService.getTasks();
+    }
+
+    /**
+     * 查询单个任务进度
+     */
+    @ReadOperation
+    public BackupTask task(@Selector String taskId) {
+        return backupService.getTask(taskId).orElse(null);
+    }
+
+    /**
+     * 提交导出（export）或导入（import）任务
+     */
+    @WriteOperation
+    public BackupTask run(@Selector String action, String file) {
+        switch (action) {
+            case "export":
+                return backupService.exportAsync(file);
+            case "import":
+                return backupService.importAsync(file);
+            default:
+                throw new IllegalArgumentException("不支持的操作: " + action);
+        }
+    }
+}
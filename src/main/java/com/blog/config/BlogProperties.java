@@ -3,6 +3,10 @@ package com.blog.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 博客系统自定义配置属性
  */
@@ -18,6 +22,20 @@ public class BlogProperties {
     private Search search = new Search();
     private Comment comment = new Comment();
     private BlogPost blogPost = new BlogPost();
+    private Session session = new Session();
+    private Deletion deletion = new Deletion();
+    private TagGc tagGc = new TagGc();
+    private Trending trending = new Trending();
+    private Related related = new Related();
+    private Feed feed = new Feed();
+    private Sitemap sitemap = new Sitemap();
+    private StaticExport staticExport = new StaticExport();
+    private Backup backup = new Backup();
+    private DataGenerator dataGenerator = new DataGenerator();
+    private JdbcAccounting jdbcAccounting = new JdbcAccounting();
+    private Jfr jfr = new Jfr();
+    private Assets assets = new Assets();
+    private Images images = new Images();
 
     // Getters and Setters
     public Upload getUpload() {
@@ -84,6 +102,118 @@ public class BlogProperties {
         this.blogPost = blogPost;
     }
 
+    public Session getSession() {
+        return session;
+    }
+
+    public void setSession(Session session) {
+        this.session = session;
+    }
+
+    public Deletion getDeletion() {
+        return deletion;
+    }
+
+    public void setDeletion(Deletion deletion) {
+        this.deletion = deletion;
+    }
+
+    public TagGc getTagGc() {
+        return tagGc;
+    }
+
+    public void setTagGc(TagGc tagGc) {
+        this.tagGc = tagGc;
+    }
+
+    public Trending getTrending() {
+        return trending;
+    }
+
+    public void setTrending(Trending trending) {
+        this.trending = trending;
+    }
+
+    public Related getRelated() {
+        return related;
+    }
+
+    public void setRelated(Related related) {
+        this.related = related;
+    }
+
+    public Feed getFeed() {
+        return feed;
+    }
+
+    public void setFeed(Feed feed) {
+        this.feed = feed;
+    }
+
+    public Sitemap getSitemap() {
+        return sitemap;
+    }
+
+    public void setSitemap(Sitemap sitemap) {
+        this.sitemap = sitemap;
+    }
+
+    public StaticExport getStaticExport() {
+        return staticExport;
+    }
+
+    public void setStaticExport(StaticExport staticExport) {
+        this.staticExport = staticExport;
+    }
+
+    public Backup getBackup() {
+        return backup;
+    }
+
+    public void setBackup(Backup backup) {
+        this.backup = backup;
+    }
+
+    public DataGenerator getDataGenerator() {
+        return dataGenerator;
+    }
+
+    public void setDataGenerator(DataGenerator dataGenerator) {
+        this.dataGenerator = dataGenerator;
+    }
+
+    public JdbcAccounting getJdbcAccounting() {
+        return jdbcAccounting;
+    }
+
+    public void setJdbcAccounting(JdbcAccounting jdbcAccounting) {
+        this.jdbcAccounting = jdbcAccounting;
+    }
+
+    public Jfr getJfr() {
+        return jfr;
+    }
+
+    public void setJfr(Jfr jfr) {
+        this.jfr = jfr;
+    }
+
+    public Assets getAssets() {
+        return assets;
+    }
+
+    public void setAssets(Assets assets) {
+        this.assets = assets;
+    }
+
+    public Images getImages() {
+        return images;
+    }
+
+    public void setImages(Images images) {
+        this.images = images;
+    }
+
     /**
      * 文件上传配置
      */
@@ -259,6 +389,16 @@ public class BlogProperties {
     public static class Search {
         private int maxResults = 100;
         private boolean highlightEnabled = true;
+        private boolean advancedEnabled = true;
+        private int indexBatchSize = 10000;
+        private int maxResultWindow = 1000;
+        private boolean facetsEnabled = true;
+        private int facetTopTags = 10;
+        private int facetTopAuthors = 5;
+        private long facetBudgetMillis = 50;
+        private int facetCacheSize = 256;
+        private long facetCacheTtl = 300;
+        private int facetMaxKeywordHits = 10000;
 
         public int getMaxResults() {
             return maxResults;
@@ -275,6 +415,86 @@ public class BlogProperties {
         public void setHighlightEnabled(boolean highlightEnabled) {
             this.highlightEnabled = highlightEnabled;
         }
+
+        public boolean isAdvancedEnabled() {
+            return advancedEnabled;
+        }
+
+        public void setAdvancedEnabled(boolean advancedEnabled) {
+            this.advancedEnabled = advancedEnabled;
+        }
+
+        public int getIndexBatchSize() {
+            return indexBatchSize;
+        }
+
+        public void setIndexBatchSize(int indexBatchSize) {
+            this.indexBatchSize = indexBatchSize;
+        }
+
+        public int getMaxResultWindow() {
+            return maxResultWindow;
+        }
+
+        public void setMaxResultWindow(int maxResultWindow) {
+            this.maxResultWindow = maxResultWindow;
+        }
+
+        public boolean isFacetsEnabled() {
+            return facetsEnabled;
+        }
+
+        public void setFacetsEnabled(boolean facetsEnabled) {
+            this.facetsEnabled = facetsEnabled;
+        }
+
+        public int getFacetTopTags() {
+            return facetTopTags;
+        }
+
+        public void setFacetTopTags(int facetTopTags) {
+            this.facetTopTags = facetTopTags;
+        }
+
+        public int getFacetTopAuthors() {
+            return facetTopAuthors;
+        }
+
+        public void setFacetTopAuthors(int facetTopAuthors) {
+            this.facetTopAuthors = facetTopAuthors;
+        }
+
+        public long getFacetBudgetMillis() {
+            return facetBudgetMillis;
+        }
+
+        public void setFacetBudgetMillis(long facetBudgetMillis) {
+            this.facetBudgetMillis = facetBudgetMillis;
+        }
+
+        public int getFacetCacheSize() {
+            return facetCacheSize;
+        }
+
+        public void setFacetCacheSize(int facetCacheSize) {
+            this.facetCacheSize = facetCacheSize;
+        }
+
+        public long getFacetCacheTtl() {
+            return facetCacheTtl;
+        }
+
+        public void setFacetCacheTtl(long facetCacheTtl) {
+            this.facetCacheTtl = facetCacheTtl;
+        }
+
+        public int getFacetMaxKeywordHits() {
+            return facetMaxKeywordHits;
+        }
+
+        public void setFacetMaxKeywordHits(int facetMaxKeywordHits) {
+            this.facetMaxKeywordHits = facetMaxKeywordHits;
+        }
     }
 
     /**
@@ -342,4 +562,763 @@ public class BlogProperties {
             this.autoSaveInterval = autoSaveInterval;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 会话存储配置
+     */
+    public static class Session {
+        private String storeType = "memory";
+        private boolean initializeSchema = false;
+        private String schemaLocation = "classpath:db/session/schema-h2.sql";
+        private int touchInterval = 60;
+        private int cleanupBatchSize = 500;
+        private long cleanupInterval = 60000;
+
+        public String getStoreType() {
+            return storeType;
+        }
+
+        public void setStoreType(String storeType) {
+            this.storeType = storeType;
+        }
+
+        public boolean isInitializeSchema() {
+            return initializeSchema;
+        }
+
+        public void setInitializeSchema(boolean initializeSchema) {
+            this.initializeSchema = initializeSchema;
+        }
+
+        public String getSchemaLocation() {
+            return schemaLocation;
+        }
+
+        public void setSchemaLocation(String schemaLocation) {
+            this.schemaLocation = schemaLocation;
+        }
+
+        public int getTouchInterval() {
+            return touchInterval;
+        }
+
+        public void setTouchInterval(int touchInterval) {
+            this.touchInterval = touchInterval;
+        }
+
+        public int getCleanupBatchSize() {
+            return cleanupBatchSize;
+        }
+
+        public void setCleanupBatchSize(int cleanupBatchSize) {
+            this.cleanupBatchSize = cleanupBatchSize;
+        }
+
+        public long getCleanupInterval() {
+            return cleanupInterval;
+        }
+
+        public void setCleanupInterval(long cleanupInterval) {
+            this.cleanupInterval = cleanupInterval;
+        }
+    }
+
+    /**
+     * 内容批量删除配置
+     */
+    public static class Deletion {
+        private int chunkSize = 500;
+        private int retainedTasks = 100;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getRetainedTasks() {
+            return retainedTasks;
+        }
+
+        public void setRetainedTasks(int retainedTasks) {
+            this.retainedTasks = retainedTasks;
+        }
+    }
+
+    /**
+     * 未使用标签回收配置
+     */
+    public static class TagGc {
+        private boolean enabled = true;
+        private long interval = 3600000;
+        private int batchSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getInterval() {
+            return interval;
+        }
+
+        public void setInterval(long interval) {
+            this.interval = interval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * 热门排行配置
+     */
+    public static class Trending {
+        private long halfLife = 86400;
+        private int capacity = 50;
+        private double viewWeight = 1.0;
+        private double commentWeight = 5.0;
+        private String snapshotPath = "";
+        private long snapshotInterval = 300000;
+
+        public long getHalfLife() {
+            return halfLife;
+        }
+
+        public void setHalfLife(long halfLife) {
+            this.halfLife = halfLife;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getViewWeight() {
+            return viewWeight;
+        }
+
+        public void setViewWeight(double viewWeight) {
+            this.viewWeight = viewWeight;
+        }
+
+        public double getCommentWeight() {
+            return commentWeight;
+        }
+
+        public void setCommentWeight(double commentWeight) {
+            this.commentWeight = commentWeight;
+        }
+
+        public String getSnapshotPath() {
+            return snapshotPath;
+        }
+
+        public void setSnapshotPath(String snapshotPath) {
+            this.snapshotPath = snapshotPath;
+        }
+
+        public long getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(long snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+    }
+
+    /**
+     * 相关博客配置
+     */
+    public static class Related {
+        private boolean enabled = true;
+        private int maxResults = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+    }
+
+    /**
+     * 订阅源配置
+     */
+    public static class Feed {
+        private boolean enabled = true;
+        private String title = "个人博客系统";
+        private String description = "分享想法，记录生活，与世界连接";
+        private String siteUrl = "http://localhost:8080";
+        private int maxEntries = 20;
+        private int cacheSize = 200;
+        private long maxAge = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public String getSiteUrl() {
+            return siteUrl;
+        }
+
+        public void setSiteUrl(String siteUrl) {
+            this.siteUrl = siteUrl;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+
+        public long getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(long maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    /**
+     * 站点地图配置
+     */
+    public static class Sitemap {
+        private boolean enabled = true;
+        private String path = "sitemaps";
+        private String siteUrl = "http://localhost:8080";
+        private int urlsPerFile = 50000;
+        private int batchSize = 5000;
+        private long flushInterval = 60000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getSiteUrl() {
+            return siteUrl;
+        }
+
+        public void setSiteUrl(String siteUrl) {
+            this.siteUrl = siteUrl;
+        }
+
+        public int getUrlsPerFile() {
+            return urlsPerFile;
+        }
+
+        public void setUrlsPerFile(int urlsPerFile) {
+            this.urlsPerFile = urlsPerFile;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    /**
+     * 静态站点导出配置
+     */
+    public static class StaticExport {
+        private boolean enabled = false;
+        private String path = "static-site";
+        private int pageSize = 5;
+        private boolean rebuildOnStartup = true;
+        private int rebuildThreads = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public boolean isRebuildOnStartup() {
+            return rebuildOnStartup;
+        }
+
+        public void setRebuildOnStartup(boolean rebuildOnStartup) {
+            this.rebuildOnStartup = rebuildOnStartup;
+        }
+
+        public int getRebuildThreads() {
+            return rebuildThreads;
+        }
+
+        public void setRebuildThreads(int rebuildThreads) {
+            this.rebuildThreads = rebuildThreads;
+        }
+    }
+
+    /**
+     * 内容导出导入配置
+     */
+    public static class Backup {
+        private String path = "backups";
+        private int fetchSize = 1000;
+        private int batchSize = 1000;
+        private int retainedTasks = 20;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getRetainedTasks() {
+            return retainedTasks;
+        }
+
+        public void setRetainedTasks(int retainedTasks) {
+            this.retainedTasks = retainedTasks;
+        }
+    }
+
+    /**
+     * 合成数据生成配置
+     */
+    public static class DataGenerator {
+        private boolean enabled = false;
+        private int users = 1000;
+        private int posts = 100000;
+        private int tags = 5000;
+        private double tagExponent = 1.0;
+        private int maxTagsPerPost = 5;
+        private double commentsPerPost = 10.0;
+        private int maxCommentsPerPost = 5000;
+        private double cjkRatio = 0.7;
+        private int years = 3;
+        private long seed = 42;
+        private int threads = 0;
+        private int batchSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getUsers() {
+            return users;
+        }
+
+        public void setUsers(int users) {
+            this.users = users;
+        }
+
+        public int getPosts() {
+            return posts;
+        }
+
+        public void setPosts(int posts) {
+            this.posts = posts;
+        }
+
+        public int getTags() {
+            return tags;
+        }
+
+        public void setTags(int tags) {
+            this.tags = tags;
+        }
+
+        public double getTagExponent() {
+            return tagExponent;
+        }
+
+        public void setTagExponent(double tagExponent) {
+            this.tagExponent = tagExponent;
+        }
+
+        public int getMaxTagsPerPost() {
+            return maxTagsPerPost;
+        }
+
+        public void setMaxTagsPerPost(int maxTagsPerPost) {
+            this.maxTagsPerPost = maxTagsPerPost;
+        }
+
+        public double getCommentsPerPost() {
+            return commentsPerPost;
+        }
+
+        public void setCommentsPerPost(double commentsPerPost) {
+            this.commentsPerPost = commentsPerPost;
+        }
+
+        public int getMaxCommentsPerPost() {
+            return maxCommentsPerPost;
+        }
+
+        public void setMaxCommentsPerPost(int maxCommentsPerPost) {
+            this.maxCommentsPerPost = maxCommentsPerPost;
+        }
+
+        public double getCjkRatio() {
+            return cjkRatio;
+        }
+
+        public void setCjkRatio(double cjkRatio) {
+            this.cjkRatio = cjkRatio;
+        }
+
+        public int getYears() {
+            return years;
+        }
+
+        public void setYears(int years) {
+            this.years = years;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(long seed) {
+            this.seed = seed;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * 按请求统计SQL语句数、读取行数和JDBC耗时的配置
+     */
+    public static class JdbcAccounting {
+        private boolean enabled = true;
+        private int statementBudget = 30;
+        private long timeBudgetMillis = 500;
+        private Map<String, Integer> budgets = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getStatementBudget() {
+            return statementBudget;
+        }
+
+        public void setStatementBudget(int statementBudget) {
+            this.statementBudget = statementBudget;
+        }
+
+        public long getTimeBudgetMillis() {
+            return timeBudgetMillis;
+        }
+
+        public void setTimeBudgetMillis(long timeBudgetMillis) {
+            this.timeBudgetMillis = timeBudgetMillis;
+        }
+
+        public Map<String, Integer> getBudgets() {
+            return budgets;
+        }
+
+        public void setBudgets(Map<String, Integer> budgets) {
+            this.budgets = budgets;
+        }
+    }
+
+    /**
+     * 飞行记录器（JFR）配置
+     */
+    public static class Jfr {
+        private boolean enabled = true;
+        private String path = "recordings";
+        private String settings = "default";
+        private long thresholdMillis = 1;
+        private long maxDuration = 600;
+        private int retainedRecordings = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getSettings() {
+            return settings;
+        }
+
+        public void setSettings(String settings) {
+            this.settings = settings;
+        }
+
+        public long getThresholdMillis() {
+            return thresholdMillis;
+        }
+
+        public void setThresholdMillis(long thresholdMillis) {
+            this.thresholdMillis = thresholdMillis;
+        }
+
+        public long getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(long maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+
+        public int getRetainedRecordings() {
+            return retainedRecordings;
+        }
+
+        public void setRetainedRecordings(int retainedRecordings) {
+            this.retainedRecordings = retainedRecordings;
+        }
+    }
+
+    /**
+     * 静态资源配置
+     */
+    public static class Assets {
+        private boolean fingerprint = true;
+        private long maxAge = 31536000;
+
+        public boolean isFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(boolean fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public long getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(long maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    /**
+     * 上传图片的缩放版本配置
+     */
+    public static class Images {
+        private boolean enabled = true;
+        private String widths = "320,640,1024,1600";
+        private String formats = "webp,jpg";
+        private float quality = 0.8f;
+        private int threads = 2;
+        private int queueCapacity = 100;
+        private long maxPixels = 25_000_000;
+        private String sizes = "(max-width: 768px) 100vw, 760px";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getWidths() {
+            return widths;
+        }
+
+        public void setWidths(String widths) {
+            this.widths = widths;
+        }
+
+        public int[] getWidthsArray() {
+            return Arrays.stream(widths.split(",")).map(String::trim).filter(width -> !width.isEmpty())
+                    .mapToInt(Integer::parseInt).sorted().distinct().toArray();
+        }
+
+        public String getFormats() {
+            return formats;
+        }
+
+        public void setFormats(String formats) {
+            this.formats = formats;
+        }
+
+        public String[] getFormatsArray() {
+            return formats.split(",");
+        }
+
+        public float getQuality() {
+            return quality;
+        }
+
+        public void setQuality(float quality) {
+            this.quality = quality;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getMaxPixels() {
+            return maxPixels;
+        }
+
+        public void setMaxPixels(long maxPixels) {
+            this.maxPixels = maxPixels;
+        }
+
+        public String getSizes() {
+            return sizes;
+        }
+
+        public void setSizes(String sizes) {
+            this.sizes = sizes;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.blog.config;
+
+import com.blog.service.ContentDeletionService;
+import com.blog.service.ContentDeletionTask;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 内容删除管理端点（/actuator/contentdeletion）
+ *
+ * 默认关闭，需设置 management.endpoint.contentdeletion.enabled=true 并加入暴露列表，
+ * 建议只在内部管理端口上开放。
+ */
+@Component
+@Endpoint(id = "contentdeletion", enableByDefault = false)
+public class ContentDeletionEndpoint {
+
+    @Autowired
+    private ContentDeletionService contentDeletionService;
+
+    /**
+     * 最近的删除任务
+     */
+    @ReadOperation
+    public List<ContentDeletionTask> tasks() {
+        return contentDeletionService.getTasks();
+    }
+
+    /**
+     * 查询单个任务进度
+     */
+    @ReadOperation
+    public ContentDeletionTask task(@Selector String taskId) {
+        return contentDeletionService.getTask(taskId).orElse(null);
+    }
+
+    /**
+     * 异步删除用户及其全部内容
+     */
+    @WriteOperation
+    public ContentDeletionTask deleteUser(Long userId) {
+        return contentDeletionService.deleteUserAsync(userId);
+    }
+}
@@ -1,22 +1,37 @@
 package com.blog.config;
 
 import com.blog.entity.User;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 
 /**
  * 自定义用户详情类，实现Spring Security的UserDetails接口
+ * 只持有UserPrincipal快照，不再引用User实体；密码在认证完成后擦除，不会进入会话
  */
-public class CustomUserDetails implements UserDetails {
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
 
-    private final User user;
+    private static final long serialVersionUID = 1L;
+
+    private final UserPrincipal principal;
+
+    private final boolean enabled;
+
+    private transient String password;
 
     public CustomUserDetails(User user) {
-        this.user = user;
+        this(UserPrincipal.from(user), user.getPassword(), Boolean.TRUE.equals(user.getEnabled()));
+    }
+
+    public CustomUserDetails(UserPrincipal principal, String password, boolean enabled) {
+        this.principal = principal;
+        this.password = password;
+        this.enabled = enabled;
     }
 
     /**
@@ -24,8 +39,11 @@ public class CustomUserDetails implements UserDetails {
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // 目前所有用户都是普通用户角色
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        List<GrantedAuthority> authorities = new ArrayList<>(principal.getRoles().size());
+        for (String role : principal.getRoles()) {
+            authorities.add(new SimpleGrantedAuthority(role));
+        }
+        return authorities;
     }
 
     /**
@@ -33,7 +51,15 @@ public class CustomUserDetails implements UserDetails {
      */
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
+    }
+
+    /**
+     * 认证完成后擦除密码
+     */
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
     }
 
     /**
@@ -41,7 +67,7 @@ public class CustomUserDetails implements UserDetails {
      */
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return principal.getUsername();
     }
 
     /**
@@ -73,34 +99,54 @@ public class CustomUserDetails implements UserDetails {
      */
     @Override
     public boolean isEnabled() {
-        return user.getEnabled();
+        return enabled;
     }
 
     /**
-     * 获取用户实体
+     * 获取登录用户快照
      */
-    public User getUser() {
-        return user;
+    public UserPrincipal getPrincipal() {
+        return principal;
     }
 
     /**
      * 获取用户ID
      */
     public Long getUserId() {
-        return user.getId();
+        return principal.getId();
     }
 
     /**
      * 获取用户邮箱
      */
     public String getEmail() {
-        return user.getEmail();
+        return principal.getEmail();
     }
 
     /**
      * 获取显示名称
      */
     public String getDisplayName() {
-        return user.getDisplayName() != null ? user.getDisplayName() : user.getUsername();
+        return principal.getDisplayName() != null ? principal.getDisplayName() : principal.getUsername();
+    }
+
+    /**
+     * SessionRegistry按principal做键，同一用户的不同会话必须相等
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomUserDetails)) return false;
+        return getUsername().equals(((CustomUserDetails) o).getUsername());
+    }
+
+    @Override
+    public int hashCode() {
+        return getUsername().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "CustomUserDetails{" + principal + ", enabled=" + enabled + '}';
     }
-}
\ No newline at end of file
+}
@@ -13,6 +13,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -23,9 +25,12 @@ import java.util.Set;
 
 /**
  * 数据初始化器 - 仅在demo环境下运行
+ *
+ * 先于SyntheticDataInitializer执行，需要大规模数据时设置 blog.data-generator.enabled=true。
  */
 @Component
 @Profile("demo")
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DataInitializer implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
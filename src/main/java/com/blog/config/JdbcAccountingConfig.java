@@ -0,0 +1,49 @@
+package com.blog.config;
+
+import com.blog.datasource.AccountingDataSource;
+import com.blog.filter.JdbcAccountingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * 按请求统计SQL的配置
+ *
+ * 用AccountingDataSource包装应用的数据源（读写分离时包装最外层的路由数据源），
+ * 并在过滤器链最外层（仅次于RequestIdFilter）注册JdbcAccountingFilter，会话存储和安全过滤器中的SQL也计入请求。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.jdbc-accounting", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcAccountingConfig {
+
+    /**
+     * 包装名为dataSource的数据源，后处理器需要是静态方法，不提前初始化本配置类
+     */
+    @Bean
+    public static BeanPostProcessor accountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource && "dataSource".equals(beanName)
+                        ? new AccountingDataSource((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<JdbcAccountingFilter> jdbcAccountingFilterRegistration(
+            MeterRegistry meterRegistry, BlogProperties blogProperties) {
+        FilterRegistrationBean<JdbcAccountingFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new JdbcAccountingFilter(meterRegistry, blogProperties.getJdbcAccounting()));
+        registration.addUrlPatterns("/*");
+        registration.setName("jdbcAccountingFilter");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
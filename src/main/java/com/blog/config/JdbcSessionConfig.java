@@ -0,0 +1,69 @@
+package com.blog.config;
+
+import com.blog.session.JdbcSessionRepository;
+import com.blog.session.SessionAttributeCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.time.Duration;
+
+/**
+ * 共享会话配置，blog.session.store-type=jdbc 时启用
+ * 会话保存在现有数据源的blog_sessions表中，多个节点可共用
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(prefix = "blog.session", name = "store-type", havingValue = "jdbc")
+public class JdbcSessionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcSessionConfig.class);
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    /**
+     * 会话存储
+     */
+    @Bean
+    public JdbcSessionRepository sessionRepository() {
+        BlogProperties.Session config = blogProperties.getSession();
+        if (config.isInitializeSchema()) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                    resourceLoader.getResource(config.getSchemaLocation()));
+            DatabasePopulatorUtils.execute(populator, jdbcTemplate.getDataSource());
+            logger.info("会话表初始化完成: {}", config.getSchemaLocation());
+        }
+
+        JdbcSessionRepository repository = new JdbcSessionRepository(jdbcTemplate, new SessionAttributeCodec());
+        repository.setDefaultMaxInactiveInterval(
+                Duration.ofSeconds(blogProperties.getSecurity().getSessionTimeout()));
+        repository.setTouchInterval(Duration.ofSeconds(config.getTouchInterval()));
+        repository.setCleanupBatchSize(config.getCleanupBatchSize());
+        return repository;
+    }
+
+    /**
+     * 定期分批清理过期会话
+     */
+    @Scheduled(fixedDelayString = "${blog.session.cleanup-interval:60000}",
+               initialDelayString = "${blog.session.cleanup-interval:60000}")
+    public void cleanupExpiredSessions() {
+        sessionRepository().cleanupExpiredSessions();
+    }
+}
@@ -0,0 +1,36 @@
+package com.blog.config;
+
+import com.blog.jfr.JfrHandlerInterceptor;
+import com.blog.jfr.JfrInstrumentationPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 飞行记录器事件配置
+ *
+ * 为控制器、模板渲染、@Service方法和仓库方法发出自定义JFR事件。需要支持JFR的JDK（8u262及以上），
+ * 没有jdk.jfr时不生效。
+ */
+@Configuration
+@ConditionalOnClass(name = "jdk.jfr.FlightRecorder")
+@ConditionalOnProperty(prefix = "blog.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfig implements WebMvcConfigurer {
+
+    /**
+     * 服务和仓库方法拦截，后处理器需要是静态方法，不提前初始化本配置类
+     */
+    @Bean
+    public static BeanPostProcessor jfrInstrumentationPostProcessor() {
+        return new JfrInstrumentationPostProcessor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new JfrHandlerInterceptor());
+    }
+}
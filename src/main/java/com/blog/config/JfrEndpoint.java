@@ -0,0 +1,69 @@
+package com.blog.config;
+
+import com.blog.jfr.RecordingInfo;
+import com.blog.service.FlightRecorderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 飞行记录器管理端点（/actuator/jfr）
+ *
+ * 默认关闭，需设置 management.endpoint.jfr.enabled=true 并加入暴露列表，建议只在内部管理端口上开放。
+ * 开始：POST /actuator/jfr/start {"settings": "profile", "duration": 300, "threshold": 1}（参数均可省略），
+ * 停止：POST /actuator/jfr/stop {"id": 1}，转储：POST /actuator/jfr/dump {"id": 1}，
+ * 关闭：POST /actuator/jfr/close {"id": 1}。
+ */
+@Component
+@ConditionalOnClass(name = "jdk.jfr.FlightRecorder")
+@Endpoint(id = "jfr", enableByDefault = false)
+public class JfrEndpoint {
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    /**
+     * 当前保留的录制
+     */
+    @ReadOperation
+    public List<RecordingInfo> recordings() {
+        return flightRecorderService.getRecordings();
+    }
+
+    @ReadOperation
+    public RecordingInfo recording(@Selector long id) {
+        return flightRecorderService.getRecordingInfo(id).orElse(null);
+    }
+
+    /**
+     * 开始（start）、停止（stop）、转储（dump）或关闭（close）录制
+     */
+    @WriteOperation
+    public RecordingInfo run(@Selector String action, @Nullable Long id, @Nullable String settings,
+                             @Nullable Long duration, @Nullable Long threshold) {
+        if ("start".equals(action)) {
+            return flightRecorderService.start(settings, duration, threshold);
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("缺少录制ID");
+        }
+        switch (action) {
+            case "stop":
+                return flightRecorderService.stop(id);
+            case "dump":
+                return flightRecorderService.dump(id);
+            case "close":
+                flightRecorderService.close(id);
+                return null;
+            default:
+                throw new IllegalArgumentException("不支持的操作: " + action);
+        }
+    }
+}
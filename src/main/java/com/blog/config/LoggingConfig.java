@@ -0,0 +1,58 @@
+package com.blog.config;
+
+import com.blog.filter.RequestIdFilter;
+import com.blog.logging.CountingAsyncAppender;
+import com.blog.logging.SamplingTurboFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 日志配置
+ *
+ * 在过滤器链最外层注册RequestIdFilter，其余过滤器（包括SQL统计）在请求结束时记录的日志也带请求ID；
+ * 把异步日志追加器的丢弃数、队列长度和采样丢弃数注册为指标：
+ * blog.logging.dropped{appender, reason=discarded|overflow}、blog.logging.queue{appender}、blog.logging.sampled。
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilterRegistration() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new RequestIdFilter());
+        registration.addUrlPatterns("/*");
+        registration.setName("requestIdFilter");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder asyncLoggingMetrics() {
+        return registry -> {
+            for (String appender : CountingAsyncAppender.names()) {
+                FunctionCounter.builder("blog.logging.dropped", appender, CountingAsyncAppender::discarded)
+                        .tag("appender", appender)
+                        .tag("reason", "discarded")
+                        .description("异步日志丢弃的事件数")
+                        .register(registry);
+                FunctionCounter.builder("blog.logging.dropped", appender, CountingAsyncAppender::overflow)
+                        .tag("appender", appender)
+                        .tag("reason", "overflow")
+                        .description("异步日志丢弃的事件数")
+                        .register(registry);
+                Gauge.builder("blog.logging.queue", appender, CountingAsyncAppender::queued)
+                        .tag("appender", appender)
+                        .description("异步日志队列中等待写出的事件数")
+                        .register(registry);
+            }
+            FunctionCounter.builder("blog.logging.sampled", SamplingTurboFilter.class, type -> SamplingTurboFilter.sampledOut())
+                    .description("按日志器采样丢掉的DEBUG/TRACE事件数")
+                    .register(registry);
+        };
+    }
+}
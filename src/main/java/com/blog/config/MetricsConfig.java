@@ -0,0 +1,43 @@
+package com.blog.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+
+/**
+ * 指标配置
+ *
+ * 所有指标带 application 标签，便于多个应用共用一个Prometheus；
+ * 标签取值来自请求的指标设置上限，超出后新的时间序列直接丢弃，防止异常请求撑爆指标存储。
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 按处理器统计JDBC开销，处理器数量由代码决定，上限只为兜底
+     */
+    private static final int MAX_HANDLERS = 200;
+
+    /**
+     * http.server.requests 的 uri 标签在路由未匹配时可能退化成原始路径
+     */
+    private static final int MAX_URIS = 200;
+
+    @Bean
+    public MeterFilter commonTagsMeterFilter() {
+        return MeterFilter.commonTags(Collections.singletonList(Tag.of("application", "blog")));
+    }
+
+    @Bean
+    public MeterFilter jdbcHandlerCardinalityMeterFilter() {
+        return MeterFilter.maximumAllowableTags("blog.jdbc", "handler", MAX_HANDLERS, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter httpUriCardinalityMeterFilter() {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", MAX_URIS, MeterFilter.deny());
+    }
+}
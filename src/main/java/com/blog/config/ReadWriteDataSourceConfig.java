@@ -0,0 +1,87 @@
+package com.blog.config;
+
+import com.blog.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离数据源配置，blog.datasource.replica.enabled=true 时启用
+ *
+ * 主库沿用 spring.datasource.* 配置，从库使用 blog.datasource.replica.*；
+ * 两个连接池都注册为Bean，由Spring Boot自动暴露各自的hikaricp指标。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    /**
+     * 主库连接属性
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * 主库连接池
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 从库连接属性
+     */
+    @Bean
+    @ConfigurationProperties("blog.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * 从库连接池
+     */
+    @Bean
+    @ConfigurationProperties("blog.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 应用使用的数据源：延迟获取连接，保证在事务只读标记设置之后才路由
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 Environment environment) {
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource);
+        routingDataSource.setStickyMillis(
+                environment.getProperty("blog.datasource.replica.sticky-millis", Long.class, 5000L));
+        routingDataSource.setRetryIntervalMillis(
+                environment.getProperty("blog.datasource.replica.retry-interval-millis", Long.class, 30000L));
+        routingDataSource.afterPropertiesSet();
+        meterRegistry.ifAvailable(routingDataSource::bindMetrics);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -1,20 +1,27 @@
 package com.blog.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
 
 /**
  * Spring Security 安全配置类
@@ -33,6 +40,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private AuthenticationFailureHandler authenticationFailureHandler;
 
+    @Autowired
+    private ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> sessionRepositoryProvider;
+
     /**
      * 密码编码器
      */
@@ -52,10 +62,19 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     /**
      * 会话注册表
+     * 启用共享会话存储时基于会话表实现，跨节点限制同一用户的并发会话
      */
     @Bean
-    public org.springframework.security.core.session.SessionRegistry sessionRegistry() {
-        return new org.springframework.security.core.session.SessionRegistryImpl();
+    public SessionRegistry sessionRegistry() {
+        FindByIndexNameSessionRepository<? extends Session> sessionRepository = sessionRepositoryProvider.getIfAvailable();
+        if (sessionRepository != null) {
+            return springSessionRegistry(sessionRepository);
+        }
+        return new SessionRegistryImpl();
+    }
+
+    private <S extends Session> SessionRegistry springSessionRegistry(FindByIndexNameSessionRepository<S> sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
     }
 
     /**
@@ -79,11 +98,17 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/", "/home", "/index").permitAll()
                 .antMatchers("/blog/**").permitAll()
                 .antMatchers("/search/**").permitAll()
+                .antMatchers("/feed.xml", "/atom.xml", "/tags/*/feed.xml", "/tags/*/atom.xml",
+                        "/authors/*/feed.xml", "/authors/*/atom.xml").permitAll()
+                .antMatchers("/sitemap.xml", "/sitemaps/*", "/robots.txt").permitAll()
                 .antMatchers("/register", "/login").permitAll()
                 .antMatchers("/error/**").permitAll()
                 // 静态资源
                 .antMatchers("/css/**", "/js/**", "/images/**", "/webjars/**").permitAll()
                 .antMatchers("/favicon.ico").permitAll()
+                // 已上传的文件（上传本身需要认证）
+                .antMatchers(HttpMethod.GET, "/uploads/*").permitAll()
+                .antMatchers(HttpMethod.HEAD, "/uploads/*").permitAll()
                 // H2控制台（仅开发环境）
                 .antMatchers("/h2-console/**").permitAll()
                 // 需要认证的路径
@@ -109,7 +134,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .logout()
                 .logoutRequestMatcher(new AntPathRequestMatcher("/logout"))
                 .logoutSuccessUrl("/")
-                .deleteCookies("JSESSIONID")
+                .deleteCookies("JSESSIONID", "SESSION")
                 .invalidateHttpSession(true)
                 .clearAuthentication(true)
                 .permitAll()
@@ -1,12 +1,14 @@
 package com.blog.config;
 
 import com.blog.entity.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 /**
  * 安全工具类，用于获取当前登录用户信息
+ * 当前用户以UserPrincipal快照的形式提供，不会返回User实体
  */
 public class SecurityUtils {
 
@@ -48,11 +50,11 @@ public class SecurityUtils {
     }
 
     /**
-     * 获取当前登录用户实体
+     * 获取当前登录用户快照
      */
-    public static User getCurrentUser() {
+    public static UserPrincipal getCurrentUser() {
         CustomUserDetails userDetails = getCurrentUserDetails();
-        return userDetails != null ? userDetails.getUser() : null;
+        return userDetails != null ? userDetails.getPrincipal() : null;
     }
 
     /**
@@ -123,4 +125,21 @@ public class SecurityUtils {
         }
         return getCurrentUsername();
     }
-}
\ No newline at end of file
+
+    /**
+     * 用户资料变更后刷新会话中的用户快照
+     */
+    public static void refreshCurrentUser(User user) {
+        Authentication authentication = getCurrentAuthentication();
+        CustomUserDetails current = getCurrentUserDetails();
+        if (current == null || !current.getUserId().equals(user.getId())) {
+            return;
+        }
+
+        CustomUserDetails refreshed = new CustomUserDetails(UserPrincipal.from(user), null, current.isEnabled());
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                refreshed, null, refreshed.getAuthorities());
+        token.setDetails(authentication.getDetails());
+        SecurityContextHolder.getContext().setAuthentication(token);
+    }
+}
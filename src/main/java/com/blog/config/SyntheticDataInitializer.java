@@ -0,0 +1,59 @@
+package com.blog.config;
+
+import com.blog.datagen.GenerationStats;
+import com.blog.datagen.SyntheticDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * 合成数据初始化器 - blog.data-generator.enabled=true 时运行
+ *
+ * 在演示数据（DataInitializer）之后按配置生成大规模用户、标签、博客和评论，用于性能测试；
+ * 不限定环境，H2和MySQL均可使用。数据库中已有生成的数据时跳过，重启不会重复生成。
+ * 生成的用户密码均为 user123。
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "blog.data-generator", name = "enabled", havingValue = "true")
+public class SyntheticDataInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataInitializer.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Override
+    public void run(String... args) throws Exception {
+        BlogProperties.DataGenerator config = blogProperties.getDataGenerator();
+        if (config.getUsers() <= 0 || config.getTags() <= 0 || config.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("合成数据的用户数、标签数和批次大小必须大于0");
+        }
+        SyntheticDataGenerator generator =
+                new SyntheticDataGenerator(dataSource, config, passwordEncoder.encode("user123"));
+        if (generator.hasGeneratedData()) {
+            logger.info("数据库中已有合成数据，跳过生成");
+            return;
+        }
+
+        logger.info("开始生成合成数据: {} 个用户, {} 个标签, {} 篇博客, 平均每篇 {} 条评论, 种子: {}",
+                config.getUsers(), config.getTags(), config.getPosts(), config.getCommentsPerPost(), config.getSeed());
+        GenerationStats stats = generator.generate();
+        logger.info("合成数据生成完成: {} 篇博客, {} 条评论, 耗时: {}ms, {} 行/秒", stats.getPosts(),
+                stats.getComments(), stats.getElapsedMillis(), String.format("%.0f", stats.getRowsPerSecond()));
+    }
+}
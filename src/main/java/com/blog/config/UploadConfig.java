@@ -0,0 +1,41 @@
+package com.blog.config;
+
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.MultipartConfigElement;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 文件上传配置
+ *
+ * multipart大小限制取自blog.upload.max-file-size；阈值为0，请求体总是由容器直接写入
+ * blog.upload.path/tmp，与最终存储目录在同一文件系统上，保存时只需改名，不在堆中缓冲文件。
+ */
+@Configuration
+public class UploadConfig {
+
+    /**
+     * 表单字段和multipart边界等额外开销
+     */
+    private static final long REQUEST_OVERHEAD = 64 * 1024;
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement(BlogProperties blogProperties) throws IOException {
+        DataSize maxFileSize = DataSize.parse(blogProperties.getUpload().getMaxFileSize());
+        Path tempDir = Paths.get(blogProperties.getUpload().getPath()).toAbsolutePath().normalize().resolve("tmp");
+        Files.createDirectories(tempDir);
+
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(tempDir.toString());
+        factory.setMaxFileSize(maxFileSize);
+        factory.setMaxRequestSize(DataSize.ofBytes(maxFileSize.toBytes() + REQUEST_OVERHEAD));
+        factory.setFileSizeThreshold(DataSize.ofBytes(0));
+        return factory.createMultipartConfig();
+    }
+}
@@ -0,0 +1,200 @@
+package com.blog.config;
+
+import com.blog.entity.User;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 会话中的登录用户快照
+ * 只保存身份相关的少量不可变字段，避免把User实体及其懒加载集合放入HttpSession
+ */
+public final class UserPrincipal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 默认角色
+     */
+    public static final String ROLE_USER = "ROLE_USER";
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Long id;
+    private final String username;
+    private final String displayName;
+    private final String email;
+    private final List<String> roles;
+    private final long version;
+
+    public UserPrincipal(Long id, String username, String displayName, String email,
+                         List<String> roles, long version) {
+        this.id = id;
+        this.username = username;
+        this.displayName = displayName;
+        this.email = email;
+        this.roles = roles != null ? Collections.unmodifiableList(roles) : Collections.<String>emptyList();
+        this.version = version;
+    }
+
+    /**
+     * 根据用户实体创建快照，不会触碰任何懒加载集合
+     */
+    public static UserPrincipal from(User user) {
+        long version = user.getUpdatedAt() != null
+                ? user.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getDisplayName(), user.getEmail(),
+                Collections.singletonList(ROLE_USER), version);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 用户记录版本（取自updatedAt），用于判断会话中的快照是否已过期
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    // 序列化时替换为紧凑格式
+    private Object writeReplace() throws ObjectStreamException {
+        return new CompactForm(this);
+    }
+
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("UserPrincipal必须通过CompactForm反序列化");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserPrincipal)) return false;
+        UserPrincipal that = (UserPrincipal) o;
+        return id != null && id.equals(that.id) && version == that.version;
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", roles=" + roles +
+                ", version=" + version +
+                '}';
+    }
+
+    /**
+     * 以紧凑二进制格式写出快照，供Java序列化和会话存储共用
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(id != null ? id : -1L);
+        out.writeLong(version);
+        out.writeUTF(username);
+        writeNullableUTF(out, displayName);
+        writeNullableUTF(out, email);
+        out.writeByte(roles.size());
+        for (String role : roles) {
+            out.writeUTF(role);
+        }
+    }
+
+    /**
+     * 读取writeTo写出的紧凑二进制格式
+     */
+    public static UserPrincipal readFrom(DataInput in) throws IOException {
+        byte format = in.readByte();
+        if (format != FORMAT_VERSION) {
+            throw new InvalidObjectException("不支持的UserPrincipal序列化版本: " + format);
+        }
+        long id = in.readLong();
+        long version = in.readLong();
+        String username = in.readUTF();
+        String displayName = readNullableUTF(in);
+        String email = readNullableUTF(in);
+        int roleCount = in.readUnsignedByte();
+        String[] roles = new String[roleCount];
+        for (int i = 0; i < roleCount; i++) {
+            roles[i] = in.readUTF();
+        }
+        return new UserPrincipal(id >= 0 ? id : null, username, displayName, email,
+                Arrays.asList(roles), version);
+    }
+
+    private static void writeNullableUTF(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Java序列化代理，只写入writeTo的紧凑格式
+     */
+    static final class CompactForm implements Externalizable {
+
+        private static final long serialVersionUID = 1L;
+
+        private UserPrincipal principal;
+
+        public CompactForm() {}
+
+        CompactForm(UserPrincipal principal) {
+            this.principal = principal;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            principal.writeTo(out);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            principal = readFrom(in);
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return principal;
+        }
+    }
+}
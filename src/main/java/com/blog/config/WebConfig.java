@@ -1,9 +1,21 @@
 package com.blog.config;
 
+import com.blog.assets.AssetCacheInterceptor;
+import com.blog.assets.AssetManifest;
+import com.blog.assets.ManifestResourceResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceChainRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+
+import java.util.Collections;
 
 /**
  * Web MVC 配置类
@@ -11,20 +23,29 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private BlogProperties blogProperties;
+
     /**
      * 配置静态资源处理
+     *
+     * css和js由构建时的AssetPipeline压缩并生成指纹副本和 .gz/.br 预压缩文件：
+     * 模板中的链接按清单改写为指纹路径，请求时按Accept-Encoding直接返回预压缩文件，不在请求时压缩；
+     * 缓存头由AssetCacheInterceptor按是否带指纹设置。
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 静态资源映射
-        registry.addResourceHandler("/css/**")
+        AssetManifest manifest = blogProperties.getAssets().isFingerprint()
+                ? AssetManifest.load(getClass().getClassLoader())
+                : new AssetManifest(Collections.emptyMap());
+        assetChain(registry.addResourceHandler("/css/**")
                 .addResourceLocations("classpath:/static/css/")
-                .setCachePeriod(3600);
-                
-        registry.addResourceHandler("/js/**")
+                .resourceChain(true), manifest, "css/");
+
+        assetChain(registry.addResourceHandler("/js/**")
                 .addResourceLocations("classpath:/static/js/")
-                .setCachePeriod(3600);
-                
+                .resourceChain(true), manifest, "js/");
+
         registry.addResourceHandler("/images/**")
                 .addResourceLocations("classpath:/static/images/")
                 .setCachePeriod(3600);
@@ -34,6 +55,30 @@ public class WebConfig implements WebMvcConfigurer {
                 .setCachePeriod(3600);
     }
 
+    private void assetChain(ResourceChainRegistration chain, AssetManifest manifest, String prefix) {
+        chain.addResolver(new EncodedResourceResolver());
+        if (!manifest.isEmpty()) {
+            chain.addResolver(new ManifestResourceResolver(manifest, prefix));
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AssetCacheInterceptor(blogProperties.getAssets().getMaxAge()))
+                .addPathPatterns("/css/**", "/js/**");
+    }
+
+    /**
+     * 模板渲染时经response.encodeURL把静态资源链接交给资源链改写
+     */
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        FilterRegistrationBean<ResourceUrlEncodingFilter> registration =
+                new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
     /**
      * 配置视图控制器
      */
@@ -1,6 +1,7 @@
 package com.blog.config;
 
 import com.blog.filter.XssFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,9 +16,9 @@ public class XssConfig {
      * 注册XSS过滤器
      */
     @Bean
-    public FilterRegistrationBean<XssFilter> xssFilterRegistration() {
+    public FilterRegistrationBean<XssFilter> xssFilterRegistration(MeterRegistry meterRegistry) {
         FilterRegistrationBean<XssFilter> registration = new FilterRegistrationBean<>();
-        registration.setFilter(new XssFilter());
+        registration.setFilter(new XssFilter(meterRegistry));
         registration.addUrlPatterns("/*");
         registration.setName("xssFilter");
         registration.setOrder(1);
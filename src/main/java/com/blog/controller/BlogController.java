@@ -1,12 +1,13 @@
 package com.blog.controller;
 
 import com.blog.config.SecurityUtils;
+import com.blog.config.UserPrincipal;
 import com.blog.dto.BlogDto;
 import com.blog.dto.CommentDto;
 import com.blog.entity.Blog;
-import com.blog.entity.User;
 import com.blog.service.BlogService;
 import com.blog.service.CommentService;
+import com.blog.service.ImageVariantService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,12 +39,15 @@ public class BlogController {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     /**
      * 显示博客创建页面
      */
     @GetMapping("/create")
     public String showCreateForm(Model model) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -62,7 +66,7 @@ public class BlogController {
                             Model model,
                             RedirectAttributes redirectAttributes) {
         
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -104,19 +108,19 @@ public class BlogController {
     public String showBlogDetail(@PathVariable Long id, Model model) {
         logger.debug("显示博客详情，ID: {}", id);
 
-        Optional<Blog> blogOpt = blogService.getBlogByIdAndIncrementView(id);
+        Optional<BlogDto> blogOpt = blogService.getBlogDtoByIdAndIncrementView(id);
         if (!blogOpt.isPresent()) {
             logger.warn("博客不存在，ID: {}", id);
             model.addAttribute("errorMessage", "博客不存在");
             return "error/404";
         }
 
-        Blog blog = blogOpt.get();
+        BlogDto blogDto = blogOpt.get();
         
         // 检查博客是否已发布或用户是否为作者
-        User currentUser = SecurityUtils.getCurrentUser();
-        boolean canView = blog.getPublished() || 
-                         (currentUser != null && currentUser.getId().equals(blog.getAuthor().getId()));
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
+        boolean canView = blogDto.getPublished() || 
+                         (currentUser != null && currentUser.getId().equals(blogDto.getAuthorId()));
         
         if (!canView) {
             logger.warn("用户无权查看未发布的博客，ID: {}", id);
@@ -124,11 +128,13 @@ public class BlogController {
             return "error/403";
         }
 
-        BlogDto blogDto = blogService.convertToBlogDto(blog);
         model.addAttribute("blog", blogDto);
+
+        // 正文中引用的上传图片，带缩放版本的srcset
+        model.addAttribute("images", imageVariantService.findImages(blogDto.getContent()));
         
         // 检查当前用户是否为作者
-        boolean isAuthor = currentUser != null && currentUser.getId().equals(blog.getAuthor().getId());
+        boolean isAuthor = currentUser != null && currentUser.getId().equals(blogDto.getAuthorId());
         model.addAttribute("isAuthor", isAuthor);
 
         // 获取评论列表
@@ -136,6 +142,9 @@ public class BlogController {
         model.addAttribute("comments", comments);
         model.addAttribute("commentCount", comments.size());
 
+        // 相关博客推荐
+        model.addAttribute("relatedBlogs", blogService.getRelatedBlogs(id, 5));
+
         // 为登录用户添加评论表单
         if (currentUser != null) {
             model.addAttribute("commentDto", new CommentDto());
@@ -149,30 +158,29 @@ public class BlogController {
      */
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id, Model model) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
 
         logger.debug("显示博客编辑页面，ID: {}, 用户: {}", id, currentUser.getUsername());
 
-        Optional<Blog> blogOpt = blogService.getBlogById(id);
+        Optional<BlogDto> blogOpt = blogService.getBlogDtoById(id);
         if (!blogOpt.isPresent()) {
             logger.warn("博客不存在，ID: {}", id);
             model.addAttribute("errorMessage", "博客不存在");
             return "error/404";
         }
 
-        Blog blog = blogOpt.get();
+        BlogDto blogDto = blogOpt.get();
         
         // 检查用户是否为作者
-        if (!currentUser.getId().equals(blog.getAuthor().getId())) {
+        if (!currentUser.getId().equals(blogDto.getAuthorId())) {
             logger.warn("用户无权编辑博客，博客ID: {}, 用户: {}", id, currentUser.getUsername());
             model.addAttribute("errorMessage", "您没有权限编辑此博客");
             return "error/403";
         }
 
-        BlogDto blogDto = blogService.convertToBlogDto(blog);
         model.addAttribute("blogDto", blogDto);
         model.addAttribute("isEdit", true);
 
@@ -189,7 +197,7 @@ public class BlogController {
                             Model model,
                             RedirectAttributes redirectAttributes) {
         
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -232,7 +240,7 @@ public class BlogController {
      */
     @PostMapping("/{id}/delete")
     public String deleteBlog(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
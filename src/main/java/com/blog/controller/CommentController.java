@@ -1,9 +1,9 @@
 package com.blog.controller;
 
 import com.blog.config.SecurityUtils;
+import com.blog.config.UserPrincipal;
 import com.blog.dto.CommentDto;
 import com.blog.entity.Comment;
-import com.blog.entity.User;
 import com.blog.service.CommentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,7 +40,7 @@ public class CommentController {
                             BindingResult bindingResult,
                             RedirectAttributes redirectAttributes) {
         
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -81,7 +81,7 @@ public class CommentController {
                                @RequestParam Long blogId,
                                RedirectAttributes redirectAttributes) {
         
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -114,7 +114,7 @@ public class CommentController {
     public String showMyComments(@RequestParam(defaultValue = "0") int page,
                                 @RequestParam(defaultValue = "10") int size,
                                 Model model) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -140,7 +140,7 @@ public class CommentController {
                                     @RequestParam(defaultValue = "0") int page,
                                     @RequestParam(defaultValue = "10") int size,
                                     Model model) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -178,7 +178,7 @@ public class CommentController {
     @GetMapping("/comment/{commentId}/can-delete")
     @ResponseBody
     public boolean canDeleteComment(@PathVariable Long commentId) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return false;
         }
@@ -0,0 +1,96 @@
+package com.blog.controller;
+
+import com.blog.config.BlogProperties;
+import com.blog.feed.CachedFeed;
+import com.blog.feed.FeedFormat;
+import com.blog.service.FeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订阅源控制器
+ *
+ * 直接写出缓存的字节，客户端支持gzip时返回预先压缩的版本；
+ * 响应带ETag和Last-Modified，条件请求未变化时返回304。
+ */
+@Controller
+public class FeedController {
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    /**
+     * 全站订阅源
+     */
+    @GetMapping({"/feed.xml", "/atom.xml"})
+    public ResponseEntity<byte[]> siteFeed(HttpServletRequest request) {
+        return serve(request, FeedService.Scope.ALL, null);
+    }
+
+    /**
+     * 标签订阅源
+     */
+    @GetMapping({"/tags/{tagName}/feed.xml", "/tags/{tagName}/atom.xml"})
+    public ResponseEntity<byte[]> tagFeed(@PathVariable String tagName, HttpServletRequest request) {
+        return serve(request, FeedService.Scope.TAG, tagName);
+    }
+
+    /**
+     * 作者订阅源
+     */
+    @GetMapping({"/authors/{username}/feed.xml", "/authors/{username}/atom.xml"})
+    public ResponseEntity<byte[]> authorFeed(@PathVariable String username, HttpServletRequest request) {
+        return serve(request, FeedService.Scope.AUTHOR, username);
+    }
+
+    private ResponseEntity<byte[]> serve(HttpServletRequest request, FeedService.Scope scope, String name) {
+        BlogProperties.Feed config = blogProperties.getFeed();
+        if (!config.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        FeedFormat format = request.getRequestURI().endsWith("/atom.xml") ? FeedFormat.ATOM : FeedFormat.RSS;
+        CachedFeed feed = feedService.getFeed(scope, name, format);
+        if (feed == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // 未变化时由Spring根据ETag/Last-Modified返回304
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .eTag(feed.getEtag(gzip))
+                .lastModified(feed.getLastModified())
+                .cacheControl(CacheControl.maxAge(config.getMaxAge(), TimeUnit.SECONDS).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return response.body(feed.getGzippedBody());
+        }
+        return response.body(feed.getBody());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -38,17 +38,15 @@ public class HomeController {
             // 创建分页对象
             Pageable pageable = PageRequest.of(page, size);
             
-            // 获取已发布的博客列表
-            Page<com.blog.entity.Blog> blogEntityPage = blogService.getAllPublishedBlogs(pageable);
-            
-            // 转换为DTO
-            Page<BlogDto> blogPage = blogEntityPage.map(blog -> blogService.convertToBlogDto(blog));
+            // 获取已发布的博客列表（在服务层事务内转换为DTO）
+            Page<BlogDto> blogPage = blogService.getPublishedBlogDtos(pageable);
             
             // 添加到模型
             model.addAttribute("blogPage", blogPage);
             model.addAttribute("currentPage", page);
             model.addAttribute("totalPages", blogPage.getTotalPages());
             model.addAttribute("totalElements", blogPage.getTotalElements());
+            model.addAttribute("trendingBlogs", blogService.getPopularBlogs(5));
             
             logger.debug("主页数据加载完成，博客数量: {}", blogPage.getTotalElements());
             
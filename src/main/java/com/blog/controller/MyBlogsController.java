@@ -1,8 +1,8 @@
 package com.blog.controller;
 
 import com.blog.config.SecurityUtils;
+import com.blog.config.UserPrincipal;
 import com.blog.entity.Blog;
-import com.blog.entity.User;
 import com.blog.service.BlogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,7 +33,7 @@ public class MyBlogsController {
     public String showMyBlogs(@RequestParam(defaultValue = "0") int page,
                              @RequestParam(defaultValue = "10") int size,
                              Model model) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -1,5 +1,8 @@
 package com.blog.controller;
 
+import com.blog.config.BlogProperties;
+import com.blog.dto.AdvancedSearchDto;
+import com.blog.dto.BlogDto;
 import com.blog.entity.Blog;
 import com.blog.service.BlogService;
 import org.slf4j.Logger;
@@ -11,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestParam;
 
 /**
@@ -24,6 +28,9 @@ public class SearchController {
     @Autowired
     private BlogService blogService;
 
+    @Autowired
+    private BlogProperties blogProperties;
+
     /**
      * 博客搜索
      */
@@ -70,16 +77,28 @@ public class SearchController {
         model.addAttribute("searchQuery", searchQuery);
         model.addAttribute("keyword", keyword);
         model.addAttribute("tag", tag);
+        model.addAttribute("facets", blogService.getSearchFacets(tag, keyword));
 
         return "blog/search-results";
     }
 
     /**
-     * 高级搜索页面
+     * 高级搜索：多标签AND/OR/NOT组合、作者、日期范围和排序
      */
     @GetMapping("/search/advanced")
-    public String showAdvancedSearch(Model model) {
-        // 可以添加一些统计信息，如热门标签等
+    public String showAdvancedSearch(@ModelAttribute("search") AdvancedSearchDto search,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "10") int size,
+                                     Model model) {
+        if (search.hasCriteria()) {
+            logger.debug("高级搜索请求: {}, 页码: {}", search, page);
+            Page<BlogDto> blogPage = blogService.advancedSearch(search, PageRequest.of(Math.max(0, page),
+                    Math.min(Math.max(1, size), blogProperties.getPagination().getMaxPageSize())));
+            model.addAttribute("blogPage", blogPage);
+            model.addAttribute("currentPage", blogPage.getNumber());
+            model.addAttribute("totalPages", blogPage.getTotalPages());
+            model.addAttribute("totalElements", blogPage.getTotalElements());
+        }
         return "blog/advanced-search";
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.blog.controller;
+
+import com.blog.config.BlogProperties;
+import com.blog.service.SitemapService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 站点地图控制器
+ *
+ * 直接返回磁盘上已生成的文件，响应带Last-Modified，爬虫的条件请求未变化时返回304。
+ */
+@Controller
+public class SitemapController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    @Autowired
+    private SitemapService sitemapService;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    /**
+     * 站点地图索引
+     */
+    @GetMapping("/sitemap.xml")
+    public ResponseEntity<Resource> sitemapIndex() throws IOException {
+        return serve("sitemap.xml", MediaType.APPLICATION_XML);
+    }
+
+    /**
+     * 站点地图分片
+     */
+    @GetMapping("/sitemaps/{fileName:.+}")
+    public ResponseEntity<Resource> sitemapChunk(@PathVariable String fileName) throws IOException {
+        return serve(fileName, GZIP);
+    }
+
+    /**
+     * 爬虫协议，声明站点地图地址
+     */
+    @GetMapping(value = "/robots.txt", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public String robots() {
+        String siteUrl = blogProperties.getSitemap().getSiteUrl().trim();
+        if (siteUrl.endsWith("/")) {
+            siteUrl = siteUrl.substring(0, siteUrl.length() - 1);
+        }
+        StringBuilder robots = new StringBuilder("User-agent: *\nAllow: /\n");
+        if (blogProperties.getSitemap().isEnabled()) {
+            robots.append("Sitemap: ").append(siteUrl).append("/sitemap.xml\n");
+        }
+        return robots.toString();
+    }
+
+    private ResponseEntity<Resource> serve(String fileName, MediaType mediaType) throws IOException {
+        Path file = sitemapService.resolveFile(fileName);
+        if (file == null || !Files.isRegularFile(file)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .lastModified(Files.getLastModifiedTime(file).toMillis())
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
+                .body(new FileSystemResource(file));
+    }
+}
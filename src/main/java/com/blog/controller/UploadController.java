@@ -0,0 +1,150 @@
+package com.blog.controller;
+
+import com.blog.service.UploadService;
+import com.blog.upload.ByteRange;
+import com.blog.upload.FileSender;
+import com.blog.upload.FileType;
+import com.blog.upload.StoredUpload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 文件上传控制器
+ *
+ * 上传需要登录，返回文件地址；文件地址由内容哈希决定，内容不会变化，因此响应可以长期缓存，
+ * 并支持ETag条件请求和单区间的Range请求（视频拖动、断点续传）。
+ */
+@Controller
+public class UploadController {
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    @Autowired
+    private UploadService uploadService;
+
+    /**
+     * 上传文件
+     */
+    @PostMapping("/uploads")
+    @ResponseBody
+    public Map<String, Object> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        StoredUpload upload = uploadService.store(file);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("url", upload.getUrl());
+        result.put("size", upload.getSize());
+        result.put("type", upload.getType().getContentType());
+        result.put("duplicate", upload.isDuplicate());
+        return result;
+    }
+
+    /**
+     * 读取已上传的文件
+     */
+    @GetMapping("/uploads/{fileName:.+}")
+    public void serve(@PathVariable String fileName, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        Path file = uploadService.resolveFile(fileName);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String hash = fileName.substring(0, fileName.indexOf('.'));
+        FileType type = FileType.fromExtension(fileName.substring(fileName.indexOf('.') + 1));
+        String etag = "\"" + hash + "\"";
+        long length = Files.size(file);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, Files.getLastModifiedTime(file).toMillis());
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(type.getContentType());
+        if (!type.isInline()) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        }
+
+        // If-Range与当前版本不一致时忽略Range，返回完整内容
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        ByteRange range = ifRange == null || ifRange.equals(etag)
+                ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), length) : null;
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        if (range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.getStart() + "-" + range.getEnd() + "/" + length);
+        } else if (length == 0) {
+            response.setContentLength(0);
+            return;
+        } else {
+            range = ByteRange.full(length);
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            response.setContentLengthLong(range.getLength());
+            return;
+        }
+        FileSender.send(file, range, request, response);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> handleInvalidUpload(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> handleTooLarge(MaxUploadSizeExceededException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Collections.singletonMap("error", "文件超过大小限制"));
+    }
+
+    @ExceptionHandler(MultipartException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> handleMultipart(MultipartException e) {
+        return ResponseEntity.badRequest().body(Collections.singletonMap("error", "上传请求格式不正确"));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag) || value.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
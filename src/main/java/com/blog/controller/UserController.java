@@ -1,6 +1,7 @@
 package com.blog.controller;
 
 import com.blog.config.SecurityUtils;
+import com.blog.config.UserPrincipal;
 import com.blog.dto.PasswordChangeDto;
 import com.blog.dto.UserProfileDto;
 import com.blog.dto.UserRegistrationDto;
@@ -95,7 +96,7 @@ public class UserController {
      */
     @GetMapping("/profile")
     public String showProfile(Model model) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -116,7 +117,7 @@ public class UserController {
                                Model model,
                                RedirectAttributes redirectAttributes) {
         
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -133,6 +134,7 @@ public class UserController {
         try {
             // 更新用户资料
             User updatedUser = userService.updateUserProfile(currentUser.getId(), profileDto);
+            SecurityUtils.refreshCurrentUser(updatedUser);
             
             logger.info("用户资料更新成功: {}", updatedUser.getUsername());
             redirectAttributes.addFlashAttribute("successMessage", "资料更新成功！");
@@ -171,7 +173,7 @@ public class UserController {
                                 Model model,
                                 RedirectAttributes redirectAttributes) {
         
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         if (currentUser == null) {
             return "redirect:/login";
         }
@@ -234,7 +236,7 @@ public class UserController {
     @GetMapping("/check-username")
     @ResponseBody
     public boolean checkUsername(@RequestParam String username) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         
         // 如果是当前用户的用户名，则可用
         if (currentUser != null && currentUser.getUsername().equals(username)) {
@@ -250,7 +252,7 @@ public class UserController {
     @GetMapping("/check-email")
     @ResponseBody
     public boolean checkEmail(@RequestParam String email) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
         
         // 如果是当前用户的邮箱，则可用
         if (currentUser != null && currentUser.getEmail().equals(email)) {
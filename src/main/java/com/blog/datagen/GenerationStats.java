@@ -0,0 +1,63 @@
+package com.blog.datagen;
+
+/**
+ * 一次数据生成的统计
+ */
+public class GenerationStats {
+
+    private final int users;
+
+    private final int tags;
+
+    private final long posts;
+
+    private final long comments;
+
+    private final long elapsedMillis;
+
+    public GenerationStats(int users, int tags, long posts, long comments, long elapsedMillis) {
+        this.users = users;
+        this.tags = tags;
+        this.posts = posts;
+        this.comments = comments;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getTags() {
+        return tags;
+    }
+
+    public long getPosts() {
+        return posts;
+    }
+
+    public long getComments() {
+        return comments;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * 每秒写入的博客和评论行数
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? (posts + comments) * 1000.0 / elapsedMillis : posts + comments;
+    }
+
+    @Override
+    public String toString() {
+        return "GenerationStats{" +
+                "users=" + users +
+                ", tags=" + tags +
+                ", posts=" + posts +
+                ", comments=" + comments +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
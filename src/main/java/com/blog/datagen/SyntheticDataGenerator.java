@@ -0,0 +1,397 @@
+package com.blog.datagen;
+
+import com.blog.config.BlogProperties;
+import com.blog.entity.Blog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 大规模合成数据生成器
+ *
+ * 用户和标签先单线程批量插入；博客按batchSize篇一块，由多个线程并行生成并插入，
+ * 每块在一个事务内依次写正文、博客、标签关联和这些博客的评论，全部使用JDBC批量插入。
+ * 标签和作者按Zipf分布分配，评论数服从长尾分布（多数博客只有几条，少数有上千条），
+ * 博客创建时间按序号均匀分布在最近若干年内。
+ * 每块使用由种子和块序号确定的随机数，同一种子生成的内容相同；多线程时自增ID的分配顺序可能不同，
+ * 需要完全一致的ID时设置threads=1。
+ */
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String USER_PREFIX = "gen_user_";
+
+    private static final double PUBLISHED_RATIO = 0.95;
+
+    private static final double AUTHOR_EXPONENT = 0.8;
+
+    // 评论数服从Lomax分布，形状参数越小尾部越长
+    private static final double COMMENT_TAIL_SHAPE = 1.5;
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (username, email, password, display_name, enabled, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TAG =
+            "INSERT INTO tags (name, created_at, updated_at) VALUES (?, ?, ?)";
+
+    private static final String INSERT_CONTENT =
+            "INSERT INTO blog_content (content) VALUES (?)";
+
+    private static final String INSERT_BLOG =
+            "INSERT INTO blogs (title, content_id, excerpt, summary, view_count, published, author_id, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BLOG_TAG =
+            "INSERT INTO blog_tags (blog_id, tag_id) VALUES (?, ?)";
+
+    private static final String INSERT_COMMENT =
+            "INSERT INTO comments (content, blog_id, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+
+    private final BlogProperties.DataGenerator config;
+
+    private final String passwordHash;
+
+    /**
+     * @param passwordHash 所有生成用户共用的密码哈希
+     */
+    public SyntheticDataGenerator(DataSource dataSource, BlogProperties.DataGenerator config, String passwordHash) {
+        this.dataSource = dataSource;
+        this.config = config;
+        this.passwordHash = passwordHash;
+    }
+
+    /**
+     * 数据库中是否已有生成的数据
+     */
+    public boolean hasGeneratedData() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM users WHERE username = ?")) {
+            statement.setString(1, USER_PREFIX + 1);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getLong(1) > 0;
+            }
+        }
+    }
+
+    /**
+     * 生成全部数据
+     */
+    public GenerationStats generate() throws SQLException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime end = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime begin = end.minusYears(config.getYears());
+
+        long[] userIds = insertUsers(begin);
+        long[] tagIds = insertTags(begin);
+
+        int posts = config.getPosts();
+        int chunkSize = config.getBatchSize();
+        int chunks = (posts + chunkSize - 1) / chunkSize;
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        ZipfDistribution authors = new ZipfDistribution(userIds.length, AUTHOR_EXPONENT);
+        ZipfDistribution tags = new ZipfDistribution(tagIds.length, config.getTagExponent());
+        AtomicLong postCount = new AtomicLong();
+        AtomicLong commentCount = new AtomicLong();
+        AtomicInteger chunksDone = new AtomicInteger();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "data-generator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                Chunk task = new Chunk(chunk, begin, end, userIds, tagIds, authors, tags);
+                futures.add(pool.submit(() -> {
+                    task.run(postCount, commentCount);
+                    int done = chunksDone.incrementAndGet();
+                    if (done * 10L / chunks != (done - 1) * 10L / chunks) {
+                        logger.info("合成数据生成进度: {}/{} 篇博客, {} 条评论", postCount.get(), posts, commentCount.get());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException("合成数据生成失败: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new GenerationStats(userIds.length, tagIds.length, postCount.get(), commentCount.get(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    private long[] insertUsers(LocalDateTime createdAt) throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        int users = config.getUsers();
+        long[] ids = new long[users];
+        try (Connection connection = dataSource.getConnection()) {
+            for (int from = 0; from < users; from += config.getBatchSize()) {
+                int to = Math.min(users, from + config.getBatchSize());
+                int offset = from;
+                long[] keys = insertReturningKeys(connection, INSERT_USER, to - from, (statement, i) -> {
+                    int number = offset + i + 1;
+                    statement.setString(1, USER_PREFIX + number);
+                    statement.setString(2, USER_PREFIX + number + "@example.com");
+                    statement.setString(3, passwordHash);
+                    statement.setString(4, "用户" + number);
+                    statement.setBoolean(5, true);
+                    statement.setTimestamp(6, timestamp);
+                    statement.setTimestamp(7, timestamp);
+                });
+                System.arraycopy(keys, 0, ids, from, keys.length);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 排名为i+1的标签ID；与已有标签同名时直接使用已有标签
+     */
+    private long[] insertTags(LocalDateTime createdAt) throws SQLException {
+        Map<String, Long> existing = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT id, name FROM tags");
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    existing.put(rs.getString(2).toLowerCase(Locale.ROOT), rs.getLong(1));
+                }
+            }
+
+            long[] ids = new long[config.getTags()];
+            List<Integer> missing = new ArrayList<>();
+            for (int rank = 1; rank <= ids.length; rank++) {
+                Long id = existing.get(SyntheticText.tagName(rank).toLowerCase(Locale.ROOT));
+                if (id != null) {
+                    ids[rank - 1] = id;
+                } else {
+                    missing.add(rank);
+                }
+            }
+            Timestamp timestamp = Timestamp.valueOf(createdAt);
+            for (int from = 0; from < missing.size(); from += config.getBatchSize()) {
+                List<Integer> ranks = missing.subList(from, Math.min(missing.size(), from + config.getBatchSize()));
+                long[] keys = insertReturningKeys(connection, INSERT_TAG, ranks.size(), (statement, i) -> {
+                    statement.setString(1, SyntheticText.tagName(ranks.get(i)));
+                    statement.setTimestamp(2, timestamp);
+                    statement.setTimestamp(3, timestamp);
+                });
+                for (int i = 0; i < keys.length; i++) {
+                    ids[ranks.get(i) - 1] = keys[i];
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * 一块博客及其评论
+     */
+    private class Chunk {
+
+        private final int index;
+        private final LocalDateTime begin;
+        private final long spanSeconds;
+        private final long[] userIds;
+        private final long[] tagIds;
+        private final ZipfDistribution authors;
+        private final ZipfDistribution tags;
+
+        Chunk(int index, LocalDateTime begin, LocalDateTime end, long[] userIds, long[] tagIds,
+              ZipfDistribution authors, ZipfDistribution tags) {
+            this.index = index;
+            this.begin = begin;
+            this.spanSeconds = ChronoUnit.SECONDS.between(begin, end);
+            this.userIds = userIds;
+            this.tagIds = tagIds;
+            this.authors = authors;
+            this.tags = tags;
+        }
+
+        void run(AtomicLong postCount, AtomicLong commentCount) throws SQLException {
+            Random random = new Random(config.getSeed() * 0x9E3779B97F4A7C15L + index);
+            int from = index * config.getBatchSize();
+            int count = Math.min(config.getPosts(), from + config.getBatchSize()) - from;
+
+            boolean[] cjk = new boolean[count];
+            String[] contents = new String[count];
+            LocalDateTime[] createdAt = new LocalDateTime[count];
+            int[][] postTags = new int[count][];
+            for (int i = 0; i < count; i++) {
+                cjk[i] = random.nextDouble() < config.getCjkRatio();
+                contents[i] = SyntheticText.content(random, cjk[i]);
+                createdAt[i] = begin.plusSeconds(spanSeconds * (from + i) / config.getPosts()
+                        + random.nextInt(3600));
+                postTags[i] = sampleTags(random);
+            }
+
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    long[] contentIds = insertReturningKeys(connection, INSERT_CONTENT, count,
+                            (statement, i) -> statement.setString(1, contents[i]));
+                    long[] blogIds = insertReturningKeys(connection, INSERT_BLOG, count, (statement, i) -> {
+                        Timestamp created = Timestamp.valueOf(createdAt[i]);
+                        statement.setString(1, SyntheticText.title(random, cjk[i]));
+                        statement.setLong(2, contentIds[i]);
+                        statement.setString(3, Blog.buildExcerpt(contents[i]));
+                        statement.setString(4, random.nextInt(3) == 0 ? null : SyntheticText.summary(random, cjk[i]));
+                        statement.setLong(5, (long) Math.exp(4 + 1.5 * random.nextGaussian()));
+                        statement.setBoolean(6, random.nextDouble() < PUBLISHED_RATIO);
+                        statement.setLong(7, userIds[authors.sample(random) - 1]);
+                        statement.setTimestamp(8, created);
+                        statement.setTimestamp(9, created);
+                    });
+
+                    try (PreparedStatement statement = connection.prepareStatement(INSERT_BLOG_TAG)) {
+                        for (int i = 0; i < count; i++) {
+                            for (int rank : postTags[i]) {
+                                statement.setLong(1, blogIds[i]);
+                                statement.setLong(2, tagIds[rank - 1]);
+                                statement.addBatch();
+                            }
+                        }
+                        statement.executeBatch();
+                    }
+
+                    long comments = insertComments(connection, random, blogIds, createdAt);
+                    connection.commit();
+                    postCount.addAndGet(count);
+                    commentCount.addAndGet(comments);
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+
+        private long insertComments(Connection connection, Random random, long[] blogIds,
+                                    LocalDateTime[] createdAt) throws SQLException {
+            long inserted = 0;
+            int pending = 0;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_COMMENT)) {
+                for (int i = 0; i < blogIds.length; i++) {
+                    int comments = sampleCommentCount(random);
+                    for (int j = 0; j < comments; j++) {
+                        Timestamp created = Timestamp.valueOf(createdAt[i].plusMinutes(1 + random.nextInt(60 * 24 * 30)));
+                        statement.setString(1, SyntheticText.comment(random, random.nextDouble() < config.getCjkRatio()));
+                        statement.setLong(2, blogIds[i]);
+                        statement.setLong(3, userIds[random.nextInt(userIds.length)]);
+                        statement.setTimestamp(4, created);
+                        statement.setTimestamp(5, created);
+                        statement.addBatch();
+                        if (++pending == config.getBatchSize()) {
+                            statement.executeBatch();
+                            inserted += pending;
+                            pending = 0;
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                    inserted += pending;
+                }
+            }
+            return inserted;
+        }
+
+        /**
+         * 1到maxTagsPerPost个不重复的标签排名
+         */
+        private int[] sampleTags(Random random) {
+            int wanted = Math.min(tagIds.length, 1 + random.nextInt(config.getMaxTagsPerPost()));
+            int[] ranks = new int[wanted];
+            int size = 0;
+            for (int attempt = 0; size < wanted && attempt < wanted * 10; attempt++) {
+                int rank = tags.sample(random);
+                boolean duplicate = false;
+                for (int i = 0; i < size && !duplicate; i++) {
+                    duplicate = ranks[i] == rank;
+                }
+                if (!duplicate) {
+                    ranks[size++] = rank;
+                }
+            }
+            return size == wanted ? ranks : Arrays.copyOf(ranks, size);
+        }
+
+        /**
+         * Lomax分布：均值为commentsPerPost，多数为0到几条，少数达到maxCommentsPerPost
+         */
+        private int sampleCommentCount(Random random) {
+            double scale = config.getCommentsPerPost() * (COMMENT_TAIL_SHAPE - 1);
+            double value = scale * (Math.pow(1 - random.nextDouble(), -1 / COMMENT_TAIL_SHAPE) - 1);
+            return (int) Math.min(config.getMaxCommentsPerPost(), value);
+        }
+    }
+
+    /**
+     * 为第i行绑定插入参数
+     */
+    private interface RowBinder {
+        void bind(PreparedStatement statement, int row) throws SQLException;
+    }
+
+    /**
+     * 批量插入并按插入顺序取回自增ID
+     */
+    private static long[] insertReturningKeys(Connection connection, String sql, int rows, RowBinder binder)
+            throws SQLException {
+        long[] keys = new long[rows];
+        if (rows == 0) {
+            return keys;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                binder.bind(statement, i);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            int count = 0;
+            try (ResultSet rs = statement.getGeneratedKeys()) {
+                while (count < rows && rs.next()) {
+                    keys[count++] = rs.getLong(1);
+                }
+            }
+            if (count != rows) {
+                throw new IllegalStateException("数据库驱动未返回批量插入的全部自增ID，期望 " + rows + "，实际 " + count);
+            }
+        }
+        return keys;
+    }
+}
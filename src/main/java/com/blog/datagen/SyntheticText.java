@@ -0,0 +1,143 @@
+package com.blog.datagen;
+
+import java.util.Random;
+
+/**
+ * 合成文本
+ *
+ * 中文正文由常用词随机组句，英文正文由常见技术词汇组句，长度服从对数正态分布：
+ * 多数博客在几百到几千字之间，少数长文上万字（不超过MySQL TEXT列的容量）。正文带Markdown标题、列表和代码块，
+ * 与真实博客的渲染开销接近。
+ */
+public final class SyntheticText {
+
+    private static final String[] CJK_WORDS = {
+        "我们", "系统", "性能", "优化", "数据库", "缓存", "接口", "服务", "部署", "配置",
+        "并发", "线程", "内存", "索引", "查询", "事务", "日志", "监控", "架构", "设计",
+        "开发", "测试", "代码", "框架", "组件", "模块", "请求", "响应", "用户", "页面",
+        "今天", "终于", "发现", "问题", "原因", "其实", "可以", "需要", "通过", "这个",
+        "一个", "如何", "为什么", "总结", "经验", "实践", "学习", "笔记", "分享", "记录",
+        "生活", "旅行", "读书", "电影", "周末", "城市", "朋友", "时间", "思考", "感受"
+    };
+
+    private static final String[] CJK_PUNCTUATION = {"，", "，", "，", "。", "。", "；", "！", "？"};
+
+    private static final String[] ENGLISH_WORDS = {
+        "the", "a", "of", "to", "and", "in", "is", "for", "with", "on", "that", "this", "we", "it",
+        "performance", "latency", "throughput", "cache", "index", "query", "database", "service",
+        "thread", "memory", "allocation", "request", "response", "server", "client", "benchmark",
+        "deploy", "config", "build", "test", "release", "spring", "java", "kotlin", "docker",
+        "kubernetes", "metrics", "trace", "profile", "batch", "stream", "cursor", "replica", "shard"
+    };
+
+    private static final String[] TAG_WORDS = {
+        "Java", "Spring Boot", "MySQL", "Redis", "Kafka", "Docker", "Kubernetes", "Linux", "Go", "Python",
+        "前端", "后端", "架构", "性能优化", "数据库", "缓存", "微服务", "分布式", "算法", "数据结构",
+        "JVM", "并发编程", "网络", "安全", "测试", "DevOps", "云原生", "机器学习", "读书笔记", "生活随笔",
+        "旅行", "摄影", "电影", "音乐", "美食", "健身", "职场", "面试", "开源", "工具"
+    };
+
+    private SyntheticText() {
+    }
+
+    /**
+     * 第rank个标签的名称，排名越小越常用；超出词表后加序号保证唯一
+     */
+    public static String tagName(int rank) {
+        String word = TAG_WORDS[(rank - 1) % TAG_WORDS.length];
+        int round = (rank - 1) / TAG_WORDS.length;
+        return round == 0 ? word : word + "-" + round;
+    }
+
+    public static String title(Random random, boolean cjk) {
+        return cjk ? cjkSentence(random, 4 + random.nextInt(6), false)
+                   : capitalize(englishSentence(random, 4 + random.nextInt(8), false));
+    }
+
+    /**
+     * 博客正文，中文字数中位数约1200，英文单词数中位数约600
+     */
+    public static String content(Random random, boolean cjk) {
+        int target = (int) Math.min(15_000, Math.exp((cjk ? 7.1 : 8.2) + 0.7 * random.nextGaussian()));
+        StringBuilder content = new StringBuilder(target + 256);
+        int section = 1;
+        while (content.length() < target) {
+            content.append("## ").append(cjk ? "第" + section + "部分 " : "Part " + section + " ")
+                    .append(title(random, cjk)).append("\n\n");
+            int paragraphs = 1 + random.nextInt(4);
+            for (int i = 0; i < paragraphs && content.length() < target; i++) {
+                content.append(paragraph(random, cjk, 3 + random.nextInt(6))).append("\n\n");
+            }
+            int extra = random.nextInt(10);
+            if (extra < 3) {
+                for (int i = 0; i < 2 + random.nextInt(4); i++) {
+                    content.append("- ").append(cjk ? cjkSentence(random, 3 + random.nextInt(5), false)
+                            : englishSentence(random, 3 + random.nextInt(6), false)).append('\n');
+                }
+                content.append('\n');
+            } else if (extra < 4) {
+                content.append("```java\npublic void run() {\n    long start = System.nanoTime();\n    process(")
+                        .append(random.nextInt(1000)).append(");\n}\n```\n\n");
+            }
+            section++;
+        }
+        return content.toString();
+    }
+
+    public static String summary(Random random, boolean cjk) {
+        return cjk ? cjkSentence(random, 10 + random.nextInt(20), true)
+                   : capitalize(englishSentence(random, 10 + random.nextInt(20), true));
+    }
+
+    /**
+     * 评论，从几个词到一百多个词不等，大多很短
+     */
+    public static String comment(Random random, boolean cjk) {
+        int words = (int) Math.min(120, Math.exp(2.2 + 0.8 * random.nextGaussian())) + 2;
+        return cjk ? cjkSentence(random, words, true) : capitalize(englishSentence(random, words, true));
+    }
+
+    private static String paragraph(Random random, boolean cjk, int sentences) {
+        StringBuilder paragraph = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            if (cjk) {
+                paragraph.append(cjkSentence(random, 8 + random.nextInt(20), true));
+            } else {
+                paragraph.append(capitalize(englishSentence(random, 8 + random.nextInt(16), true))).append(' ');
+            }
+        }
+        return paragraph.toString();
+    }
+
+    private static String cjkSentence(Random random, int words, boolean punctuate) {
+        StringBuilder sentence = new StringBuilder(words * 3);
+        for (int i = 0; i < words; i++) {
+            sentence.append(CJK_WORDS[random.nextInt(CJK_WORDS.length)]);
+            if (punctuate && i > 0 && i % 7 == 0 && i < words - 1) {
+                sentence.append(CJK_PUNCTUATION[random.nextInt(3)]);
+            }
+        }
+        if (punctuate) {
+            sentence.append(CJK_PUNCTUATION[3 + random.nextInt(CJK_PUNCTUATION.length - 3)]);
+        }
+        return sentence.toString();
+    }
+
+    private static String englishSentence(Random random, int words, boolean punctuate) {
+        StringBuilder sentence = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(ENGLISH_WORDS[random.nextInt(ENGLISH_WORDS.length)]);
+        }
+        if (punctuate) {
+            sentence.append('.');
+        }
+        return sentence.toString();
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
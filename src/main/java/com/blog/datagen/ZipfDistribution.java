@@ -0,0 +1,41 @@
+package com.blog.datagen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf分布（累积分布 + 二分查找），排名1最常见
+ *
+ * 累积分布表创建后只读，多个线程可以各用自己的Random同时采样。
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Zipf分布的元素数必须大于0");
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * 采样一个排名，范围1到size
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min((index >= 0 ? index : -index - 1) + 1, cumulative.length);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
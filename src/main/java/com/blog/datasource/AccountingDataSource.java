@@ -0,0 +1,122 @@
+package com.blog.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 统计SQL执行情况的数据源代理
+ *
+ * 连接、语句和结果集用JDK动态代理包装：语句每次execute*计为一条并计时，结果集每次next()计时，
+ * 返回true时计为读取一行。只在当前线程有JdbcStats时才包装语句，统计之外的调用（定时任务、
+ * 事件监听等）直接使用原始语句，没有额外开销。
+ */
+public class AccountingDataSource extends DelegatingDataSource {
+
+    public AccountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(AccountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return invokeObjectMethod(proxy, connection, method, args);
+                    }
+                    Object result = invoke(connection, method, args);
+                    // createStatement、prepareStatement和prepareCall，按方法声明的返回类型包装
+                    if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())
+                            && JdbcStats.current() != null) {
+                        return wrapStatement(method.getReturnType(), (Statement) result);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object wrapStatement(Class<?> type, Statement statement) {
+        return Proxy.newProxyInstance(AccountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    JdbcStats stats = JdbcStats.current();
+                    String name = method.getName();
+                    if (method.getDeclaringClass() == Object.class) {
+                        return invokeObjectMethod(proxy, statement, method, args);
+                    }
+                    if (stats == null) {
+                        return invoke(statement, method, args);
+                    }
+                    if (name.startsWith("execute")) {
+                        long start = System.nanoTime();
+                        Object result;
+                        try {
+                            result = invoke(statement, method, args);
+                        } finally {
+                            stats.statementExecuted(System.nanoTime() - start);
+                        }
+                        return result instanceof ResultSet ? wrapResultSet((ResultSet) result) : result;
+                    }
+                    if ("getResultSet".equals(name)) {
+                        Object result = invoke(statement, method, args);
+                        return result instanceof ResultSet ? wrapResultSet((ResultSet) result) : result;
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet) {
+        return (ResultSet) Proxy.newProxyInstance(AccountingDataSource.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    JdbcStats stats = JdbcStats.current();
+                    if (stats == null || !"next".equals(method.getName())) {
+                        return invoke(resultSet, method, args);
+                    }
+                    long start = System.nanoTime();
+                    boolean fetched = false;
+                    try {
+                        fetched = (Boolean) invoke(resultSet, method, args);
+                        return fetched;
+                    } finally {
+                        stats.rowFetched(fetched, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    /**
+     * equals和hashCode按代理对象本身比较，与Spring的连接代理一致
+     */
+    private static Object invokeObjectMethod(Object proxy, Object target, Method method, Object[] args)
+            throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return invoke(target, method, args);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.blog.datasource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次请求（或一段代码）执行的SQL语句数、读取的行数和JDBC耗时
+ *
+ * 统计记在当前线程上：begin()开始后，经AccountingDataSource执行的语句都累加到这里，end()结束。
+ * 可以嵌套，内层结束后恢复外层的统计；内层的语句不计入外层。
+ */
+public class JdbcStats {
+
+    /**
+     * 保存本次请求统计的请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = JdbcStats.class.getName();
+
+    private static final ThreadLocal<JdbcStats> CURRENT = new ThreadLocal<>();
+
+    private final JdbcStats previous;
+
+    private int statements;
+
+    private long rows;
+
+    private long jdbcNanos;
+
+    private JdbcStats(JdbcStats previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * 在当前线程上开始统计
+     */
+    public static JdbcStats begin() {
+        JdbcStats stats = new JdbcStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * 结束统计，恢复外层的统计
+     */
+    public static void end(JdbcStats stats) {
+        if (stats.previous != null) {
+            CURRENT.set(stats.previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    static JdbcStats current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+    }
+
+    void rowFetched(boolean fetched, long nanos) {
+        if (fetched) {
+            rows++;
+        }
+        jdbcNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * 执行语句和遍历结果集的耗时之和
+     */
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long getJdbcMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(jdbcNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "JdbcStats{" +
+                "statements=" + statements +
+                ", rows=" + rows +
+                ", jdbcMillis=" + getJdbcMillis() +
+                '}';
+    }
+}
@@ -0,0 +1,215 @@
+package com.blog.datasource;
+
+import com.blog.config.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 读写分离路由数据源
+ *
+ * 只读事务（@Transactional(readOnly = true)）路由到从库，其余路由到主库。
+ * 用户提交写事务后的一段时间内，其读请求仍走主库，保证能读到自己刚写入的数据；
+ * 截止时间保存在会话中，会话共享存储时多个实例都能看到。
+ * 从库获取连接失败时自动回退到主库，并在retryInterval内不再尝试从库。
+ * 必须包在LazyConnectionDataSourceProxy中使用，才能在事务只读标记设置之后再选择数据源。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final Object STICKY_SYNCHRONIZATION_KEY = new Object();
+
+    private static final String STICKY_UNTIL_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".stickyUntil";
+
+    /**
+     * 数据源类型
+     */
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private long stickyMillis = 5000;
+
+    private long retryIntervalMillis = 30000;
+
+    private volatile long replicaRetryAt = 0;
+
+    private final Map<String, Counter> routingCounters = new HashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Target.PRIMARY, primary);
+        targets.put(Target.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    public void setStickyMillis(long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    public void setRetryIntervalMillis(long retryIntervalMillis) {
+        this.retryIntervalMillis = retryIntervalMillis;
+    }
+
+    /**
+     * 注册路由计数指标：blog.datasource.routing{target, reason}
+     */
+    public void bindMetrics(MeterRegistry registry) {
+        for (String reason : new String[]{"write", "read-only", "sticky", "replica-down", "fallback"}) {
+            registerCounter(registry, Target.PRIMARY, reason);
+        }
+        registerCounter(registry, Target.REPLICA, "read-only");
+    }
+
+    private void registerCounter(MeterRegistry registry, Target target, String reason) {
+        routingCounters.put(target + ":" + reason, Counter.builder("blog.datasource.routing")
+                .description("按目标数据源统计的连接路由次数")
+                .tag("target", target.name().toLowerCase())
+                .tag("reason", reason)
+                .register(registry));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isReplicaDown()
+                ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Route route = route();
+        if (route.target == Target.REPLICA) {
+            try {
+                Connection connection = replica.getConnection();
+                count(route);
+                return connection;
+            } catch (SQLException e) {
+                markReplicaDown(e);
+                count(new Route(Target.PRIMARY, "fallback"));
+                return primary.getConnection();
+            }
+        }
+        count(route);
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Route route = route();
+        if (route.target == Target.REPLICA) {
+            try {
+                Connection connection = replica.getConnection(username, password);
+                count(route);
+                return connection;
+            } catch (SQLException e) {
+                markReplicaDown(e);
+                count(new Route(Target.PRIMARY, "fallback"));
+                return primary.getConnection(username, password);
+            }
+        }
+        count(route);
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 从库当前是否被标记为不可用
+     */
+    public boolean isReplicaDown() {
+        return System.currentTimeMillis() < replicaRetryAt;
+    }
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerStickyMarker();
+            return new Route(Target.PRIMARY, "write");
+        }
+        if (isReplicaDown()) {
+            return new Route(Target.PRIMARY, "replica-down");
+        }
+        if (isSticky()) {
+            return new Route(Target.PRIMARY, "sticky");
+        }
+        return new Route(Target.REPLICA, "read-only");
+    }
+
+    /**
+     * 当前请求的会话是否仍在写入后的读主库期内，不会为此创建会话
+     */
+    private boolean isSticky() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        Object until = attributes.getAttribute(STICKY_UNTIL_ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+        return until instanceof Long && (Long) until >= System.currentTimeMillis();
+    }
+
+    /**
+     * 写事务提交后标记当前用户的会话在stickyMillis内读主库
+     */
+    private void registerStickyMarker() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(STICKY_SYNCHRONIZATION_KEY)) {
+            return;
+        }
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || SecurityUtils.getCurrentUserId() == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(STICKY_SYNCHRONIZATION_KEY, attributes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                attributes.setAttribute(STICKY_UNTIL_ATTRIBUTE, System.currentTimeMillis() + stickyMillis,
+                        RequestAttributes.SCOPE_SESSION);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(STICKY_SYNCHRONIZATION_KEY);
+            }
+        });
+    }
+
+    private void markReplicaDown(SQLException e) {
+        replicaRetryAt = System.currentTimeMillis() + retryIntervalMillis;
+        logger.warn("从库连接失败，{} 毫秒内回退到主库: {}", retryIntervalMillis, e.getMessage());
+    }
+
+    private void count(Route route) {
+        Counter counter = routingCounters.get(route.target + ":" + route.reason);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static final class Route {
+        private final Target target;
+        private final String reason;
+
+        private Route(Target target, String reason) {
+            this.target = target;
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.blog.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * 高级搜索表单数据传输对象
+ *
+ * 标签字段支持中英文逗号分隔多个标签。
+ */
+public class AdvancedSearchDto {
+
+    // 必须同时包含的标签
+    private String allTags;
+
+    // 至少包含其一的标签
+    private String anyTags;
+
+    // 排除的标签
+    private String excludeTags;
+
+    // 作者用户名
+    private String author;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    // newest / oldest / views
+    private String sort = "newest";
+
+    // 构造函数
+    public AdvancedSearchDto() {}
+
+    /**
+     * 是否填写了任一搜索条件
+     */
+    public boolean hasCriteria() {
+        return hasText(allTags) || hasText(anyTags) || hasText(excludeTags) || hasText(author)
+                || from != null || to != null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    // Getters and Setters
+    public String getAllTags() {
+        return allTags;
+    }
+
+    public void setAllTags(String allTags) {
+        this.allTags = allTags;
+    }
+
+    public String getAnyTags() {
+        return anyTags;
+    }
+
+    public void setAnyTags(String anyTags) {
+        this.anyTags = anyTags;
+    }
+
+    public String getExcludeTags() {
+        return excludeTags;
+    }
+
+    public void setExcludeTags(String excludeTags) {
+        this.excludeTags = excludeTags;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    @Override
+    public String toString() {
+        return "AdvancedSearchDto{" +
+                "allTags='" + allTags + '\'' +
+                ", anyTags='" + anyTags + '\'' +
+                ", excludeTags='" + excludeTags + '\'' +
+                ", author='" + author + '\'' +
+                ", from=" + from +
+                ", to=" + to +
+                ", sort='" + sort + '\'' +
+                '}';
+    }
+}
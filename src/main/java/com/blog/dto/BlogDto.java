@@ -22,6 +22,8 @@ public class BlogDto {
     @Size(max = 500, message = "博客摘要长度不能超过500个字符")
     private String summary;
 
+    private String excerpt; // 正文片段，列表页未加载正文时使用
+
     private Boolean published = true;
 
     private String tags; // 标签字符串，用逗号分隔
@@ -74,6 +76,14 @@ public class BlogDto {
         this.summary = summary;
     }
 
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
     public Boolean getPublished() {
         return published;
     }
@@ -145,7 +155,10 @@ public class BlogDto {
         if (summary != null && !summary.trim().isEmpty()) {
             return summary;
         }
-        if (content != null && content.length() > 200) {
+        if (content == null) {
+            return excerpt;
+        }
+        if (content.length() > 200) {
             return content.substring(0, 200) + "...";
         }
         return content;
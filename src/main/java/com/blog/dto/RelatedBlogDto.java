@@ -0,0 +1,54 @@
+package com.blog.dto;
+
+/**
+ * 相关博客数据传输对象，只包含推荐展示所需的字段
+ */
+public class RelatedBlogDto {
+
+    private Long id;
+    private String title;
+    private double score;
+
+    // 构造函数
+    public RelatedBlogDto() {}
+
+    public RelatedBlogDto(Long id, String title, double score) {
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    @Override
+    public String toString() {
+        return "RelatedBlogDto{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package com.blog.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 热门博客数据传输对象，只包含排行展示所需的字段
+ */
+public class TrendingBlogDto {
+
+    private Long id;
+    private String title;
+    private String authorName;
+    private LocalDateTime createdAt;
+
+    // 构造函数
+    public TrendingBlogDto() {}
+
+    public TrendingBlogDto(Long id, String title, String authorName, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.authorName = authorName;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendingBlogDto{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                '}';
+    }
+}
@@ -1,11 +1,15 @@
 package com.blog.entity;
 
+import org.hibernate.annotations.Formula;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -24,10 +28,14 @@ public class Blog extends BaseEntity {
     @Column(name = "title", nullable = false, length = 200)
     private String title;
 
-    @NotBlank(message = "博客内容不能为空")
-    @Lob
-    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
-    private String content;
+    // 一对一关系：正文单独存放，访问时才加载
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id", nullable = false, unique = true)
+    private BlogContent body;
+
+    // 正文开头的片段，列表页在没有摘要时展示，避免为此加载正文
+    @Column(name = "excerpt", length = 210)
+    private String excerpt;
 
     @Size(max = 500, message = "博客摘要长度不能超过500个字符")
     @Column(name = "summary", length = 500)
@@ -44,6 +52,10 @@ public class Blog extends BaseEntity {
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
+    // 评论数在加载博客时由子查询得到，读取时不初始化评论集合，脱离会话后也可用
+    @Formula("(SELECT COUNT(*) FROM comments c WHERE c.blog_id = id)")
+    private Integer commentCount;
+
     // 一对多关系：一篇博客可以有多条评论
     @OneToMany(mappedBy = "blog", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Comment> comments = new ArrayList<>();
@@ -62,7 +74,7 @@ public class Blog extends BaseEntity {
 
     public Blog(String title, String content, User author) {
         this.title = title;
-        this.content = content;
+        setContent(content);
         this.author = author;
     }
 
@@ -83,12 +95,40 @@ public class Blog extends BaseEntity {
         this.title = title;
     }
 
+    public BlogContent getBody() {
+        return body;
+    }
+
+    public void setBody(BlogContent body) {
+        this.body = body;
+    }
+
+    /**
+     * 获取正文，首次访问时才从blog_content表加载
+     */
     public String getContent() {
-        return content;
+        return body != null ? body.getContent() : null;
     }
 
+    /**
+     * 设置正文并同步列表片段；正文变化时刷新博客的更新时间
+     */
     public void setContent(String content) {
-        this.content = content;
+        if (body == null) {
+            body = new BlogContent(content);
+        } else if (!Objects.equals(content, body.getContent())) {
+            body.setContent(content);
+            setUpdatedAt(LocalDateTime.now());
+        }
+        this.excerpt = buildExcerpt(content);
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
     }
 
     public String getSummary() {
@@ -164,9 +204,9 @@ public class Blog extends BaseEntity {
         this.viewCount++;
     }
 
-    // 获取评论数量
+    // 获取评论数量（加载博客时的值）
     public int getCommentCount() {
-        return comments != null ? comments.size() : 0;
+        return commentCount != null ? commentCount : 0;
     }
 
     // 生成摘要（如果没有手动设置）
@@ -174,6 +214,13 @@ public class Blog extends BaseEntity {
         if (summary != null && !summary.trim().isEmpty()) {
             return summary;
         }
+        return excerpt;
+    }
+
+    /**
+     * 截取正文前200个字符作为列表片段
+     */
+    public static String buildExcerpt(String content) {
         if (content != null && content.length() > 200) {
             return content.substring(0, 200) + "...";
         }
@@ -0,0 +1,56 @@
+package com.blog.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotBlank;
+
+/**
+ * 博客正文实体类
+ *
+ * 正文单独存放在blog_content表中，列表、权限校验、评论等只用到博客元数据的查询
+ * 不再读取正文，只有详情、编辑等页面按需加载。
+ */
+@Entity
+@Table(name = "blog_content")
+public class BlogContent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "博客内容不能为空")
+    @Lob
+    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    // 构造函数
+    public BlogContent() {}
+
+    public BlogContent(String content) {
+        this.content = content;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    @Override
+    public String toString() {
+        return "BlogContent{" +
+                "id=" + id +
+                ", length=" + (content != null ? content.length() : 0) +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.blog.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 博客变更事件
+ *
+ * 在写事务内发布，监听方应使用@TransactionalEventListener在提交后处理，
+ * 用于刷新缓存、索引等派生数据。
+ */
+public class BlogChangedEvent {
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+
+    private final List<Long> blogIds;
+
+    public BlogChangedEvent(Type type, Long blogId) {
+        this(type, Collections.singletonList(blogId));
+    }
+
+    public BlogChangedEvent(Type type, Collection<Long> blogIds) {
+        this.type = type;
+        this.blogIds = Collections.unmodifiableList(new ArrayList<>(blogIds));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Long> getBlogIds() {
+        return blogIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BlogChangedEvent{" +
+                "type=" + type +
+                ", blogIds=" + blogIds +
+                '}';
+    }
+}
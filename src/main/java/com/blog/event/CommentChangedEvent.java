@@ -0,0 +1,26 @@
+package com.blog.event;
+
+/**
+ * 评论变更事件
+ *
+ * 在写事务内发布，监听方应使用@TransactionalEventListener在提交后处理。
+ */
+public class CommentChangedEvent {
+
+    private final Long blogId;
+
+    public CommentChangedEvent(Long blogId) {
+        this.blogId = blogId;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    @Override
+    public String toString() {
+        return "CommentChangedEvent{" +
+                "blogId=" + blogId +
+                '}';
+    }
+}
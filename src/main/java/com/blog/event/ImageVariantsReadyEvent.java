@@ -0,0 +1,30 @@
+package com.blog.event;
+
+/**
+ * 缩放图片生成完成事件
+ *
+ * 一张上传图片的缩放版本（或表示无需缩放的空结果）处理完成后在后台线程发布，
+ * 引用该图片的页面据此重新生成srcset。
+ */
+public class ImageVariantsReadyEvent {
+
+    private final String url;
+
+    public ImageVariantsReadyEvent(String url) {
+        this.url = url;
+    }
+
+    /**
+     * 原图地址，如 /uploads/&lt;sha256&gt;.png
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageVariantsReadyEvent{" +
+                "url='" + url + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.blog.event;
+
+import com.blog.upload.StoredUpload;
+
+import java.nio.file.Path;
+
+/**
+ * 文件上传事件
+ *
+ * 文件已移动到最终位置后发布（包括重复内容），用于生成缩放图片等派生文件。
+ */
+public class UploadStoredEvent {
+
+    private final StoredUpload upload;
+
+    private final Path file;
+
+    public UploadStoredEvent(StoredUpload upload, Path file) {
+        this.upload = upload;
+        this.file = file;
+    }
+
+    public StoredUpload getUpload() {
+        return upload;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,55 @@
+package com.blog.export;
+
+/**
+ * 一次全量导出的统计
+ */
+public class ExportStats {
+
+    private final int pages;
+
+    private final int failures;
+
+    private final int threads;
+
+    private final long elapsedMillis;
+
+    public ExportStats(int pages, int failures, int threads, long elapsedMillis) {
+        this.pages = pages;
+        this.failures = failures;
+        this.threads = threads;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * 每秒生成的页面数
+     */
+    public double getPagesPerSecond() {
+        return elapsedMillis > 0 ? pages * 1000.0 / elapsedMillis : pages;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportStats{" +
+                "pages=" + pages +
+                ", failures=" + failures +
+                ", threads=" + threads +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
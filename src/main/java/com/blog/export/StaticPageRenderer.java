@@ -0,0 +1,163 @@
+package com.blog.export;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 静态页面渲染器
+ *
+ * 在请求线程之外用应用的模板引擎渲染页面，按匿名访客的身份求值sec:authorize，
+ * 与匿名用户在线访问时看到的内容一致。模板引擎的Web上下文需要请求和响应对象，
+ * 这里用只读的代理对象模拟一次根路径下的GET请求，链接按站点根路径生成。
+ */
+public class StaticPageRenderer {
+
+    private final ITemplateEngine templateEngine;
+
+    private final ServletContext servletContext;
+
+    private final ApplicationContext applicationContext;
+
+    private final Locale locale;
+
+    public StaticPageRenderer(ITemplateEngine templateEngine, ServletContext servletContext,
+                              ApplicationContext applicationContext, Locale locale) {
+        this.templateEngine = templateEngine;
+        this.servletContext = servletContext;
+        this.applicationContext = applicationContext;
+        this.locale = locale;
+    }
+
+    /**
+     * 渲染页面
+     * @param template 模板名称
+     * @param path 页面的访问路径
+     * @param model 模型数据
+     * @return 渲染后的HTML
+     */
+    public String render(String template, String path, Map<String, Object> model) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+        HttpServletRequest request = request(path, attributes);
+        HttpServletResponse response = response();
+
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContext anonymous = SecurityContextHolder.createEmptyContext();
+        anonymous.setAuthentication(new AnonymousAuthenticationToken("static-export", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        SecurityContextHolder.setContext(anonymous);
+        try {
+            WebContext context = new WebContext(request, response, servletContext, locale, model);
+            return templateEngine.process(template, context);
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    private HttpServletRequest request(String path, Map<String, Object> attributes) {
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove((String) args[0]);
+                            return null;
+                        case "getAttributeNames":
+                            return Collections.enumeration(attributes.keySet());
+                        case "getContextPath":
+                        case "getServletPath":
+                            return "";
+                        case "getRequestURI":
+                            return path;
+                        case "getRequestURL":
+                            return new StringBuffer(path);
+                        case "getMethod":
+                            return "GET";
+                        case "getScheme":
+                            return "http";
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "getLocale":
+                            return locale;
+                        case "getLocales":
+                            return Collections.enumeration(Collections.singletonList(locale));
+                        case "getDispatcherType":
+                            return DispatcherType.REQUEST;
+                        case "getServletContext":
+                            return servletContext;
+                        case "getParameterMap":
+                            return Collections.emptyMap();
+                        case "getParameterNames":
+                        case "getHeaderNames":
+                        case "getHeaders":
+                            return Collections.emptyEnumeration();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StaticExportRequest[" + path + "]";
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private HttpServletResponse response() {
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "encodeURL":
+                        case "encodeRedirectURL":
+                        case "encodeUrl":
+                        case "encodeRedirectUrl":
+                            return args[0];
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "getLocale":
+                            return locale;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StaticExportResponse";
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.blog.feed;
+
+import java.util.Arrays;
+
+/**
+ * 已序列化的订阅源
+ *
+ * 同时保存原始字节和gzip压缩后的字节，请求时直接写出，不重复序列化和压缩；
+ * 记录包含的博客ID，博客变更时据此判断是否需要重新生成。
+ */
+public class CachedFeed {
+
+    private final byte[] body;
+
+    private final byte[] gzippedBody;
+
+    private final String etag;
+
+    private final long lastModified;
+
+    private final long[] blogIds;
+
+    /**
+     * @param body 原始XML字节
+     * @param gzippedBody gzip压缩后的字节
+     * @param etag 实体标签（不含引号），压缩版本在其后追加"-gzip"
+     * @param lastModified 最近更新时间（毫秒）
+     * @param blogIds 包含的博客ID
+     */
+    public CachedFeed(byte[] body, byte[] gzippedBody, String etag, long lastModified, long[] blogIds) {
+        this.body = body;
+        this.gzippedBody = gzippedBody;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.blogIds = blogIds.clone();
+        Arrays.sort(this.blogIds);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzippedBody() {
+        return gzippedBody;
+    }
+
+    /**
+     * 获取带引号的实体标签
+     * @param gzipped 是否为压缩版本
+     */
+    public String getEtag(boolean gzipped) {
+        return "\"" + etag + (gzipped ? "-gzip" : "") + "\"";
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public boolean contains(long blogId) {
+        return Arrays.binarySearch(blogIds, blogId) >= 0;
+    }
+}
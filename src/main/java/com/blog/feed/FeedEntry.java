@@ -0,0 +1,57 @@
+package com.blog.feed;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订阅源中的一篇博客（由投影查询填充，不加载实体和正文）
+ */
+public class FeedEntry {
+
+    private final Long id;
+    private final String title;
+    private final String summary;
+    private final String authorName;
+    private final LocalDateTime publishedAt;
+    private final LocalDateTime updatedAt;
+    private final List<String> categories;
+
+    public FeedEntry(Long id, String title, String summary, String authorName,
+                     LocalDateTime publishedAt, LocalDateTime updatedAt, List<String> categories) {
+        this.id = id;
+        this.title = title;
+        this.summary = summary;
+        this.authorName = authorName;
+        this.publishedAt = publishedAt;
+        this.updatedAt = updatedAt != null ? updatedAt : publishedAt;
+        this.categories = categories;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+}
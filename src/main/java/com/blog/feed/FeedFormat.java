@@ -0,0 +1,23 @@
+package com.blog.feed;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 订阅源格式
+ */
+public enum FeedFormat {
+
+    RSS(MediaType.parseMediaType("application/rss+xml;charset=UTF-8")),
+
+    ATOM(MediaType.parseMediaType("application/atom+xml;charset=UTF-8"));
+
+    private final MediaType mediaType;
+
+    FeedFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
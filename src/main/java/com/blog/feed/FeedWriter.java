@@ -0,0 +1,159 @@
+package com.blog.feed;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 订阅源流式写入器
+ *
+ * 基于StAX逐条写出RSS 2.0或Atom 1.0，不在内存中构建文档树；
+ * 调用顺序为 start -> entry（零或多次）-> finish。
+ */
+public class FeedWriter {
+
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+
+    private static final String DC_NS = "http://purl.org/dc/elements/1.1/";
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final XMLStreamWriter xml;
+
+    private final FeedFormat format;
+
+    private final String baseUrl;
+
+    private final ZoneId zone;
+
+    /**
+     * @param output 输出流，写入完成后由调用方关闭
+     * @param format 订阅源格式
+     * @param baseUrl 站点根地址（不以/结尾），用于生成博客的绝对链接
+     * @param zone 发布时间所在时区
+     */
+    public FeedWriter(OutputStream output, FeedFormat format, String baseUrl, ZoneId zone) throws XMLStreamException {
+        this.xml = OUTPUT_FACTORY.createXMLStreamWriter(output, "UTF-8");
+        this.format = format;
+        this.baseUrl = baseUrl;
+        this.zone = zone;
+    }
+
+    /**
+     * 写出文档头和订阅源信息
+     * @param title 订阅源标题
+     * @param description 订阅源描述
+     * @param selfPath 订阅源自身的路径
+     * @param htmlPath 对应网页的路径
+     * @param updatedAt 最近更新时间
+     */
+    public void start(String title, String description, String selfPath, String htmlPath,
+                      LocalDateTime updatedAt) throws XMLStreamException {
+        xml.writeStartDocument("UTF-8", "1.0");
+        if (format == FeedFormat.ATOM) {
+            xml.writeStartElement("feed");
+            xml.writeDefaultNamespace(ATOM_NS);
+            element("title", title);
+            element("subtitle", description);
+            element("id", baseUrl + selfPath);
+            link("self", baseUrl + selfPath);
+            link("alternate", baseUrl + htmlPath);
+            element("updated", isoTime(updatedAt));
+        } else {
+            xml.writeStartElement("rss");
+            xml.writeAttribute("version", "2.0");
+            xml.writeNamespace("atom", ATOM_NS);
+            xml.writeNamespace("dc", DC_NS);
+            xml.writeStartElement("channel");
+            element("title", title);
+            element("link", baseUrl + htmlPath);
+            element("description", description);
+            xml.writeEmptyElement("atom", "link", ATOM_NS);
+            xml.writeAttribute("href", baseUrl + selfPath);
+            xml.writeAttribute("rel", "self");
+            xml.writeAttribute("type", format.getMediaType().getType() + "/" + format.getMediaType().getSubtype());
+            element("lastBuildDate", rfcTime(updatedAt));
+        }
+    }
+
+    /**
+     * 写出一篇博客
+     */
+    public void entry(FeedEntry entry) throws XMLStreamException {
+        String url = baseUrl + "/blog/" + entry.getId();
+        if (format == FeedFormat.ATOM) {
+            xml.writeStartElement("entry");
+            element("title", entry.getTitle());
+            element("id", url);
+            link("alternate", url);
+            element("published", isoTime(entry.getPublishedAt()));
+            element("updated", isoTime(entry.getUpdatedAt()));
+            xml.writeStartElement("author");
+            element("name", entry.getAuthorName());
+            xml.writeEndElement();
+            for (String category : entry.getCategories()) {
+                xml.writeEmptyElement("category");
+                xml.writeAttribute("term", category);
+            }
+            if (entry.getSummary() != null) {
+                xml.writeStartElement("summary");
+                xml.writeAttribute("type", "text");
+                xml.writeCharacters(entry.getSummary());
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        } else {
+            xml.writeStartElement("item");
+            element("title", entry.getTitle());
+            element("link", url);
+            xml.writeStartElement("guid");
+            xml.writeAttribute("isPermaLink", "true");
+            xml.writeCharacters(url);
+            xml.writeEndElement();
+            element("pubDate", rfcTime(entry.getPublishedAt()));
+            xml.writeStartElement("dc", "creator", DC_NS);
+            xml.writeCharacters(entry.getAuthorName());
+            xml.writeEndElement();
+            for (String category : entry.getCategories()) {
+                element("category", category);
+            }
+            if (entry.getSummary() != null) {
+                element("description", entry.getSummary());
+            }
+            xml.writeEndElement();
+        }
+    }
+
+    /**
+     * 结束文档并刷新到输出流
+     */
+    public void finish() throws XMLStreamException {
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+    }
+
+    private void element(String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text != null ? text : "");
+        xml.writeEndElement();
+    }
+
+    private void link(String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", rel);
+        xml.writeAttribute("href", href);
+    }
+
+    private String isoTime(LocalDateTime time) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time.atZone(zone).withNano(0));
+    }
+
+    private String rfcTime(LocalDateTime time) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(time.atZone(zone));
+    }
+}
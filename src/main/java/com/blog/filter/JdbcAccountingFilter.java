@@ -0,0 +1,122 @@
+package com.blog.filter;
+
+import com.blog.config.BlogProperties;
+import com.blog.datasource.JdbcStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按请求统计SQL的过滤器
+ *
+ * 在过滤器链最外层开始统计，请求结束后按处理器方法（如 BlogController.showBlogDetail）记录指标：
+ * blog.jdbc.statements、blog.jdbc.rows、blog.jdbc.time。语句数或JDBC耗时超出预算时记录警告，
+ * 并累加 blog.jdbc.budget.exceeded。没有匹配到控制器方法且没有执行SQL的请求（静态资源等）不记录。
+ */
+public class JdbcAccountingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcAccountingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final BlogProperties.JdbcAccounting config;
+
+    private final Map<String, HandlerMeters> meters = new ConcurrentHashMap<>();
+
+    public JdbcAccountingFilter(MeterRegistry meterRegistry, BlogProperties.JdbcAccounting config) {
+        this.meterRegistry = meterRegistry;
+        this.config = config;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        JdbcStats stats = JdbcStats.begin();
+        request.setAttribute(JdbcStats.REQUEST_ATTRIBUTE, stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            JdbcStats.end(stats);
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, JdbcStats stats) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod) && stats.getStatements() == 0) {
+            return;
+        }
+        String handlerName = handlerName(handler);
+        HandlerMeters handlerMeters = meters.computeIfAbsent(handlerName, HandlerMeters::new);
+        handlerMeters.statements.record(stats.getStatements());
+        handlerMeters.rows.record(stats.getRows());
+        handlerMeters.time.record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        int statementBudget = config.getBudgets().getOrDefault(handlerName, config.getStatementBudget());
+        boolean overStatements = statementBudget > 0 && stats.getStatements() > statementBudget;
+        boolean overTime = config.getTimeBudgetMillis() > 0 && stats.getJdbcMillis() > config.getTimeBudgetMillis();
+        if (overStatements || overTime) {
+            handlerMeters.budgetExceeded.increment();
+            logger.warn("请求超出SQL预算: {} {}, 处理器: {}, 语句: {}/{}, 读取行数: {}, JDBC耗时: {}ms/{}ms",
+                    request.getMethod(), request.getRequestURI(), handlerName, stats.getStatements(),
+                    statementBudget, stats.getRows(), stats.getJdbcMillis(), config.getTimeBudgetMillis());
+        }
+    }
+
+    /**
+     * 控制器方法为"类名.方法名"，其他处理器为类名，未匹配到处理器（被安全过滤器拦截等）为none
+     */
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return handler != null ? handler.getClass().getSimpleName() : "none";
+    }
+
+    private final class HandlerMeters {
+
+        final DistributionSummary statements;
+
+        final DistributionSummary rows;
+
+        final Timer time;
+
+        final Counter budgetExceeded;
+
+        HandlerMeters(String handler) {
+            statements = DistributionSummary.builder("blog.jdbc.statements")
+                    .description("每个请求执行的SQL语句数")
+                    .tag("handler", handler)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            rows = DistributionSummary.builder("blog.jdbc.rows")
+                    .description("每个请求从结果集读取的行数")
+                    .tag("handler", handler)
+                    .register(meterRegistry);
+            time = Timer.builder("blog.jdbc.time")
+                    .description("每个请求执行SQL和读取结果集的耗时")
+                    .tag("handler", handler)
+                    .register(meterRegistry);
+            budgetExceeded = Counter.builder("blog.jdbc.budget.exceeded")
+                    .description("超出SQL预算的请求数")
+                    .tag("handler", handler)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.blog.filter;
+
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * 请求ID过滤器
+ *
+ * 沿用反向代理传入的 X-Request-Id（只接受字母、数字和 ._- ，最长64个字符），否则生成一个16位十六进制ID。
+ * ID放入MDC的 requestId，本次请求中的日志都带上它，并通过响应头返回，便于按ID关联请求和日志。
+ */
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+
+    public static final String MDC_KEY = "requestId";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+            requestId = newId();
+        }
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(HEADER, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    /**
+     * 不用UUID.randomUUID()，避免每个请求都经过SecureRandom
+     */
+    private static String newId() {
+        String hex = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+}
@@ -1,19 +1,33 @@
 package com.blog.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * XSS攻击过滤器
+ *
+ * 每个请求结束后把清洗参数和请求头的累计耗时记入 blog.security.xss，
+ * 只统计清洗本身，不含后续过滤器和控制器的处理时间。
  */
 public class XssFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(XssFilter.class);
 
+    private final Timer cleanTimer;
+
+    public XssFilter(MeterRegistry meterRegistry) {
+        this.cleanTimer = Timer.builder("blog.security.xss")
+                .description("每个请求中XSS过滤清洗参数和请求头的累计耗时")
+                .register(meterRegistry);
+    }
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         logger.info("XSS过滤器初始化");
@@ -28,7 +42,11 @@ public class XssFilter implements Filter {
         // 包装请求，对参数进行XSS过滤
         XssHttpServletRequestWrapper wrappedRequest = new XssHttpServletRequestWrapper(httpRequest);
         
-        chain.doFilter(wrappedRequest, response);
+        try {
+            chain.doFilter(wrappedRequest, response);
+        } finally {
+            cleanTimer.record(wrappedRequest.getCleanNanos(), TimeUnit.NANOSECONDS);
+        }
     }
 
     @Override
@@ -4,16 +4,46 @@ import com.blog.util.XssUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * XSS请求包装器
+ *
+ * 累计本次请求中清洗参数和请求头所花的时间，由XssFilter在请求结束时记录。
+ * 包装器只在处理请求的线程中使用，计时字段不需要同步。
+ * 条件请求和Range请求头是协议字段（ETag带双引号），不会输出到页面，原样返回，否则转义后永远无法匹配。
  */
 public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
+    private static final Set<String> PROTOCOL_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        PROTOCOL_HEADERS.addAll(Arrays.asList("If-None-Match", "If-Match", "If-Range", "Range",
+                "If-Modified-Since", "If-Unmodified-Since"));
+    }
+
+    private long cleanNanos;
+
     public XssHttpServletRequestWrapper(HttpServletRequest request) {
         super(request);
     }
 
+    /**
+     * 本次请求中清洗参数和请求头的累计耗时（纳秒）
+     */
+    public long getCleanNanos() {
+        return cleanNanos;
+    }
+
+    private String clean(String value) {
+        long start = System.nanoTime();
+        String cleaned = XssUtils.cleanXSS(value);
+        cleanNanos += System.nanoTime() - start;
+        return cleaned;
+    }
+
     @Override
     public String[] getParameterValues(String parameter) {
         String[] values = super.getParameterValues(parameter);
@@ -24,7 +54,7 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
         int count = values.length;
         String[] encodedValues = new String[count];
         for (int i = 0; i < count; i++) {
-            encodedValues[i] = XssUtils.cleanXSS(values[i]);
+            encodedValues[i] = clean(values[i]);
         }
         
         return encodedValues;
@@ -33,12 +63,15 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
     @Override
     public String getParameter(String parameter) {
         String value = super.getParameter(parameter);
-        return XssUtils.cleanXSS(value);
+        return clean(value);
     }
 
     @Override
     public String getHeader(String name) {
         String value = super.getHeader(name);
-        return XssUtils.cleanXSS(value);
+        if (name != null && PROTOCOL_HEADERS.contains(name)) {
+            return value;
+        }
+        return clean(value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.blog.image;
+
+/**
+ * 模板中渲染一张图片所需的数据
+ *
+ * 缩放版本未生成时srcset为null，只使用原图。
+ */
+public class ResponsiveImage {
+
+    private final String src;
+
+    private final String srcset;
+
+    private final String webpSrcset;
+
+    private final String sizes;
+
+    private final int width;
+
+    private final int height;
+
+    public ResponsiveImage(String src) {
+        this(src, null, null, null, 0, 0);
+    }
+
+    public ResponsiveImage(String src, String srcset, String webpSrcset, String sizes, int width, int height) {
+        this.src = src;
+        this.srcset = srcset;
+        this.webpSrcset = webpSrcset;
+        this.sizes = sizes;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * 原图地址
+     */
+    public String getSrc() {
+        return src;
+    }
+
+    /**
+     * JPEG/PNG版本的srcset，包含原图
+     */
+    public String getSrcset() {
+        return srcset;
+    }
+
+    /**
+     * WebP版本的srcset，没有WebP编码器时为null
+     */
+    public String getWebpSrcset() {
+        return webpSrcset;
+    }
+
+    public String getSizes() {
+        return sizes;
+    }
+
+    /**
+     * 原图宽度，未知时为0
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * 原图高度，未知时为0
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isResponsive() {
+        return srcset != null;
+    }
+}
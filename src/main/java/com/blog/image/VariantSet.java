@@ -0,0 +1,110 @@
+package com.blog.image;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 一张图片已生成的缩放版本，保存在原图旁边的 &lt;sha256&gt;.variants 文件中
+ *
+ * 该文件在所有版本写完后最后写入，存在即表示处理完成；没有可用版本（原图太小或无法解码）时列表为空。
+ */
+public class VariantSet {
+
+    private final int width;
+
+    private final int height;
+
+    private final List<Integer> widths;
+
+    private final List<String> formats;
+
+    public VariantSet(int width, int height, List<Integer> widths, List<String> formats) {
+        this.width = width;
+        this.height = height;
+        this.widths = Collections.unmodifiableList(new ArrayList<>(widths));
+        this.formats = Collections.unmodifiableList(new ArrayList<>(formats));
+    }
+
+    public static VariantSet empty() {
+        return new VariantSet(0, 0, Collections.emptyList(), Collections.emptyList());
+    }
+
+    public static VariantSet read(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        List<Integer> widths = new ArrayList<>();
+        for (String width : split(properties.getProperty("widths", ""))) {
+            widths.add(Integer.parseInt(width));
+        }
+        return new VariantSet(Integer.parseInt(properties.getProperty("width", "0")),
+                Integer.parseInt(properties.getProperty("height", "0")), widths,
+                split(properties.getProperty("formats", "")));
+    }
+
+    public void write(Writer writer) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("width", String.valueOf(width));
+        properties.setProperty("height", String.valueOf(height));
+        properties.setProperty("widths", join(widths));
+        properties.setProperty("formats", join(formats));
+        properties.store(writer, null);
+    }
+
+    private static List<String> split(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static String join(List<?> items) {
+        StringBuilder joined = new StringBuilder();
+        for (Object item : items) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(item);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * 原图宽度
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * 原图高度
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * 已生成的宽度，从小到大
+     */
+    public List<Integer> getWidths() {
+        return widths;
+    }
+
+    /**
+     * 已生成的格式（扩展名）
+     */
+    public List<String> getFormats() {
+        return formats;
+    }
+
+    public boolean isEmpty() {
+        return widths.isEmpty() || formats.isEmpty();
+    }
+}
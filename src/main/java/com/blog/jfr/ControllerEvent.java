@@ -0,0 +1,35 @@
+package com.blog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 控制器方法处理一次请求，不含视图渲染
+ */
+@Name("com.blog.ControllerInvocation")
+@Label("Controller Invocation")
+@Category({"Blog", "Web"})
+@Description("控制器方法处理一次请求，不含视图渲染")
+@StackTrace(false)
+public class ControllerEvent extends Event {
+
+    @Label("Handler")
+    String handler;
+
+    @Label("HTTP Method")
+    String httpMethod;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Blog Id")
+    @Description("路径中的博客ID，没有时为0")
+    long blogId;
+
+    @Label("Status")
+    int status;
+}
@@ -0,0 +1,113 @@
+package com.blog.jfr;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * 为控制器方法和模板渲染发出JFR事件
+ *
+ * preHandle到postHandle为控制器事件，postHandle到afterCompletion为模板渲染事件；
+ * 控制器抛出异常时没有postHandle，控制器事件在afterCompletion结束。事件对象放在请求属性中传递，
+ * postHandle结束控制器事件后做标记，afterCompletion据此不再重复结束。
+ */
+public class JfrHandlerInterceptor implements HandlerInterceptor {
+
+    private static final String CONTROLLER_EVENT = JfrHandlerInterceptor.class.getName() + ".controller";
+
+    private static final String RENDER_EVENT = JfrHandlerInterceptor.class.getName() + ".render";
+
+    private static final String CONTROLLER_ENDED = JfrHandlerInterceptor.class.getName() + ".controllerEnded";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            ControllerEvent event = new ControllerEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                request.setAttribute(CONTROLLER_EVENT, event);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        ControllerEvent controllerEvent = (ControllerEvent) request.getAttribute(CONTROLLER_EVENT);
+        if (controllerEvent != null) {
+            controllerEvent.end();
+            request.setAttribute(CONTROLLER_ENDED, Boolean.TRUE);
+        }
+        String viewName = modelAndView != null ? modelAndView.getViewName() : null;
+        if (handler instanceof HandlerMethod && viewName != null && !viewName.startsWith("redirect:")
+                && !viewName.startsWith("forward:")) {
+            TemplateRenderEvent event = new TemplateRenderEvent();
+            if (event.isEnabled()) {
+                event.template = viewName;
+                event.begin();
+                request.setAttribute(RENDER_EVENT, event);
+            }
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ControllerEvent controllerEvent = (ControllerEvent) request.getAttribute(CONTROLLER_EVENT);
+        TemplateRenderEvent renderEvent = (TemplateRenderEvent) request.getAttribute(RENDER_EVENT);
+        if (controllerEvent == null && renderEvent == null) {
+            return;
+        }
+        String handlerName = handlerName((HandlerMethod) handler);
+        long blogId = blogId(request);
+        if (controllerEvent != null) {
+            if (request.getAttribute(CONTROLLER_ENDED) == null) {
+                controllerEvent.end();
+            }
+            if (controllerEvent.shouldCommit()) {
+                controllerEvent.handler = handlerName;
+                controllerEvent.httpMethod = request.getMethod();
+                controllerEvent.uri = request.getRequestURI();
+                controllerEvent.blogId = blogId;
+                controllerEvent.status = response.getStatus();
+                controllerEvent.commit();
+            }
+        }
+        if (renderEvent != null) {
+            renderEvent.end();
+            if (renderEvent.shouldCommit()) {
+                renderEvent.handler = handlerName;
+                renderEvent.blogId = blogId;
+                renderEvent.commit();
+            }
+        }
+    }
+
+    private static String handlerName(HandlerMethod handler) {
+        return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+    }
+
+    /**
+     * 路径变量blogId或id（/blog/{id}）
+     */
+    @SuppressWarnings("unchecked")
+    private static long blogId(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            return 0;
+        }
+        String value = variables.containsKey("blogId") ? variables.get("blogId") : variables.get("id");
+        try {
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
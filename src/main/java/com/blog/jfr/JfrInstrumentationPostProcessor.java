@@ -0,0 +1,57 @@
+package com.blog.jfr;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 为@Service类和Spring Data仓库加上JFR方法拦截
+ *
+ * 已经是代理的Bean（事务代理、仓库代理）把拦截器加到通知链最前面，事件包含事务提交；
+ * 其他服务类用CGLIB创建代理。只处理本应用（com.blog包）的类。
+ */
+public class JfrInstrumentationPostProcessor implements BeanPostProcessor {
+
+    private static final String BASE_PACKAGE = "com.blog.";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        boolean repository = bean instanceof Repository;
+        String prefix = repository ? repositoryName(bean) : serviceName(bean);
+        if (prefix == null) {
+            return bean;
+        }
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new JfrMethodInterceptor(prefix, repository));
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvisor(0, advisor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(!repository);
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+    }
+
+    private static String repositoryName(Object bean) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(bean)) {
+            if (Repository.class.isAssignableFrom(type) && type.getName().startsWith(BASE_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return null;
+    }
+
+    private static String serviceName(Object bean) {
+        Class<?> type = ClassUtils.getUserClass(AopUtils.getTargetClass(bean));
+        return type.getName().startsWith(BASE_PACKAGE) && AnnotatedElementUtils.hasAnnotation(type, Service.class)
+                ? type.getSimpleName() : null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.blog.jfr;
+
+import com.blog.entity.Blog;
+import jdk.jfr.Event;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为服务和仓库方法发出JFR事件
+ *
+ * 没有录制启用对应事件时只多一次isEnabled()判断。博客ID取自名为blogId的参数、Blog类型的参数，
+ * 以及博客服务和博客仓库中名为id或方法名以ById结尾的第一个Long参数；参数位置按方法缓存。
+ */
+public class JfrMethodInterceptor implements MethodInterceptor {
+
+    private static final int NONE = -1;
+
+    private final String prefix;
+
+    private final boolean repository;
+
+    private final boolean blogScoped;
+
+    private final Map<Method, Integer> blogIdIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * @param prefix 事件中方法名的前缀，服务类或仓库接口的简单类名
+     * @param repository 是否为仓库，决定发出QueryEvent还是ServiceEvent
+     */
+    public JfrMethodInterceptor(String prefix, boolean repository) {
+        this.prefix = prefix;
+        this.repository = repository;
+        this.blogScoped = prefix.startsWith("Blog");
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Event event = repository ? new QueryEvent() : new ServiceEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        try {
+            return invocation.proceed();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Method method = invocation.getMethod();
+                ((MethodEvent) event).set(prefix + "." + method.getName(),
+                        blogId(method, invocation.getArguments()));
+                event.commit();
+            }
+        }
+    }
+
+    private long blogId(Method method, Object[] arguments) {
+        int index = blogIdIndexes.computeIfAbsent(method, this::blogIdIndex);
+        if (index == NONE || arguments[index] == null) {
+            return 0;
+        }
+        Object argument = arguments[index];
+        if (argument instanceof Blog) {
+            Long id = ((Blog) argument).getId();
+            return id != null ? id : 0;
+        }
+        return argument instanceof Long ? (Long) argument : 0;
+    }
+
+    private int blogIdIndex(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i].getType();
+            String name = parameters[i].getName();
+            if (type == Blog.class || type == Long.class && "blogId".equals(name)) {
+                return i;
+            }
+            if (blogScoped && type == Long.class && ("id".equals(name) || i == 0 && method.getName().endsWith("ById"))) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,9 @@
+package com.blog.jfr;
+
+/**
+ * 服务和仓库方法事件的共同字段，只在提交前设置
+ */
+interface MethodEvent {
+
+    void set(String method, long blogId);
+}
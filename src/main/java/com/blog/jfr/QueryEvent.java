@@ -0,0 +1,32 @@
+package com.blog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次仓库方法调用（查询或写入）
+ */
+@Name("com.blog.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Blog", "Database"})
+@Description("一次仓库方法调用（查询或写入）")
+@StackTrace(false)
+public class QueryEvent extends Event implements MethodEvent {
+
+    @Label("Method")
+    String method;
+
+    @Label("Blog Id")
+    @Description("参数中的博客ID，没有时为0")
+    long blogId;
+
+    @Override
+    public void set(String method, long blogId) {
+        this.method = method;
+        this.blogId = blogId;
+    }
+}
@@ -0,0 +1,67 @@
+package com.blog.jfr;
+
+import jdk.jfr.Recording;
+
+/**
+ * 录制状态，供管理端点返回
+ */
+public class RecordingInfo {
+
+    private final long id;
+
+    private final String name;
+
+    private final String state;
+
+    private final String startTime;
+
+    private final Long durationSeconds;
+
+    private final long size;
+
+    private final String dumpFile;
+
+    public RecordingInfo(Recording recording, String dumpFile) {
+        this.id = recording.getId();
+        this.name = recording.getName();
+        this.state = recording.getState().name();
+        this.startTime = recording.getStartTime() != null ? recording.getStartTime().toString() : null;
+        this.durationSeconds = recording.getDuration() != null ? recording.getDuration().getSeconds() : null;
+        this.size = recording.getSize();
+        this.dumpFile = dumpFile;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * 录制时长上限，到时自动停止；为空表示一直录制到手动停止
+     */
+    public Long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 最近一次转储的文件
+     */
+    public String getDumpFile() {
+        return dumpFile;
+    }
+}
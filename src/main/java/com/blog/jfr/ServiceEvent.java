@@ -0,0 +1,32 @@
+package com.blog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次@Service方法调用，包含其中的事务提交
+ */
+@Name("com.blog.ServiceInvocation")
+@Label("Service Invocation")
+@Category({"Blog", "Service"})
+@Description("一次@Service方法调用，包含其中的事务提交")
+@StackTrace(false)
+public class ServiceEvent extends Event implements MethodEvent {
+
+    @Label("Method")
+    String method;
+
+    @Label("Blog Id")
+    @Description("参数中的博客ID，没有时为0")
+    long blogId;
+
+    @Override
+    public void set(String method, long blogId) {
+        this.method = method;
+        this.blogId = blogId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.blog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Thymeleaf模板渲染，从控制器返回视图名到响应写完
+ */
+@Name("com.blog.TemplateRender")
+@Label("Template Render")
+@Category({"Blog", "Web"})
+@Description("Thymeleaf模板渲染，从控制器返回视图名到响应写完")
+@StackTrace(false)
+public class TemplateRenderEvent extends Event {
+
+    @Label("Template")
+    String template;
+
+    @Label("Handler")
+    String handler;
+
+    @Label("Blog Id")
+    @Description("路径中的博客ID，没有时为0")
+    long blogId;
+}
@@ -0,0 +1,87 @@
+package com.blog.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 统计丢弃事件的异步日志追加器
+ *
+ * 与logback自带的AsyncAppender相同，另外按追加器名称统计两类丢弃：
+ * 队列剩余容量低于丢弃阈值时丢掉的TRACE/DEBUG/INFO事件（discarded），
+ * 以及neverBlock模式下队列已满被丢掉的事件（overflow）。
+ * logback不返回入队结果，overflow在入队前按剩余容量判断，并发写满的瞬间可能有少量偏差。
+ *
+ * 计数按名称保存在静态表中，重新加载日志配置后继续累加，由LoggingConfig注册为指标。
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final Map<String, Counts> COUNTS = new ConcurrentHashMap<>();
+
+    private static final Map<String, CountingAsyncAppender> STARTED = new ConcurrentHashMap<>();
+
+    private Counts counts;
+
+    @Override
+    public void start() {
+        counts = COUNTS.computeIfAbsent(getName(), name -> new Counts());
+        super.start();
+        if (isStarted()) {
+            STARTED.put(getName(), this);
+        }
+    }
+
+    @Override
+    public void stop() {
+        STARTED.remove(getName(), this);
+        super.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+            counts.discarded.increment();
+        } else if (remaining == 0 && isNeverBlock()) {
+            counts.overflow.increment();
+        }
+        super.append(event);
+    }
+
+    /**
+     * 已启动过的异步追加器名称
+     */
+    public static Set<String> names() {
+        return Collections.unmodifiableSet(COUNTS.keySet());
+    }
+
+    public static long discarded(String name) {
+        Counts counts = COUNTS.get(name);
+        return counts != null ? counts.discarded.sum() : 0;
+    }
+
+    public static long overflow(String name) {
+        Counts counts = COUNTS.get(name);
+        return counts != null ? counts.overflow.sum() : 0;
+    }
+
+    /**
+     * 队列中等待写出的事件数，追加器未运行时为0
+     */
+    public static int queued(String name) {
+        CountingAsyncAppender appender = STARTED.get(name);
+        return appender != null ? appender.getNumberOfElementsInQueue() : 0;
+    }
+
+    private static final class Counts {
+
+        private final LongAdder discarded = new LongAdder();
+
+        private final LongAdder overflow = new LongAdder();
+    }
+}
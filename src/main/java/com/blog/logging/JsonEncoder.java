@@ -0,0 +1,105 @@
+package com.blog.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * 每个日志事件输出一行JSON
+ *
+ * 字段：@timestamp、level、thread、logger、message，MDC中的键值（如requestId）原样作为字段，
+ * 有异常时附带 exception（完整堆栈）。不依赖第三方库，便于日志采集端直接解析。
+ */
+public class JsonEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ZoneId zone = ZoneId.systemDefault();
+
+    public void setTimeZone(String timeZone) {
+        this.zone = ZoneId.of(timeZone);
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"@timestamp\":\"")
+                .append(TIMESTAMP.format(Instant.ofEpochMilli(event.getTimeStamp()).atZone(zone)))
+                .append("\",\"level\":\"").append(event.getLevel().toString()).append('"');
+        field(json, "thread", event.getThreadName());
+        field(json, "logger", event.getLoggerName());
+        field(json, "message", event.getFormattedMessage());
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                field(json, entry.getKey(), entry.getValue());
+            }
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            field(json, "exception", ThrowableProxyUtil.asString(throwable));
+        }
+        json.append("}\n");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(',');
+        string(json, name);
+        json.append(':');
+        string(json, value);
+    }
+
+    private static void string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,87 @@
+package com.blog.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按日志器采样DEBUG及以下级别的日志
+ *
+ * 名称匹配任一配置前缀的日志器，DEBUG/TRACE事件每rate条只保留一条，在创建日志事件之前丢弃，
+ * 省掉消息格式化和入队的开销。INFO及以上级别、isDebugEnabled()之类的级别判断（format为null）
+ * 以及本来就不输出的级别不受影响。
+ *
+ * <pre>
+ * &lt;turboFilter class="com.blog.logging.SamplingTurboFilter"&gt;
+ *     &lt;logger&gt;org.hibernate.SQL&lt;/logger&gt;
+ *     &lt;rate&gt;10&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final LongAdder SAMPLED_OUT = new LongAdder();
+
+    private final List<String> loggers = new ArrayList<>();
+
+    private int rate = 10;
+
+    private String[] prefixes = new String[0];
+
+    private AtomicLongArray sequences;
+
+    public void addLogger(String logger) {
+        loggers.add(logger.trim());
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public void start() {
+        if (rate < 1) {
+            addError("采样间隔必须大于0: " + rate);
+            return;
+        }
+        prefixes = loggers.toArray(new String[0]);
+        sequences = new AtomicLongArray(prefixes.length);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level.toInt() > Level.DEBUG_INT || rate == 1) {
+            return FilterReply.NEUTRAL;
+        }
+        // 不能调用logger.isEnabledFor，它会再次进入TurboFilter
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (int i = 0; i < prefixes.length; i++) {
+            if (name.startsWith(prefixes[i])) {
+                if (sequences.getAndIncrement(i) % rate == 0) {
+                    return FilterReply.NEUTRAL;
+                }
+                SAMPLED_OUT.increment();
+                return FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    /**
+     * 被采样丢掉的事件总数
+     */
+    public static long sampledOut() {
+        return SAMPLED_OUT.sum();
+    }
+}
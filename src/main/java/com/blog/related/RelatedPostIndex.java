@@ -0,0 +1,265 @@
+package com.blog.related;
+
+import com.blog.dto.RelatedBlogDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 基于标签重合度的相关博客索引
+ *
+ * 内存中维护标签→博客ID的倒排表（有序int数组）和博客→标签ID，
+ * 相似度为按标签IDF加权的Jaccard系数：Σw(A∩B) / Σw(A∪B)，w(t) = ln(1 + N / df(t))。
+ * 每篇博客的计算结果会缓存，博客标签变化时只让共享这些标签的博客缓存失效。
+ * 博客总数变化对权重的影响很小，不为此让全部缓存失效。
+ */
+public class RelatedPostIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int cachedResults;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 标签ID -> 有序博客ID
+    private final Map<Integer, int[]> postings = new HashMap<>();
+
+    // 博客ID -> 有序标签ID
+    private final Map<Integer, int[]> postTags = new HashMap<>();
+
+    private final Map<Integer, String> titles = new HashMap<>();
+
+    private final Map<Integer, List<RelatedBlogDto>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param cachedResults 每篇博客缓存的相关博客数量，也是单次查询的上限
+     */
+    public RelatedPostIndex(int cachedResults) {
+        this.cachedResults = cachedResults;
+    }
+
+    /**
+     * 整体重建索引
+     * @param postTitles 博客ID -> 标题
+     * @param tagsByPost 博客ID -> 标签ID（无需有序）
+     */
+    public void load(Map<Integer, String> postTitles, Map<Integer, int[]> tagsByPost) {
+        Map<Integer, int[]> newPostTags = new HashMap<>();
+        Map<Integer, Integer> documentFrequency = new HashMap<>();
+        for (Map.Entry<Integer, int[]> entry : tagsByPost.entrySet()) {
+            if (!postTitles.containsKey(entry.getKey())) {
+                continue;
+            }
+            int[] tags = distinctSorted(entry.getValue());
+            newPostTags.put(entry.getKey(), tags);
+            for (int tagId : tags) {
+                documentFrequency.merge(tagId, 1, Integer::sum);
+            }
+        }
+
+        Map<Integer, int[]> newPostings = new HashMap<>();
+        Map<Integer, Integer> filled = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : documentFrequency.entrySet()) {
+            newPostings.put(entry.getKey(), new int[entry.getValue()]);
+            filled.put(entry.getKey(), 0);
+        }
+        for (Map.Entry<Integer, int[]> entry : newPostTags.entrySet()) {
+            for (int tagId : entry.getValue()) {
+                int position = filled.get(tagId);
+                newPostings.get(tagId)[position] = entry.getKey();
+                filled.put(tagId, position + 1);
+            }
+        }
+        for (int[] posting : newPostings.values()) {
+            Arrays.sort(posting);
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            postings.putAll(newPostings);
+            postTags.clear();
+            postTags.putAll(newPostTags);
+            titles.clear();
+            titles.putAll(postTitles);
+            cache.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或更新博客
+     */
+    public void put(int postId, String title, int[] tagIds) {
+        int[] tags = distinctSorted(tagIds);
+        lock.writeLock().lock();
+        try {
+            int[] oldTags = postTags.get(postId);
+            if (oldTags != null) {
+                invalidateSharing(oldTags);
+                for (int tagId : oldTags) {
+                    removePosting(tagId, postId);
+                }
+            }
+            for (int tagId : tags) {
+                addPosting(tagId, postId);
+            }
+            postTags.put(postId, tags);
+            titles.put(postId, title);
+            invalidateSharing(tags);
+            cache.remove(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除博客（删除或取消发布）
+     */
+    public void remove(int postId) {
+        lock.writeLock().lock();
+        try {
+            int[] oldTags = postTags.remove(postId);
+            titles.remove(postId);
+            cache.remove(postId);
+            if (oldTags != null) {
+                for (int tagId : oldTags) {
+                    removePosting(tagId, postId);
+                }
+                invalidateSharing(oldTags);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 获取相关博客，命中缓存时直接返回
+     */
+    public List<RelatedBlogDto> related(int postId, int limit) {
+        List<RelatedBlogDto> result = cache.get(postId);
+        if (result == null) {
+            lock.readLock().lock();
+            try {
+                result = compute(postId);
+                if (postTags.containsKey(postId)) {
+                    cache.put(postId, result);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return result.size() <= limit ? result : result.subList(0, limit);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postTags.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<RelatedBlogDto> compute(int postId) {
+        int[] tags = postTags.get(postId);
+        if (tags == null || tags.length == 0) {
+            return Collections.emptyList();
+        }
+        int total = postTags.size();
+        double ownWeight = 0;
+        Map<Integer, Double> intersection = new HashMap<>();
+        for (int tagId : tags) {
+            int[] posting = postings.getOrDefault(tagId, EMPTY);
+            double weight = weight(total, posting.length);
+            ownWeight += weight;
+            for (int candidate : posting) {
+                if (candidate != postId) {
+                    intersection.merge(candidate, weight, Double::sum);
+                }
+            }
+        }
+
+        // 小顶堆保留得分最高的cachedResults个
+        PriorityQueue<RelatedBlogDto> heap = new PriorityQueue<>(cachedResults + 1, RelatedPostIndex::compareAscending);
+        for (Map.Entry<Integer, Double> entry : intersection.entrySet()) {
+            double shared = entry.getValue();
+            double candidateWeight = 0;
+            for (int tagId : postTags.get(entry.getKey())) {
+                candidateWeight += weight(total, postings.get(tagId).length);
+            }
+            double score = shared / (ownWeight + candidateWeight - shared);
+            heap.offer(new RelatedBlogDto((long) entry.getKey(), titles.get(entry.getKey()), score));
+            if (heap.size() > cachedResults) {
+                heap.poll();
+            }
+        }
+        List<RelatedBlogDto> result = new ArrayList<>(heap);
+        result.sort((a, b) -> compareAscending(b, a));
+        return Collections.unmodifiableList(result);
+    }
+
+    private static int compareAscending(RelatedBlogDto a, RelatedBlogDto b) {
+        int byScore = Double.compare(a.getScore(), b.getScore());
+        // 得分相同时较新的博客（ID较大）排在前面
+        return byScore != 0 ? byScore : Long.compare(a.getId(), b.getId());
+    }
+
+    private static double weight(int total, int documentFrequency) {
+        return Math.log(1 + (double) total / Math.max(1, documentFrequency));
+    }
+
+    private void invalidateSharing(int[] tags) {
+        for (int tagId : tags) {
+            for (int postId : postings.getOrDefault(tagId, EMPTY)) {
+                cache.remove(postId);
+            }
+        }
+    }
+
+    private void addPosting(int tagId, int postId) {
+        int[] posting = postings.getOrDefault(tagId, EMPTY);
+        int index = Arrays.binarySearch(posting, postId);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        int[] updated = new int[posting.length + 1];
+        System.arraycopy(posting, 0, updated, 0, insertAt);
+        updated[insertAt] = postId;
+        System.arraycopy(posting, insertAt, updated, insertAt + 1, posting.length - insertAt);
+        postings.put(tagId, updated);
+    }
+
+    private void removePosting(int tagId, int postId) {
+        int[] posting = postings.get(tagId);
+        if (posting == null) {
+            return;
+        }
+        int index = Arrays.binarySearch(posting, postId);
+        if (index < 0) {
+            return;
+        }
+        if (posting.length == 1) {
+            postings.remove(tagId);
+            return;
+        }
+        int[] updated = new int[posting.length - 1];
+        System.arraycopy(posting, 0, updated, 0, index);
+        System.arraycopy(posting, index + 1, updated, index, posting.length - index - 1);
+        postings.put(tagId, updated);
+    }
+
+    private static int[] distinctSorted(int[] values) {
+        return Arrays.stream(values).distinct().sorted().toArray();
+    }
+}
@@ -0,0 +1,26 @@
+package com.blog.repository;
+
+import com.blog.entity.BlogContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * 博客正文数据访问接口
+ */
+@Repository
+public interface BlogContentRepository extends JpaRepository<BlogContent, Long> {
+
+    /**
+     * 批量删除正文
+     * @param ids 正文ID集合
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM BlogContent c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -11,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,6 +55,15 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
      */
     Page<Blog> findByAuthorAndPublishedOrderByCreatedAtDesc(User author, Boolean published, Pageable pageable);
 
+    /**
+     * 根据作者ID和发布状态查找博客
+     * @param authorId 作者ID
+     * @param published 发布状态
+     * @param pageable 分页参数
+     * @return 博客分页结果
+     */
+    Page<Blog> findByAuthorIdAndPublishedOrderByCreatedAtDesc(Long authorId, Boolean published, Pageable pageable);
+
     /**
      * 在标题和内容中搜索关键词（已发布的博客）
      * @param keyword 搜索关键词
@@ -62,12 +73,24 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
      */
     @Query("SELECT b FROM Blog b WHERE b.published = :published AND " +
            "(LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(b.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "LOWER(b.body.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
            "ORDER BY b.createdAt DESC")
     Page<Blog> searchByKeyword(@Param("keyword") String keyword, 
                               @Param("published") Boolean published, 
                               Pageable pageable);
 
+    /**
+     * 关键词搜索命中的博客ID（最新的在前，用于分面统计）
+     * @param keyword 关键词
+     * @param pageable 分页参数（最大数量）
+     * @return 博客ID列表
+     */
+    @Query("SELECT b.id FROM Blog b WHERE b.published = true AND " +
+           "(LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(b.body.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "ORDER BY b.id DESC")
+    List<Long> searchIdsByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
     /**
      * 根据标签查找博客（已发布的博客）
      * @param tag 标签
@@ -138,6 +161,13 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
      */
     long countByAuthor(User author);
 
+    /**
+     * 根据作者ID统计博客数量
+     * @param authorId 作者ID
+     * @return 博客数量
+     */
+    long countByAuthorId(Long authorId);
+
     /**
      * 统计指定作者已发布的博客数量
      * @param author 作者
@@ -154,6 +184,22 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
      */
     Optional<Blog> findByIdAndAuthor(Long id, User author);
 
+    /**
+     * 根据博客ID和作者ID查找博客（用于权限验证，无需先加载作者）
+     * @param id 博客ID
+     * @param authorId 作者ID
+     * @return 博客对象
+     */
+    Optional<Blog> findByIdAndAuthorId(Long id, Long authorId);
+
+    /**
+     * 检查博客是否属于指定作者
+     * @param id 博客ID
+     * @param authorId 作者ID
+     * @return 是否属于该作者
+     */
+    boolean existsByIdAndAuthorId(Long id, Long authorId);
+
     /**
      * 获取博客的总浏览量
      * @return 总浏览量
@@ -168,4 +214,185 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
      */
     @Query("SELECT SUM(b.viewCount) FROM Blog b WHERE b.author = :author AND b.published = true")
     Long getTotalViewCountByAuthor(@Param("author") User author);
-}
\ No newline at end of file
+
+    /**
+     * 分批获取指定作者的博客ID（用于批量删除）
+     * @param authorId 作者ID
+     * @param pageable 分页参数（每批数量）
+     * @return 博客ID列表
+     */
+    @Query("SELECT b.id FROM Blog b WHERE b.author.id = :authorId ORDER BY b.id")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    /**
+     * 获取博客对应的正文ID
+     * @param ids 博客ID集合
+     * @return 正文ID列表
+     */
+    @Query("SELECT b.body.id FROM Blog b WHERE b.id IN :ids")
+    List<Long> findContentIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 批量删除博客（不加载实体，调用前需先删除评论；Hibernate会先删除blog_tags中的标签关联）
+     * @param ids 博客ID集合
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM Blog b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按浏览量获取已发布的博客，同时加载作者
+     * @param pageable 分页参数（数量）
+     * @return 博客列表
+     */
+    @Query("SELECT b FROM Blog b JOIN FETCH b.author WHERE b.published = true ORDER BY b.viewCount DESC")
+    List<Blog> findPublishedWithAuthorOrderByViewCountDesc(Pageable pageable);
+
+    /**
+     * 根据ID批量获取博客，同时加载作者
+     * @param ids 博客ID集合
+     * @return 博客列表
+     */
+    @Query("SELECT b FROM Blog b JOIN FETCH b.author WHERE b.id IN :ids")
+    List<Blog> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 获取全部已发布博客的ID和标题（投影查询，用于构建相关博客索引）
+     * @return [博客ID, 标题] 列表
+     */
+    @Query("SELECT b.id, b.title FROM Blog b WHERE b.published = true")
+    List<Object[]> findPublishedIdAndTitle();
+
+    /**
+     * 获取全部已发布博客的博客ID-标签ID对
+     * @return [博客ID, 标签ID] 列表
+     */
+    @Query("SELECT b.id, t.id FROM Blog b JOIN b.tags t WHERE b.published = true")
+    List<Object[]> findPublishedTagLinks();
+
+    /**
+     * 批量获取博客的标签ID
+     * @param ids 博客ID集合
+     * @return [博客ID, 标签ID] 列表
+     */
+    @Query("SELECT b.id, t.id FROM Blog b JOIN b.tags t WHERE b.id IN :ids")
+    List<Object[]> findTagIdsByBlogIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 批量获取已发布博客的ID和标题（投影查询，用于增量更新相关博客索引）
+     * @param ids 博客ID集合
+     * @return [博客ID, 标题] 列表，未发布的博客不返回
+     */
+    @Query("SELECT b.id, b.title FROM Blog b WHERE b.published = true AND b.id IN :ids")
+    List<Object[]> findPublishedIdAndTitleByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按ID顺序分批获取已发布博客的搜索属性（投影查询，用于构建高级搜索索引）
+     * @param afterId 上一批的最大博客ID
+     * @param pageable 分页参数（批大小）
+     * @return [博客ID, 作者ID, 创建时间, 浏览量] 列表
+     */
+    @Query("SELECT b.id, b.author.id, b.createdAt, b.viewCount FROM Blog b " +
+           "WHERE b.published = true AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findPublishedSearchAttributes(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 批量获取已发布博客的搜索属性（投影查询，用于增量更新高级搜索索引）
+     * @param ids 博客ID集合
+     * @return 字段同findPublishedSearchAttributes，未发布的博客不返回
+     */
+    @Query("SELECT b.id, b.author.id, b.createdAt, b.viewCount FROM Blog b WHERE b.published = true AND b.id IN :ids")
+    List<Object[]> findPublishedSearchAttributesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 获取ID区间内已发布博客的标签名
+     * @param fromId 起始博客ID（不含）
+     * @param toId 结束博客ID（含）
+     * @return [博客ID, 标签名] 列表
+     */
+    @Query("SELECT b.id, t.name FROM Blog b JOIN b.tags t " +
+           "WHERE b.published = true AND b.id > :fromId AND b.id <= :toId")
+    List<Object[]> findPublishedTagNamesInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * 根据ID批量获取博客，同时加载作者和标签
+     * @param ids 博客ID集合
+     * @return 博客列表
+     */
+    @Query("SELECT DISTINCT b FROM Blog b JOIN FETCH b.author LEFT JOIN FETCH b.tags WHERE b.id IN :ids")
+    List<Blog> findAllWithAuthorAndTagsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 根据ID获取博客，同时加载作者和正文（用于详情和编辑页面）
+     * @param id 博客ID
+     * @return 博客
+     */
+    @Query("SELECT b FROM Blog b JOIN FETCH b.author JOIN FETCH b.body WHERE b.id = :id")
+    Optional<Blog> findWithAuthorAndBodyById(@Param("id") Long id);
+
+    /**
+     * 获取最新发布的博客，用于生成订阅源
+     * @param pageable 数量限制
+     * @return [博客ID, 标题, 摘要, 正文片段, 发布时间, 更新时间, 作者用户名, 作者显示名称] 列表，按ID降序
+     */
+    @Query("SELECT b.id, b.title, b.summary, b.excerpt, b.createdAt, b.updatedAt, a.username, a.displayName " +
+           "FROM Blog b JOIN b.author a WHERE b.published = true ORDER BY b.id DESC")
+    List<Object[]> findPublishedFeedEntries(Pageable pageable);
+
+    /**
+     * 获取某个标签下最新发布的博客，用于生成订阅源
+     * @param tagName 标签名称
+     * @param pageable 数量限制
+     * @return 字段同findPublishedFeedEntries
+     */
+    @Query("SELECT b.id, b.title, b.summary, b.excerpt, b.createdAt, b.updatedAt, a.username, a.displayName " +
+           "FROM Blog b JOIN b.author a JOIN b.tags t WHERE b.published = true AND t.name = :tagName ORDER BY b.id DESC")
+    List<Object[]> findPublishedFeedEntriesByTagName(@Param("tagName") String tagName, Pageable pageable);
+
+    /**
+     * 获取某个作者最新发布的博客，用于生成订阅源
+     * @param username 作者用户名
+     * @param pageable 数量限制
+     * @return 字段同findPublishedFeedEntries
+     */
+    @Query("SELECT b.id, b.title, b.summary, b.excerpt, b.createdAt, b.updatedAt, a.username, a.displayName " +
+           "FROM Blog b JOIN b.author a WHERE b.published = true AND a.username = :username ORDER BY b.id DESC")
+    List<Object[]> findPublishedFeedEntriesByAuthor(@Param("username") String username, Pageable pageable);
+
+    /**
+     * 批量获取博客的标签名
+     * @param ids 博客ID集合
+     * @return [博客ID, 标签名] 列表
+     */
+    @Query("SELECT b.id, t.name FROM Blog b JOIN b.tags t WHERE b.id IN :ids")
+    List<Object[]> findTagNamesByBlogIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 批量获取已发布博客的作者用户名
+     * @param ids 博客ID集合
+     * @return [博客ID, 作者用户名] 列表，未发布的博客不返回
+     */
+    @Query("SELECT b.id, a.username FROM Blog b JOIN b.author a WHERE b.published = true AND b.id IN :ids")
+    List<Object[]> findPublishedAuthorNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按ID游标分批获取已发布博客的更新时间，用于生成站点地图
+     * @param afterId 上一批最后一个博客ID
+     * @param toId 最大博客ID（含）
+     * @param pageable 批大小（只使用第一页）
+     * @return [博客ID, 更新时间, 发布时间] 列表，按ID升序
+     */
+    @Query("SELECT b.id, b.updatedAt, b.createdAt FROM Blog b " +
+           "WHERE b.published = true AND b.id > :afterId AND b.id <= :toId ORDER BY b.id")
+    List<Object[]> findPublishedSitemapEntries(@Param("afterId") Long afterId, @Param("toId") Long toId,
+                                               Pageable pageable);
+
+    /**
+     * 统计发布时间晚于指定时间的已发布博客数，用于确定博客在首页列表中的位置
+     * @param createdAt 发布时间
+     * @return 博客数量
+     */
+    @Query("SELECT COUNT(b) FROM Blog b WHERE b.published = true AND b.createdAt > :createdAt")
+    long countPublishedCreatedAfter(@Param("createdAt") LocalDateTime createdAt);
+}
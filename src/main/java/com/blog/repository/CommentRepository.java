@@ -6,10 +6,12 @@ import com.blog.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,11 +29,12 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByBlogOrderByCreatedAtAsc(Blog blog);
 
     /**
-     * 根据博客ID查找评论，按创建时间正序排列
+     * 根据博客ID查找评论，按创建时间正序排列，评论者和所属博客一并取出
      * @param blogId 博客ID
      * @return 评论列表
      */
-    List<Comment> findByBlogIdOrderByCreatedAtAsc(Long blogId);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user JOIN FETCH c.blog WHERE c.blog.id = :blogId ORDER BY c.createdAt ASC")
+    List<Comment> findByBlogIdOrderByCreatedAtAsc(@Param("blogId") Long blogId);
 
     /**
      * 根据博客查找评论，分页显示
@@ -85,6 +88,13 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      */
     long countByUserId(Long userId);
 
+    /**
+     * 统计指定作者的博客下的评论数量
+     * @param authorId 博客作者ID
+     * @return 评论数量
+     */
+    long countByBlogAuthorId(Long authorId);
+
     /**
      * 查找指定博客作者的所有评论（用于博客作者管理评论）
      * @param authorId 博客作者ID
@@ -112,6 +122,29 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c WHERE c.id = :commentId AND c.blog.author.id = :authorId")
     Optional<Comment> findByIdAndBlogAuthor(@Param("commentId") Long commentId, @Param("authorId") Long authorId);
 
+    /**
+     * 查找属于指定博客作者的评论所在的博客ID（删除前确定需要刷新的博客）
+     */
+    @Query("SELECT c.blog.id FROM Comment c WHERE c.id = :commentId AND c.blog.author.id = :authorId")
+    Optional<Long> findBlogIdByIdAndBlogAuthor(@Param("commentId") Long commentId, @Param("authorId") Long authorId);
+
+    /**
+     * 查找一批评论所在的博客ID（去重）
+     */
+    @Query("SELECT DISTINCT c.blog.id FROM Comment c WHERE c.id IN :ids")
+    List<Long> findDistinctBlogIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 删除指定评论ID且属于该博客作者的评论（权限校验与删除合并为一条语句）
+     * @param commentId 评论ID
+     * @param authorId 博客作者ID
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id = :commentId AND c.blog.id IN " +
+           "(SELECT b.id FROM Blog b WHERE b.author.id = :authorId)")
+    int deleteByIdAndBlogAuthor(@Param("commentId") Long commentId, @Param("authorId") Long authorId);
+
     /**
      * 获取最新的评论
      * @param limit 限制数量
@@ -147,4 +180,40 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @param user 用户
      */
     void deleteByUser(User user);
-}
\ No newline at end of file
+
+    /**
+     * 分批获取指定博客下的评论ID（用于批量删除）
+     * @param blogIds 博客ID集合
+     * @param pageable 分页参数（每批数量）
+     * @return 评论ID列表
+     */
+    @Query("SELECT c.id FROM Comment c WHERE c.blog.id IN :blogIds")
+    List<Long> findIdsByBlogIdIn(@Param("blogIds") Collection<Long> blogIds, Pageable pageable);
+
+    /**
+     * 分批获取指定用户发表的评论ID（用于批量删除）
+     * @param userId 用户ID
+     * @param pageable 分页参数（每批数量）
+     * @return 评论ID列表
+     */
+    @Query("SELECT c.id FROM Comment c WHERE c.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 批量删除评论
+     * @param ids 评论ID集合
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 删除指定博客下的全部评论（与删除博客在同一事务中执行，清除分批删除期间新增的评论）
+     * @param blogIds 博客ID集合
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.blog.id IN :blogIds")
+    int deleteByBlogIdIn(@Param("blogIds") Collection<Long> blogIds);
+}
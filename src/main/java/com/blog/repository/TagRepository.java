@@ -1,11 +1,16 @@
 package com.blog.repository;
 
 import com.blog.entity.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +27,15 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
      */
     Optional<Tag> findByName(String name);
 
+    /**
+     * 根据标签名称查找标签并加共享锁（给博客关联标签时使用，防止标签在提交前被回收）
+     * @param name 标签名称
+     * @return 标签对象
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT t FROM Tag t WHERE t.name = :name")
+    Optional<Tag> findByNameForShare(@Param("name") String name);
+
     /**
      * 检查标签名称是否存在
      * @param name 标签名称
@@ -79,4 +93,26 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
      */
     @Query("SELECT t FROM Tag t WHERE t.blogs IS EMPTY")
     List<Tag> findUnusedTags();
-}
\ No newline at end of file
+
+    /**
+     * 通过反连接分批查找未被任何博客使用的标签ID
+     * @param afterId 只查找ID大于该值的标签（按ID翻页）
+     * @param pageable 分页参数（每批数量）
+     * @return 标签ID列表
+     */
+    @Query(value = "SELECT t.id FROM tags t LEFT JOIN blog_tags bt ON bt.tag_id = t.id " +
+                   "WHERE bt.tag_id IS NULL AND t.id > :afterId ORDER BY t.id",
+           nativeQuery = true)
+    List<Long> findUnusedTagIds(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 删除一批标签中仍未被使用的部分（删除时再次检查关联，跳过期间被使用的标签）
+     * @param ids 候选标签ID
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query(value = "DELETE FROM tags WHERE id IN (:ids) " +
+                   "AND NOT EXISTS (SELECT 1 FROM blog_tags bt WHERE bt.tag_id = tags.id)",
+           nativeQuery = true)
+    int deleteUnusedByIdIn(@Param("ids") Collection<Long> ids);
+}
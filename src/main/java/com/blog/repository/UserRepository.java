@@ -2,6 +2,7 @@ package com.blog.repository;
 
 import com.blog.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -89,4 +90,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT COUNT(u) FROM User u WHERE u.enabled = true")
     long countEnabledUsers();
-}
\ No newline at end of file
+
+    /**
+     * 直接删除用户记录（不级联加载博客和评论，调用前需先删除其内容）
+     * @param id 用户ID
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserRowById(@Param("id") Long id);
+}
@@ -0,0 +1,699 @@
+package com.blog.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 高级搜索索引
+ *
+ * 为已发布博客按标签、作者和发布月份分别维护压缩位图，组合条件转换为位图的交、并、差运算，
+ * 只有最终一页的博客ID交给调用方从数据库加载。
+ * 日期范围先用整月位图求并集，起止月份再按发布日期逐条过滤。
+ * 最新/最早排序按月份位图从新到旧（从旧到新）逐月与命中集合求交，只对覆盖当前页的月份按发布日期排序，
+ * 不依赖博客ID与发布时间的先后关系（导入的博客ID不随发布时间递增）；
+ * 按浏览量排序需遍历全部命中，用大小为offset+limit的堆取前几页。
+ */
+public class AdvancedSearchIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private static final TagPosting[] NO_TAGS = new TagPosting[0];
+
+    // 命中数不超过该值时逐条遍历命中博客计数，否则逐个标签/作者位图求交集基数
+    private static final int SCAN_THRESHOLD = 100_000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap published = new RoaringBitmap();
+
+    // 规范化标签名 -> 标签位图
+    private final Map<String, TagPosting> tags = new HashMap<>();
+
+    private final Map<Integer, RoaringBitmap> authors = new HashMap<>();
+
+    // 月份序号（年 * 12 + 月 - 1）-> 博客ID，按月份排序
+    private final NavigableMap<Integer, RoaringBitmap> months = new TreeMap<>();
+
+    // 按博客ID下标存储的属性，位图中不存在的ID对应的值无意义
+    private int[] authorIds = EMPTY;
+
+    private int[] createdDays = EMPTY;
+
+    private int[] viewCounts = EMPTY;
+
+    // 每篇博客的标签，用于移除博客和小结果集的分面计数
+    private TagPosting[][] postTags = new TagPosting[0][];
+
+    // 每次写入递增（浏览量除外），用于判断分面缓存和排序快照是否过期
+    private volatile long version;
+
+    private volatile Ranked<TagPosting> rankedTags;
+
+    private volatile Ranked<Integer> rankedAuthors;
+
+    /**
+     * 新增或更新博客（不含标签，标签通过addTag逐个添加）
+     * @param postId 博客ID
+     * @param authorId 作者ID
+     * @param createdDate 发布日期
+     * @param viewCount 浏览量
+     * @param tagNames 标签名
+     */
+    public void put(int postId, int authorId, LocalDate createdDate, int viewCount, Collection<String> tagNames) {
+        lock.writeLock().lock();
+        try {
+            if (published.contains(postId)) {
+                removeInternal(postId);
+            }
+            ensureCapacity(postId);
+            authorIds[postId] = authorId;
+            createdDays[postId] = (int) createdDate.toEpochDay();
+            viewCounts[postId] = viewCount;
+            postTags[postId] = NO_TAGS;
+            published.add(postId);
+            authors.computeIfAbsent(authorId, key -> new RoaringBitmap()).add(postId);
+            months.computeIfAbsent(monthOf(createdDate), key -> new RoaringBitmap()).add(postId);
+            for (String tagName : tagNames) {
+                addTagInternal(postId, tagName);
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 为已索引的博客添加标签，用于批量构建时按标签关联逐条写入
+     */
+    public void addTag(int postId, String tagName) {
+        lock.writeLock().lock();
+        try {
+            if (published.contains(postId)) {
+                addTagInternal(postId, tagName);
+                version++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除博客（删除或取消发布）
+     */
+    public void remove(int postId) {
+        lock.writeLock().lock();
+        try {
+            if (published.contains(postId)) {
+                removeInternal(postId);
+                version++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 更新浏览量，只影响按浏览量排序，允许与查询并发时读到旧值
+     */
+    public void updateViewCount(int postId, int viewCount) {
+        lock.readLock().lock();
+        try {
+            if (postId < viewCounts.length) {
+                viewCounts[postId] = viewCount;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 执行搜索
+     * @param criteria 搜索条件
+     * @param offset 跳过的结果数
+     * @param limit 返回的最大结果数
+     */
+    public SearchHits search(SearchCriteria criteria, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matched = filter(criteria);
+            if (matched == null || matched.isEmpty()) {
+                return SearchHits.empty();
+            }
+            int total = matched.getCardinality();
+            int[] ids;
+            switch (criteria.getSort()) {
+                case OLDEST:
+                    ids = pageByCreated(matched, offset, limit, false);
+                    break;
+                case VIEWS:
+                    ids = topByViews(matched, offset, limit);
+                    break;
+                default:
+                    ids = pageByCreated(matched, offset, limit, true);
+                    break;
+            }
+            return new SearchHits(total, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 统计搜索条件命中集合的分面，已作为筛选条件的标签不计入标签分面
+     * @param criteria 搜索条件
+     * @param topTags 标签分面数量
+     * @param topAuthors 作者分面数量
+     * @param budgetNanos 计算时间预算，超出后返回已完成的部分
+     */
+    public FacetCounts facets(SearchCriteria criteria, int topTags, int topAuthors, long budgetNanos) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matched = filter(criteria);
+            if (matched == null || matched.isEmpty()) {
+                return FacetCounts.empty();
+            }
+            Set<TagPosting> skipped = new HashSet<>();
+            for (String tagName : criteria.getAllTags()) {
+                skipped.add(tags.get(normalize(tagName)));
+            }
+            return computeFacets(matched, skipped, topTags, topAuthors, System.nanoTime() + budgetNanos);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 统计给定博客ID集合（如关键词搜索的全部命中）的分面，未发布或未索引的ID被忽略
+     */
+    public FacetCounts facets(Collection<Long> postIds, int topTags, int topAuthors, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        RoaringBitmap ids = new RoaringBitmap();
+        for (Long postId : postIds) {
+            ids.add(Math.toIntExact(postId));
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matched = RoaringBitmap.and(ids, published);
+            if (matched.isEmpty()) {
+                return FacetCounts.empty();
+            }
+            return computeFacets(matched, Collections.emptySet(), topTags, topAuthors, deadline);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return published.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tagCount() {
+        lock.readLock().lock();
+        try {
+            return tags.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 估算位图和属性数组占用的字节数
+     */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = published.sizeInBytes() + (authorIds.length + createdDays.length + viewCounts.length) * 4L
+                    + postTags.length * 4L;
+            for (TagPosting[] postings : postTags) {
+                bytes += postings != null && postings.length > 0 ? 16 + postings.length * 4L : 0;
+            }
+            for (TagPosting posting : tags.values()) {
+                bytes += posting.bitmap.sizeInBytes();
+            }
+            for (RoaringBitmap bitmap : authors.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (RoaringBitmap bitmap : months.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 计算命中集合，确定无结果时返回null；无任何条件时直接返回全部已发布博客的位图（不可修改）
+     */
+    private RoaringBitmap filter(SearchCriteria criteria) {
+        // 交集的各个输入，按基数从小到大求交，中间结果尽早变小
+        List<RoaringBitmap> required = new ArrayList<>();
+        for (String tagName : criteria.getAllTags()) {
+            TagPosting posting = tags.get(normalize(tagName));
+            if (posting == null) {
+                return null;
+            }
+            required.add(posting.bitmap);
+        }
+        if (criteria.getAuthorId() != null) {
+            RoaringBitmap bitmap = authors.get(criteria.getAuthorId());
+            if (bitmap == null) {
+                return null;
+            }
+            required.add(bitmap);
+        }
+        if (!criteria.getAnyTags().isEmpty()) {
+            RoaringBitmap union = union(criteria.getAnyTags().stream()
+                    .map(tagName -> tags.get(normalize(tagName)))
+                    .map(posting -> posting != null ? posting.bitmap : null));
+            if (union.isEmpty()) {
+                return null;
+            }
+            required.add(union);
+        }
+        boolean dateFiltered = criteria.getFrom() != null || criteria.getTo() != null;
+        int fromMonth = criteria.getFrom() != null ? monthOf(criteria.getFrom()) : Integer.MIN_VALUE;
+        int toMonth = criteria.getTo() != null ? monthOf(criteria.getTo()) : Integer.MAX_VALUE;
+        if (dateFiltered) {
+            if (fromMonth > toMonth) {
+                return null;
+            }
+            RoaringBitmap union = union(months.entrySet().stream()
+                    .filter(entry -> entry.getKey() >= fromMonth && entry.getKey() <= toMonth)
+                    .map(Map.Entry::getValue));
+            if (union.isEmpty()) {
+                return null;
+            }
+            required.add(union);
+        }
+
+        RoaringBitmap result;
+        if (required.isEmpty()) {
+            result = published;
+        } else {
+            required.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+            result = required.get(0);
+            for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+                result = RoaringBitmap.and(result, required.get(i));
+            }
+        }
+
+        for (String tagName : criteria.getExcludedTags()) {
+            TagPosting posting = tags.get(normalize(tagName));
+            if (posting != null && !result.isEmpty()) {
+                result = RoaringBitmap.andNot(result, posting.bitmap);
+            }
+        }
+
+        if (dateFiltered && !result.isEmpty()) {
+            result = trimPartialMonths(result, criteria, fromMonth, toMonth);
+        }
+        return result;
+    }
+
+    /**
+     * 起止月份只覆盖了部分日期时，逐条检查这两个月内命中博客的发布日期
+     */
+    private RoaringBitmap trimPartialMonths(RoaringBitmap result, SearchCriteria criteria, int fromMonth, int toMonth) {
+        LocalDate from = criteria.getFrom();
+        LocalDate to = criteria.getTo();
+        long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+        List<Integer> partialMonths = new ArrayList<>(2);
+        if (from != null && from.getDayOfMonth() != 1) {
+            partialMonths.add(fromMonth);
+        }
+        if (to != null && to.getDayOfMonth() != to.lengthOfMonth() && !partialMonths.contains(toMonth)) {
+            partialMonths.add(toMonth);
+        }
+        RoaringBitmap rejected = new RoaringBitmap();
+        for (int month : partialMonths) {
+            RoaringBitmap monthBitmap = months.get(month);
+            if (monthBitmap == null) {
+                continue;
+            }
+            RoaringBitmap.and(result, monthBitmap).forEach(postId -> {
+                int day = createdDays[postId];
+                if (day < fromDay || day > toDay) {
+                    rejected.add(postId);
+                }
+            });
+        }
+        return rejected.isEmpty() ? result : RoaringBitmap.andNot(result, rejected);
+    }
+
+    /**
+     * 按发布日期取一页，同一天内按ID排序；整月落在页前的月份只计数，不展开
+     */
+    private int[] pageByCreated(RoaringBitmap matched, int offset, int limit, boolean newest) {
+        if (limit <= 0) {
+            return EMPTY;
+        }
+        int[] page = new int[limit];
+        int filled = 0;
+        int skipped = 0;
+        for (RoaringBitmap monthBitmap : (newest ? months.descendingMap() : months).values()) {
+            RoaringBitmap inMonth = RoaringBitmap.and(matched, monthBitmap);
+            int count = inMonth.getCardinality();
+            if (skipped + count <= offset) {
+                skipped += count;
+                continue;
+            }
+            // 发布日期放高32位、ID放低32位，long的自然顺序即排序顺序
+            long[] keys = new long[count];
+            int[] size = new int[1];
+            inMonth.forEach(postId -> keys[size[0]++] = ((long) createdDays[postId] << 32) | postId);
+            Arrays.sort(keys);
+            for (int i = offset - skipped; i < count && filled < limit; i++) {
+                page[filled++] = (int) keys[newest ? count - 1 - i : i];
+            }
+            skipped = offset;
+            if (filled == limit) {
+                break;
+            }
+        }
+        return filled == limit ? page : Arrays.copyOf(page, filled);
+    }
+
+    /**
+     * 按浏览量降序取一页，浏览量相同时ID较大的在前
+     */
+    private int[] topByViews(RoaringBitmap matched, int offset, int limit) {
+        int window = offset + limit;
+        if (window <= 0) {
+            return EMPTY;
+        }
+        // 浏览量放高32位、ID放低32位，long的自然顺序即排序顺序
+        PriorityQueue<Long> heap = new PriorityQueue<>(window + 1);
+        matched.forEach(postId -> {
+            long key = ((long) viewCounts[postId] << 32) | postId;
+            if (heap.size() < window) {
+                heap.offer(key);
+            } else if (key > heap.peek()) {
+                heap.poll();
+                heap.offer(key);
+            }
+        });
+        long[] sorted = new long[heap.size()];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = heap.poll();
+        }
+        int[] result = new int[Math.max(0, sorted.length - offset)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) sorted[offset + i];
+        }
+        return result;
+    }
+
+    /**
+     * 命中较少时逐条遍历命中博客，按每篇博客的标签、作者和发布月份计数；
+     * 命中较多时按月直方图完整统计，标签和作者按全局基数降序逐个求交集基数，
+     * 全局基数不超过当前第K名的计数时后面的都不可能进入前K名，提前结束
+     */
+    private FacetCounts computeFacets(RoaringBitmap matched, Set<TagPosting> skippedTags,
+                                      int topTags, int topAuthors, long deadline) {
+        if (matched.getCardinality() <= SCAN_THRESHOLD) {
+            return scanFacets(matched, skippedTags, topTags, topAuthors);
+        }
+        boolean[] truncated = new boolean[1];
+
+        List<Integer> monthKeys = new ArrayList<>(months.keySet());
+        Collections.sort(monthKeys);
+        List<FacetEntry> monthEntries = new ArrayList<>();
+        for (int month : monthKeys) {
+            int count = RoaringBitmap.andCardinality(matched, months.get(month));
+            if (count > 0) {
+                monthEntries.add(monthEntry(month, count));
+            }
+        }
+
+        Ranked<TagPosting> tagRanking = rankedTags;
+        if (tagRanking == null || tagRanking.version != version) {
+            tagRanking = rank(tags.values(), posting -> posting.bitmap, version);
+            rankedTags = tagRanking;
+        }
+        List<FacetEntry> tagEntries = new ArrayList<>();
+        for (int[] top : topK(matched, tagRanking, skippedTags, topTags, deadline, truncated)) {
+            String label = tagRanking.keys.get(top[0]).label;
+            tagEntries.add(new FacetEntry(label, label, top[1]));
+        }
+
+        Ranked<Integer> authorRanking = rankedAuthors;
+        if (authorRanking == null || authorRanking.version != version) {
+            authorRanking = rank(authors.keySet(), authors::get, version);
+            rankedAuthors = authorRanking;
+        }
+        List<FacetEntry> authorEntries = new ArrayList<>();
+        for (int[] top : topK(matched, authorRanking, Collections.emptySet(), topAuthors, deadline, truncated)) {
+            String authorId = String.valueOf(authorRanking.keys.get(top[0]));
+            authorEntries.add(new FacetEntry(authorId, authorId, top[1]));
+        }
+
+        return new FacetCounts(matched.getCardinality(), tagEntries, authorEntries, monthEntries, truncated[0]);
+    }
+
+    /**
+     * 遍历命中博客计数，耗时与命中数成正比，不受标签总数影响
+     */
+    private FacetCounts scanFacets(RoaringBitmap matched, Set<TagPosting> skippedTags, int topTags, int topAuthors) {
+        Map<TagPosting, int[]> tagCounts = new HashMap<>();
+        Map<Integer, int[]> authorCounts = new HashMap<>();
+        Map<Integer, int[]> monthCounts = new HashMap<>();
+        matched.forEach(postId -> {
+            for (TagPosting posting : postTags[postId]) {
+                tagCounts.computeIfAbsent(posting, k -> new int[1])[0]++;
+            }
+            authorCounts.computeIfAbsent(authorIds[postId], k -> new int[1])[0]++;
+            monthCounts.computeIfAbsent(monthOf(LocalDate.ofEpochDay(createdDays[postId])), k -> new int[1])[0]++;
+        });
+        tagCounts.keySet().removeAll(skippedTags);
+
+        List<FacetEntry> tagEntries = new ArrayList<>();
+        for (Map.Entry<TagPosting, int[]> entry : top(tagCounts, topTags,
+                Comparator.comparingInt((TagPosting posting) -> posting.bitmap.getCardinality()))) {
+            String label = entry.getKey().label;
+            tagEntries.add(new FacetEntry(label, label, entry.getValue()[0]));
+        }
+        List<FacetEntry> authorEntries = new ArrayList<>();
+        for (Map.Entry<Integer, int[]> entry : top(authorCounts, topAuthors,
+                Comparator.comparingInt((Integer key) -> authors.get(key).getCardinality()))) {
+            String authorId = String.valueOf(entry.getKey());
+            authorEntries.add(new FacetEntry(authorId, authorId, entry.getValue()[0]));
+        }
+        List<Integer> monthKeys = new ArrayList<>(monthCounts.keySet());
+        Collections.sort(monthKeys);
+        List<FacetEntry> monthEntries = new ArrayList<>(monthKeys.size());
+        for (int month : monthKeys) {
+            monthEntries.add(monthEntry(month, monthCounts.get(month)[0]));
+        }
+        return new FacetCounts(matched.getCardinality(), tagEntries, authorEntries, monthEntries, false);
+    }
+
+    /**
+     * 按计数降序取前K个，计数相同时全局基数更大的优先（与位图统计的顺序一致）
+     */
+    private static <K> List<Map.Entry<K, int[]>> top(Map<K, int[]> counts, int limit, Comparator<K> globalSize) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Comparator<Map.Entry<K, int[]>> order = Comparator.<Map.Entry<K, int[]>>comparingInt(entry -> entry.getValue()[0])
+                .thenComparing(Map.Entry::getKey, globalSize);
+        PriorityQueue<Map.Entry<K, int[]>> heap = new PriorityQueue<>(limit + 1, order);
+        for (Map.Entry<K, int[]> entry : counts.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<K, int[]>> result = new ArrayList<>(heap);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    private static FacetEntry monthEntry(int month, int count) {
+        LocalDate first = LocalDate.of(month / 12, month % 12 + 1, 1);
+        String label = String.format("%d-%02d", first.getYear(), first.getMonthValue());
+        return new FacetEntry(label, label, count, first, first.withDayOfMonth(first.lengthOfMonth()));
+    }
+
+    /**
+     * 取与命中集合交集最大的前K个位图，返回 [排序快照下标, 计数]，按计数降序
+     */
+    private static <K> List<int[]> topK(RoaringBitmap matched, Ranked<K> ranking, Set<?> skipped,
+                                        int limit, long deadline, boolean[] truncated) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        // 计数相同时全局基数更大（下标更小）的优先
+        Comparator<int[]> order = (a, b) -> a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(b[0], a[0]);
+        PriorityQueue<int[]> heap = new PriorityQueue<>(limit + 1, order);
+        for (int i = 0; i < ranking.sizes.length; i++) {
+            if (heap.size() == limit && ranking.sizes[i] <= heap.peek()[1]) {
+                break;
+            }
+            if ((i & 63) == 63 && System.nanoTime() > deadline) {
+                truncated[0] = true;
+                break;
+            }
+            if (skipped.contains(ranking.keys.get(i))) {
+                continue;
+            }
+            int count = RoaringBitmap.andCardinality(matched, ranking.bitmaps[i]);
+            if (count > 0) {
+                heap.offer(new int[] {i, count});
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        }
+        List<int[]> result = new ArrayList<>(heap);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    private static <K> Ranked<K> rank(Collection<K> keys, Function<K, RoaringBitmap> bitmapOf, long version) {
+        List<K> entries = new ArrayList<>(keys);
+        RoaringBitmap[] bitmaps = new RoaringBitmap[entries.size()];
+        int[] cardinalities = new int[entries.size()];
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) {
+            bitmaps[i] = bitmapOf.apply(entries.get(i));
+            cardinalities[i] = bitmaps[i].getCardinality();
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(cardinalities[b], cardinalities[a]));
+        List<K> sortedKeys = new ArrayList<>(order.length);
+        RoaringBitmap[] sorted = new RoaringBitmap[order.length];
+        int[] sizes = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys.add(entries.get(order[i]));
+            sorted[i] = bitmaps[order[i]];
+            sizes[i] = cardinalities[order[i]];
+        }
+        return new Ranked<>(version, sortedKeys, sorted, sizes);
+    }
+
+    private void removeInternal(int postId) {
+        published.remove(postId);
+        removeFrom(authors, authorIds[postId], postId);
+        removeFrom(months, monthOf(LocalDate.ofEpochDay(createdDays[postId])), postId);
+        for (TagPosting posting : postTags[postId]) {
+            posting.bitmap.remove(postId);
+            if (posting.bitmap.isEmpty()) {
+                tags.remove(posting.key);
+            }
+        }
+        postTags[postId] = null;
+    }
+
+    private void addTagInternal(int postId, String tagName) {
+        TagPosting posting = tags.computeIfAbsent(normalize(tagName), key -> new TagPosting(key, tagName.trim()));
+        if (posting.bitmap.contains(postId)) {
+            return;
+        }
+        posting.bitmap.add(postId);
+        TagPosting[] current = postTags[postId];
+        TagPosting[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = posting;
+        postTags[postId] = updated;
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int postId) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(postId);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static RoaringBitmap union(Stream<RoaringBitmap> bitmaps) {
+        RoaringBitmap result = new RoaringBitmap();
+        Iterator<RoaringBitmap> iterator = bitmaps.iterator();
+        while (iterator.hasNext()) {
+            RoaringBitmap bitmap = iterator.next();
+            if (bitmap != null) {
+                result = RoaringBitmap.or(result, bitmap);
+            }
+        }
+        return result;
+    }
+
+    private void ensureCapacity(int postId) {
+        if (postId < authorIds.length) {
+            return;
+        }
+        int capacity = Math.max(postId + 1, authorIds.length + (authorIds.length >> 1));
+        authorIds = Arrays.copyOf(authorIds, capacity);
+        createdDays = Arrays.copyOf(createdDays, capacity);
+        viewCounts = Arrays.copyOf(viewCounts, capacity);
+        postTags = Arrays.copyOf(postTags, capacity);
+    }
+
+    private static int monthOf(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static String normalize(String tagName) {
+        return tagName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 一个标签的位图，label为首次出现时的原始写法，用于分面展示；按对象身份比较
+     */
+    private static final class TagPosting {
+        private final String key;
+        private final String label;
+        private final RoaringBitmap bitmap = new RoaringBitmap();
+
+        private TagPosting(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    /**
+     * 某一版本索引下按基数降序排列的位图快照，供分面统计剪枝
+     */
+    private static final class Ranked<K> {
+        private final long version;
+        private final List<K> keys;
+        private final RoaringBitmap[] bitmaps;
+        private final int[] sizes;
+
+        private Ranked(long version, List<K> keys, RoaringBitmap[] bitmaps, int[] sizes) {
+            this.version = version;
+            this.keys = keys;
+            this.bitmaps = bitmaps;
+            this.sizes = sizes;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.blog.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 分面统计结果缓存
+ *
+ * 按访问顺序淘汰的LRU，热门查询常驻；条目记录计算时的索引版本，
+ * 索引有写入或超过存活时间后视为过期。
+ */
+public class FacetCache {
+
+    private final int maxEntries;
+
+    private final long ttlMillis;
+
+    private final Map<String, CachedFacets> entries;
+
+    public FacetCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<String, CachedFacets>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedFacets> eldest) {
+                return size() > FacetCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 获取未过期的缓存结果，没有时返回null
+     */
+    public synchronized FacetCounts get(String key, long version, long nowMillis) {
+        CachedFacets entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version != version || nowMillis - entry.createdAt > ttlMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.facets;
+    }
+
+    public synchronized void put(String key, long version, long nowMillis, FacetCounts facets) {
+        if (maxEntries > 0) {
+            entries.put(key, new CachedFacets(version, nowMillis, facets));
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class CachedFacets {
+        private final long version;
+        private final long createdAt;
+        private final FacetCounts facets;
+
+        private CachedFacets(long version, long createdAt, FacetCounts facets) {
+            this.version = version;
+            this.createdAt = createdAt;
+            this.facets = facets;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.blog.search;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 搜索结果的分面统计：热门标签、热门作者和按月分布
+ *
+ * 超出计算时间预算时返回已完成的部分，truncated为true；
+ * 作者分面由索引给出作者ID，显示名称由服务层补齐。
+ */
+public class FacetCounts {
+
+    private static final FacetCounts EMPTY = new FacetCounts(0, Collections.emptyList(),
+            Collections.emptyList(), Collections.emptyList(), false);
+
+    private final int total;
+
+    private final List<FacetEntry> tags;
+
+    private final List<FacetEntry> authors;
+
+    private final List<FacetEntry> months;
+
+    private final boolean truncated;
+
+    public FacetCounts(int total, List<FacetEntry> tags, List<FacetEntry> authors,
+                       List<FacetEntry> months, boolean truncated) {
+        this.total = total;
+        this.tags = tags;
+        this.authors = authors;
+        this.months = months;
+        this.truncated = truncated;
+    }
+
+    public static FacetCounts empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 替换作者分面（补齐显示名称后）
+     */
+    public FacetCounts withAuthors(List<FacetEntry> authors) {
+        return new FacetCounts(total, tags, authors, months, truncated);
+    }
+
+    /**
+     * 标记为不完整（如参与统计的结果集被截断）
+     */
+    public FacetCounts asTruncated() {
+        return new FacetCounts(total, tags, authors, months, true);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<FacetEntry> getTags() {
+        return tags;
+    }
+
+    public List<FacetEntry> getAuthors() {
+        return authors;
+    }
+
+    public List<FacetEntry> getMonths() {
+        return months;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * 月份分面中的最大命中数，用于绘制直方图
+     */
+    public int getMaxMonthCount() {
+        int max = 0;
+        for (FacetEntry month : months) {
+            max = Math.max(max, month.getCount());
+        }
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return tags.isEmpty() && authors.isEmpty() && months.isEmpty();
+    }
+}
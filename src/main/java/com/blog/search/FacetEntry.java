@@ -0,0 +1,56 @@
+package com.blog.search;
+
+import java.time.LocalDate;
+
+/**
+ * 分面统计中的一项：筛选值、显示名称和命中数；月份分面附带该月的起止日期
+ */
+public class FacetEntry {
+
+    private final String value;
+
+    private final String label;
+
+    private final int count;
+
+    private final LocalDate from;
+
+    private final LocalDate to;
+
+    public FacetEntry(String value, String label, int count) {
+        this(value, label, count, null, null);
+    }
+
+    public FacetEntry(String value, String label, int count, LocalDate from, LocalDate to) {
+        this.value = value;
+        this.label = label;
+        this.count = count;
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    @Override
+    public String toString() {
+        return label + "(" + count + ")";
+    }
+}
@@ -0,0 +1,668 @@
+package com.blog.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 压缩位图（Roaring结构）
+ *
+ * 非负int按高16位分桶，每个桶按元素数量选择存储方式：不超过4096个时为有序char数组，
+ * 否则为65536位的定长位图。稀疏集合（冷门标签）只占数组空间，稠密集合（热门标签、
+ * 全部已发布博客）按位存储，交、并、差运算逐桶进行，只有两侧都存在的桶需要计算。
+ * 未实现Roaring的行程编码容器，博客ID连续但按标签筛选后很少出现长连续段。
+ *
+ * 非线程安全；集合运算不修改参与运算的位图，返回新位图。
+ */
+public final class RoaringBitmap {
+
+    // 数组容器的最大元素数，超过后转为位图容器（4096个char与1024个long同为8KB）
+    private static final int ARRAY_MAX = 4096;
+
+    private char[] keys;
+
+    private Container[] containers;
+
+    private int size;
+
+    public RoaringBitmap() {
+        this(4);
+    }
+
+    private RoaringBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Container[capacity];
+    }
+
+    public static RoaringBitmap of(int... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public void add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("位图只支持非负整数: " + value);
+        }
+        char key = (char) (value >>> 16);
+        int index = indexOf(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) value);
+        } else {
+            insertAt(-index - 1, key, new ArrayContainer().add((char) value));
+        }
+    }
+
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int index = indexOf((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) value);
+        if (container.cardinality() == 0) {
+            removeAt(index);
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = indexOf((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public int getCardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 估算占用的字节数
+     */
+    public long sizeInBytes() {
+        long bytes = 16L + keys.length * 2L + containers.length * 8L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 按升序遍历全部元素
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    /**
+     * 按顺序取一页元素：跳过的桶只累加基数，不展开
+     * @param offset 跳过的元素数
+     * @param limit 最多返回的元素数
+     * @param descending 是否按降序
+     */
+    public int[] select(int offset, int limit, boolean descending) {
+        int[] result = new int[Math.max(0, Math.min(limit, getCardinality() - offset))];
+        int filled = 0;
+        int skip = offset;
+        for (int n = 0; n < size && filled < result.length; n++) {
+            int i = descending ? size - 1 - n : n;
+            Container container = containers[i];
+            int cardinality = container.cardinality();
+            if (skip >= cardinality) {
+                skip -= cardinality;
+                continue;
+            }
+            int high = keys[i] << 16;
+            for (int rank = skip; rank < cardinality && filled < result.length; rank++) {
+                char low = container.select(descending ? cardinality - 1 - rank : rank);
+                result[filled++] = high | low;
+            }
+            skip = 0;
+        }
+        return result;
+    }
+
+    public RoaringBitmap copy() {
+        RoaringBitmap copy = new RoaringBitmap(Math.max(4, size));
+        for (int i = 0; i < size; i++) {
+            copy.keys[i] = keys[i];
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * 交集
+     */
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap(Math.max(4, Math.min(a.size, b.size)));
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container container = a.containers[i].and(b.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.append(a.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 交集的基数，不生成结果位图
+     */
+    public static int andCardinality(RoaringBitmap a, RoaringBitmap b) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * 并集
+     */
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap(Math.max(4, a.size + b.size));
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i >= a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 差集 a - b
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap(Math.max(4, a.size));
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            Container container = j < b.size && b.keys[j] == a.keys[i]
+                    ? a.containers[i].andNot(b.containers[j]) : a.containers[i].copy();
+            if (container.cardinality() > 0) {
+                result.append(a.keys[i], container);
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(char key) {
+        // 最近的桶最常被访问（新博客ID最大），先检查末尾
+        if (size > 0 && keys[size - 1] == key) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void append(char key, Container container) {
+        insertAt(size, key, container);
+    }
+
+    private void insertAt(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * 一个桶内的低16位集合；修改操作可能转换存储方式，返回值为修改后的容器
+     */
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        /**
+         * 第rank小的元素（从0开始）
+         */
+        abstract char select(int rank);
+
+        abstract void forEach(int high, IntConsumer consumer);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container copy();
+
+        abstract int sizeInBytes();
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality >= ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            int insertAt = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, Math.min(ARRAY_MAX, cardinality * 2)));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+            values[insertAt] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        char select(int rank) {
+            return values[rank];
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            if (cardinality + array.cardinality > ARRAY_MAX) {
+                BitmapContainer bitmap = toBitmap();
+                for (int j = 0; j < array.cardinality; j++) {
+                    bitmap.set(array.values[j]);
+                }
+                return bitmap.normalize();
+            }
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j >= array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i >= cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 24 + values.length * 2;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.set(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            set(value);
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) != 0) {
+                words[value >>> 6] &= ~mask;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        char select(int rank) {
+            int remaining = rank;
+            for (int i = 0; i < words.length; i++) {
+                int bits = Long.bitCount(words[i]);
+                if (remaining < bits) {
+                    long word = words[i];
+                    for (int k = 0; k < remaining; k++) {
+                        word &= word - 1;
+                    }
+                    return (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                }
+                remaining -= bits;
+            }
+            throw new IllegalArgumentException("超出容器基数: " + rank);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    consumer.accept(high | (i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[1024];
+            int count = 0;
+            for (int i = 0; i < 1024; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return new BitmapContainer(result, count).normalize();
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < 1024; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof ArrayContainer) {
+                BitmapContainer result = (BitmapContainer) copy();
+                ArrayContainer array = (ArrayContainer) other;
+                for (int j = 0; j < array.cardinality; j++) {
+                    result.set(array.values[j]);
+                }
+                return result;
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[1024];
+            int count = 0;
+            for (int i = 0; i < 1024; i++) {
+                result[i] = words[i] | otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return new BitmapContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            BitmapContainer result;
+            if (other instanceof ArrayContainer) {
+                result = (BitmapContainer) copy();
+                ArrayContainer array = (ArrayContainer) other;
+                for (int j = 0; j < array.cardinality; j++) {
+                    char value = array.values[j];
+                    long mask = 1L << value;
+                    if ((result.words[value >>> 6] & mask) != 0) {
+                        result.words[value >>> 6] &= ~mask;
+                        result.cardinality--;
+                    }
+                }
+            } else {
+                long[] otherWords = ((BitmapContainer) other).words;
+                long[] words = new long[1024];
+                int count = 0;
+                for (int i = 0; i < 1024; i++) {
+                    words[i] = this.words[i] & ~otherWords[i];
+                    count += Long.bitCount(words[i]);
+                }
+                result = new BitmapContainer(words, count);
+            }
+            return result.normalize();
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 24 + words.length * 8;
+        }
+
+        void set(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) == 0) {
+                words[value >>> 6] |= mask;
+                cardinality++;
+            }
+        }
+
+        /**
+         * 元素较少时转为数组容器
+         */
+        Container normalize() {
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.blog.search;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 高级搜索条件
+ *
+ * 标签名不区分大小写；未设置的条件不参与筛选。
+ */
+public class SearchCriteria {
+
+    /**
+     * 排序方式
+     */
+    public enum Sort {
+        NEWEST, OLDEST, VIEWS
+    }
+
+    // 必须同时包含的标签（AND）
+    private final Set<String> allTags = new LinkedHashSet<>();
+
+    // 至少包含其一的标签（OR）
+    private final Set<String> anyTags = new LinkedHashSet<>();
+
+    // 不能包含的标签（NOT）
+    private final Set<String> excludedTags = new LinkedHashSet<>();
+
+    private Integer authorId;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Sort sort = Sort.NEWEST;
+
+    public Set<String> getAllTags() {
+        return allTags;
+    }
+
+    public Set<String> getAnyTags() {
+        return anyTags;
+    }
+
+    public Set<String> getExcludedTags() {
+        return excludedTags;
+    }
+
+    public Integer getAuthorId() {
+        return authorId;
+    }
+
+    public SearchCriteria setAuthorId(Integer authorId) {
+        this.authorId = authorId;
+        return this;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public SearchCriteria setFrom(LocalDate from) {
+        this.from = from;
+        return this;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public SearchCriteria setTo(LocalDate to) {
+        this.to = to;
+        return this;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public SearchCriteria setSort(Sort sort) {
+        this.sort = sort != null ? sort : Sort.NEWEST;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchCriteria{" +
+                "allTags=" + allTags +
+                ", anyTags=" + anyTags +
+                ", excludedTags=" + excludedTags +
+                ", authorId=" + authorId +
+                ", from=" + from +
+                ", to=" + to +
+                ", sort=" + sort +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.blog.search;
+
+/**
+ * 高级搜索结果：命中总数和当前页的博客ID（已按排序方式排列）
+ */
+public class SearchHits {
+
+    private static final SearchHits EMPTY = new SearchHits(0, new int[0]);
+
+    private final int total;
+
+    private final int[] ids;
+
+    public SearchHits(int total, int[] ids) {
+        this.total = total;
+        this.ids = ids;
+    }
+
+    public static SearchHits empty() {
+        return EMPTY;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int[] getIds() {
+        return ids;
+    }
+}
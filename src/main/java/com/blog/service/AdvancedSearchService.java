@@ -0,0 +1,378 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.dto.AdvancedSearchDto;
+import com.blog.entity.Blog;
+import com.blog.entity.User;
+import com.blog.event.BlogChangedEvent;
+import com.blog.repository.BlogRepository;
+import com.blog.repository.UserRepository;
+import com.blog.search.AdvancedSearchIndex;
+import com.blog.search.FacetCache;
+import com.blog.search.FacetCounts;
+import com.blog.search.FacetEntry;
+import com.blog.search.SearchCriteria;
+import com.blog.search.SearchHits;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 高级搜索服务
+ *
+ * 启动完成后按ID分批构建标签/作者/月份位图索引，之后随博客的创建、更新和删除增量维护。
+ * 搜索条件完全在内存索引上求值，只返回当前页的博客ID，由调用方从数据库加载这一页。
+ * 搜索页的分面统计（标签、作者、月份）同样在索引上完成，并按查询缓存。
+ */
+@Service
+public class AdvancedSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvancedSearchService.class);
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AdvancedSearchIndex index = new AdvancedSearchIndex();
+
+    private volatile boolean ready;
+
+    // 构建索引期间提交的博客变更，构建完成后重放
+    private List<BlogChangedEvent> pendingEvents;
+
+    private FacetCache facetCache;
+
+    private Timer facetTimer;
+
+    private Counter facetCacheHits;
+
+    private Counter facetCacheMisses;
+
+    private Counter facetTruncated;
+
+    @PostConstruct
+    public void init() {
+        BlogProperties.Search config = blogProperties.getSearch();
+        facetCache = new FacetCache(config.getFacetCacheSize(), config.getFacetCacheTtl() * 1000);
+        facetTimer = Timer.builder("blog.search.facets")
+                .description("搜索分面统计耗时（未命中缓存）")
+                .register(meterRegistry);
+        facetCacheHits = Counter.builder("blog.search.facets.cache")
+                .tag("result", "hit")
+                .description("分面统计缓存查询次数")
+                .register(meterRegistry);
+        facetCacheMisses = Counter.builder("blog.search.facets.cache")
+                .tag("result", "miss")
+                .description("分面统计缓存查询次数")
+                .register(meterRegistry);
+        facetTruncated = Counter.builder("blog.search.facets.truncated")
+                .description("超出时间预算或命中数上限而不完整的分面统计次数")
+                .register(meterRegistry);
+        Gauge.builder("blog.cache.size", facetCache, FacetCache::size)
+                .tag("cache", "facets")
+                .description("缓存中的条目数")
+                .register(meterRegistry);
+        Gauge.builder("blog.index.size", index, AdvancedSearchIndex::size)
+                .tag("index", "search")
+                .description("内存索引中的博客数")
+                .register(meterRegistry);
+        Gauge.builder("blog.index.bytes", index, AdvancedSearchIndex::sizeInBytes)
+                .tag("index", "search")
+                .description("内存索引的估算占用字节数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用启动完成后构建索引（此时演示数据已初始化）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!blogProperties.getSearch().isAdvancedEnabled()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        synchronized (this) {
+            pendingEvents = new ArrayList<>();
+        }
+        PageRequest batch = PageRequest.of(0, blogProperties.getSearch().getIndexBatchSize());
+        long afterId = 0;
+        List<Object[]> rows;
+        while (!(rows = blogRepository.findPublishedSearchAttributes(afterId, batch)).isEmpty()) {
+            for (Object[] row : rows) {
+                index.put(toIndexId((Long) row[0]), toIndexId((Long) row[1]),
+                        ((LocalDateTime) row[2]).toLocalDate(), toViewCount((Long) row[3]), Collections.emptyList());
+            }
+            long lastId = (Long) rows.get(rows.size() - 1)[0];
+            for (Object[] link : blogRepository.findPublishedTagNamesInRange(afterId, lastId)) {
+                index.addTag(toIndexId((Long) link[0]), (String) link[1]);
+            }
+            afterId = lastId;
+        }
+        int replayed = replayPendingEvents();
+        if (replayed > 0) {
+            logger.info("高级搜索索引构建期间有 {} 个博客变更事件，已重放", replayed);
+        }
+        logger.info("高级搜索索引构建完成: {} 篇博客，{} 个标签，约 {} KB，耗时: {}ms", index.size(),
+                index.tagCount(), index.sizeInBytes() / 1024, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 在索引上执行搜索，返回命中总数和当前页的博客ID
+     * @param form 搜索表单
+     * @param offset 跳过的结果数
+     * @param limit 每页数量
+     */
+    public SearchHits search(AdvancedSearchDto form, int offset, int limit) {
+        if (!ready) {
+            return SearchHits.empty();
+        }
+        SearchCriteria criteria = new SearchCriteria()
+                .setFrom(form.getFrom())
+                .setTo(form.getTo())
+                .setSort(parseSort(form.getSort()));
+        addTags(criteria.getAllTags(), form.getAllTags());
+        addTags(criteria.getAnyTags(), form.getAnyTags());
+        addTags(criteria.getExcludedTags(), form.getExcludeTags());
+        if (form.getAuthor() != null && !form.getAuthor().trim().isEmpty()) {
+            Optional<Long> authorId = userRepository.findByUsername(form.getAuthor().trim()).map(User::getId);
+            if (!authorId.isPresent()) {
+                return SearchHits.empty();
+            }
+            criteria.setAuthorId(toIndexId(authorId.get()));
+        }
+
+        SearchHits hits;
+        if (criteria.getSort() == SearchCriteria.Sort.VIEWS) {
+            // 按浏览量排序需要维护offset+limit大小的堆，限制可翻到的深度，分页总数也按此截断
+            int window = blogProperties.getSearch().getMaxResultWindow();
+            hits = index.search(criteria, offset, Math.max(0, Math.min(limit, window - offset)));
+            hits = new SearchHits(Math.min(hits.getTotal(), window), hits.getIds());
+        } else {
+            hits = index.search(criteria, offset, limit);
+        }
+        logger.debug("高级搜索: {}, 命中 {} 篇", criteria, hits.getTotal());
+        return hits;
+    }
+
+    /**
+     * 获取搜索结果的分面统计（与搜索页的三种模式对应：按标签、按关键词、全部博客）
+     *
+     * 标签和全部博客直接在位图索引上统计；关键词搜索先取出命中的博客ID（最多facetMaxKeywordHits个），
+     * 再在索引上统计，不对每个分面执行GROUP BY。相同查询在索引没有写入时直接返回缓存结果。
+     */
+    public FacetCounts getFacets(String tag, String keyword) {
+        BlogProperties.Search config = blogProperties.getSearch();
+        if (!ready || !config.isFacetsEnabled()) {
+            return FacetCounts.empty();
+        }
+        String cacheKey;
+        if (tag != null && !tag.trim().isEmpty()) {
+            cacheKey = "tag:" + tag.trim().toLowerCase(Locale.ROOT);
+        } else if (keyword != null && !keyword.trim().isEmpty()) {
+            cacheKey = "q:" + keyword.trim().toLowerCase(Locale.ROOT);
+        } else {
+            cacheKey = "all";
+        }
+
+        // 先取版本再统计，统计期间有写入时这条缓存在下次读取时即过期
+        long version = index.getVersion();
+        FacetCounts cached = facetCache.get(cacheKey, version, System.currentTimeMillis());
+        if (cached != null) {
+            facetCacheHits.increment();
+            return cached;
+        }
+        facetCacheMisses.increment();
+
+        long startTime = System.nanoTime();
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(config.getFacetBudgetMillis());
+        FacetCounts facets;
+        if (cacheKey.startsWith("tag:")) {
+            SearchCriteria criteria = new SearchCriteria();
+            criteria.getAllTags().add(tag.trim());
+            facets = index.facets(criteria, config.getFacetTopTags(), config.getFacetTopAuthors(), budgetNanos);
+        } else if (cacheKey.startsWith("q:")) {
+            List<Long> ids = blogRepository.searchIdsByKeyword(keyword.trim(),
+                    PageRequest.of(0, config.getFacetMaxKeywordHits()));
+            facets = index.facets(ids, config.getFacetTopTags(), config.getFacetTopAuthors(), budgetNanos);
+            if (ids.size() >= config.getFacetMaxKeywordHits()) {
+                facets = facets.asTruncated();
+            }
+        } else {
+            facets = index.facets(new SearchCriteria(), config.getFacetTopTags(), config.getFacetTopAuthors(), budgetNanos);
+        }
+        facets = resolveAuthors(facets);
+        long elapsed = System.nanoTime() - startTime;
+        facetTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (facets.isTruncated()) {
+            facetTruncated.increment();
+            logger.debug("分面统计不完整: {}, 耗时: {}ms", cacheKey, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+
+        facetCache.put(cacheKey, version, System.currentTimeMillis(), facets);
+        return facets;
+    }
+
+    /**
+     * 把作者分面中的作者ID换成用户名（筛选值）和显示名称，一次批量查询
+     */
+    private FacetCounts resolveAuthors(FacetCounts facets) {
+        if (facets.getAuthors().isEmpty()) {
+            return facets;
+        }
+        List<Long> authorIds = facets.getAuthors().stream()
+                .map(entry -> Long.valueOf(entry.getValue()))
+                .collect(Collectors.toList());
+        Map<Long, User> users = userRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<FacetEntry> authors = new ArrayList<>();
+        for (FacetEntry entry : facets.getAuthors()) {
+            User user = users.get(Long.valueOf(entry.getValue()));
+            if (user != null) {
+                String label = user.getDisplayName() != null ? user.getDisplayName() : user.getUsername();
+                authors.add(new FacetEntry(user.getUsername(), label, entry.getCount()));
+            }
+        }
+        return facets.withAuthors(authors);
+    }
+
+    /**
+     * 博客被浏览后同步浏览量，用于按浏览量排序
+     */
+    public void recordView(Blog blog) {
+        if (ready && Boolean.TRUE.equals(blog.getPublished())) {
+            index.updateViewCount(toIndexId(blog.getId()), toViewCount(blog.getViewCount()));
+        }
+    }
+
+    /**
+     * 博客提交后增量更新索引：已发布的重新写入，未发布或已删除的移出索引
+     * 导入时一个事件包含整批博客，属性和标签各用一次批量查询取出；索引构建期间的事件先缓存，构建完成后重放
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (!ready) {
+            synchronized (this) {
+                if (!ready) {
+                    if (pendingEvents != null) {
+                        pendingEvents.add(event);
+                    }
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    /**
+     * 重放构建期间缓存的事件，直到没有新事件时标记索引可用；
+     * 事件按数据库的当前状态写入或移出，重复应用结果不变
+     */
+    private int replayPendingEvents() {
+        int replayed = 0;
+        while (true) {
+            List<BlogChangedEvent> events;
+            synchronized (this) {
+                if (pendingEvents.isEmpty()) {
+                    pendingEvents = null;
+                    ready = true;
+                    return replayed;
+                }
+                events = pendingEvents;
+                pendingEvents = new ArrayList<>();
+            }
+            for (BlogChangedEvent event : events) {
+                apply(event);
+            }
+            replayed += events.size();
+        }
+    }
+
+    private void apply(BlogChangedEvent event) {
+        if (event.getType() == BlogChangedEvent.Type.DELETED) {
+            for (Long blogId : event.getBlogIds()) {
+                index.remove(toIndexId(blogId));
+            }
+            return;
+        }
+        List<Object[]> rows = blogRepository.findPublishedSearchAttributesByIdIn(event.getBlogIds());
+        Map<Long, List<String>> tagsByBlog = new HashMap<>();
+        if (!rows.isEmpty()) {
+            List<Long> publishedIds = rows.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+            for (Object[] link : blogRepository.findTagNamesByBlogIdIn(publishedIds)) {
+                tagsByBlog.computeIfAbsent((Long) link[0], key -> new ArrayList<>()).add((String) link[1]);
+            }
+        }
+        Set<Long> unpublished = new HashSet<>(event.getBlogIds());
+        for (Object[] row : rows) {
+            Long blogId = (Long) row[0];
+            unpublished.remove(blogId);
+            index.put(toIndexId(blogId), toIndexId((Long) row[1]), ((LocalDateTime) row[2]).toLocalDate(),
+                    toViewCount((Long) row[3]), tagsByBlog.getOrDefault(blogId, Collections.emptyList()));
+        }
+        for (Long blogId : unpublished) {
+            index.remove(toIndexId(blogId));
+        }
+    }
+
+    private static void addTags(Set<String> target, String tagsString) {
+        if (tagsString == null) {
+            return;
+        }
+        for (String tagName : tagsString.split("[,，]")) { // 支持中英文逗号分隔
+            if (!tagName.trim().isEmpty()) {
+                target.add(tagName.trim());
+            }
+        }
+    }
+
+    private static SearchCriteria.Sort parseSort(String sort) {
+        if (sort == null) {
+            return SearchCriteria.Sort.NEWEST;
+        }
+        try {
+            return SearchCriteria.Sort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return SearchCriteria.Sort.NEWEST;
+        }
+    }
+
+    private static int toViewCount(Long viewCount) {
+        return viewCount != null ? (int) Math.min(Integer.MAX_VALUE, viewCount) : 0;
+    }
+
+    private static int toIndexId(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,249 @@
+package com.blog.service;
+
+import com.blog.backup.ImportCheckpoint;
+import com.blog.backup.NdjsonExporter;
+import com.blog.backup.NdjsonImporter;
+import com.blog.config.BlogProperties;
+import com.blog.event.BlogChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 内容导出导入服务
+ *
+ * 把用户、标签、博客和评论导出为blog.backup.path目录下的NDJSON文件（文件名以.gz结尾时gzip压缩），
+ * 或从该目录的文件导入。任务在后台线程逐个执行，可通过任务查询进度；
+ * 导入中断后再次导入同一文件时从检查点继续。
+ */
+@Service
+public class BackupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private ExecutorService executor;
+
+    private final Map<String, BackupTask> tasks = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 异步导出全部内容
+     * @param fileName 备份目录下的文件名
+     */
+    public BackupTask exportAsync(String fileName) {
+        Path file = resolve(fileName);
+        BackupTask task = registerTask(BackupTask.Type.EXPORT, fileName);
+        executor.submit(() -> runExport(task, file));
+        logger.info("已提交内容导出任务: {}", task);
+        return task;
+    }
+
+    /**
+     * 异步导入，存在检查点时从中断处继续
+     * @param fileName 备份目录下的文件名
+     */
+    public BackupTask importAsync(String fileName) {
+        Path file = resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("导入文件不存在: " + fileName);
+        }
+        BackupTask task = registerTask(BackupTask.Type.IMPORT, fileName);
+        executor.submit(() -> runImport(task, file));
+        logger.info("已提交内容导入任务: {}", task);
+        return task;
+    }
+
+    /**
+     * 查询任务
+     */
+    public Optional<BackupTask> getTask(String taskId) {
+        synchronized (tasks) {
+            return Optional.ofNullable(tasks.get(taskId));
+        }
+    }
+
+    /**
+     * 获取最近的任务
+     */
+    public List<BackupTask> getTasks() {
+        synchronized (tasks) {
+            return new ArrayList<>(tasks.values());
+        }
+    }
+
+    private BackupTask registerTask(BackupTask.Type type, String fileName) {
+        BackupTask task = new BackupTask(UUID.randomUUID().toString(), type, fileName);
+        synchronized (tasks) {
+            tasks.put(task.getId(), task);
+            // 只保留最近的已结束任务
+            int excess = tasks.size() - blogProperties.getBackup().getRetainedTasks();
+            Iterator<BackupTask> iterator = tasks.values().iterator();
+            while (excess > 0 && iterator.hasNext()) {
+                if (iterator.next().isFinished()) {
+                    iterator.remove();
+                    excess--;
+                }
+            }
+        }
+        return task;
+    }
+
+    /**
+     * 先写临时文件，完成后再替换目标文件
+     */
+    private void runExport(BackupTask task, Path file) {
+        long startTime = System.currentTimeMillis();
+        task.start(false);
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream out = openOutput(temp, isGzip(file))) {
+                new NdjsonExporter(dataSource, blogProperties.getBackup().getFetchSize()).export(out, task.getCounts());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            task.complete();
+            logger.info("内容导出完成: {}, {}, 大小: {} KB, 耗时: {}ms", file, task.getCounts(),
+                    Files.size(file) / 1024, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            task.fail(e);
+            logger.error("内容导出失败: {}, 已导出: {}", file, task.getCounts(), e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * 每批博客提交后发布创建事件，由各索引和缓存的监听器增量更新
+     */
+    private void runImport(BackupTask task, Path file) {
+        long startTime = System.currentTimeMillis();
+        Path checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        try (ImportCheckpoint checkpoint = ImportCheckpoint.open(checkpointFile, sourceOf(file));
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(openInput(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            task.start(checkpoint.getLines() > 0);
+            if (task.isResumed()) {
+                logger.info("从检查点继续导入: {}, 跳过 {} 行", file, checkpoint.getLines());
+            }
+            NdjsonImporter importer = new NdjsonImporter(dataSource, blogProperties.getBackup().getBatchSize());
+            importer.setBlogListener(blogIds ->
+                    eventPublisher.publishEvent(new BlogChangedEvent(BlogChangedEvent.Type.CREATED, blogIds)));
+            importer.importFrom(reader, checkpoint, task.getCounts());
+            checkpoint.delete();
+            task.complete();
+            logger.info("内容导入完成: {}, {}, 耗时: {}ms", file, task.getCounts(), System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            task.fail(e);
+            logger.error("内容导入失败: {}, 已导入: {}，再次导入同一文件将从检查点继续", file, task.getCounts(), e);
+        }
+    }
+
+    /**
+     * 文件名必须位于备份目录内
+     */
+    private Path resolve(String fileName) {
+        if (fileName == null || fileName.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件名不能为空");
+        }
+        Path root = Paths.get(blogProperties.getBackup().getPath()).toAbsolutePath().normalize();
+        Path file = root.resolve(fileName.trim()).normalize();
+        if (!file.startsWith(root) || file.equals(root)) {
+            throw new IllegalArgumentException("文件必须位于备份目录内: " + fileName);
+        }
+        return file;
+    }
+
+    /**
+     * 文件名和大小作为检查点对应的导入文件标识
+     */
+    private static String sourceOf(Path file) throws IOException {
+        return file.getFileName() + ":" + Files.size(file);
+    }
+
+    private static boolean isGzip(Path file) {
+        return file.getFileName().toString().endsWith(".gz");
+    }
+
+    private static OutputStream openOutput(Path file, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        return gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : new BufferedOutputStream(out, BUFFER_SIZE);
+    }
+
+    /**
+     * 按文件头判断是否为gzip压缩
+     */
+    private static InputStream openInput(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        boolean gzip = first == 0x1f && second == 0x8b;
+        return gzip ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("删除临时文件失败: {}", file);
+        }
+    }
+}
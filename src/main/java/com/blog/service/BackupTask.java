@@ -0,0 +1,119 @@
+package com.blog.service;
+
+import com.blog.backup.TransferCounts;
+
+import java.time.LocalDateTime;
+
+/**
+ * 内容导出或导入任务的进度
+ */
+public class BackupTask {
+
+    /**
+     * 任务类型
+     */
+    public enum Type {
+        EXPORT, IMPORT
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final Type type;
+    private final String file;
+    private final TransferCounts counts = new TransferCounts();
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile Status status = Status.PENDING;
+    private volatile boolean resumed;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public BackupTask(String id, Type type, String file) {
+        this.id = id;
+        this.type = type;
+        this.file = file;
+    }
+
+    void start(boolean resumed) {
+        this.resumed = resumed;
+        this.startedAt = LocalDateTime.now();
+        this.status = Status.RUNNING;
+    }
+
+    void complete() {
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(Throwable cause) {
+        this.error = cause.getMessage();
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * 导入时是否从检查点继续
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public TransferCounts getCounts() {
+        return counts;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "BackupTask{" +
+                "id='" + id + '\'' +
+                ", type=" + type +
+                ", file='" + file + '\'' +
+                ", status=" + status +
+                ", counts=" + counts +
+                '}';
+    }
+}
@@ -1,24 +1,43 @@
 package com.blog.service;
 
+import com.blog.dto.AdvancedSearchDto;
 import com.blog.dto.BlogDto;
+import com.blog.dto.RelatedBlogDto;
+import com.blog.dto.TrendingBlogDto;
 import com.blog.entity.Blog;
 import com.blog.entity.Tag;
 import com.blog.entity.User;
+import com.blog.event.BlogChangedEvent;
 import com.blog.repository.BlogRepository;
 import com.blog.repository.TagRepository;
 import com.blog.repository.UserRepository;
+import com.blog.search.FacetCounts;
+import com.blog.search.SearchHits;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +49,11 @@ public class BlogService {
 
     private static final Logger logger = LoggerFactory.getLogger(BlogService.class);
 
+    /**
+     * 搜索命中数按数量级分桶作为标签，避免把具体数值写进标签导致时间序列膨胀
+     */
+    private static final String[] HIT_BUCKETS = {"0", "1-9", "10-99", "100-999", "1000+"};
+
     @Autowired
     private BlogRepository blogRepository;
 
@@ -39,14 +63,110 @@ public class BlogService {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private ContentDeletionService contentDeletionService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private RelatedPostService relatedPostService;
+
+    @Autowired
+    private AdvancedSearchService advancedSearchService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer viewFoundTimer;
+
+    private Timer viewMissingTimer;
+
+    private Timer createTimer;
+
+    private Timer updateTimer;
+
+    private Timer tagResolveTimer;
+
+    private Counter tagsExisting;
+
+    private Counter tagsCreated;
+
+    private Timer[] keywordSearchTimers;
+
+    private Timer[] tagSearchTimers;
+
+    private Timer[] indexSearchTimers;
+
+    @PostConstruct
+    public void init() {
+        viewFoundTimer = viewTimer("found");
+        viewMissingTimer = viewTimer("missing");
+        createTimer = writeTimer("create");
+        updateTimer = writeTimer("update");
+        tagResolveTimer = Timer.builder("blog.tags.resolve")
+                .description("保存博客时解析标签字符串并查找或创建标签的耗时")
+                .register(meterRegistry);
+        tagsExisting = tagCounter("existing");
+        tagsCreated = tagCounter("created");
+        keywordSearchTimers = searchTimers("keyword");
+        tagSearchTimers = searchTimers("tag");
+        indexSearchTimers = searchTimers("index");
+    }
+
+    private Timer viewTimer(String result) {
+        return Timer.builder("blog.posts.view")
+                .tag("result", result)
+                .description("按ID加载博客并增加浏览量的耗时")
+                .register(meterRegistry);
+    }
+
+    private Timer writeTimer(String operation) {
+        return Timer.builder("blog.posts.write")
+                .tag("operation", operation)
+                .description("创建或更新博客的耗时（含标签处理）")
+                .register(meterRegistry);
+    }
+
+    private Counter tagCounter(String result) {
+        return Counter.builder("blog.tags.resolved")
+                .tag("result", result)
+                .description("保存博客时解析出的标签数")
+                .register(meterRegistry);
+    }
+
+    private Timer[] searchTimers(String backend) {
+        Timer[] timers = new Timer[HIT_BUCKETS.length];
+        for (int i = 0; i < timers.length; i++) {
+            timers[i] = Timer.builder("blog.search")
+                    .tag("backend", backend)
+                    .tag("hits", HIT_BUCKETS[i])
+                    .description("博客搜索耗时，按搜索后端和命中数量级区分")
+                    .register(meterRegistry);
+        }
+        return timers;
+    }
+
+    private static int hitBucket(long hits) {
+        int bucket = 0;
+        for (long bound = 1; hits >= bound && bucket < HIT_BUCKETS.length - 1; bound *= 10) {
+            bucket++;
+        }
+        return bucket;
+    }
+
     /**
      * 创建博客
      */
     public Blog createBlog(BlogDto blogDto, Long authorId) {
         logger.info("开始创建博客: {}, 作者ID: {}", blogDto.getTitle(), authorId);
+        long start = System.nanoTime();
 
-        User author = userRepository.findById(authorId)
-                .orElseThrow(() -> new IllegalArgumentException("用户不存在，ID: " + authorId));
+        // 作者ID来自当前登录用户，只需引用，外键约束保证其存在
+        User author = userRepository.getReferenceById(authorId);
 
         // 创建博客实体
         Blog blog = new Blog();
@@ -63,6 +183,8 @@ public class BlogService {
         }
 
         Blog savedBlog = blogRepository.save(blog);
+        eventPublisher.publishEvent(new BlogChangedEvent(BlogChangedEvent.Type.CREATED, savedBlog.getId()));
+        createTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         logger.info("博客创建成功: {} (ID: {})", savedBlog.getTitle(), savedBlog.getId());
 
         return savedBlog;
@@ -77,16 +199,29 @@ public class BlogService {
     }
 
     /**
-     * 根据ID获取博客并增加浏览量
+     * 根据ID获取包含正文的博客DTO（用于编辑页面和静态导出）
+     * open-in-view已关闭，正文、作者和标签都需要在事务内读取
      */
-    public Optional<Blog> getBlogByIdAndIncrementView(Long id) {
-        Optional<Blog> blogOpt = blogRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<BlogDto> getBlogDtoById(Long id) {
+        return blogRepository.findWithAuthorAndBodyById(id).map(this::convertToBlogDtoWithContent);
+    }
+
+    /**
+     * 根据ID获取包含正文的博客DTO并增加浏览量（用于详情页面）
+     */
+    public Optional<BlogDto> getBlogDtoByIdAndIncrementView(Long id) {
+        long start = System.nanoTime();
+        Optional<Blog> blogOpt = blogRepository.findWithAuthorAndBodyById(id);
         if (blogOpt.isPresent()) {
             Blog blog = blogOpt.get();
             blog.incrementViewCount();
             blogRepository.save(blog);
+            trendingService.recordView(blog);
+            advancedSearchService.recordView(blog);
         }
-        return blogOpt;
+        (blogOpt.isPresent() ? viewFoundTimer : viewMissingTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return blogOpt.map(this::convertToBlogDtoWithContent);
     }
 
     /**
@@ -97,6 +232,14 @@ public class BlogService {
         return blogRepository.findByPublishedOrderByCreatedAtDesc(true, pageable);
     }
 
+    /**
+     * 获取已发布博客的DTO（分页），在事务内读取作者和标签，用于首页列表和静态导出
+     */
+    @Transactional(readOnly = true)
+    public Page<BlogDto> getPublishedBlogDtos(Pageable pageable) {
+        return blogRepository.findByPublishedOrderByCreatedAtDesc(true, pageable).map(this::convertToBlogDto);
+    }
+
     /**
      * 根据作者获取博客（分页）
      */
@@ -110,9 +253,7 @@ public class BlogService {
      */
     @Transactional(readOnly = true)
     public Page<Blog> getBlogsByAuthorAndPublished(Long authorId, Boolean published, Pageable pageable) {
-        User author = userRepository.findById(authorId)
-                .orElseThrow(() -> new IllegalArgumentException("用户不存在，ID: " + authorId));
-        return blogRepository.findByAuthorAndPublishedOrderByCreatedAtDesc(author, published, pageable);
+        return blogRepository.findByAuthorIdAndPublishedOrderByCreatedAtDesc(authorId, published, pageable);
     }
 
     /**
@@ -120,10 +261,9 @@ public class BlogService {
      */
     public Blog updateBlog(Long blogId, BlogDto blogDto, Long authorId) {
         logger.info("开始更新博客: {} (ID: {}), 作者ID: {}", blogDto.getTitle(), blogId, authorId);
+        long start = System.nanoTime();
 
-        Blog blog = blogRepository.findByIdAndAuthor(blogId, 
-                userRepository.findById(authorId)
-                    .orElseThrow(() -> new IllegalArgumentException("用户不存在，ID: " + authorId)))
+        Blog blog = blogRepository.findByIdAndAuthorId(blogId, authorId)
                 .orElseThrow(() -> new IllegalArgumentException("博客不存在或您没有权限编辑，ID: " + blogId));
 
         // 更新博客信息
@@ -140,6 +280,8 @@ public class BlogService {
         }
 
         Blog updatedBlog = blogRepository.save(blog);
+        eventPublisher.publishEvent(new BlogChangedEvent(BlogChangedEvent.Type.UPDATED, updatedBlog.getId()));
+        updateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         logger.info("博客更新成功: {} (ID: {})", updatedBlog.getTitle(), updatedBlog.getId());
 
         return updatedBlog;
@@ -147,16 +289,17 @@ public class BlogService {
 
     /**
      * 删除博客
+     * 评论等关联数据由ContentDeletionService分批批量删除，每批独立提交，因此不在外层事务中执行
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteBlog(Long blogId, Long authorId) {
         logger.info("开始删除博客，ID: {}, 作者ID: {}", blogId, authorId);
 
-        Blog blog = blogRepository.findByIdAndAuthor(blogId, 
-                userRepository.findById(authorId)
-                    .orElseThrow(() -> new IllegalArgumentException("用户不存在，ID: " + authorId)))
-                .orElseThrow(() -> new IllegalArgumentException("博客不存在或您没有权限删除，ID: " + blogId));
+        if (!blogRepository.existsByIdAndAuthorId(blogId, authorId)) {
+            throw new IllegalArgumentException("博客不存在或您没有权限删除，ID: " + blogId);
+        }
 
-        blogRepository.delete(blog);
+        contentDeletionService.deleteBlog(blogId);
         logger.info("博客删除成功，ID: {}", blogId);
     }
 
@@ -165,7 +308,10 @@ public class BlogService {
      */
     @Transactional(readOnly = true)
     public Page<Blog> searchBlogs(String keyword, Pageable pageable) {
-        return blogRepository.searchByKeyword(keyword, true, pageable);
+        long start = System.nanoTime();
+        Page<Blog> page = blogRepository.searchByKeyword(keyword, true, pageable);
+        keywordSearchTimers[hitBucket(page.getTotalElements())].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return page;
     }
 
     /**
@@ -173,15 +319,60 @@ public class BlogService {
      */
     @Transactional(readOnly = true)
     public Page<Blog> getBlogsByTag(String tagName, Pageable pageable) {
-        return blogRepository.findByTagNameAndPublished(tagName, true, pageable);
+        long start = System.nanoTime();
+        Page<Blog> page = blogRepository.findByTagNameAndPublished(tagName, true, pageable);
+        tagSearchTimers[hitBucket(page.getTotalElements())].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return page;
     }
 
     /**
-     * 获取最受欢迎的博客
+     * 高级搜索：条件在内存位图索引上求值，只从数据库加载当前页的博客
      */
     @Transactional(readOnly = true)
-    public Page<Blog> getPopularBlogs(Pageable pageable) {
-        return blogRepository.findByPublishedOrderByViewCountDesc(true, pageable);
+    public Page<BlogDto> advancedSearch(AdvancedSearchDto form, Pageable pageable) {
+        long start = System.nanoTime();
+        SearchHits hits = advancedSearchService.search(form, (int) pageable.getOffset(), pageable.getPageSize());
+        List<Long> ids = Arrays.stream(hits.getIds()).asLongStream().boxed().collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            indexSearchTimers[hitBucket(hits.getTotal())].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return new PageImpl<>(Collections.emptyList(), pageable, hits.getTotal());
+        }
+
+        // 按索引给出的顺序排列
+        Map<Long, Blog> blogs = blogRepository.findAllWithAuthorAndTagsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Blog::getId, Function.identity()));
+        List<BlogDto> content = ids.stream()
+                .map(blogs::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToBlogDto)
+                .collect(Collectors.toList());
+        indexSearchTimers[hitBucket(hits.getTotal())].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new PageImpl<>(content, pageable, hits.getTotal());
+    }
+
+    /**
+     * 获取搜索结果的分面统计（热门标签、作者和按月分布）
+     * 只读内存索引，不开启事务，也不占用数据库连接
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FacetCounts getSearchFacets(String tag, String keyword) {
+        return advancedSearchService.getFacets(tag, keyword);
+    }
+
+    /**
+     * 获取热门博客（按时间衰减的浏览和评论热度排序，直接从内存排行返回）
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TrendingBlogDto> getPopularBlogs(int limit) {
+        return trendingService.getTrendingBlogs(limit);
+    }
+
+    /**
+     * 获取相关博客（按标签加权重合度排序，直接从内存索引返回）
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<RelatedBlogDto> getRelatedBlogs(Long blogId, int limit) {
+        return relatedPostService.getRelatedBlogs(blogId, limit);
     }
 
     /**
@@ -205,20 +396,18 @@ public class BlogService {
      */
     @Transactional(readOnly = true)
     public long getBlogCountByAuthor(Long authorId) {
-        User author = userRepository.findById(authorId)
-                .orElseThrow(() -> new IllegalArgumentException("用户不存在，ID: " + authorId));
-        return blogRepository.countByAuthor(author);
+        return blogRepository.countByAuthorId(authorId);
     }
 
     /**
-     * 将Blog实体转换为BlogDto
+     * 将Blog实体转换为BlogDto（不含正文，用于列表）
      */
     public BlogDto convertToBlogDto(Blog blog) {
         BlogDto dto = new BlogDto();
         dto.setId(blog.getId());
         dto.setTitle(blog.getTitle());
-        dto.setContent(blog.getContent());
         dto.setSummary(blog.getSummary());
+        dto.setExcerpt(blog.getExcerpt());
         dto.setPublished(blog.getPublished());
         dto.setAuthorId(blog.getAuthor().getId());
         dto.setAuthorName(blog.getAuthor().getDisplayName() != null ? 
@@ -239,10 +428,20 @@ public class BlogService {
         return dto;
     }
 
+    /**
+     * 将Blog实体转换为包含正文的BlogDto（用于详情和编辑页面，需在事务内调用）
+     */
+    public BlogDto convertToBlogDtoWithContent(Blog blog) {
+        BlogDto dto = convertToBlogDto(blog);
+        dto.setContent(blog.getContent());
+        return dto;
+    }
+
     /**
      * 处理标签字符串，创建或获取标签实体
      */
     private Set<Tag> processTags(String tagsString) {
+        long start = System.nanoTime();
         Set<Tag> tags = new HashSet<>();
         
         if (tagsString != null && !tagsString.trim().isEmpty()) {
@@ -251,15 +450,18 @@ public class BlogService {
             for (String tagName : tagNames) {
                 String trimmedName = tagName.trim();
                 if (!trimmedName.isEmpty()) {
-                    Tag tag = tagRepository.findByName(trimmedName)
-                            .orElseGet(() -> {
-                                Tag newTag = new Tag(trimmedName);
-                                return tagRepository.save(newTag);
-                            });
-                    tags.add(tag);
+                    Optional<Tag> existing = tagRepository.findByNameForShare(trimmedName);
+                    if (existing.isPresent()) {
+                        tagsExisting.increment();
+                        tags.add(existing.get());
+                    } else {
+                        tagsCreated.increment();
+                        tags.add(tagRepository.save(new Tag(trimmedName)));
+                    }
                 }
             }
         }
+        tagResolveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         
         return tags;
     }
@@ -269,7 +471,6 @@ public class BlogService {
      */
     @Transactional(readOnly = true)
     public boolean canEditBlog(Long blogId, Long userId) {
-        return blogRepository.findByIdAndAuthor(blogId, 
-                userRepository.findById(userId).orElse(null)).isPresent();
+        return blogRepository.existsByIdAndAuthorId(blogId, userId);
     }
 }
\ No newline at end of file
@@ -4,19 +4,25 @@ import com.blog.dto.CommentDto;
 import com.blog.entity.Blog;
 import com.blog.entity.Comment;
 import com.blog.entity.User;
+import com.blog.event.CommentChangedEvent;
 import com.blog.repository.BlogRepository;
 import com.blog.repository.CommentRepository;
 import com.blog.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -37,17 +43,38 @@ public class CommentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer addTimer;
+
+    @PostConstruct
+    public void init() {
+        addTimer = Timer.builder("blog.comments.add")
+                .description("添加评论的耗时")
+                .register(meterRegistry);
+    }
+
     /**
      * 添加评论
      */
     public Comment addComment(Long blogId, CommentDto commentDto, Long userId) {
         logger.info("开始添加评论，博客ID: {}, 用户ID: {}", blogId, userId);
+        long start = System.nanoTime();
 
-        Blog blog = blogRepository.findById(blogId)
-                .orElseThrow(() -> new IllegalArgumentException("博客不存在，ID: " + blogId));
+        if (!blogRepository.existsById(blogId)) {
+            throw new IllegalArgumentException("博客不存在，ID: " + blogId);
+        }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("用户不存在，ID: " + userId));
+        // 只需外键，使用引用而不加载博客和用户；用户ID来自当前登录用户
+        Blog blog = blogRepository.getReferenceById(blogId);
+        User user = userRepository.getReferenceById(userId);
 
         // 创建评论实体
         Comment comment = new Comment();
@@ -56,6 +83,9 @@ public class CommentService {
         comment.setUser(user);
 
         Comment savedComment = commentRepository.save(comment);
+        trendingService.recordComment(blogId);
+        eventPublisher.publishEvent(new CommentChangedEvent(blogId));
+        addTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         logger.info("评论添加成功，ID: {}", savedComment.getId());
 
         return savedComment;
@@ -77,9 +107,10 @@ public class CommentService {
      */
     @Transactional(readOnly = true)
     public Page<Comment> getCommentsByBlog(Long blogId, Pageable pageable) {
-        Blog blog = blogRepository.findById(blogId)
-                .orElseThrow(() -> new IllegalArgumentException("博客不存在，ID: " + blogId));
-        return commentRepository.findByBlogOrderByCreatedAtAsc(blog, pageable);
+        if (!blogRepository.existsById(blogId)) {
+            throw new IllegalArgumentException("博客不存在，ID: " + blogId);
+        }
+        return commentRepository.findByBlogOrderByCreatedAtAsc(blogRepository.getReferenceById(blogId), pageable);
     }
 
     /**
@@ -96,10 +127,11 @@ public class CommentService {
     public void deleteComment(Long commentId, Long userId) {
         logger.info("开始删除评论，评论ID: {}, 用户ID: {}", commentId, userId);
 
-        Comment comment = commentRepository.findByIdAndBlogAuthor(commentId, userId)
-                .orElseThrow(() -> new IllegalArgumentException("评论不存在或您没有权限删除，ID: " + commentId));
-
-        commentRepository.delete(comment);
+        Optional<Long> blogId = commentRepository.findBlogIdByIdAndBlogAuthor(commentId, userId);
+        if (!blogId.isPresent() || commentRepository.deleteByIdAndBlogAuthor(commentId, userId) == 0) {
+            throw new IllegalArgumentException("评论不存在或您没有权限删除，ID: " + commentId);
+        }
+        eventPublisher.publishEvent(new CommentChangedEvent(blogId.get()));
         logger.info("评论删除成功，ID: {}", commentId);
     }
 
@@ -0,0 +1,258 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.event.BlogChangedEvent;
+import com.blog.event.CommentChangedEvent;
+import com.blog.repository.BlogContentRepository;
+import com.blog.repository.BlogRepository;
+import com.blog.repository.CommentRepository;
+import com.blog.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 内容删除服务
+ *
+ * 使用按ID分批的批量DELETE语句删除博客、评论和标签关联，不加载实体；
+ * 每批在独立事务中执行，避免长时间持有大量行锁。
+ * 内存中的订阅源、分面、相关博客和热门排行由博客删除和评论变更事件更新。
+ * 数据量很大的账号可以异步删除，并通过任务查询进度。
+ */
+@Service
+public class ContentDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentDeletionService.class);
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private BlogContentRepository blogContentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService executor;
+
+    private final Map<String, ContentDeletionTask> tasks = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 删除博客及其评论、标签关联和正文（调用方需先完成权限校验）
+     */
+    public void deleteBlog(Long blogId) {
+        deleteBlogs(Collections.singletonList(blogId), null);
+    }
+
+    /**
+     * 同步删除用户及其全部内容
+     */
+    public ContentDeletionTask deleteUser(Long userId) {
+        ContentDeletionTask task = registerTask(userId);
+        runUserDeletion(task);
+        if (task.getStatus() == ContentDeletionTask.Status.FAILED) {
+            throw new IllegalStateException("删除用户失败，ID: " + userId + "，原因: " + task.getError());
+        }
+        return task;
+    }
+
+    /**
+     * 异步删除用户及其全部内容，返回可查询进度的任务
+     */
+    public ContentDeletionTask deleteUserAsync(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("用户不存在，ID: " + userId);
+        }
+        ContentDeletionTask task = registerTask(userId);
+        executor.submit(() -> runUserDeletion(task));
+        logger.info("已提交用户删除任务: {}", task);
+        return task;
+    }
+
+    /**
+     * 查询删除任务
+     */
+    public Optional<ContentDeletionTask> getTask(String taskId) {
+        synchronized (tasks) {
+            return Optional.ofNullable(tasks.get(taskId));
+        }
+    }
+
+    /**
+     * 获取最近的删除任务
+     */
+    public List<ContentDeletionTask> getTasks() {
+        synchronized (tasks) {
+            return new ArrayList<>(tasks.values());
+        }
+    }
+
+    private ContentDeletionTask registerTask(Long userId) {
+        ContentDeletionTask task = new ContentDeletionTask(UUID.randomUUID().toString(), userId);
+        synchronized (tasks) {
+            tasks.put(task.getId(), task);
+            // 只保留最近的已结束任务
+            int excess = tasks.size() - blogProperties.getDeletion().getRetainedTasks();
+            Iterator<ContentDeletionTask> iterator = tasks.values().iterator();
+            while (excess > 0 && iterator.hasNext()) {
+                if (iterator.next().isFinished()) {
+                    iterator.remove();
+                    excess--;
+                }
+            }
+        }
+        return task;
+    }
+
+    private void runUserDeletion(ContentDeletionTask task) {
+        Long userId = task.getUserId();
+        long startTime = System.currentTimeMillis();
+        try {
+            task.start(commentRepository.countByUserId(userId) + commentRepository.countByBlogAuthorId(userId),
+                    blogRepository.countByAuthorId(userId));
+            logger.info("开始删除用户内容，用户ID: {}, 预计评论: {}, 博客: {}",
+                    userId, task.getExpectedComments(), task.getExpectedBlogs());
+
+            // 1. 用户在其他博客下发表的评论，这些博客需要刷新评论
+            deleteComments(() -> commentRepository.findIdsByUserId(userId, chunk()), task, true);
+
+            // 2. 用户的博客，逐批连同评论、标签关联和正文一起删除
+            List<Long> blogIds;
+            while (!(blogIds = inTransaction(() -> blogRepository.findIdsByAuthorId(userId, chunk()))).isEmpty()) {
+                deleteBlogs(blogIds, task);
+            }
+
+            // 3. 用户本身
+            inTransaction(() -> userRepository.deleteUserRowById(userId));
+
+            task.complete();
+            logger.info("用户内容删除完成，用户ID: {}, 评论: {}, 博客: {}, 耗时: {}ms", userId,
+                    task.getDeletedComments(), task.getDeletedBlogs(), System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            task.fail(e);
+            logger.error("用户内容删除失败，用户ID: {}, 已删除评论: {}, 博客: {}", userId,
+                    task.getDeletedComments(), task.getDeletedBlogs(), e);
+        }
+    }
+
+    /**
+     * 删除一批博客：先分批删除评论，再在一个事务内删除剩余评论、博客（连同标签关联）和正文；
+     * 分批删除后新增的评论随博客一起删除，不会因外键约束导致删除博客失败
+     */
+    private void deleteBlogs(List<Long> blogIds, ContentDeletionTask task) {
+        deleteComments(() -> commentRepository.findIdsByBlogIdIn(blogIds, chunk()), task, false);
+
+        int[] deleted = inTransaction(() -> {
+            int comments = commentRepository.deleteByBlogIdIn(blogIds);
+            List<Long> contentIds = blogRepository.findContentIdsByIdIn(blogIds);
+            int count = blogRepository.deleteByIdIn(blogIds);
+            if (!contentIds.isEmpty()) {
+                blogContentRepository.deleteByIdIn(contentIds);
+            }
+            eventPublisher.publishEvent(new BlogChangedEvent(BlogChangedEvent.Type.DELETED, blogIds));
+            return new int[] {comments, count};
+        });
+
+        if (task != null) {
+            task.addDeletedComments(deleted[0]);
+            task.addDeletedBlogs(deleted[1]);
+        }
+    }
+
+    /**
+     * 按批次删除评论，直到取到的一批不足批大小；notifyBlogs为true时为评论所在的博客发布评论变更事件
+     * （博客本身随后被删除时由博客删除事件处理，不需要）
+     */
+    private void deleteComments(Supplier<List<Long>> nextChunk, ContentDeletionTask task, boolean notifyBlogs) {
+        while (true) {
+            List<Long> ids = inTransaction(() -> {
+                List<Long> chunkIds = nextChunk.get();
+                if (!chunkIds.isEmpty()) {
+                    if (notifyBlogs) {
+                        for (Long blogId : commentRepository.findDistinctBlogIdsByIdIn(chunkIds)) {
+                            eventPublisher.publishEvent(new CommentChangedEvent(blogId));
+                        }
+                    }
+                    commentRepository.deleteByIdIn(chunkIds);
+                }
+                return chunkIds;
+            });
+            if (task != null) {
+                task.addDeletedComments(ids.size());
+            }
+            if (ids.size() < blogProperties.getDeletion().getChunkSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 在独立的短事务中执行；批量语句绕过了持久化上下文，执行后清空以免读到已删除的实体
+     */
+    private <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            T result = action.get();
+            entityManager.flush();
+            entityManager.clear();
+            return result;
+        });
+    }
+
+    private Pageable chunk() {
+        return PageRequest.of(0, blogProperties.getDeletion().getChunkSize());
+    }
+}
@@ -0,0 +1,136 @@
+package com.blog.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内容删除任务的进度
+ */
+public class ContentDeletionTask {
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final Long userId;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile Status status = Status.PENDING;
+    private volatile long expectedComments;
+    private volatile long expectedBlogs;
+    private final AtomicLong deletedComments = new AtomicLong();
+    private final AtomicLong deletedBlogs = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public ContentDeletionTask(String id, Long userId) {
+        this.id = id;
+        this.userId = userId;
+    }
+
+    void start(long expectedComments, long expectedBlogs) {
+        this.expectedComments = expectedComments;
+        this.expectedBlogs = expectedBlogs;
+        this.startedAt = LocalDateTime.now();
+        this.status = Status.RUNNING;
+    }
+
+    void addDeletedComments(long count) {
+        deletedComments.addAndGet(count);
+    }
+
+    void addDeletedBlogs(long count) {
+        deletedBlogs.addAndGet(count);
+    }
+
+    void complete() {
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(Throwable cause) {
+        this.error = cause.getMessage();
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    /**
+     * 已完成的百分比（按评论和博客行数估算）
+     */
+    public int getPercent() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        long expected = expectedComments + expectedBlogs;
+        if (expected == 0) {
+            return 0;
+        }
+        long done = deletedComments.get() + deletedBlogs.get();
+        return (int) Math.min(99, done * 100 / expected);
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getExpectedComments() {
+        return expectedComments;
+    }
+
+    public long getExpectedBlogs() {
+        return expectedBlogs;
+    }
+
+    public long getDeletedComments() {
+        return deletedComments.get();
+    }
+
+    public long getDeletedBlogs() {
+        return deletedBlogs.get();
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentDeletionTask{" +
+                "id='" + id + '\'' +
+                ", userId=" + userId +
+                ", status=" + status +
+                ", deletedComments=" + deletedComments +
+                ", deletedBlogs=" + deletedBlogs +
+                '}';
+    }
+}
@@ -0,0 +1,331 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.event.BlogChangedEvent;
+import com.blog.feed.CachedFeed;
+import com.blog.feed.FeedEntry;
+import com.blog.feed.FeedFormat;
+import com.blog.feed.FeedWriter;
+import com.blog.repository.BlogRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.util.UriUtils;
+
+import javax.annotation.PostConstruct;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 订阅源服务
+ *
+ * 全站、按标签和按作者的RSS/Atom订阅源由投影查询流式写出，序列化和gzip压缩后的字节按订阅源缓存；
+ * 博客发布、更新或删除提交后只淘汰受影响的订阅源，下次请求时重新生成。
+ * 链接使用配置的站点根地址，不取请求的Host，缓存内容与请求无关。
+ */
+@Service
+public class FeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
+
+    /**
+     * 订阅源范围
+     */
+    public enum Scope {
+        ALL, TAG, AUTHOR
+    }
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private Map<String, Slot> cache;
+
+    // 站点根地址（不以/结尾）
+    private String baseUrl;
+
+    // 每次淘汰递增；生成期间发生过淘汰的结果不放入缓存，避免覆盖为旧内容
+    private long generation;
+
+    @PostConstruct
+    public void init() {
+        baseUrl = normalizeSiteUrl(blogProperties.getFeed().getSiteUrl());
+        int maxEntries = blogProperties.getFeed().getCacheSize();
+        cache = new LinkedHashMap<String, Slot>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Slot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        Gauge.builder("blog.cache.size", this, FeedService::cacheSize)
+                .tag("cache", "feed")
+                .description("缓存中的条目数")
+                .register(meterRegistry);
+    }
+
+    private synchronized int cacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * 站点根地址必须是http或https的绝对地址，去掉末尾的/
+     */
+    private static String normalizeSiteUrl(String siteUrl) {
+        String trimmed = siteUrl != null ? siteUrl.trim() : "";
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("blog.feed.site-url 不是合法的地址: " + trimmed, e);
+        }
+        if (!("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+                || uri.getHost() == null || uri.getQuery() != null || uri.getFragment() != null) {
+            throw new IllegalArgumentException("blog.feed.site-url 必须是http或https的站点根地址: " + trimmed);
+        }
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * 获取订阅源，优先返回缓存
+     * @param scope 订阅源范围
+     * @param name 标签名称或作者用户名，全站订阅源忽略
+     * @param format 订阅源格式
+     * @return 订阅源，标签或作者不存在时返回null
+     */
+    @Transactional(readOnly = true)
+    public CachedFeed getFeed(Scope scope, String name, FeedFormat format) {
+        String trimmedName = scope == Scope.ALL || name == null ? "" : name.trim();
+        // 查询按原样的名称匹配（是否区分大小写取决于数据库排序规则），缓存键也保留原样；
+        // 淘汰时按小写名称匹配，大小写不同的缓存条目会一起淘汰
+        String normalizedName = trimmedName.toLowerCase(Locale.ROOT);
+        String key = scope + ":" + trimmedName + ":" + format;
+        long startGeneration;
+        synchronized (this) {
+            Slot slot = cache.get(key);
+            if (slot != null) {
+                return slot.feed;
+            }
+            startGeneration = generation;
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<FeedEntry> entries = loadEntries(scope, trimmedName);
+        if (entries.isEmpty() && !exists(scope, trimmedName)) {
+            return null;
+        }
+        CachedFeed feed = render(scope, trimmedName, format, entries);
+        synchronized (this) {
+            if (generation == startGeneration) {
+                cache.put(key, new Slot(scope, normalizedName, feed));
+            }
+        }
+        logger.debug("生成订阅源: {}, {} 篇博客, {} 字节（压缩后 {} 字节），耗时: {}ms", key, entries.size(),
+                feed.getBody().length, feed.getGzippedBody().length, System.currentTimeMillis() - startTime);
+        return feed;
+    }
+
+    /**
+     * 博客提交后淘汰受影响的订阅源：包含这些博客的，以及博客已发布时它所在的全站、标签和作者订阅源
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        Map<Long, String> authors = new HashMap<>();
+        Set<String> tagNames = new HashSet<>();
+        if (event.getType() != BlogChangedEvent.Type.DELETED) {
+            for (Object[] row : blogRepository.findPublishedAuthorNamesByIdIn(event.getBlogIds())) {
+                authors.put((Long) row[0], ((String) row[1]).toLowerCase(Locale.ROOT));
+            }
+            if (!authors.isEmpty()) {
+                for (Object[] row : blogRepository.findTagNamesByBlogIdIn(authors.keySet())) {
+                    tagNames.add(((String) row[1]).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        int evicted = 0;
+        synchronized (this) {
+            generation++;
+            Iterator<Slot> iterator = cache.values().iterator();
+            while (iterator.hasNext()) {
+                Slot slot = iterator.next();
+                if (isAffected(slot, event.getBlogIds(), authors, tagNames)) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        }
+        logger.debug("博客变更 {}，淘汰 {} 个订阅源", event, evicted);
+    }
+
+    private static boolean isAffected(Slot slot, List<Long> blogIds, Map<Long, String> publishedAuthors,
+                                      Set<String> publishedTags) {
+        for (Long blogId : blogIds) {
+            if (slot.feed.contains(blogId)) {
+                return true;
+            }
+        }
+        if (publishedAuthors.isEmpty()) {
+            return false;
+        }
+        switch (slot.scope) {
+            case TAG:
+                return publishedTags.contains(slot.name);
+            case AUTHOR:
+                return publishedAuthors.containsValue(slot.name);
+            default:
+                return true;
+        }
+    }
+
+    private List<FeedEntry> loadEntries(Scope scope, String name) {
+        PageRequest limit = PageRequest.of(0, blogProperties.getFeed().getMaxEntries());
+        List<Object[]> rows;
+        switch (scope) {
+            case TAG:
+                rows = blogRepository.findPublishedFeedEntriesByTagName(name, limit);
+                break;
+            case AUTHOR:
+                rows = blogRepository.findPublishedFeedEntriesByAuthor(name, limit);
+                break;
+            default:
+                rows = blogRepository.findPublishedFeedEntries(limit);
+                break;
+        }
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, List<String>> categories = new HashMap<>();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+        for (Object[] link : blogRepository.findTagNamesByBlogIdIn(ids)) {
+            categories.computeIfAbsent((Long) link[0], key -> new ArrayList<>()).add((String) link[1]);
+        }
+
+        List<FeedEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            String summary = row[2] != null ? (String) row[2] : (String) row[3];
+            String authorName = row[7] != null ? (String) row[7] : (String) row[6];
+            entries.add(new FeedEntry(id, (String) row[1], summary, authorName, (LocalDateTime) row[4],
+                    (LocalDateTime) row[5], categories.getOrDefault(id, Collections.emptyList())));
+        }
+        return entries;
+    }
+
+    private boolean exists(Scope scope, String name) {
+        switch (scope) {
+            case TAG:
+                return tagRepository.findByName(name).isPresent();
+            case AUTHOR:
+                return userRepository.findByUsername(name).isPresent();
+            default:
+                return true;
+        }
+    }
+
+    private CachedFeed render(Scope scope, String name, FeedFormat format, List<FeedEntry> entries) {
+        BlogProperties.Feed config = blogProperties.getFeed();
+        String title = config.getTitle();
+        String selfPath = format == FeedFormat.ATOM ? "/atom.xml" : "/feed.xml";
+        String htmlPath = "/";
+        if (scope == Scope.TAG) {
+            title = "标签：" + name + " - " + config.getTitle();
+            selfPath = "/tags/" + UriUtils.encodePathSegment(name, StandardCharsets.UTF_8) + selfPath;
+            htmlPath = "/search?tag=" + UriUtils.encodeQueryParam(name, StandardCharsets.UTF_8);
+        } else if (scope == Scope.AUTHOR) {
+            title = "作者：" + (entries.isEmpty() ? name : entries.get(0).getAuthorName()) + " - " + config.getTitle();
+            selfPath = "/authors/" + UriUtils.encodePathSegment(name, StandardCharsets.UTF_8) + selfPath;
+        }
+
+        LocalDateTime updatedAt = null;
+        long[] blogIds = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            FeedEntry entry = entries.get(i);
+            blogIds[i] = entry.getId();
+            if (updatedAt == null || entry.getUpdatedAt().isAfter(updatedAt)) {
+                updatedAt = entry.getUpdatedAt();
+            }
+        }
+        if (updatedAt == null) {
+            updatedAt = LocalDateTime.now();
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+        try {
+            FeedWriter writer = new FeedWriter(body, format, baseUrl, zone);
+            writer.start(title, config.getDescription(), selfPath, htmlPath, updatedAt);
+            for (FeedEntry entry : entries) {
+                writer.entry(entry);
+            }
+            writer.finish();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("订阅源序列化失败: " + scope + " " + name, e);
+        }
+        byte[] bytes = body.toByteArray();
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(bytes.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long lastModified = updatedAt.atZone(zone).toInstant().toEpochMilli() / 1000 * 1000;
+        return new CachedFeed(bytes, gzipped.toByteArray(), DigestUtils.md5DigestAsHex(bytes), lastModified, blogIds);
+    }
+
+    private static final class Slot {
+        private final Scope scope;
+        private final String name;
+        private final CachedFeed feed;
+
+        private Slot(Scope scope, String name, CachedFeed feed) {
+            this.scope = scope;
+            this.name = name;
+            this.feed = feed;
+        }
+    }
+}
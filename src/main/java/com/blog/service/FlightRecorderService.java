@@ -0,0 +1,181 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.jfr.ControllerEvent;
+import com.blog.jfr.QueryEvent;
+import com.blog.jfr.RecordingInfo;
+import com.blog.jfr.ServiceEvent;
+import com.blog.jfr.TemplateRenderEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 飞行记录器（JFR）录制管理
+ *
+ * 按需开始、停止和转储录制，在JDK自带的default或profile配置之外启用应用的控制器、服务、
+ * 仓库和模板渲染事件；服务和仓库事件只记录超过阈值的调用。转储文件写到blog.jfr.path目录，
+ * 用JDK Mission Control或jfr命令查看。不录制时应用事件只有一次isEnabled()判断的开销。
+ */
+@Service
+@ConditionalOnClass(name = "jdk.jfr.FlightRecorder")
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+
+    private final Map<Long, String> dumpFiles = new HashMap<>();
+
+    /**
+     * 开始录制
+     * @param settings JDK录制配置（default或profile），为空时使用blog.jfr.settings
+     * @param durationSeconds 录制时长，到时自动停止，为空时使用blog.jfr.max-duration，0表示不限
+     * @param thresholdMillis 服务和仓库事件的记录阈值，为空时使用blog.jfr.threshold-millis
+     */
+    public synchronized RecordingInfo start(String settings, Long durationSeconds, Long thresholdMillis) {
+        BlogProperties.Jfr config = blogProperties.getJfr();
+        String settingsName = settings != null ? settings : config.getSettings();
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("无法读取JFR配置: " + settingsName, e);
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName("blog-" + LocalDateTime.now().format(FILE_TIME));
+        recording.setToDisk(true);
+        Duration threshold = Duration.ofMillis(thresholdMillis != null ? thresholdMillis : config.getThresholdMillis());
+        recording.enable(ControllerEvent.class);
+        recording.enable(TemplateRenderEvent.class);
+        recording.enable(ServiceEvent.class).withThreshold(threshold);
+        recording.enable(QueryEvent.class).withThreshold(threshold);
+        long duration = durationSeconds != null ? durationSeconds : config.getMaxDuration();
+        if (duration > 0) {
+            recording.setDuration(Duration.ofSeconds(duration));
+        }
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        pruneRecordings();
+
+        logger.info("开始JFR录制: {}, 配置: {}, 时长: {}s, 阈值: {}ms", recording.getName(), settingsName,
+                duration, threshold.toMillis());
+        return info(recording);
+    }
+
+    /**
+     * 停止录制，已录制的数据保留，仍可转储
+     */
+    public synchronized RecordingInfo stop(long id) {
+        Recording recording = getRecording(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            logger.info("停止JFR录制: {}", recording.getName());
+        }
+        return info(recording);
+    }
+
+    /**
+     * 把录制到目前为止的数据转储为文件，录制可以仍在进行
+     */
+    public synchronized RecordingInfo dump(long id) {
+        Recording recording = getRecording(id);
+        Path directory = Paths.get(blogProperties.getJfr().getPath()).toAbsolutePath();
+        Path file = directory.resolve(recording.getName() + "-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            recording.dump(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("JFR录制转储失败: " + file, e);
+        }
+        dumpFiles.put(id, file.toString());
+        logger.info("JFR录制已转储: {}", file);
+        return info(recording);
+    }
+
+    /**
+     * 关闭录制并释放其占用的磁盘空间，已转储的文件保留
+     */
+    public synchronized void close(long id) {
+        getRecording(id).close();
+        recordings.remove(id);
+        dumpFiles.remove(id);
+    }
+
+    public synchronized List<RecordingInfo> getRecordings() {
+        List<RecordingInfo> result = new ArrayList<>();
+        for (Recording recording : recordings.values()) {
+            result.add(info(recording));
+        }
+        return result;
+    }
+
+    public synchronized Optional<RecordingInfo> getRecordingInfo(long id) {
+        return Optional.ofNullable(recordings.get(id)).map(this::info);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (Recording recording : recordings.values()) {
+            recording.close();
+        }
+        recordings.clear();
+    }
+
+    private Recording getRecording(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new IllegalArgumentException("录制不存在: " + id);
+        }
+        return recording;
+    }
+
+    /**
+     * 超出保留数量时关闭最早的已停止录制
+     */
+    private void pruneRecordings() {
+        int excess = recordings.size() - blogProperties.getJfr().getRetainedRecordings();
+        Iterator<Map.Entry<Long, Recording>> iterator = recordings.entrySet().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            Map.Entry<Long, Recording> entry = iterator.next();
+            if (entry.getValue().getState() != RecordingState.RUNNING) {
+                entry.getValue().close();
+                dumpFiles.remove(entry.getKey());
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+
+    private RecordingInfo info(Recording recording) {
+        return new RecordingInfo(recording, dumpFiles.get(recording.getId()));
+    }
+}
@@ -0,0 +1,360 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.event.ImageVariantsReadyEvent;
+import com.blog.event.UploadStoredEvent;
+import com.blog.image.ImageResizer;
+import com.blog.image.ResponsiveImage;
+import com.blog.image.VariantSet;
+import com.blog.upload.FileType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 上传图片的缩放版本
+ *
+ * 图片上传后在固定大小的线程池中按blog.images.widths生成较小的版本（不放大），与原图存放在同一目录，
+ * 文件名为 &lt;sha256&gt;-&lt;宽度&gt;.&lt;ext&gt;，因此可以由UploadController直接提供并长期缓存。
+ * 队列满时放弃生成，渲染页面时发现未处理的图片会再次提交。版本生成完成前页面只使用原图，
+ * 完成后（包括解码失败等只写入空标记的情况）发布ImageVariantsReadyEvent。
+ *
+ * WebP需要类路径上有ImageIO的WebP编码插件，没有时只生成JPEG（透明图片生成PNG）。GIF可能是动图，不生成缩放版本。
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private static final Pattern IMAGE_URL = Pattern.compile("/uploads/([0-9a-f]{64})\\.(jpg|png|gif|webp)");
+
+    private static final String MARKER_SUFFIX = ".variants";
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private UploadService uploadService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private ThreadPoolExecutor executor;
+
+    private int[] widths;
+
+    private List<String> formats;
+
+    /**
+     * 已处理完成的图片，键为原图文件名
+     */
+    private final Map<String, VariantSet> processed = new ConcurrentHashMap<>();
+
+    /**
+     * 已提交、尚未处理完成的图片
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private Timer processTimer;
+
+    private Counter failedCounter;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        BlogProperties.Images config = blogProperties.getImages();
+        if (config.getThreads() <= 0 || config.getQueueCapacity() <= 0) {
+            throw new IllegalArgumentException("图片处理的线程数和队列容量必须大于0");
+        }
+        widths = config.getWidthsArray();
+        formats = new ArrayList<>();
+        for (String format : config.getFormatsArray()) {
+            String normalized = format.trim().toLowerCase(Locale.ROOT);
+            if ("jpeg".equals(normalized)) {
+                normalized = "jpg";
+            }
+            if (normalized.isEmpty() || formats.contains(normalized)) {
+                continue;
+            }
+            if (!ImageResizer.canWrite(normalized)) {
+                logger.info("当前环境没有 {} 编码器，不生成该格式的缩放图片", normalized);
+                continue;
+            }
+            formats.add(normalized);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+
+        processTimer = Timer.builder("blog.images.process")
+                .description("生成一张图片全部缩放版本的耗时").register(meterRegistry);
+        failedCounter = Counter.builder("blog.images.failed")
+                .description("无法解码或处理失败的图片数").register(meterRegistry);
+        rejectedCounter = Counter.builder("blog.images.rejected")
+                .description("队列已满未能提交的图片数").register(meterRegistry);
+        Gauge.builder("blog.images.queue", executor, pool -> pool.getQueue().size())
+                .description("等待处理的图片数").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 上传图片后提交生成任务
+     */
+    @EventListener
+    public void onUploadStored(UploadStoredEvent event) {
+        FileType type = event.getUpload().getType();
+        if (blogProperties.getImages().isEnabled() && (type == FileType.JPEG || type == FileType.PNG)) {
+            submit(event.getUpload().getFileName(), event.getFile());
+        }
+    }
+
+    /**
+     * 内容中引用的已上传图片，按出现顺序去重，文件不存在的地址不包含在内
+     */
+    public List<ResponsiveImage> findImages(String content) {
+        if (content == null || content.indexOf("/uploads/") < 0) {
+            return Collections.emptyList();
+        }
+        Set<String> urls = new LinkedHashSet<>();
+        Matcher matcher = IMAGE_URL.matcher(content);
+        while (matcher.find()) {
+            urls.add(matcher.group());
+        }
+        List<ResponsiveImage> images = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            String fileName = url.substring("/uploads/".length());
+            // 跳过引用了不存在文件的地址
+            if (processed.containsKey(fileName) || uploadService.resolveFile(fileName) != null) {
+                images.add(responsive(url));
+            }
+        }
+        return images;
+    }
+
+    /**
+     * 图片的缩放版本是否还未处理完成（不生成缩放版本的格式返回false）
+     */
+    public boolean isPending(String url) {
+        Matcher matcher = IMAGE_URL.matcher(url);
+        return blogProperties.getImages().isEnabled() && matcher.matches()
+                && ("jpg".equals(matcher.group(2)) || "png".equals(matcher.group(2)))
+                && !processed.containsKey(matcher.group(1) + "." + matcher.group(2));
+    }
+
+    /**
+     * 图片地址对应的渲染数据；缩放版本未生成时只有原图，并在后台提交生成
+     */
+    public ResponsiveImage responsive(String url) {
+        Matcher matcher = IMAGE_URL.matcher(url);
+        if (!blogProperties.getImages().isEnabled() || !matcher.matches()
+                || !("jpg".equals(matcher.group(2)) || "png".equals(matcher.group(2)))) {
+            return new ResponsiveImage(url);
+        }
+        String fileName = matcher.group(1) + "." + matcher.group(2);
+        VariantSet variants = processed.get(fileName);
+        if (variants == null) {
+            Path original = uploadService.resolveFile(fileName);
+            if (original == null) {
+                return new ResponsiveImage(url);
+            }
+            variants = loadMarker(fileName, original);
+            if (variants == null) {
+                submit(fileName, original);
+                return new ResponsiveImage(url);
+            }
+        }
+        if (variants.isEmpty()) {
+            return new ResponsiveImage(url, null, null, null, variants.getWidth(), variants.getHeight());
+        }
+
+        String hash = matcher.group(1);
+        String srcset = null;
+        String webpSrcset = null;
+        for (String format : variants.getFormats()) {
+            if ("webp".equals(format)) {
+                webpSrcset = srcset(hash, format, variants, null);
+            } else {
+                srcset = srcset(hash, format, variants, url);
+            }
+        }
+        if (srcset == null) {
+            // 只有WebP版本时，不支持WebP的浏览器使用原图
+            srcset = url + " " + variants.getWidth() + "w";
+        }
+        return new ResponsiveImage(url, srcset, webpSrcset, blogProperties.getImages().getSizes(),
+                variants.getWidth(), variants.getHeight());
+    }
+
+    /**
+     * 生成一张图片的全部缩放版本，最后写入标记文件；返回写入的结果
+     */
+    VariantSet process(Path original) {
+        long start = System.nanoTime();
+        String fileName = original.getFileName().toString();
+        String hash = fileName.substring(0, fileName.indexOf('.'));
+        VariantSet variants;
+        try {
+            BufferedImage source = ImageResizer.read(original, blogProperties.getImages().getMaxPixels());
+            if (source == null) {
+                failedCounter.increment();
+                logger.warn("无法解码图片: {}", fileName);
+                variants = VariantSet.empty();
+            } else {
+                variants = generate(original, hash, source);
+            }
+        } catch (IOException | RuntimeException e) {
+            // 解码器对损坏文件可能抛出任意运行时异常，同样写入空标记，避免每次渲染都重新提交
+            failedCounter.increment();
+            logger.warn("生成缩放图片失败: {}, {}", fileName, e.getMessage());
+            variants = VariantSet.empty();
+        }
+        try {
+            writeMarker(original, hash, variants);
+        } catch (IOException e) {
+            logger.warn("写入缩放图片标记失败: {}", fileName, e);
+            return variants;
+        }
+        processed.put(fileName, variants);
+        processTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        eventPublisher.publishEvent(new ImageVariantsReadyEvent("/uploads/" + fileName));
+        return variants;
+    }
+
+    private VariantSet generate(Path original, String hash, BufferedImage source) throws IOException {
+        boolean alpha = source.getColorModel().hasAlpha();
+        List<String> outputFormats = new ArrayList<>(formats.size());
+        for (String format : formats) {
+            String output = alpha && "jpg".equals(format) ? "png" : format;
+            if (!outputFormats.contains(output)) {
+                outputFormats.add(output);
+            }
+        }
+        List<Integer> generated = new ArrayList<>();
+        // 从大到小依次缩放，每次以上一个结果为输入
+        BufferedImage current = source;
+        for (int i = widths.length - 1; i >= 0; i--) {
+            int width = widths[i];
+            if (width >= source.getWidth()) {
+                continue;
+            }
+            current = ImageResizer.resize(current, width);
+            for (String format : outputFormats) {
+                Path target = original.resolveSibling(hash + "-" + width + "." + format);
+                Path temp = original.resolveSibling(target.getFileName() + ".tmp");
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    ImageResizer.write(current, format, blogProperties.getImages().getQuality(), out);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            generated.add(0, width);
+        }
+        return new VariantSet(source.getWidth(), source.getHeight(), generated,
+                generated.isEmpty() ? Collections.<String>emptyList() : outputFormats);
+    }
+
+    private void submit(String fileName, Path original) {
+        if (processed.containsKey(fileName) || !pending.add(fileName)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(original);
+                } finally {
+                    pending.remove(fileName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(fileName);
+            rejectedCounter.increment();
+        }
+    }
+
+    private VariantSet loadMarker(String fileName, Path original) {
+        String hash = fileName.substring(0, fileName.indexOf('.'));
+        Path marker = original.resolveSibling(hash + MARKER_SUFFIX);
+        if (!Files.isRegularFile(marker)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(marker, StandardCharsets.UTF_8)) {
+            VariantSet variants = VariantSet.read(reader);
+            processed.put(fileName, variants);
+            return variants;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("读取缩放图片标记失败: {}", marker, e);
+            return null;
+        }
+    }
+
+    private void writeMarker(Path original, String hash, VariantSet variants) throws IOException {
+        Path marker = original.resolveSibling(hash + MARKER_SUFFIX);
+        Path temp = original.resolveSibling(hash + MARKER_SUFFIX + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            variants.write(writer);
+        }
+        Files.move(temp, marker, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String srcset(String hash, String format, VariantSet variants, String originalUrl) {
+        StringBuilder srcset = new StringBuilder();
+        for (int width : variants.getWidths()) {
+            if (srcset.length() > 0) {
+                srcset.append(", ");
+            }
+            srcset.append("/uploads/").append(hash).append('-').append(width).append('.').append(format)
+                    .append(' ').append(width).append('w');
+        }
+        if (originalUrl != null) {
+            srcset.append(", ").append(originalUrl).append(' ').append(variants.getWidth()).append('w');
+        }
+        return srcset.toString();
+    }
+}
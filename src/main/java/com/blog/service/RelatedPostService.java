@@ -0,0 +1,140 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.dto.RelatedBlogDto;
+import com.blog.event.BlogChangedEvent;
+import com.blog.related.RelatedPostIndex;
+import com.blog.repository.BlogRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 相关博客服务
+ *
+ * 启动完成后用投影查询一次性构建标签倒排索引，之后随博客的创建、更新和删除增量维护，
+ * 详情页的相关推荐直接从内存索引返回，不查询数据库。
+ */
+@Service
+public class RelatedPostService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedPostService.class);
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private RelatedPostIndex index;
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        index = new RelatedPostIndex(blogProperties.getRelated().getMaxResults());
+        Gauge.builder("blog.index.size", this, service -> service.index.size())
+                .tag("index", "related")
+                .description("内存索引中的博客数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用启动完成后构建索引（此时演示数据已初始化）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!blogProperties.getRelated().isEnabled()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        Map<Integer, String> titles = new HashMap<>();
+        for (Object[] row : blogRepository.findPublishedIdAndTitle()) {
+            titles.put(toIndexId((Long) row[0]), (String) row[1]);
+        }
+
+        Map<Integer, int[]> tagsByPost = new HashMap<>();
+        Map<Integer, Integer> tagCounts = new HashMap<>();
+        List<Object[]> links = blogRepository.findPublishedTagLinks();
+        for (Object[] link : links) {
+            tagCounts.merge(toIndexId((Long) link[0]), 1, Integer::sum);
+        }
+        for (Object[] link : links) {
+            int blogId = toIndexId((Long) link[0]);
+            int[] tags = tagsByPost.computeIfAbsent(blogId, key -> new int[tagCounts.get(key)]);
+            int remaining = tagCounts.merge(blogId, -1, Integer::sum);
+            tags[remaining] = toIndexId((Long) link[1]);
+        }
+
+        index.load(titles, tagsByPost);
+        ready = true;
+        logger.info("相关博客索引构建完成: {} 篇博客，{} 条标签关联，耗时: {}ms",
+                titles.size(), links.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 获取与指定博客标签最相近的博客，按相似度降序
+     */
+    public List<RelatedBlogDto> getRelatedBlogs(Long blogId, int limit) {
+        if (!ready) {
+            return Collections.emptyList();
+        }
+        return index.related(toIndexId(blogId), Math.min(limit, blogProperties.getRelated().getMaxResults()));
+    }
+
+    /**
+     * 博客提交后增量更新索引：已发布的重新写入标签，未发布或已删除的移出索引
+     * 导入时一个事件包含整批博客，标题和标签各用一次批量查询取出
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        if (event.getType() == BlogChangedEvent.Type.DELETED) {
+            for (Long blogId : event.getBlogIds()) {
+                index.remove(toIndexId(blogId));
+            }
+            return;
+        }
+        Map<Long, String> titles = new HashMap<>();
+        for (Object[] row : blogRepository.findPublishedIdAndTitleByIdIn(event.getBlogIds())) {
+            titles.put((Long) row[0], (String) row[1]);
+        }
+        Map<Long, List<Long>> tagsByBlog = new HashMap<>();
+        if (!titles.isEmpty()) {
+            for (Object[] link : blogRepository.findTagIdsByBlogIdIn(titles.keySet())) {
+                tagsByBlog.computeIfAbsent((Long) link[0], key -> new ArrayList<>()).add((Long) link[1]);
+            }
+        }
+        for (Long blogId : event.getBlogIds()) {
+            String title = titles.get(blogId);
+            if (title == null) {
+                index.remove(toIndexId(blogId));
+                continue;
+            }
+            index.put(toIndexId(blogId), title, tagsByBlog.getOrDefault(blogId, Collections.emptyList()).stream()
+                    .mapToInt(RelatedPostService::toIndexId).toArray());
+        }
+    }
+
+    private static int toIndexId(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,205 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.event.BlogChangedEvent;
+import com.blog.repository.BlogRepository;
+import com.blog.sitemap.SitemapStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 站点地图服务
+ *
+ * 启动完成后按ID游标分批读取已发布博客，一次遍历写出全部分片和索引；
+ * 之后博客的创建、更新和删除只把所在分片标记为待重建，由定时任务合并重写这些分片和索引，
+ * 爬虫通过站点地图发现博客，不再翻阅OFFSET分页的列表页。
+ */
+@Service
+public class SitemapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SitemapService.class);
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    private SitemapStore store;
+
+    // 分片序号 -> 分片信息，只在持有本对象锁时访问
+    private final SortedMap<Integer, SitemapStore.ChunkInfo> chunks = new TreeMap<>();
+
+    private final Set<Integer> dirtyChunks = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        BlogProperties.Sitemap config = blogProperties.getSitemap();
+        String siteUrl = config.getSiteUrl().trim();
+        if (siteUrl.endsWith("/")) {
+            siteUrl = siteUrl.substring(0, siteUrl.length() - 1);
+        }
+        store = new SitemapStore(Paths.get(config.getPath()), siteUrl, ZoneId.systemDefault());
+    }
+
+    /**
+     * 应用启动完成后全量生成站点地图（此时演示数据已初始化）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAll() {
+        if (!blogProperties.getSitemap().isEnabled()) {
+            return;
+        }
+        try {
+            rebuildAll();
+            ready = true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("生成站点地图失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 全量重建：按ID顺序遍历一次，跨过分片边界时提交当前分片并开始下一个
+     */
+    public synchronized void rebuildAll() throws IOException {
+        long startTime = System.currentTimeMillis();
+        BlogProperties.Sitemap config = blogProperties.getSitemap();
+        PageRequest batch = PageRequest.of(0, config.getBatchSize());
+        SortedMap<Integer, SitemapStore.ChunkInfo> rebuilt = new TreeMap<>();
+        dirtyChunks.clear();
+
+        SitemapStore.ChunkWriter writer = null;
+        int currentChunk = -1;
+        try {
+            long afterId = 0;
+            List<Object[]> rows;
+            while (!(rows = blogRepository.findPublishedSitemapEntries(afterId, Long.MAX_VALUE, batch)).isEmpty()) {
+                for (Object[] row : rows) {
+                    long blogId = (Long) row[0];
+                    int chunk = chunkOf(blogId);
+                    if (chunk != currentChunk) {
+                        if (writer != null) {
+                            rebuilt.put(currentChunk, writer.commit());
+                            writer.close();
+                        }
+                        writer = store.openChunk(chunk);
+                        currentChunk = chunk;
+                    }
+                    writer.add(blogId, lastModified(row));
+                }
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+            if (writer != null) {
+                rebuilt.put(currentChunk, writer.commit());
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+
+        store.retainChunks(rebuilt);
+        store.writeIndex(rebuilt);
+        chunks.clear();
+        chunks.putAll(rebuilt);
+        logger.info("站点地图生成完成: {} 个分片，{} 个地址，耗时: {}ms", rebuilt.size(),
+                rebuilt.values().stream().mapToInt(SitemapStore.ChunkInfo::getUrlCount).sum(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 博客提交后标记所在分片待重建
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        for (Long blogId : event.getBlogIds()) {
+            dirtyChunks.add(chunkOf(blogId));
+        }
+    }
+
+    /**
+     * 定期重写待重建的分片，有分片变化时重写索引
+     */
+    @Scheduled(fixedDelayString = "${blog.sitemap.flush-interval:60000}",
+               initialDelayString = "${blog.sitemap.flush-interval:60000}")
+    public void flushDirtyChunks() {
+        if (!ready || dirtyChunks.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            Set<Integer> pending = new TreeSet<>(dirtyChunks);
+            dirtyChunks.removeAll(pending);
+            long startTime = System.currentTimeMillis();
+            try {
+                for (int chunk : pending) {
+                    rebuildChunk(chunk);
+                }
+                store.writeIndex(chunks);
+                logger.debug("站点地图重建分片 {}，耗时: {}ms", pending, System.currentTimeMillis() - startTime);
+            } catch (IOException | RuntimeException e) {
+                // 下一轮重试
+                dirtyChunks.addAll(pending);
+                logger.warn("重建站点地图分片失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 获取对外提供的站点地图文件，文件名无效时返回null
+     */
+    public Path resolveFile(String fileName) {
+        return ready ? store.resolve(fileName) : null;
+    }
+
+    private void rebuildChunk(int chunk) throws IOException {
+        int urlsPerFile = blogProperties.getSitemap().getUrlsPerFile();
+        PageRequest batch = PageRequest.of(0, blogProperties.getSitemap().getBatchSize());
+        long afterId = (long) chunk * urlsPerFile;
+        long toId = afterId + urlsPerFile;
+        try (SitemapStore.ChunkWriter writer = store.openChunk(chunk)) {
+            List<Object[]> rows;
+            while (!(rows = blogRepository.findPublishedSitemapEntries(afterId, toId, batch)).isEmpty()) {
+                for (Object[] row : rows) {
+                    writer.add((Long) row[0], lastModified(row));
+                }
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+            if (writer.getUrlCount() == 0) {
+                store.deleteChunk(chunk);
+                chunks.remove(chunk);
+            } else {
+                chunks.put(chunk, writer.commit());
+            }
+        }
+    }
+
+    private int chunkOf(long blogId) {
+        return Math.toIntExact((blogId - 1) / blogProperties.getSitemap().getUrlsPerFile());
+    }
+
+    private static LocalDateTime lastModified(Object[] row) {
+        return row[1] != null ? (LocalDateTime) row[1] : (LocalDateTime) row[2];
+    }
+}
@@ -0,0 +1,467 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.dto.BlogDto;
+import com.blog.dto.CommentDto;
+import com.blog.entity.Blog;
+import com.blog.event.BlogChangedEvent;
+import com.blog.event.CommentChangedEvent;
+import com.blog.event.ImageVariantsReadyEvent;
+import com.blog.export.ExportStats;
+import com.blog.export.StaticPageRenderer;
+import com.blog.image.ResponsiveImage;
+import com.blog.repository.BlogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.ITemplateEngine;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.ServletContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * 静态站点导出服务
+ *
+ * 用现有模板把首页列表、博客详情和标签云渲染成静态HTML，写到blog.static-export.path目录，
+ * 由nginx直接提供（/blog/{id} -> blog/{id}.html，/tags -> tags.html，/?page=N -> page/N.html）。
+ * 博客或评论变更提交后只把受影响的页面放入后台队列，同一页面在队列中只保留一份；
+ * 导出时图片还没有缩放版本的详情页，在缩放版本生成后重新入队。
+ * 全量重建时按配置的线程数并行渲染。
+ * 热门排行、相关推荐等与其他博客有关的区块只在所在页面重新生成时刷新。
+ */
+@Service
+public class StaticExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticExportService.class);
+
+    private static final String TAGS = "tags";
+
+    private static final String LISTINGS = "listings";
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private ServletContext servletContext;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StaticPageRenderer renderer;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private Path root;
+
+    // 增量更新只用一个线程，页面按入队顺序生成
+    private ExecutorService worker;
+
+    // 已入队尚未开始生成的页面，开始生成前移除，生成期间再次变更的页面会重新入队
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // 缩放版本尚未生成时导出的详情页，按图片地址记录，生成完成后重新导出
+    private final Map<String, Set<Long>> awaitingVariants = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        renderer = new StaticPageRenderer(templateEngine, servletContext, applicationContext, Locale.SIMPLIFIED_CHINESE);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        root = Paths.get(blogProperties.getStaticExport().getPath());
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "static-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * 应用启动完成后开始接收变更；按配置在后台线程全量重建一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        BlogProperties.StaticExport config = blogProperties.getStaticExport();
+        if (!config.isEnabled()) {
+            return;
+        }
+        ready = true;
+        if (config.isRebuildOnStartup()) {
+            worker.submit(() -> {
+                try {
+                    rebuildAll(config.getRebuildThreads());
+                } catch (RuntimeException e) {
+                    logger.error("静态站点全量导出失败: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * 全量重建：并行渲染全部页面，再删除已不存在的博客和列表页对应的文件
+     * @param threads 并行线程数，不大于0时使用CPU核数
+     */
+    public ExportStats rebuildAll(int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        long startTime = System.currentTimeMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "static-rebuild-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> futures = new ArrayList<>();
+        AtomicInteger pages = new AtomicInteger();
+        BitSet publishedIds = new BitSet();
+        int listingPages;
+        try {
+            futures.add(pool.submit(() -> exportPage(TAGS, pages)));
+            listingPages = listingPageCount();
+            for (int page = 0; page < listingPages; page++) {
+                String key = "home:" + page;
+                futures.add(pool.submit(() -> exportPage(key, pages)));
+            }
+            PageRequest batch = PageRequest.of(0, blogProperties.getSitemap().getBatchSize());
+            long afterId = 0;
+            List<Object[]> rows;
+            while (!(rows = blogRepository.findPublishedSitemapEntries(afterId, Long.MAX_VALUE, batch)).isEmpty()) {
+                for (Object[] row : rows) {
+                    Long blogId = (Long) row[0];
+                    publishedIds.set(Math.toIntExact(blogId));
+                    futures.add(pool.submit(() -> exportPage("blog:" + blogId, pages)));
+                }
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+
+            int failures = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failures++;
+                    logger.warn("静态页面生成失败: {}", e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("静态站点导出被中断", e);
+                }
+            }
+
+            removeStaleBlogPages(publishedIds);
+            removeStaleListingPages(listingPages);
+            ExportStats stats = new ExportStats(pages.get(), failures, poolSize, System.currentTimeMillis() - startTime);
+            logger.info("静态站点导出完成: {} 个页面，{} 个失败，{} 个线程，耗时: {}ms，{} 页/秒", stats.getPages(),
+                    failures, poolSize, stats.getElapsedMillis(), String.format("%.1f", stats.getPagesPerSecond()));
+            return stats;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 博客提交后重新生成它的详情页、所在列表页和标签云；新建、删除或取消发布时全部列表页都会移动
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        // 更新已发布的博客只影响所在列表页，其余情况全部列表页都要重新生成
+        boolean allListings = event.getType() != BlogChangedEvent.Type.UPDATED;
+        if (!allListings) {
+            List<Blog> blogs = blogRepository.findAllById(event.getBlogIds());
+            allListings = blogs.size() < event.getBlogIds().size();
+            for (Blog blog : blogs) {
+                if (Boolean.TRUE.equals(blog.getPublished())) {
+                    enqueue("home:" + listingPageOf(blog));
+                } else {
+                    allListings = true;
+                }
+            }
+        }
+        for (Long blogId : event.getBlogIds()) {
+            enqueue("blog:" + blogId);
+        }
+        if (allListings) {
+            enqueue(LISTINGS);
+        }
+        enqueue(TAGS);
+    }
+
+    /**
+     * 评论新增或删除后重新生成博客详情页和所在列表页（评论数）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        enqueue("blog:" + event.getBlogId());
+        blogRepository.findById(event.getBlogId())
+                .filter(blog -> Boolean.TRUE.equals(blog.getPublished()))
+                .ifPresent(blog -> enqueue("home:" + listingPageOf(blog)));
+    }
+
+    /**
+     * 图片缩放版本生成后重新生成引用它、且导出时只用了原图的详情页
+     */
+    @EventListener
+    public void onImageVariantsReady(ImageVariantsReadyEvent event) {
+        Set<Long> blogIds = awaitingVariants.remove(event.getUrl());
+        if (blogIds == null || !ready) {
+            return;
+        }
+        for (Long blogId : blogIds) {
+            enqueue("blog:" + blogId);
+        }
+    }
+
+    /**
+     * 当前排队等待生成的页面数
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void enqueue(String key) {
+        if (pending.add(key)) {
+            worker.submit(() -> {
+                pending.remove(key);
+                try {
+                    exportPage(key, null);
+                } catch (RuntimeException e) {
+                    logger.warn("静态页面生成失败: {}, {}", key, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * 生成一个页面，key为 blog:{id}、home:{页码}、tags 或 listings（展开为全部列表页）
+     */
+    private void exportPage(String key, AtomicInteger counter) {
+        if (LISTINGS.equals(key)) {
+            int listingPages = listingPageCount();
+            for (int page = 0; page < listingPages; page++) {
+                enqueue("home:" + page);
+            }
+            removeStaleListingPages(listingPages);
+            return;
+        }
+        boolean written = Boolean.TRUE.equals(readOnlyTransaction.execute(status -> {
+            if (TAGS.equals(key)) {
+                write("tags.html", renderer.render("blog/tag-cloud", "/tags", tagCloudModel()));
+                return true;
+            }
+            if (key.startsWith("home:")) {
+                return exportListingPage(Integer.parseInt(key.substring("home:".length())));
+            }
+            return exportBlogPage(Long.valueOf(key.substring("blog:".length())));
+        }));
+        if (written && counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * 与BlogController#showBlogDetail的匿名访问一致，不增加浏览量；博客不存在或未发布时删除页面
+     */
+    private boolean exportBlogPage(Long blogId) {
+        Optional<BlogDto> blog = blogService.getBlogDtoById(blogId);
+        String file = "blog/" + blogId + ".html";
+        if (!blog.isPresent() || !Boolean.TRUE.equals(blog.get().getPublished())) {
+            delete(file);
+            return false;
+        }
+        List<CommentDto> comments = commentService.getCommentsByBlogId(blogId);
+        Map<String, Object> model = new HashMap<>();
+        BlogDto blogDto = blog.get();
+        model.put("blog", blogDto);
+        List<ResponsiveImage> images = imageVariantService.findImages(blogDto.getContent());
+        for (ResponsiveImage image : images) {
+            awaitVariants(image.getSrc(), blogId);
+        }
+        model.put("images", images);
+        model.put("isAuthor", false);
+        model.put("comments", comments);
+        model.put("commentCount", comments.size());
+        model.put("relatedBlogs", blogService.getRelatedBlogs(blogId, 5));
+        write(file, renderer.render("blog/blog-detail", "/blog/" + blogId, model));
+        return true;
+    }
+
+    /**
+     * 图片还在生成缩放版本时记下引用它的博客；登记后已完成的（事件可能已错过）直接重新入队
+     */
+    private void awaitVariants(String url, Long blogId) {
+        if (!imageVariantService.isPending(url)) {
+            return;
+        }
+        awaitingVariants.computeIfAbsent(url, key -> ConcurrentHashMap.newKeySet()).add(blogId);
+        if (!imageVariantService.isPending(url)) {
+            onImageVariantsReady(new ImageVariantsReadyEvent(url));
+        }
+    }
+
+    /**
+     * 与HomeController#index一致
+     */
+    private boolean exportListingPage(int page) {
+        Page<BlogDto> blogPage = blogService.getPublishedBlogDtos(
+                PageRequest.of(page, blogProperties.getStaticExport().getPageSize()));
+        if (page > 0 && page >= blogPage.getTotalPages()) {
+            delete(listingFile(page));
+            return false;
+        }
+        Map<String, Object> model = new HashMap<>();
+        model.put("blogPage", blogPage);
+        model.put("currentPage", page);
+        model.put("totalPages", blogPage.getTotalPages());
+        model.put("totalElements", blogPage.getTotalElements());
+        model.put("trendingBlogs", blogService.getPopularBlogs(5));
+        write(listingFile(page), renderer.render("index", "/", model));
+        return true;
+    }
+
+    /**
+     * 与TagController#showTagCloud一致
+     */
+    private Map<String, Object> tagCloudModel() {
+        Map<String, Object> model = new HashMap<>();
+        model.put("allTags", tagService.getAllTags());
+        model.put("popularTags", tagService.getMostUsedTags(20));
+        model.put("totalTags", tagService.getTagCount());
+        model.put("usedTags", tagService.getUsedTagCount());
+        return model;
+    }
+
+    private int listingPageCount() {
+        long published = blogRepository.countPublishedBlogs();
+        int pageSize = blogProperties.getStaticExport().getPageSize();
+        return (int) Math.max(1, (published + pageSize - 1) / pageSize);
+    }
+
+    private int listingPageOf(Blog blog) {
+        long before = blogRepository.countPublishedCreatedAfter(blog.getCreatedAt());
+        return (int) (before / blogProperties.getStaticExport().getPageSize());
+    }
+
+    private static String listingFile(int page) {
+        return page == 0 ? "index.html" : "page/" + page + ".html";
+    }
+
+    private void removeStaleBlogPages(BitSet publishedIds) {
+        deleteMatching(root.resolve("blog"), fileName -> {
+            String id = fileName.substring(0, fileName.length() - ".html".length());
+            return id.matches("\\d+") && !publishedIds.get(Integer.parseInt(id));
+        });
+    }
+
+    private void removeStaleListingPages(int listingPages) {
+        deleteMatching(root.resolve("page"), fileName -> {
+            String page = fileName.substring(0, fileName.length() - ".html".length());
+            return page.matches("\\d+") && Integer.parseInt(page) >= listingPages;
+        });
+    }
+
+    private void deleteMatching(Path directory, Predicate<String> stale) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.html")) {
+            for (Path file : files) {
+                if (stale.test(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 先写临时文件再原子替换，nginx不会读到写了一半的页面
+     */
+    private void write(String relativePath, String html) {
+        Path file = root.resolve(relativePath);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, html.getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入静态页面失败: " + file, e);
+        }
+    }
+
+    private void delete(String relativePath) {
+        try {
+            Files.deleteIfExists(root.resolve(relativePath));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.blog.service;
 
+import com.blog.config.BlogProperties;
 import com.blog.entity.Tag;
 import com.blog.repository.TagRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 标签服务类
@@ -23,6 +35,32 @@ public class TagService {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Timer cleanupTimer;
+
+    private Counter reclaimedCounter;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cleanupTimer = Timer.builder("blog.tags.gc")
+                .description("未使用标签回收耗时")
+                .register(meterRegistry);
+        reclaimedCounter = Counter.builder("blog.tags.gc.reclaimed")
+                .description("回收的未使用标签数量")
+                .register(meterRegistry);
+    }
+
     /**
      * 获取所有标签，按名称排序
      */
@@ -64,7 +102,7 @@ public class TagService {
             throw new IllegalArgumentException("标签名称不能为空");
         }
 
-        return tagRepository.findByName(trimmedName)
+        return tagRepository.findByNameForShare(trimmedName)
                 .orElseGet(() -> {
                     Tag newTag = new Tag(trimmedName);
                     Tag savedTag = tagRepository.save(newTag);
@@ -74,16 +112,58 @@ public class TagService {
     }
 
     /**
-     * 删除未使用的标签
+     * 定期回收未使用的标签
      */
-    public void cleanupUnusedTags() {
-        List<Tag> unusedTags = tagRepository.findUnusedTags();
-        if (!unusedTags.isEmpty()) {
-            tagRepository.deleteAll(unusedTags);
-            logger.info("清理了 {} 个未使用的标签", unusedTags.size());
+    @Scheduled(fixedDelayString = "${blog.tag-gc.interval:3600000}",
+               initialDelayString = "${blog.tag-gc.interval:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledCleanupUnusedTags() {
+        if (blogProperties.getTagGc().isEnabled()) {
+            cleanupUnusedTags();
         }
     }
 
+    /**
+     * 删除未使用的标签，返回回收的数量
+     *
+     * 按ID分批：每批先用反连接找出候选ID，再在独立的短事务中删除，删除语句内用NOT EXISTS再次检查关联。
+     * 给博客关联已有标签时会对标签加共享锁，删除要等关联事务结束后才执行并看到新的关联；
+     * 新建的标签在提交前对回收不可见。等锁超时或死锁时该批标签留到下次回收。
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cleanupUnusedTags() {
+        BlogProperties.TagGc config = blogProperties.getTagGc();
+        PageRequest batch = PageRequest.of(0, config.getBatchSize());
+        long startTime = System.nanoTime();
+
+        int reclaimed = 0;
+        int skippedBatches = 0;
+        long afterId = 0;
+        while (true) {
+            final long lastId = afterId;
+            List<Long> candidateIds = tagRepository.findUnusedTagIds(lastId, batch);
+            if (candidateIds.isEmpty()) {
+                break;
+            }
+            afterId = candidateIds.get(candidateIds.size() - 1);
+            try {
+                Integer deleted = transactionTemplate.execute(
+                        status -> tagRepository.deleteUnusedByIdIn(candidateIds));
+                reclaimed += deleted != null ? deleted : 0;
+            } catch (ConcurrencyFailureException e) {
+                skippedBatches++;
+                logger.debug("回收标签时等锁失败，跳过本批: {} - {}", candidateIds.get(0), afterId);
+            }
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        cleanupTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        reclaimedCounter.increment(reclaimed);
+        logger.info("标签回收完成: 回收 {} 个未使用的标签，跳过 {} 批，耗时 {}ms",
+                reclaimed, skippedBatches, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return reclaimed;
+    }
+
     /**
      * 获取标签统计信息
      */
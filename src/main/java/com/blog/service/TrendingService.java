@@ -0,0 +1,255 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.dto.TrendingBlogDto;
+import com.blog.entity.Blog;
+import com.blog.event.BlogChangedEvent;
+import com.blog.repository.BlogRepository;
+import com.blog.trending.TrendingEngine;
+import com.blog.trending.TrendingSnapshotStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热门博客服务
+ *
+ * 浏览和评论事件写入内存中的衰减热度排行，热门列表直接从内存返回，不查询数据库。
+ * 热度可忽略的博客定期清理；配置了快照路径时排行定期保存快照，重启后从快照恢复。
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TrendingEngine engine;
+
+    private TrendingSnapshotStore snapshotStore;
+
+    // 前K名博客的展示信息；缺失的条目暂不展示，由定时任务补齐，跌出前K名的条目由定时任务清理
+    private final Map<Long, TrendingBlogDto> blogs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        BlogProperties.Trending config = blogProperties.getTrending();
+        engine = new TrendingEngine(config.getHalfLife() * 1000L, config.getCapacity(), System.currentTimeMillis());
+        if (StringUtils.hasText(config.getSnapshotPath())) {
+            snapshotStore = new TrendingSnapshotStore(Paths.get(config.getSnapshotPath()));
+            loadSnapshot();
+        }
+        if (engine.isEmpty()) {
+            seedFromViewCounts();
+        }
+        Gauge.builder("blog.index.size", this, service -> service.engine.size())
+                .tag("index", "trending")
+                .description("内存索引中的博客数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        saveSnapshot();
+    }
+
+    /**
+     * 记录一次浏览（仅统计已发布的博客）
+     * 只为刚进入前K名的博客保存展示信息；作者未加载时不触发懒加载，由定时任务批量补齐
+     */
+    public void recordView(Blog blog) {
+        if (!Boolean.TRUE.equals(blog.getPublished())) {
+            return;
+        }
+        boolean top = engine.record(blog.getId(), blogProperties.getTrending().getViewWeight(), System.currentTimeMillis());
+        if (top && !blogs.containsKey(blog.getId()) && Hibernate.isInitialized(blog.getAuthor())) {
+            blogs.put(blog.getId(), toTrendingBlog(blog));
+        }
+    }
+
+    /**
+     * 记录一条评论，事务提交后才计入
+     */
+    public void recordComment(Long blogId) {
+        Runnable record = () -> engine.record(blogId,
+                blogProperties.getTrending().getCommentWeight(), System.currentTimeMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+
+    /**
+     * 获取热门博客，O(K)，不访问数据库
+     */
+    public List<TrendingBlogDto> getTrendingBlogs(int limit) {
+        List<TrendingBlogDto> result = new ArrayList<>(limit);
+        for (Long blogId : engine.topIds(blogProperties.getTrending().getCapacity())) {
+            TrendingBlogDto blog = blogs.get(blogId);
+            if (blog != null) {
+                result.add(blog);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 博客删除时移出排行；排行中的博客更新后重新加载展示信息，取消发布的移出排行
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (event.getType() == BlogChangedEvent.Type.DELETED) {
+            for (Long blogId : event.getBlogIds()) {
+                engine.remove(blogId);
+                blogs.remove(blogId);
+            }
+        } else if (event.getType() == BlogChangedEvent.Type.UPDATED) {
+            Set<Long> shown = new HashSet<>(event.getBlogIds());
+            shown.retainAll(blogs.keySet());
+            if (!shown.isEmpty()) {
+                reloadBlogs(shown);
+            }
+        }
+    }
+
+    /**
+     * 定期补齐排行中缺失的展示信息，清理热度可忽略的博客并保存快照
+     */
+    @Scheduled(fixedDelayString = "${blog.trending.snapshot-interval:300000}",
+               initialDelayString = "${blog.trending.snapshot-interval:300000}")
+    public void refreshAndSnapshot() {
+        refreshBlogs();
+        int pruned = engine.prune(System.currentTimeMillis());
+        if (pruned > 0) {
+            logger.debug("热门排行清理了 {} 篇热度可忽略的博客", pruned);
+        }
+        saveSnapshot();
+    }
+
+    /**
+     * 为排行中缺少展示信息的博客批量加载数据，已删除或未发布的博客移出排行
+     */
+    private void refreshBlogs() {
+        List<Long> topIds = engine.topIds(blogProperties.getTrending().getCapacity());
+        Set<Long> missing = new HashSet<>();
+        for (Long blogId : topIds) {
+            if (!blogs.containsKey(blogId)) {
+                missing.add(blogId);
+            }
+        }
+        // 只保留排行内博客的展示信息
+        blogs.keySet().retainAll(new HashSet<>(topIds));
+        if (!missing.isEmpty()) {
+            reloadBlogs(missing);
+        }
+    }
+
+    /**
+     * 批量加载博客的展示信息，已删除或未发布的博客移出排行
+     */
+    private void reloadBlogs(Set<Long> blogIds) {
+        Set<Long> found = new HashSet<>();
+        for (Blog blog : blogRepository.findAllWithAuthorByIdIn(blogIds)) {
+            if (Boolean.TRUE.equals(blog.getPublished())) {
+                blogs.put(blog.getId(), toTrendingBlog(blog));
+                found.add(blog.getId());
+            }
+        }
+        for (Long blogId : blogIds) {
+            if (!found.contains(blogId)) {
+                engine.remove(blogId);
+                blogs.remove(blogId);
+            }
+        }
+        if (found.size() < blogIds.size()) {
+            // 移出的博客腾出了位置，补位的博客在下一轮加载
+            logger.debug("热门排行移除了 {} 篇已删除或未发布的博客", blogIds.size() - found.size());
+        }
+    }
+
+    private void loadSnapshot() {
+        try {
+            TrendingSnapshotStore.Snapshot snapshot = snapshotStore.read();
+            if (snapshot != null) {
+                engine.restore(snapshot.getScores(), snapshot.getTimeMillis());
+                blogs.putAll(snapshot.getBlogs());
+                logger.info("已从快照恢复热门排行: {} 篇博客，快照时间 {}",
+                        snapshot.getScores().size(), new Date(snapshot.getTimeMillis()));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("读取热门排行快照失败，将重新统计: {}", e.getMessage());
+        }
+    }
+
+    private void saveSnapshot() {
+        if (snapshotStore == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<Long, Double> scores = engine.snapshot(now);
+        try {
+            snapshotStore.write(new TrendingSnapshotStore.Snapshot(now, scores, new HashMap<>(blogs)));
+            logger.debug("已保存热门排行快照: {} 篇博客", scores.size());
+        } catch (IOException e) {
+            logger.warn("保存热门排行快照失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 没有快照时按累计浏览量给前K篇博客一个较小的初始热度，避免冷启动时列表为空
+     */
+    private void seedFromViewCounts() {
+        long now = System.currentTimeMillis();
+        int capacity = blogProperties.getTrending().getCapacity();
+        for (Blog blog : blogRepository.findPublishedWithAuthorOrderByViewCountDesc(PageRequest.of(0, capacity))) {
+            blogs.put(blog.getId(), toTrendingBlog(blog));
+            engine.record(blog.getId(), Math.log1p(blog.getViewCount()), now);
+        }
+        logger.info("热门排行冷启动：按浏览量初始化 {} 篇博客", engine.size());
+    }
+
+    private TrendingBlogDto toTrendingBlog(Blog blog) {
+        String authorName = blog.getAuthor().getDisplayName() != null
+                ? blog.getAuthor().getDisplayName() : blog.getAuthor().getUsername();
+        return new TrendingBlogDto(blog.getId(), blog.getTitle(), authorName, blog.getCreatedAt());
+    }
+}
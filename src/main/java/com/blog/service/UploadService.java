@@ -0,0 +1,224 @@
+package com.blog.service;
+
+import com.blog.config.BlogProperties;
+import com.blog.event.UploadStoredEvent;
+import com.blog.upload.FileType;
+import com.blog.upload.StoredUpload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 文件上传服务
+ *
+ * multipart请求体由容器直接写入blog.upload.path/tmp下的临时文件（见UploadConfig），这里把临时文件
+ * 移动到同一目录树下，整个过程不在堆中缓冲文件内容。类型按文件头识别并与blog.upload.allowed-types比对；
+ * 文件按内容的SHA-256存放在 ab/cd/&lt;sha256&gt;.&lt;ext&gt;，相同内容只保存一份。
+ */
+@Service
+public class UploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadService.class);
+
+    /**
+     * 原文件 &lt;sha256&gt;.&lt;ext&gt;，或生成的缩放版本 &lt;sha256&gt;-&lt;宽度&gt;.&lt;ext&gt;
+     */
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})(-[0-9]{1,5})?\\.([a-z]+)");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Autowired
+    private BlogProperties blogProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Path root;
+
+    private Path tempDir;
+
+    private Set<FileType> allowedTypes;
+
+    private Counter storedCounter;
+
+    private Counter duplicateCounter;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(blogProperties.getUpload().getPath()).toAbsolutePath().normalize();
+        tempDir = root.resolve("tmp");
+        Files.createDirectories(tempDir);
+        allowedTypes = EnumSet.noneOf(FileType.class);
+        for (String extension : blogProperties.getUpload().getAllowedTypesArray()) {
+            FileType type = FileType.fromExtension(extension);
+            if (type == null) {
+                logger.warn("不支持的上传类型配置: {}", extension);
+            } else {
+                allowedTypes.add(type);
+            }
+        }
+        cleanTempDir();
+
+        storedCounter = Counter.builder("blog.uploads").tag("result", "stored")
+                .description("上传的文件数").register(meterRegistry);
+        duplicateCounter = Counter.builder("blog.uploads").tag("result", "duplicate")
+                .description("上传的文件数").register(meterRegistry);
+        rejectedCounter = Counter.builder("blog.uploads").tag("result", "rejected")
+                .description("上传的文件数").register(meterRegistry);
+    }
+
+    /**
+     * 保存上传的文件
+     * @throws IllegalArgumentException 文件为空或类型不允许
+     */
+    public StoredUpload store(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            rejectedCounter.increment();
+            throw new IllegalArgumentException("上传的文件为空");
+        }
+        // 容器已把请求体写到磁盘时，transferTo只是把临时文件改名
+        Path temp = Files.createTempFile(tempDir, "upload-", ".tmp");
+        try {
+            Files.delete(temp);
+            file.transferTo(temp.toFile());
+            FileType type = detectType(temp);
+            if (type == null || !allowedTypes.contains(type)) {
+                rejectedCounter.increment();
+                throw new IllegalArgumentException("不支持的文件类型，允许: "
+                        + blogProperties.getUpload().getAllowedTypes());
+            }
+            String hash = sha256(temp);
+            long size = Files.size(temp);
+            Path target = resolve(hash, type);
+            Files.createDirectories(target.getParent());
+            boolean duplicate = !moveIfAbsent(temp, target);
+            (duplicate ? duplicateCounter : storedCounter).increment();
+            logger.info("保存上传文件: {}, {} 字节{}", target.getFileName(), size, duplicate ? "（重复内容）" : "");
+            StoredUpload upload = new StoredUpload(hash, type, size, duplicate);
+            eventPublisher.publishEvent(new UploadStoredEvent(upload, target));
+            return upload;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 按文件名查找已上传的文件，文件名不合法或不存在时返回null
+     */
+    public Path resolveFile(String fileName) {
+        Matcher matcher = FILE_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        FileType type = FileType.fromExtension(matcher.group(3));
+        if (type == null || !type.getExtension().equals(matcher.group(3))) {
+            return null;
+        }
+        String hash = matcher.group(1);
+        Path file = root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(fileName);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    private Path resolve(String hash, FileType type) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4))
+                .resolve(hash + "." + type.getExtension());
+    }
+
+    /**
+     * 原子地把临时文件移动到目标位置；目标已存在（内容相同）时返回false
+     */
+    private boolean moveIfAbsent(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return false;
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(source, target);
+                return true;
+            } catch (FileAlreadyExistsException exists) {
+                return false;
+            }
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    private static FileType detectType(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(FileType.HEADER_LENGTH);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // 读满文件头或到达文件末尾
+            }
+            return FileType.detect(header.array(), header.position());
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        byte[] bytes = digest.digest();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * 清理上次异常退出时残留的临时文件
+     */
+    private void cleanTempDir() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tempDir, "upload-*.tmp")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.blog.service;
 
+import com.blog.config.UserPrincipal;
 import com.blog.dto.PasswordChangeDto;
 import com.blog.dto.UserProfileDto;
 import com.blog.dto.UserRegistrationDto;
@@ -194,6 +195,18 @@ public class UserService {
         );
     }
 
+    /**
+     * 将当前登录用户快照转换为UserProfileDto
+     */
+    public UserProfileDto convertToProfileDto(UserPrincipal principal) {
+        return new UserProfileDto(
+                principal.getId(),
+                principal.getUsername(),
+                principal.getEmail(),
+                principal.getDisplayName()
+        );
+    }
+
     /**
      * 获取用户统计信息
      */
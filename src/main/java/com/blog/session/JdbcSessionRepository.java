@@ -0,0 +1,366 @@
+package com.blog.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于JDBC的共享会话存储，多个应用节点共用同一张会话表
+ *
+ * 每个会话只占一行，全部属性以紧凑二进制格式存放在attributes列中。
+ * 属性未变化时不会回写；仅访问时间变化时，距上次落库超过touchInterval才更新访问时间，
+ * 因此会话的实际过期时间最多会延后touchInterval。
+ */
+public class JdbcSessionRepository implements FindByIndexNameSessionRepository<JdbcSessionRepository.JdbcSession> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcSessionRepository.class);
+
+    private static final String SPRING_SECURITY_CONTEXT =
+            HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY;
+
+    private static final String COLUMNS =
+            "session_id, principal_name, creation_time, last_access_time, max_inactive_interval, expiry_time, attributes";
+
+    private static final String INSERT_SESSION =
+            "INSERT INTO blog_sessions (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SESSION =
+            "UPDATE blog_sessions SET session_id = ?, principal_name = ?, last_access_time = ?, " +
+            "max_inactive_interval = ?, expiry_time = ?, attributes = ? WHERE session_id = ?";
+
+    private static final String TOUCH_SESSION =
+            "UPDATE blog_sessions SET last_access_time = ?, expiry_time = ? WHERE session_id = ?";
+
+    private static final String SELECT_SESSION =
+            "SELECT " + COLUMNS + " FROM blog_sessions WHERE session_id = ?";
+
+    private static final String SELECT_SESSIONS_BY_PRINCIPAL =
+            "SELECT " + COLUMNS + " FROM blog_sessions WHERE principal_name = ?";
+
+    private static final String DELETE_SESSION =
+            "DELETE FROM blog_sessions WHERE session_id = ?";
+
+    private static final String SELECT_EXPIRED_SESSION_IDS =
+            "SELECT session_id FROM blog_sessions WHERE expiry_time < ? ORDER BY expiry_time";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate cleanupTemplate;
+
+    private final SessionAttributeCodec codec;
+
+    private final RowMapper<JdbcSession> sessionRowMapper = (rs, rowNum) -> {
+        JdbcSession session = new JdbcSession(
+                rs.getString("session_id"),
+                Instant.ofEpochMilli(rs.getLong("creation_time")),
+                Instant.ofEpochMilli(rs.getLong("last_access_time")),
+                Duration.ofSeconds(rs.getInt("max_inactive_interval")),
+                null,
+                false);
+        session.attributes.putAll(decodeAttributes(rs.getBytes("attributes")));
+        return session;
+    };
+
+    private Duration defaultMaxInactiveInterval = Duration.ofMinutes(30);
+
+    private Duration touchInterval = Duration.ofSeconds(60);
+
+    private int cleanupBatchSize = 500;
+
+    private final AtomicLong coalescedWrites = new AtomicLong();
+
+    public JdbcSessionRepository(JdbcTemplate jdbcTemplate, SessionAttributeCodec codec) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cleanupTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cleanupTemplate.setMaxRows(cleanupBatchSize);
+        this.codec = codec;
+    }
+
+    public void setDefaultMaxInactiveInterval(Duration defaultMaxInactiveInterval) {
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+    }
+
+    public void setTouchInterval(Duration touchInterval) {
+        this.touchInterval = touchInterval;
+    }
+
+    public void setCleanupBatchSize(int cleanupBatchSize) {
+        this.cleanupBatchSize = cleanupBatchSize;
+        this.cleanupTemplate.setMaxRows(cleanupBatchSize);
+    }
+
+    /**
+     * 因未发生变化而跳过的会话写入次数
+     */
+    public long getCoalescedWrites() {
+        return coalescedWrites.get();
+    }
+
+    @Override
+    public JdbcSession createSession() {
+        Instant now = Instant.now();
+        return new JdbcSession(UUID.randomUUID().toString(), now, now, defaultMaxInactiveInterval, null, true);
+    }
+
+    @Override
+    public void save(JdbcSession session) {
+        if (session.isNew) {
+            jdbcTemplate.update(INSERT_SESSION,
+                    session.getId(),
+                    resolvePrincipalName(session),
+                    session.creationTime.toEpochMilli(),
+                    session.lastAccessedTime.toEpochMilli(),
+                    (int) session.maxInactiveInterval.getSeconds(),
+                    session.expiryTime(),
+                    codec.encode(session.attributes));
+        } else if (session.attributesChanged || session.maxInactiveChanged || !session.getId().equals(session.persistedId)) {
+            jdbcTemplate.update(UPDATE_SESSION,
+                    session.getId(),
+                    resolvePrincipalName(session),
+                    session.lastAccessedTime.toEpochMilli(),
+                    (int) session.maxInactiveInterval.getSeconds(),
+                    session.expiryTime(),
+                    codec.encode(session.attributes),
+                    session.persistedId);
+        } else if (Duration.between(session.persistedLastAccessedTime, session.lastAccessedTime)
+                .compareTo(touchInterval) >= 0) {
+            jdbcTemplate.update(TOUCH_SESSION,
+                    session.lastAccessedTime.toEpochMilli(),
+                    session.expiryTime(),
+                    session.getId());
+        } else {
+            coalescedWrites.incrementAndGet();
+            return;
+        }
+        session.markPersisted();
+    }
+
+    @Override
+    public JdbcSession findById(String id) {
+        List<JdbcSession> sessions = jdbcTemplate.query(SELECT_SESSION, sessionRowMapper, id);
+        if (sessions.isEmpty()) {
+            return null;
+        }
+        JdbcSession session = sessions.get(0);
+        if (session.isExpiredWithGrace(touchInterval)) {
+            deleteById(id);
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        jdbcTemplate.update(DELETE_SESSION, id);
+    }
+
+    @Override
+    public Map<String, JdbcSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
+            return Collections.emptyMap();
+        }
+        Map<String, JdbcSession> result = new HashMap<>();
+        for (JdbcSession session : jdbcTemplate.query(SELECT_SESSIONS_BY_PRINCIPAL, sessionRowMapper, indexValue)) {
+            if (!session.isExpiredWithGrace(touchInterval)) {
+                result.put(session.getId(), session);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 分批清理过期会话，每批按主键删除，避免单条DELETE长时间持锁
+     */
+    public int cleanupExpiredSessions() {
+        long threshold = Instant.now().minus(touchInterval).toEpochMilli();
+
+        int deleted = 0;
+        List<String> expiredIds;
+        do {
+            expiredIds = cleanupTemplate.queryForList(SELECT_EXPIRED_SESSION_IDS, String.class, threshold);
+            if (expiredIds.isEmpty()) {
+                break;
+            }
+            List<Object[]> batchArgs = new ArrayList<>(expiredIds.size());
+            for (String id : expiredIds) {
+                batchArgs.add(new Object[]{id});
+            }
+            jdbcTemplate.batchUpdate(DELETE_SESSION, batchArgs);
+            deleted += expiredIds.size();
+        } while (expiredIds.size() >= cleanupBatchSize);
+
+        if (deleted > 0) {
+            logger.debug("清理了 {} 个过期会话", deleted);
+        }
+        return deleted;
+    }
+
+    private Map<String, Object> decodeAttributes(byte[] data) {
+        try {
+            return codec.decode(data);
+        } catch (IllegalStateException e) {
+            // 无法解码的会话（如类结构变更后）按空会话处理，用户重新登录即可
+            logger.warn("会话属性解码失败，已忽略: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private static String resolvePrincipalName(JdbcSession session) {
+        Object indexValue = session.getAttribute(PRINCIPAL_NAME_INDEX_NAME);
+        if (indexValue instanceof String) {
+            return (String) indexValue;
+        }
+        Object context = session.getAttribute(SPRING_SECURITY_CONTEXT);
+        if (context instanceof SecurityContext) {
+            Authentication authentication = ((SecurityContext) context).getAuthentication();
+            if (authentication != null) {
+                return authentication.getName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 会话表中的一行，记录自上次落库以来的变化
+     */
+    public static final class JdbcSession implements Session {
+
+        private String id;
+        private String persistedId;
+        private final Instant creationTime;
+        private Instant lastAccessedTime;
+        private Instant persistedLastAccessedTime;
+        private Duration maxInactiveInterval;
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        private boolean isNew;
+        private boolean attributesChanged;
+        private boolean maxInactiveChanged;
+
+        JdbcSession(String id, Instant creationTime, Instant lastAccessedTime, Duration maxInactiveInterval,
+                    Map<String, Object> attributes, boolean isNew) {
+            this.id = id;
+            this.persistedId = id;
+            this.creationTime = creationTime;
+            this.lastAccessedTime = lastAccessedTime;
+            this.persistedLastAccessedTime = lastAccessedTime;
+            this.maxInactiveInterval = maxInactiveInterval;
+            if (attributes != null) {
+                this.attributes.putAll(attributes);
+            }
+            this.isNew = isNew;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String changeSessionId() {
+            this.id = UUID.randomUUID().toString();
+            return id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getAttribute(String attributeName) {
+            return (T) attributes.get(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return Collections.unmodifiableSet(attributes.keySet());
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            if (attributeValue == null) {
+                removeAttribute(attributeName);
+                return;
+            }
+            attributes.put(attributeName, attributeValue);
+            // 重新设置同一对象也视为变化：调用方可能修改了可变属性后再设置回去
+            attributesChanged = true;
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            if (attributes.remove(attributeName) != null) {
+                attributesChanged = true;
+            }
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return creationTime;
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            this.lastAccessedTime = lastAccessedTime;
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return lastAccessedTime;
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            if (!interval.equals(maxInactiveInterval)) {
+                this.maxInactiveInterval = interval;
+                this.maxInactiveChanged = true;
+            }
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return maxInactiveInterval;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return isExpiredWithGrace(Duration.ZERO);
+        }
+
+        boolean isExpiredWithGrace(Duration grace) {
+            if (maxInactiveInterval.isNegative()) {
+                return false;
+            }
+            return Instant.now().isAfter(lastAccessedTime.plus(maxInactiveInterval).plus(grace));
+        }
+
+        long expiryTime() {
+            if (maxInactiveInterval.isNegative()) {
+                return Long.MAX_VALUE;
+            }
+            return lastAccessedTime.plus(maxInactiveInterval).toEpochMilli();
+        }
+
+        void markPersisted() {
+            this.isNew = false;
+            this.persistedId = id;
+            this.persistedLastAccessedTime = lastAccessedTime;
+            this.attributesChanged = false;
+            this.maxInactiveChanged = false;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.blog.session;
+
+import com.blog.config.CustomUserDetails;
+import com.blog.config.UserPrincipal;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 会话属性的紧凑二进制编码
+ * 常见类型（字符串、数字、布尔、登录上下文）使用专用格式，其余类型回退到Java序列化
+ */
+public class SessionAttributeCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_SECURITY_CONTEXT = 5;
+    private static final byte TYPE_SERIALIZED = 9;
+
+    /**
+     * 编码全部会话属性
+     */
+    public byte[] encode(Map<String, Object> attributes) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(attributes.size());
+            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("会话属性编码失败", e);
+        }
+    }
+
+    /**
+     * 解码会话属性
+     */
+    public Map<String, Object> decode(byte[] data) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (data == null || data.length == 0) {
+            return attributes;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            byte format = in.readByte();
+            if (format != FORMAT_VERSION) {
+                throw new IllegalStateException("不支持的会话属性编码版本: " + format);
+            }
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                attributes.put(name, readValue(in));
+            }
+            return attributes;
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("会话属性解码失败", e);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (isCompactSecurityContext(value)) {
+            out.writeByte(TYPE_SECURITY_CONTEXT);
+            writeSecurityContext(out, (SecurityContext) value);
+        } else if (value instanceof Serializable) {
+            out.writeByte(TYPE_SERIALIZED);
+            byte[] serialized = serialize(value);
+            out.writeInt(serialized.length);
+            out.write(serialized);
+        } else {
+            throw new IllegalArgumentException("会话属性不可序列化: " + value.getClass().getName());
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                byte[] utf8 = new byte[in.readInt()];
+                in.readFully(utf8);
+                return new String(utf8, StandardCharsets.UTF_8);
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_SECURITY_CONTEXT:
+                return readSecurityContext(in);
+            case TYPE_SERIALIZED:
+                byte[] serialized = new byte[in.readInt()];
+                in.readFully(serialized);
+                return deserialize(serialized);
+            default:
+                throw new IOException("未知的会话属性类型: " + type);
+        }
+    }
+
+    /**
+     * 只有表单登录产生的标准上下文才使用专用格式，其余认证类型走Java序列化
+     */
+    private boolean isCompactSecurityContext(Object value) {
+        if (!(value instanceof SecurityContextImpl)) {
+            return false;
+        }
+        Authentication authentication = ((SecurityContext) value).getAuthentication();
+        if (authentication == null || authentication.getClass() != UsernamePasswordAuthenticationToken.class
+                || !(authentication.getPrincipal() instanceof CustomUserDetails)
+                || authentication.getCredentials() != null) {
+            return false;
+        }
+        Object details = authentication.getDetails();
+        if (details != null && details.getClass() != WebAuthenticationDetails.class) {
+            return false;
+        }
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        return authorityNames(authentication).equals(new HashSet<>(userDetails.getPrincipal().getRoles()));
+    }
+
+    private void writeSecurityContext(DataOutputStream out, SecurityContext context) throws IOException {
+        Authentication authentication = context.getAuthentication();
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        userDetails.getPrincipal().writeTo(out);
+        out.writeBoolean(userDetails.isEnabled());
+
+        WebAuthenticationDetails details = (WebAuthenticationDetails) authentication.getDetails();
+        out.writeBoolean(details != null);
+        if (details != null) {
+            writeNullableUTF(out, details.getRemoteAddress());
+            writeNullableUTF(out, details.getSessionId());
+        }
+    }
+
+    private SecurityContext readSecurityContext(DataInputStream in) throws IOException {
+        UserPrincipal principal = UserPrincipal.readFrom(in);
+        boolean enabled = in.readBoolean();
+        CustomUserDetails userDetails = new CustomUserDetails(principal, null, enabled);
+
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        if (in.readBoolean()) {
+            token.setDetails(new WebAuthenticationDetails(readNullableUTF(in), readNullableUTF(in)));
+        }
+        return new SecurityContextImpl(token);
+    }
+
+    private static Set<String> authorityNames(Authentication authentication) {
+        Set<String> names = new HashSet<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            names.add(authority.getAuthority());
+        }
+        return names;
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ConfigurableObjectInputStream(
+                new ByteArrayInputStream(data), SessionAttributeCodec.class.getClassLoader())) {
+            return in.readObject();
+        }
+    }
+}
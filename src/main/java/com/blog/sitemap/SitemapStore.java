@@ -0,0 +1,248 @@
+package com.blog.sitemap;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 站点地图文件
+ *
+ * 目录下包含索引文件sitemap.xml和若干gzip压缩的分片sitemap-{序号}.xml.gz。
+ * 分片按博客ID区间划分，序号为k的分片包含ID在 (k * 分片容量, (k + 1) * 分片容量] 的已发布博客，
+ * 某篇博客变化时只需重写它所在的分片和索引。
+ * 所有文件先写临时文件再原子替换，爬虫不会读到写了一半的文件。
+ */
+public class SitemapStore {
+
+    public static final String INDEX_FILE = "sitemap.xml";
+
+    private static final String NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    private static final Pattern CHUNK_FILE = Pattern.compile("sitemap-(\\d+)\\.xml\\.gz");
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final Path directory;
+
+    private final String baseUrl;
+
+    private final ZoneId zone;
+
+    /**
+     * @param directory 文件目录
+     * @param baseUrl 站点根地址（不以/结尾）
+     * @param zone 更新时间所在时区
+     */
+    public SitemapStore(Path directory, String baseUrl, ZoneId zone) {
+        this.directory = directory;
+        this.baseUrl = baseUrl;
+        this.zone = zone;
+    }
+
+    /**
+     * 分片写出结果
+     */
+    public static class ChunkInfo {
+        private final int urlCount;
+        private final LocalDateTime lastModified;
+
+        public ChunkInfo(int urlCount, LocalDateTime lastModified) {
+            this.urlCount = urlCount;
+            this.lastModified = lastModified;
+        }
+
+        public int getUrlCount() {
+            return urlCount;
+        }
+
+        public LocalDateTime getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * 开始写一个分片，逐条add后commit
+     */
+    public ChunkWriter openChunk(int chunk) throws IOException {
+        Files.createDirectories(directory);
+        return new ChunkWriter(chunkPath(chunk));
+    }
+
+    /**
+     * 删除分片（区间内已没有已发布博客）
+     */
+    public void deleteChunk(int chunk) throws IOException {
+        Files.deleteIfExists(chunkPath(chunk));
+    }
+
+    /**
+     * 删除不在给定集合中的分片文件，用于全量重建后清理
+     */
+    public void retainChunks(Map<Integer, ChunkInfo> chunks) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "sitemap-*.xml.gz")) {
+            for (Path file : files) {
+                Matcher matcher = CHUNK_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches() && !chunks.containsKey(Integer.parseInt(matcher.group(1)))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * 重写索引文件
+     * @param chunks 分片序号 -> 分片信息，按序号升序
+     */
+    public void writeIndex(Map<Integer, ChunkInfo> chunks) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve(INDEX_FILE);
+        Path temp = path.resolveSibling(INDEX_FILE + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("sitemapindex");
+            xml.writeDefaultNamespace(NS);
+            for (Map.Entry<Integer, ChunkInfo> entry : chunks.entrySet()) {
+                xml.writeStartElement("sitemap");
+                element(xml, "loc", baseUrl + "/sitemaps/" + chunkFileName(entry.getKey()));
+                if (entry.getValue().getLastModified() != null) {
+                    element(xml, "lastmod", w3cTime(entry.getValue().getLastModified()));
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("写入站点地图索引失败", e);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 解析对外提供的文件名，不是索引或分片文件名时返回null
+     */
+    public Path resolve(String fileName) {
+        if (INDEX_FILE.equals(fileName) || CHUNK_FILE.matcher(fileName).matches()) {
+            return directory.resolve(fileName);
+        }
+        return null;
+    }
+
+    private Path chunkPath(int chunk) {
+        return directory.resolve(chunkFileName(chunk));
+    }
+
+    private static String chunkFileName(int chunk) {
+        return "sitemap-" + chunk + ".xml.gz";
+    }
+
+    private String w3cTime(LocalDateTime time) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time.atZone(zone).withNano(0));
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    /**
+     * 单个分片的流式写入器，未commit就close时丢弃临时文件
+     */
+    public class ChunkWriter implements AutoCloseable {
+
+        private final Path path;
+
+        private final Path temp;
+
+        private final OutputStream out;
+
+        private final XMLStreamWriter xml;
+
+        private int urlCount;
+
+        private LocalDateTime lastModified;
+
+        private boolean committed;
+
+        private ChunkWriter(Path path) throws IOException {
+            this.path = path;
+            this.temp = path.resolveSibling(path.getFileName() + ".tmp");
+            this.out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), 8192);
+            try {
+                xml = OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+                xml.writeStartDocument("UTF-8", "1.0");
+                xml.writeStartElement("urlset");
+                xml.writeDefaultNamespace(NS);
+            } catch (XMLStreamException e) {
+                out.close();
+                throw new IOException("写入站点地图分片失败: " + path, e);
+            }
+        }
+
+        /**
+         * 写出一篇博客的地址
+         */
+        public void add(long blogId, LocalDateTime updatedAt) throws IOException {
+            try {
+                xml.writeStartElement("url");
+                element(xml, "loc", baseUrl + "/blog/" + blogId);
+                if (updatedAt != null) {
+                    element(xml, "lastmod", w3cTime(updatedAt));
+                    if (lastModified == null || updatedAt.isAfter(lastModified)) {
+                        lastModified = updatedAt;
+                    }
+                }
+                xml.writeEndElement();
+            } catch (XMLStreamException e) {
+                throw new IOException("写入站点地图分片失败: " + path, e);
+            }
+            urlCount++;
+        }
+
+        public int getUrlCount() {
+            return urlCount;
+        }
+
+        /**
+         * 完成写入并替换正式文件
+         */
+        public ChunkInfo commit() throws IOException {
+            try {
+                xml.writeEndDocument();
+                xml.close();
+            } catch (XMLStreamException e) {
+                throw new IOException("写入站点地图分片失败: " + path, e);
+            }
+            out.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return new ChunkInfo(urlCount, lastModified);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.blog.trending;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 按时间衰减的热度排行
+ *
+ * 每篇博客的热度为各事件权重按半衰期指数衰减后的和。内部使用"前向衰减"：
+ * 分数以固定基准时间epoch为参照，事件权重乘以exp(λ(t - epoch))后直接累加，
+ * 所有分数随时间等比例衰减，相对顺序不变，因此无需定时衰减全部分数。
+ * 分数只会因事件而增大，前K名可以增量维护：只有被更新的博客可能进入前K名，
+ * 前K名的成员或次序变化时才重新发布无锁读取的ID数组。
+ * 热度衰减到可忽略的博客由prune定期清理。
+ * 指数过大时整体换算到新的基准时间，防止溢出。
+ */
+public class TrendingEngine {
+
+    private static final double REBASE_EXPONENT = 200;
+
+    private static final double PRUNE_THRESHOLD = 1e-3;
+
+    private final double lambda;
+
+    private final int capacity;
+
+    private long epochMillis;
+
+    private final Map<Long, Double> scores = new HashMap<>();
+
+    private final TreeSet<Entry> top = new TreeSet<>();
+
+    private final Map<Long, Entry> topIndex = new HashMap<>();
+
+    private volatile long[] topIds = new long[0];
+
+    /**
+     * @param halfLifeMillis 半衰期（毫秒）
+     * @param capacity 维护的前K名数量
+     * @param nowMillis 当前时间，作为初始基准时间
+     */
+    public TrendingEngine(long halfLifeMillis, int capacity, long nowMillis) {
+        if (halfLifeMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("半衰期和排行数量必须为正数");
+        }
+        this.lambda = Math.log(2) / halfLifeMillis;
+        this.capacity = capacity;
+        this.epochMillis = nowMillis;
+    }
+
+    /**
+     * 记录一次事件
+     * @param blogId 博客ID
+     * @param weight 事件权重（如浏览1、评论5）
+     * @param timeMillis 事件时间
+     * @return 博客此时是否在前K名中
+     */
+    public synchronized boolean record(long blogId, double weight, long timeMillis) {
+        double exponent = lambda * (timeMillis - epochMillis);
+        if (exponent > REBASE_EXPONENT) {
+            rebase(timeMillis);
+            exponent = 0;
+        }
+        Double current = scores.get(blogId);
+        double score = (current != null ? current : 0) + weight * Math.exp(exponent);
+        scores.put(blogId, score);
+        if (offer(blogId, score)) {
+            publishTop();
+        }
+        return topIndex.containsKey(blogId);
+    }
+
+    /**
+     * 移除博客（删除或取消发布时），前K名出缺时从其余博客中补位
+     */
+    public synchronized void remove(long blogId) {
+        scores.remove(blogId);
+        Entry entry = topIndex.remove(blogId);
+        if (entry == null) {
+            return;
+        }
+        top.remove(entry);
+        Map.Entry<Long, Double> best = null;
+        for (Map.Entry<Long, Double> candidate : scores.entrySet()) {
+            if (!topIndex.containsKey(candidate.getKey())
+                    && (best == null || candidate.getValue() > best.getValue())) {
+                best = candidate;
+            }
+        }
+        if (best != null) {
+            insert(best.getKey(), best.getValue());
+        }
+        publishTop();
+    }
+
+    /**
+     * 当前前K名的博客ID（按热度降序），不加锁，O(K)
+     */
+    public List<Long> topIds(int limit) {
+        long[] ids = topIds;
+        int size = Math.min(limit, ids.length);
+        List<Long> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 博客在指定时间的衰减后热度
+     */
+    public synchronized double scoreAt(long blogId, long timeMillis) {
+        Double score = scores.get(blogId);
+        return score != null ? score * Math.exp(-lambda * (timeMillis - epochMillis)) : 0;
+    }
+
+    /**
+     * 清理指定时间热度已可忽略且不在前K名中的博客
+     * @return 清理的博客数
+     */
+    public synchronized int prune(long timeMillis) {
+        double threshold = PRUNE_THRESHOLD * Math.exp(lambda * (timeMillis - epochMillis));
+        int pruned = 0;
+        Iterator<Map.Entry<Long, Double>> iterator = scores.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Double> entry = iterator.next();
+            if (entry.getValue() < threshold && !topIndex.containsKey(entry.getKey())) {
+                iterator.remove();
+                pruned++;
+            }
+        }
+        return pruned;
+    }
+
+    /**
+     * 导出指定时间的全部热度（已衰减到该时间），用于持久化快照
+     */
+    public synchronized Map<Long, Double> snapshot(long timeMillis) {
+        double factor = Math.exp(-lambda * (timeMillis - epochMillis));
+        Map<Long, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            result.put(entry.getKey(), entry.getValue() * factor);
+        }
+        return result;
+    }
+
+    /**
+     * 从快照恢复，快照中的热度视为snapshotMillis时刻的值
+     */
+    public synchronized void restore(Map<Long, Double> snapshot, long snapshotMillis) {
+        scores.clear();
+        top.clear();
+        topIndex.clear();
+        epochMillis = snapshotMillis;
+        for (Map.Entry<Long, Double> entry : snapshot.entrySet()) {
+            scores.put(entry.getKey(), entry.getValue());
+            offer(entry.getKey(), entry.getValue());
+        }
+        publishTop();
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return scores.isEmpty();
+    }
+
+    /**
+     * 用新的分数更新前K名
+     * @return 前K名的成员或次序是否变化
+     */
+    private boolean offer(long blogId, double score) {
+        Entry existing = topIndex.get(blogId);
+        if (existing != null) {
+            // 分数只增不减，只有超过排在前面的条目时次序才变化
+            Entry previous = top.lower(existing);
+            top.remove(existing);
+            existing.score = score;
+            top.add(existing);
+            return top.lower(existing) != previous;
+        } else if (top.size() < capacity) {
+            insert(blogId, score);
+            return true;
+        } else if (score > top.last().score) {
+            Entry evicted = top.pollLast();
+            topIndex.remove(evicted.blogId);
+            insert(blogId, score);
+            return true;
+        }
+        return false;
+    }
+
+    private void insert(long blogId, double score) {
+        Entry entry = new Entry(blogId, score);
+        top.add(entry);
+        topIndex.put(blogId, entry);
+    }
+
+    /**
+     * 换算到新的基准时间：所有分数等比例缩小，排序不变
+     */
+    private void rebase(long newEpochMillis) {
+        double factor = Math.exp(-lambda * (newEpochMillis - epochMillis));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            entry.setValue(entry.getValue() * factor);
+        }
+        // 舍入可能改变相等分数的次序，重建有序集合
+        List<Entry> entries = new ArrayList<>(top);
+        top.clear();
+        for (Entry entry : entries) {
+            entry.score *= factor;
+            top.add(entry);
+        }
+        epochMillis = newEpochMillis;
+    }
+
+    private void publishTop() {
+        long[] ids = new long[top.size()];
+        int i = 0;
+        for (Entry entry : top) {
+            ids[i++] = entry.blogId;
+        }
+        topIds = ids;
+    }
+
+    /**
+     * 前K名中的条目，按热度降序、ID升序排列
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final long blogId;
+        private double score;
+
+        private Entry(long blogId, double score) {
+            this.blogId = blogId;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Long.compare(blogId, other.blogId);
+        }
+    }
+}
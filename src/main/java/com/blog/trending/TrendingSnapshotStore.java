@@ -0,0 +1,127 @@
+package com.blog.trending;
+
+import com.blog.dto.TrendingBlogDto;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 热度快照文件
+ *
+ * 保存快照时刻的衰减后热度以及排行展示所需的博客信息，重启后据此恢复排行。
+ * 先写临时文件再原子替换，避免写到一半时进程退出留下损坏的快照。
+ */
+public class TrendingSnapshotStore {
+
+    private static final int MAGIC = 0x54524e44; // "TRND"
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Path path;
+
+    public TrendingSnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * 快照内容
+     */
+    public static class Snapshot {
+        private final long timeMillis;
+        private final Map<Long, Double> scores;
+        private final Map<Long, TrendingBlogDto> blogs;
+
+        public Snapshot(long timeMillis, Map<Long, Double> scores, Map<Long, TrendingBlogDto> blogs) {
+            this.timeMillis = timeMillis;
+            this.scores = scores;
+            this.blogs = blogs;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        public Map<Long, Double> getScores() {
+            return scores;
+        }
+
+        public Map<Long, TrendingBlogDto> getBlogs() {
+            return blogs;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 写入快照
+     */
+    public void write(Snapshot snapshot) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(snapshot.getTimeMillis());
+            out.writeInt(snapshot.getScores().size());
+            for (Map.Entry<Long, Double> entry : snapshot.getScores().entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeDouble(entry.getValue());
+                TrendingBlogDto blog = snapshot.getBlogs().get(entry.getKey());
+                out.writeBoolean(blog != null);
+                if (blog != null) {
+                    out.writeUTF(blog.getTitle());
+                    out.writeUTF(blog.getAuthorName());
+                    out.writeLong(blog.getCreatedAt() != null
+                            ? blog.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1);
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 读取快照，文件不存在时返回null
+     */
+    public Snapshot read() throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION) {
+                throw new IOException("无法识别的热度快照格式: " + path);
+            }
+            long timeMillis = in.readLong();
+            int count = in.readInt();
+            Map<Long, Double> scores = new LinkedHashMap<>();
+            Map<Long, TrendingBlogDto> blogs = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                long blogId = in.readLong();
+                scores.put(blogId, in.readDouble());
+                if (in.readBoolean()) {
+                    String title = in.readUTF();
+                    String authorName = in.readUTF();
+                    long createdAt = in.readLong();
+                    blogs.put(blogId, new TrendingBlogDto(blogId, title, authorName, createdAt < 0 ? null
+                            : LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneId.systemDefault())));
+                }
+            }
+            return new Snapshot(timeMillis, scores, blogs);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.blog.upload;
+
+/**
+ * HTTP Range请求中的单个字节区间（含两端）
+ *
+ * 只支持单个区间；多个区间按规范可以忽略，返回完整内容。
+ */
+public final class ByteRange {
+
+    /**
+     * 区间超出文件长度，应返回416
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private final long start;
+
+    private final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * 解析Range请求头
+     * @return 区间；没有Range头、格式不支持或包含多个区间时返回null；无法满足时返回UNSATISFIABLE
+     */
+    public static ByteRange parse(String header, long length) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // bytes=-n 表示最后n个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length || end < start) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 完整内容对应的区间
+     */
+    public static ByteRange full(long length) {
+        return new ByteRange(0, length - 1);
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+}
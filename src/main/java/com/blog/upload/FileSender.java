@@ -0,0 +1,58 @@
+package com.blog.upload;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 把文件区间写入响应
+ *
+ * 连接器支持sendfile时（Tomcat NIO未启用TLS）只设置请求属性，由Tomcat在请求处理结束后用
+ * FileChannel.transferTo直接从页缓存写到socket；否则用FileChannel.transferTo写入响应输出流，
+ * 同样不经过应用层的字节数组循环。
+ */
+public final class FileSender {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileSender() {
+    }
+
+    /**
+     * 发送文件的[start, end]区间，调用前应已设置状态码和其他响应头
+     */
+    public static void send(Path file, ByteRange range, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(range.getLength());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.getStart());
+            request.setAttribute(SENDFILE_END, range.getEnd() + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.getStart();
+            long remaining = range.getLength();
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+}
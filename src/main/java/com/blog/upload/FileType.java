@@ -0,0 +1,96 @@
+package com.blog.upload;
+
+import java.util.Locale;
+
+/**
+ * 按文件头（魔数）识别的上传文件类型
+ *
+ * 只信任文件内容，不看客户端给出的文件名和Content-Type。docx是zip容器，只能校验到zip文件头；
+ * SVG等可能包含脚本的类型不在支持范围内。
+ */
+public enum FileType {
+
+    JPEG("jpg", "image/jpeg", true, new int[]{0xFF, 0xD8, 0xFF}),
+    PNG("png", "image/png", true, new int[]{0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}),
+    GIF("gif", "image/gif", true, new int[]{'G', 'I', 'F', '8'}),
+    WEBP("webp", "image/webp", true, new int[]{'R', 'I', 'F', 'F', -1, -1, -1, -1, 'W', 'E', 'B', 'P'}),
+    PDF("pdf", "application/pdf", true, new int[]{'%', 'P', 'D', 'F', '-'}),
+    DOC("doc", "application/msword", false, new int[]{0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1}),
+    DOCX("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document", false,
+            new int[]{'P', 'K', 0x03, 0x04});
+
+    /**
+     * 识别需要读取的文件头字节数
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private final String extension;
+
+    private final String contentType;
+
+    private final boolean inline;
+
+    private final int[] signature;
+
+    FileType(String extension, String contentType, boolean inline, int[] signature) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.inline = inline;
+        this.signature = signature;
+    }
+
+    /**
+     * 按文件头识别类型，无法识别时返回null
+     */
+    public static FileType detect(byte[] header, int length) {
+        for (FileType type : values()) {
+            if (type.matches(header, length)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按扩展名查找类型（jpeg等同于jpg），不支持时返回null
+     */
+    public static FileType fromExtension(String extension) {
+        String normalized = extension.trim().toLowerCase(Locale.ROOT);
+        if ("jpeg".equals(normalized)) {
+            normalized = "jpg";
+        }
+        for (FileType type : values()) {
+            if (type.extension.equals(normalized)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (signature[i] >= 0 && (header[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 浏览器可以直接显示的类型（图片和PDF），其他类型以附件形式下载
+     */
+    public boolean isInline() {
+        return inline;
+    }
+}
@@ -0,0 +1,49 @@
+package com.blog.upload;
+
+/**
+ * 上传结果：文件按内容的SHA-256存储，相同内容只存一份
+ */
+public class StoredUpload {
+
+    private final String hash;
+
+    private final FileType type;
+
+    private final long size;
+
+    private final boolean duplicate;
+
+    public StoredUpload(String hash, FileType type, long size, boolean duplicate) {
+        this.hash = hash;
+        this.type = type;
+        this.size = size;
+        this.duplicate = duplicate;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public FileType getType() {
+        return type;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 相同内容之前已上传过，本次没有写入新文件
+     */
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    public String getFileName() {
+        return hash + "." + type.getExtension();
+    }
+
+    public String getUrl() {
+        return "/uploads/" + getFileName();
+    }
+}
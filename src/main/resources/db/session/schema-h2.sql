@@ -0,0 +1,13 @@
+-- 共享会话表（H2），MySQL版本见 schema-mysql.sql
+CREATE TABLE IF NOT EXISTS blog_sessions (
+    session_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    principal_name VARCHAR(100),
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INT NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    attributes BLOB
+);
+
+CREATE INDEX IF NOT EXISTS idx_blog_sessions_principal ON blog_sessions (principal_name);
+CREATE INDEX IF NOT EXISTS idx_blog_sessions_expiry ON blog_sessions (expiry_time);
@@ -0,0 +1,12 @@
+-- 共享会话表（MySQL）
+CREATE TABLE IF NOT EXISTS blog_sessions (
+    session_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    principal_name VARCHAR(100),
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INT NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    attributes MEDIUMBLOB,
+    INDEX idx_principal_name (principal_name),
+    INDEX idx_expiry_time (expiry_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
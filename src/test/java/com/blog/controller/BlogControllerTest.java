@@ -0,0 +1,113 @@
+package com.blog.controller;
+
+import com.blog.config.CustomUserDetails;
+import com.blog.datasource.StatementBudget;
+import com.blog.dto.BlogDto;
+import com.blog.dto.CommentDto;
+import com.blog.entity.Blog;
+import com.blog.entity.User;
+import com.blog.repository.UserRepository;
+import com.blog.service.BlogService;
+import com.blog.service.CommentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+/**
+ * 博客详情页和编辑页
+ *
+ * 测试环境与生产一样关闭open-in-view，页面数据必须在服务层事务内加载完毕。
+ * 请求经过JdbcAccountingFilter，SQL语句预算包括视图渲染期间的懒加载。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BlogControllerTest {
+
+    // 实测4条：博客连同作者和正文（评论数为子查询）、标签、更新浏览量、评论连同评论者和博客
+    private static final int DETAIL_BUDGET = 4;
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private CommentService commentService;
+
+    private User author;
+
+    private Blog blog;
+
+    @BeforeEach
+    void setUp() {
+        int n = SEQ.incrementAndGet();
+        author = userRepository.save(new User("detail_author" + n, "detail_author" + n + "@example.com", "secret"));
+        User reader = userRepository.save(new User("detail_reader" + n, "detail_reader" + n + "@example.com", "secret"));
+
+        BlogDto dto = new BlogDto("详情页测试" + n, "懒加载的正文内容");
+        dto.setTags("java,spring");
+        blog = blogService.createBlog(dto, author.getId());
+        for (int i = 0; i < 3; i++) {
+            commentService.addComment(blog.getId(), new CommentDto("评论" + i), reader.getId());
+        }
+    }
+
+    @Test
+    void detailPageRendersContent() throws Exception {
+        mockMvc.perform(get("/blog/" + blog.getId()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("blog/blog-detail"))
+                .andExpect(content().string(containsString("懒加载的正文内容")));
+    }
+
+    @Test
+    void editPageRendersContentForAuthor() throws Exception {
+        mockMvc.perform(get("/blog/" + blog.getId() + "/edit").with(user(new CustomUserDetails(author))))
+                .andExpect(status().isOk())
+                .andExpect(view().name("blog/create-blog"))
+                .andExpect(content().string(containsString("懒加载的正文内容")));
+    }
+
+    @Test
+    void detailPageStaysWithinStatementBudget() throws Exception {
+        mockMvc.perform(get("/blog/" + blog.getId()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("blog/blog-detail"))
+                .andExpect(result -> StatementBudget.assertWithin(result.getRequest(), DETAIL_BUDGET));
+    }
+
+    @Test
+    void commentCountDoesNotChangeStatementCount() throws Exception {
+        int before = StatementBudget.assertWithin(
+                mockMvc.perform(get("/blog/" + blog.getId())).andReturn().getRequest(), DETAIL_BUDGET).getStatements();
+
+        User reader = userRepository.save(new User("detail_more" + SEQ.incrementAndGet(), "detail_more" + SEQ.get() + "@example.com", "secret"));
+        for (int i = 0; i < 10; i++) {
+            commentService.addComment(blog.getId(), new CommentDto("更多评论" + i), reader.getId());
+        }
+
+        // 评论及其作者一次查询取出，评论数量不应带来N+1
+        StatementBudget.assertWithin(
+                mockMvc.perform(get("/blog/" + blog.getId())).andReturn().getRequest(), before);
+    }
+}
@@ -0,0 +1,107 @@
+package com.blog.controller;
+
+import com.blog.service.UploadService;
+import com.blog.upload.StoredUpload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 上传文件的条件请求和Range请求
+ *
+ * 请求经过完整的过滤器链（包括XssFilter），验证ETag等协议请求头不会被转义。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UploadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UploadService uploadService;
+
+    private byte[] bytes;
+
+    private StoredUpload upload;
+
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bytes = new byte[1000];
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        System.arraycopy(signature, 0, bytes, 0, signature.length);
+        for (int i = signature.length; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        upload = uploadService.store(new MockMultipartFile("file", "test.png", "image/png", bytes));
+        etag = "\"" + upload.getHash() + "\"";
+    }
+
+    @Test
+    void servesFileWithValidators() throws Exception {
+        mockMvc.perform(get(upload.getUrl()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() throws Exception {
+        mockMvc.perform(get(upload.getUrl()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void rangeWithMatchingIfRangeReturnsPartialContent() throws Exception {
+        mockMvc.perform(get(upload.getUrl())
+                        .header(HttpHeaders.RANGE, "bytes=100-199")
+                        .header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 100, 200)));
+    }
+
+    @Test
+    void rangeWithStaleIfRangeReturnsFullContent() throws Exception {
+        mockMvc.perform(get(upload.getUrl())
+                        .header(HttpHeaders.RANGE, "bytes=100-199")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void unsatisfiableRangeReturns416() throws Exception {
+        mockMvc.perform(get(upload.getUrl()).header(HttpHeaders.RANGE, "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"));
+    }
+
+    @Test
+    void unknownFileReturns404() throws Exception {
+        char[] zeros = new char[64];
+        Arrays.fill(zeros, '0');
+        mockMvc.perform(get("/uploads/" + new String(zeros) + ".png"))
+                .andExpect(status().isNotFound());
+    }
+}
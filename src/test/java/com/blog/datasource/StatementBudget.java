@@ -0,0 +1,56 @@
+package com.blog.datasource;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.Callable;
+
+/**
+ * SQL语句预算断言，超出预算时抛出AssertionError
+ *
+ * 控制器测试（MockMvc会经过JdbcAccountingFilter），见BlogControllerTest：
+ *   mockMvc.perform(get("/blog/1")).andExpect(result -> StatementBudget.assertWithin(result.getRequest(), 10));
+ * 服务测试：
+ *   StatementBudget.assertWithin(5, () -> blogService.getBlogById(1L));
+ *
+ * 需要数据源经过AccountingDataSource包装（blog.jdbc-accounting.enabled，默认开启）。
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    /**
+     * 断言一次请求执行的SQL语句数不超过maxStatements
+     * @return 本次请求的统计
+     */
+    public static JdbcStats assertWithin(HttpServletRequest request, int maxStatements) {
+        JdbcStats stats = (JdbcStats) request.getAttribute(JdbcStats.REQUEST_ATTRIBUTE);
+        if (stats == null) {
+            throw new AssertionError("请求中没有SQL统计，请确认JdbcAccountingFilter已注册: " + request.getRequestURI());
+        }
+        check(request.getMethod() + " " + request.getRequestURI(), stats, maxStatements);
+        return stats;
+    }
+
+    /**
+     * 在当前线程执行action，断言执行的SQL语句数不超过maxStatements
+     * @return action的返回值
+     */
+    public static <T> T assertWithin(int maxStatements, Callable<T> action) throws Exception {
+        JdbcStats stats = JdbcStats.begin();
+        T result;
+        try {
+            result = action.call();
+        } finally {
+            JdbcStats.end(stats);
+        }
+        check("代码块", stats, maxStatements);
+        return result;
+    }
+
+    private static void check(String subject, JdbcStats stats, int maxStatements) {
+        if (stats.getStatements() > maxStatements) {
+            throw new AssertionError(String.format("%s 执行了 %d 条SQL，超出预算 %d（读取 %d 行，JDBC耗时 %dms）",
+                    subject, stats.getStatements(), maxStatements, stats.getRows(), stats.getJdbcMillis()));
+        }
+    }
+}
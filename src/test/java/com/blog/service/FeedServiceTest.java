@@ -0,0 +1,60 @@
+package com.blog.service;
+
+import com.blog.dto.BlogDto;
+import com.blog.entity.User;
+import com.blog.feed.CachedFeed;
+import com.blog.feed.FeedFormat;
+import com.blog.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 订阅源缓存
+ *
+ * 测试环境的H2按大小写区分标签名，只差大小写的标签是两个订阅源，不能共用缓存条目。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FeedServiceTest {
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void tagFeedsDifferingOnlyInCaseAreCachedSeparately() {
+        User author = userRepository.save(new User("feed_author", "feed_author@example.com", "secret"));
+        BlogDto upper = new BlogDto("UpperCaseTagPost", "正文");
+        upper.setTags("FeedCase");
+        blogService.createBlog(upper, author.getId());
+        BlogDto lower = new BlogDto("LowerCaseTagPost", "正文");
+        lower.setTags("feedcase");
+        blogService.createBlog(lower, author.getId());
+
+        String first = body(feedService.getFeed(FeedService.Scope.TAG, "FeedCase", FeedFormat.RSS));
+        assertTrue(first.contains("UpperCaseTagPost"));
+        assertFalse(first.contains("LowerCaseTagPost"));
+
+        String second = body(feedService.getFeed(FeedService.Scope.TAG, "feedcase", FeedFormat.RSS));
+        assertTrue(second.contains("LowerCaseTagPost"));
+        assertFalse(second.contains("UpperCaseTagPost"));
+    }
+
+    private static String body(CachedFeed feed) {
+        assertNotNull(feed);
+        return new String(feed.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,118 @@
+package com.blog.service;
+
+import com.blog.dto.BlogDto;
+import com.blog.dto.CommentDto;
+import com.blog.entity.Blog;
+import com.blog.entity.User;
+import com.blog.export.ExportStats;
+import com.blog.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 静态站点导出
+ *
+ * 导出页面由StaticPageRenderer在请求之外用代理的请求和响应渲染，
+ * 这里把导出的详情页和首页与匿名访客在线访问的同一页面比较：链接一致，只包含匿名访客可见的区块。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StaticExportServiceTest {
+
+    private static final Path EXPORT_DIR = createTempDirectory();
+
+    private static final Pattern LINK = Pattern.compile("(?:href|src|action)=\"([^\"]*)\"");
+
+    @DynamicPropertySource
+    static void exportPath(DynamicPropertyRegistry registry) {
+        registry.add("blog.static-export.path", EXPORT_DIR::toString);
+    }
+
+    @Autowired
+    private StaticExportService staticExportService;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportedPagesMatchAnonymousOnlinePages() throws Exception {
+        User author = userRepository.save(new User("export_author", "export_author@example.com", "secret"));
+        BlogDto dto = new BlogDto("静态导出测试", "静态导出的正文");
+        dto.setTags("export");
+        Blog blog = blogService.createBlog(dto, author.getId());
+        commentService.addComment(blog.getId(), new CommentDto("静态导出的评论"), author.getId());
+
+        ExportStats stats = staticExportService.rebuildAll(1);
+        assertEquals(0, stats.getFailures());
+
+        String index = read("index.html");
+        assertTrue(index.contains("href=\"/blog/" + blog.getId() + "\""));
+        assertTrue(index.contains("href=\"/register\""));
+        assertFalse(index.contains("href=\"/my-blogs\""));
+        assertEquals(links(online("/")), links(index));
+
+        String detail = read("blog/" + blog.getId() + ".html");
+        assertTrue(detail.contains("静态导出的正文"));
+        assertTrue(detail.contains("静态导出的评论"));
+        assertTrue(detail.contains("后即可发表评论"));
+        assertFalse(detail.contains("action=\"/blog/" + blog.getId() + "/comment\""));
+        assertFalse(detail.contains("href=\"/blog/create\""));
+        assertEquals(links(online("/blog/" + blog.getId())), links(detail));
+    }
+
+    private String online(String path) throws Exception {
+        return mockMvc.perform(get(path)).andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> links(String html) {
+        List<String> links = new ArrayList<>();
+        Matcher matcher = LINK.matcher(html);
+        while (matcher.find()) {
+            links.add(matcher.group(1));
+        }
+        return links;
+    }
+
+    private static String read(String relativePath) throws IOException {
+        return new String(Files.readAllBytes(EXPORT_DIR.resolve(relativePath)), StandardCharsets.UTF_8);
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("static-export-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
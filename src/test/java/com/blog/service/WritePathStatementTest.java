@@ -0,0 +1,147 @@
+package com.blog.service;
+
+import com.blog.datasource.StatementBudget;
+import com.blog.dto.BlogDto;
+import com.blog.dto.CommentDto;
+import com.blog.entity.Blog;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+import com.blog.repository.BlogRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 写路径的SQL语句数
+ *
+ * 创建、更新和评论在外层事务中执行并在统计范围内flush，只统计写事务本身的语句；
+ * 提交后的事件监听器（搜索、推荐、订阅缓存等）不计入。
+ * 删除博客不加入外层事务，分批提交，统计整个调用。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WritePathStatementTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private int n;
+
+    private User author;
+
+    private User reader;
+
+    private String existingTag;
+
+    @BeforeEach
+    void setUp() {
+        n = SEQ.incrementAndGet();
+        author = userRepository.save(new User("write_author" + n, "write_author" + n + "@example.com", "secret"));
+        reader = userRepository.save(new User("write_reader" + n, "write_reader" + n + "@example.com", "secret"));
+        existingTag = "existing" + n;
+        tagRepository.save(new Tag(existingTag));
+    }
+
+    @Test
+    void createBlog() throws Exception {
+        BlogDto dto = new BlogDto("创建" + n, "正文");
+        dto.setTags(existingTag + ",new" + n);
+
+        // 每个标签一次查询（2），新标签INSERT（1），blog_content和blogs各一次INSERT（2），blog_tags每个标签一次INSERT（2）
+        Blog blog = inWriteTransaction(7, () -> blogService.createBlog(dto, author.getId()));
+
+        assertTrue(blogRepository.existsById(blog.getId()));
+    }
+
+    @Test
+    void updateBlog() throws Exception {
+        BlogDto dto = new BlogDto("更新前" + n, "正文");
+        dto.setTags(existingTag);
+        Blog blog = blogService.createBlog(dto, author.getId());
+
+        BlogDto update = new BlogDto("更新后" + n, "新正文");
+        update.setTags(existingTag);
+
+        // 按作者查博客（1），加载原标签集合（1），标签查询（1），加载正文（1），
+        // UPDATE blogs和blog_content（2），重建blog_tags：DELETE一次、每个标签INSERT一次（2）
+        inWriteTransaction(8, () -> blogService.updateBlog(blog.getId(), update, author.getId()));
+    }
+
+    @Test
+    void addComment() throws Exception {
+        Blog blog = blogService.createBlog(new BlogDto("评论" + n, "正文"), author.getId());
+
+        // 一次INSERT加一次博客存在性检查，博客和用户只取引用
+        inWriteTransaction(2, () -> commentService.addComment(blog.getId(), new CommentDto("评论内容"), reader.getId()));
+    }
+
+    @Test
+    void deleteBlogDoesNotScaleWithComments() throws Exception {
+        Blog blog = blogService.createBlog(new BlogDto("删除" + n, "正文"), author.getId());
+        for (int i = 0; i < 20; i++) {
+            commentService.addComment(blog.getId(), new CommentDto("评论" + i), reader.getId());
+        }
+
+        // 权限检查（1），评论按批取ID并删除、不足一批即停止（2），
+        // 删除剩余评论、取正文ID（2），删除博客时Hibernate先删标签关联（2），删除正文（1）；
+        // 评论不超过一批时与评论数量无关
+        StatementBudget.assertWithin(8, () -> {
+            blogService.deleteBlog(blog.getId(), author.getId());
+            return null;
+        });
+
+        assertFalse(blogRepository.existsById(blog.getId()));
+    }
+
+    /**
+     * 在外层事务中执行action并flush，断言执行的语句数不超过maxStatements，提交在统计之外
+     */
+    private <T> T inWriteTransaction(int maxStatements, Callable<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            try {
+                return StatementBudget.assertWithin(maxStatements, () -> {
+                    T result = action.call();
+                    entityManager.flush();
+                    return result;
+                });
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
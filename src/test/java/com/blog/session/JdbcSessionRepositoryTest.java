@@ -0,0 +1,202 @@
+package com.blog.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 共享会话存储，使用H2内存库和db/session/schema-h2.sql建表
+ */
+class JdbcSessionRepositoryTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("db/session/schema-h2.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        repository = new JdbcSessionRepository(jdbcTemplate, new SessionAttributeCodec());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void savesAndFindsSession() {
+        JdbcSessionRepository.JdbcSession session = repository.createSession();
+        session.setAttribute("cart", Arrays.asList(1L, 2L));
+        session.setAttribute("theme", "dark");
+        session.setMaxInactiveInterval(Duration.ofMinutes(10));
+        repository.save(session);
+
+        JdbcSessionRepository.JdbcSession found = repository.findById(session.getId());
+        assertNotNull(found);
+        assertEquals(Arrays.asList(1L, 2L), found.getAttribute("cart"));
+        assertEquals("dark", found.getAttribute("theme"));
+        assertEquals(new HashSet<>(Arrays.asList("cart", "theme")), found.getAttributeNames());
+        assertEquals(Duration.ofMinutes(10), found.getMaxInactiveInterval());
+        assertEquals(session.getCreationTime().toEpochMilli(), found.getCreationTime().toEpochMilli());
+        assertNull(repository.findById("missing"));
+    }
+
+    @Test
+    void writesOnlyWhenSomethingChanged() {
+        JdbcSessionRepository.JdbcSession session = repository.createSession();
+        session.setAttribute("theme", "dark");
+        repository.save(session);
+
+        // 没有变化，访问时间也未超过touchInterval：不回写
+        JdbcSessionRepository.JdbcSession loaded = repository.findById(session.getId());
+        loaded.setLastAccessedTime(loaded.getLastAccessedTime().plusSeconds(1));
+        repository.save(loaded);
+        assertEquals(1, repository.getCoalescedWrites());
+        assertEquals(session.getLastAccessedTime().toEpochMilli(), lastAccessTime(session.getId()));
+
+        // 属性新增、修改和删除都会落库
+        loaded.setAttribute("locale", "zh_CN");
+        loaded.setAttribute("theme", "light");
+        repository.save(loaded);
+        loaded.removeAttribute("locale");
+        repository.save(loaded);
+        assertEquals(1, repository.getCoalescedWrites());
+
+        JdbcSessionRepository.JdbcSession reloaded = repository.findById(session.getId());
+        assertEquals("light", reloaded.getAttribute("theme"));
+        assertNull(reloaded.getAttribute("locale"));
+        assertEquals(new HashSet<>(Arrays.asList("theme")), reloaded.getAttributeNames());
+    }
+
+    @Test
+    void touchesAccessTimeAfterTouchInterval() {
+        repository.setTouchInterval(Duration.ofSeconds(60));
+        JdbcSessionRepository.JdbcSession session = repository.createSession();
+        repository.save(session);
+
+        JdbcSessionRepository.JdbcSession loaded = repository.findById(session.getId());
+        Instant accessed = loaded.getLastAccessedTime().plusSeconds(61);
+        loaded.setLastAccessedTime(accessed);
+        repository.save(loaded);
+
+        assertEquals(0, repository.getCoalescedWrites());
+        assertEquals(accessed.toEpochMilli(), lastAccessTime(session.getId()));
+    }
+
+    @Test
+    void changeSessionIdMovesTheRow() {
+        JdbcSessionRepository.JdbcSession session = repository.createSession();
+        session.setAttribute("theme", "dark");
+        repository.save(session);
+        String oldId = session.getId();
+
+        JdbcSessionRepository.JdbcSession loaded = repository.findById(oldId);
+        String newId = loaded.changeSessionId();
+        repository.save(loaded);
+
+        assertFalse(oldId.equals(newId));
+        assertNull(repository.findById(oldId));
+        JdbcSessionRepository.JdbcSession moved = repository.findById(newId);
+        assertNotNull(moved);
+        assertEquals("dark", moved.getAttribute("theme"));
+        assertEquals(1, countSessions());
+    }
+
+    @Test
+    void findsSessionsByPrincipalName() {
+        JdbcSessionRepository.JdbcSession indexed = repository.createSession();
+        indexed.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "alice");
+        repository.save(indexed);
+
+        // 未设置索引属性时取安全上下文中的用户名
+        JdbcSessionRepository.JdbcSession authenticated = repository.createSession();
+        authenticated.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                        "alice", null, AuthorityUtils.createAuthorityList("ROLE_USER"))));
+        repository.save(authenticated);
+
+        JdbcSessionRepository.JdbcSession other = repository.createSession();
+        other.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "bob");
+        repository.save(other);
+
+        JdbcSessionRepository.JdbcSession expired = repository.createSession();
+        expired.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "alice");
+        expired.setLastAccessedTime(Instant.now().minus(Duration.ofHours(2)));
+        repository.save(expired);
+
+        Map<String, JdbcSessionRepository.JdbcSession> sessions = repository.findByIndexNameAndIndexValue(
+                FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "alice");
+        assertEquals(new HashSet<>(Arrays.asList(indexed.getId(), authenticated.getId())), sessions.keySet());
+        assertTrue(repository.findByIndexNameAndIndexValue("other-index", "alice").isEmpty());
+    }
+
+    @Test
+    void expiredSessionIsDeletedOnRead() {
+        JdbcSessionRepository.JdbcSession session = repository.createSession();
+        session.setLastAccessedTime(Instant.now().minus(Duration.ofHours(2)));
+        repository.save(session);
+
+        assertNull(repository.findById(session.getId()));
+        assertEquals(0, countSessions());
+    }
+
+    @Test
+    void cleanupDeletesExpiredSessionsInBatches() {
+        repository.setCleanupBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            JdbcSessionRepository.JdbcSession expired = repository.createSession();
+            expired.setLastAccessedTime(Instant.now().minus(Duration.ofHours(2)));
+            repository.save(expired);
+        }
+        JdbcSessionRepository.JdbcSession live = repository.createSession();
+        repository.save(live);
+        JdbcSessionRepository.JdbcSession eternal = repository.createSession();
+        eternal.setMaxInactiveInterval(Duration.ofSeconds(-1));
+        eternal.setLastAccessedTime(Instant.now().minus(Duration.ofDays(30)));
+        repository.save(eternal);
+
+        assertEquals(5, repository.cleanupExpiredSessions());
+        assertEquals(2, countSessions());
+        assertNotNull(repository.findById(live.getId()));
+        assertNotNull(repository.findById(eternal.getId()));
+        assertEquals(0, repository.cleanupExpiredSessions());
+    }
+
+    private long lastAccessTime(String sessionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT last_access_time FROM blog_sessions WHERE session_id = ?", Long.class, sessionId);
+    }
+
+    private int countSessions() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM blog_sessions", Integer.class);
+    }
+}